@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.e4.ui.css.core.dom;
 
+import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
 /**
@@ -19,4 +20,36 @@ import org.w3c.dom.NodeList;
  */
 public interface ChildVisibilityAwareElement {
 	NodeList getVisibleChildNodes();
+
+	/**
+	 * Return whether the given child node is currently visible and should be
+	 * styled. Implementations are encouraged to override the default, which
+	 * scans {@link #getVisibleChildNodes()}.
+	 *
+	 * @param child
+	 *            a child node of this element
+	 * @return true if the child should be styled
+	 */
+	default boolean isChildVisible(Node child) {
+		NodeList l = getVisibleChildNodes();
+		if (l != null) {
+			for (int i = 0; i < l.getLength(); i++) {
+				if (l.item(i) == child) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Called by the engine when styles were requested for a child node that is
+	 * not visible. The element is responsible for styling the child once it
+	 * becomes visible.
+	 *
+	 * @param child
+	 *            the child node whose styles were not applied
+	 */
+	default void onChildStylesDeferred(Node child) {
+	}
 }
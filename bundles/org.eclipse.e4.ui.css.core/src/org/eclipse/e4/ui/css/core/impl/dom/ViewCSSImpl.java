@@ -16,6 +16,7 @@ package org.eclipse.e4.ui.css.core.impl.dom;
 import java.util.ArrayList;
 import java.util.List;
 import org.eclipse.e4.ui.css.core.dom.ExtendedCSSRule;
+import org.eclipse.e4.ui.css.core.impl.engine.CSSEngineStatistics;
 import org.eclipse.e4.ui.css.core.impl.sac.ExtendedSelector;
 import org.w3c.css.sac.Selector;
 import org.w3c.css.sac.SelectorList;
@@ -38,6 +39,8 @@ public class ViewCSSImpl implements ViewCSS {
 
 	protected DocumentCSS documentCSS;
 
+	private CSSEngineStatistics statistics;
+
 	/**
 	 * Creates a new ViewCSS.
 	 */
@@ -45,6 +48,16 @@ public class ViewCSSImpl implements ViewCSS {
 		this.documentCSS = documentCSS;
 	}
 
+	/**
+	 * Set the statistics recording the selector match attempts.
+	 *
+	 * @param statistics
+	 *            the statistics, or <code>null</code> to stop recording
+	 */
+	public void setStatistics(CSSEngineStatistics statistics) {
+		this.statistics = statistics;
+	}
+
 	/**
 	 * <b>DOM</b>: Implements {@link
 	 * org.w3c.dom.views.AbstractView#getDocument()}.
@@ -96,7 +109,7 @@ public class ViewCSSImpl implements ViewCSS {
 						Selector selector = selectorList.item(j);
 						if (selector instanceof ExtendedSelector) {
 							ExtendedSelector extendedSelector = (ExtendedSelector) selector;
-							if (extendedSelector.match(elt, pseudoElt)) {
+							if (match(extendedSelector, elt, pseudoElt)) {
 								CSSStyleDeclaration style = styleRule
 										.getStyle();
 								int specificity = extendedSelector
@@ -136,4 +149,14 @@ public class ViewCSSImpl implements ViewCSS {
 		}
 		return null;
 	}
+
+	private boolean match(ExtendedSelector selector, Element elt, String pseudoElt) {
+		if (statistics == null) {
+			return selector.match(elt, pseudoElt);
+		}
+		long start = System.nanoTime();
+		boolean matched = selector.match(elt, pseudoElt);
+		statistics.recordSelectorMatch(selector, matched, System.nanoTime() - start);
+		return matched;
+	}
 }
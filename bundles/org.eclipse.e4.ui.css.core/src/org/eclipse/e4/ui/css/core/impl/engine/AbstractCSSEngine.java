@@ -149,6 +149,8 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 
 	private ResourceRegistryKeyFactory keyFactory;
 
+	private CSSEngineStatistics statistics;
+
 	public AbstractCSSEngine() {
 		this(new DocumentCSSImpl());
 	}
@@ -157,6 +159,9 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		this.documentCSS = documentCSS;
 		this.viewCSS = new ViewCSSImpl(documentCSS);
 		keyFactory = new ResourceRegistryKeyFactory();
+		if (CSSEngineStatistics.isTracingEnabled()) {
+			setStatistics(new CSSEngineStatistics());
+		}
 	}
 
 	/*--------------- Parse style sheet -----------------*/
@@ -369,6 +374,10 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		Element elt = getElement(element);
 		if (elt != null) {
 			if (!isVisible(elt)) {
+				Node parentNode = elt.getParentNode();
+				if (parentNode instanceof ChildVisibilityAwareElement) {
+					((ChildVisibilityAwareElement) parentNode).onChildStylesDeferred(elt);
+				}
 				return;
 			}
 
@@ -447,7 +456,9 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 
 	/**
 	 * Allow the CSS engine to skip particular elements if they are not visible.
-	 * Elements need to be restyled when they become visible.
+	 * Elements need to be restyled when they become visible: the parent
+	 * {@link ChildVisibilityAwareElement} is notified of skipped children
+	 * through {@link ChildVisibilityAwareElement#onChildStylesDeferred(Node)}.
 	 *
 	 * @param elt
 	 * @return true if the element is visible, false if not visible.
@@ -455,16 +466,7 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 	protected boolean isVisible(Element elt) {
 		Node parentNode = elt.getParentNode();
 		if (parentNode instanceof ChildVisibilityAwareElement) {
-			NodeList l = ((ChildVisibilityAwareElement) parentNode)
-					.getVisibleChildNodes();
-			if (l != null) {
-				for (int i = 0; i < l.getLength(); i++) {
-					if (l.item(i) == elt) {
-						return true;
-					}
-				}
-			}
-			return false;
+			return ((ChildVisibilityAwareElement) parentNode).isChildVisible(elt);
 		}
 		return true;
 	}
@@ -759,9 +761,8 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 			}
 			for (ICSSPropertyHandler handler : handlers) {
 				try {
-					boolean result = handler.applyCSSProperty(element,
-							property,
-							value, pseudo, this);
+					boolean result = applyCSSProperty(handler, element,
+							property, value, pseudo);
 					if (result) {
 						// Add CSS Property to flag that this CSS Property was
 						// applied.
@@ -782,6 +783,21 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		return null;
 	}
 
+	private boolean applyCSSProperty(ICSSPropertyHandler handler, Object element, String property, CSSValue value,
+			String pseudo) throws Exception {
+		if (statistics == null) {
+			return handler.applyCSSProperty(element, property, value, pseudo, this);
+		}
+		long start = System.nanoTime();
+		boolean result = false;
+		try {
+			result = handler.applyCSSProperty(element, property, value, pseudo, this);
+		} finally {
+			statistics.recordPropertyHandler(handler, result, System.nanoTime() - start);
+		}
+		return result;
+	}
+
 	@Override
 	public String retrieveCSSProperty(Object element, String property,
 			String pseudo) {
@@ -980,6 +996,32 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		return false;
 	}
 
+	/*--------------- Statistics -----------------*/
+
+	/**
+	 * Return the statistics collecting the cost of selectors and property
+	 * handlers, if enabled.
+	 *
+	 * @return the statistics or <code>null</code> if not collected
+	 */
+	public CSSEngineStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Start (or stop, with <code>null</code>) collecting the cost of
+	 * selectors and property handlers.
+	 *
+	 * @param statistics
+	 *            the statistics, or <code>null</code>
+	 */
+	public void setStatistics(CSSEngineStatistics statistics) {
+		this.statistics = statistics;
+		if (viewCSS instanceof ViewCSSImpl) {
+			((ViewCSSImpl) viewCSS).setStatistics(statistics);
+		}
+	}
+
 	/*--------------- Error Handler -----------------*/
 
 	/**
@@ -1052,6 +1094,9 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		if (resourcesRegistry != null) {
 			resourcesRegistry.dispose();
 		}
+		if (statistics != null && CSSEngineStatistics.isTracingEnabled()) {
+			statistics.dump(System.out);
+		}
 	}
 
 	@Override
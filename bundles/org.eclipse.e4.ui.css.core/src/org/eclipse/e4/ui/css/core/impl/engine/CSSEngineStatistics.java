@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.css.core.impl.engine;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.e4.ui.css.core.dom.properties.ICSSPropertyHandler;
+import org.w3c.css.sac.Selector;
+
+/**
+ * Collects the cost of selector matching and property handlers while a CSS
+ * engine applies styles, and reports them ranked by total time.
+ * <p>
+ * Statistics are collected when the
+ * <code>org.eclipse.e4.ui.css.core/trace/performance</code> tracing option is
+ * enabled, or when set explicitly on an engine with
+ * {@link AbstractCSSEngine#setStatistics(CSSEngineStatistics)}. This class is
+ * not thread safe; engines are expected to be used from a single thread.
+ * </p>
+ */
+public class CSSEngineStatistics {
+
+	/**
+	 * Tracing option enabling the collection of statistics for every engine.
+	 */
+	public static final String TRACE_PERFORMANCE_OPTION = "org.eclipse.e4.ui.css.core/trace/performance"; //$NON-NLS-1$
+
+	private static final int DEFAULT_REPORT_SIZE = 30;
+
+	/**
+	 * Cost of a single selector or property handler.
+	 */
+	public static class Entry {
+		private final String name;
+
+		private long attempts;
+
+		private long hits;
+
+		private long totalNanos;
+
+		private long maxNanos;
+
+		Entry(String name) {
+			this.name = name;
+		}
+
+		void record(boolean hit, long nanos) {
+			attempts++;
+			if (hit) {
+				hits++;
+			}
+			totalNanos += nanos;
+			if (nanos > maxNanos) {
+				maxNanos = nanos;
+			}
+		}
+
+		/**
+		 * @return the selector text or the property handler class name
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the number of match attempts or handler invocations
+		 */
+		public long getAttempts() {
+			return attempts;
+		}
+
+		/**
+		 * @return the number of matches, or the number of times the handler
+		 *         applied the property
+		 */
+		public long getHits() {
+			return hits;
+		}
+
+		/**
+		 * @return the cumulated time spent, in nanoseconds
+		 */
+		public long getTotalNanos() {
+			return totalNanos;
+		}
+
+		/**
+		 * @return the longest single invocation, in nanoseconds
+		 */
+		public long getMaxNanos() {
+			return maxNanos;
+		}
+	}
+
+	private final Map<String, Entry> selectors = new HashMap<>();
+
+	private final Map<String, Entry> handlers = new HashMap<>();
+
+	/**
+	 * @return <code>true</code> if the performance tracing option is enabled
+	 */
+	public static boolean isTracingEnabled() {
+		return "true".equalsIgnoreCase(Platform.getDebugOption(TRACE_PERFORMANCE_OPTION)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Record a match attempt of a selector.
+	 *
+	 * @param selector
+	 *            the selector
+	 * @param matched
+	 *            whether the element matched
+	 * @param nanos
+	 *            the time spent matching
+	 */
+	public void recordSelectorMatch(Selector selector, boolean matched, long nanos) {
+		getEntry(selectors, String.valueOf(selector)).record(matched, nanos);
+	}
+
+	/**
+	 * Record an invocation of a property handler.
+	 *
+	 * @param handler
+	 *            the handler
+	 * @param applied
+	 *            whether the handler applied the property
+	 * @param nanos
+	 *            the time spent in the handler
+	 */
+	public void recordPropertyHandler(ICSSPropertyHandler handler, boolean applied, long nanos) {
+		getEntry(handlers, handler.getClass().getName()).record(applied, nanos);
+	}
+
+	/**
+	 * @return the selector entries, most expensive first
+	 */
+	public List<Entry> getSelectorEntries() {
+		return sorted(selectors);
+	}
+
+	/**
+	 * @return the property handler entries, most expensive first
+	 */
+	public List<Entry> getPropertyHandlerEntries() {
+		return sorted(handlers);
+	}
+
+	/**
+	 * Forget all the collected statistics.
+	 */
+	public void reset() {
+		selectors.clear();
+		handlers.clear();
+	}
+
+	/**
+	 * Print the most expensive selectors and property handlers.
+	 *
+	 * @param out
+	 *            the stream to print to
+	 */
+	public void dump(PrintStream out) {
+		dump(out, DEFAULT_REPORT_SIZE);
+	}
+
+	/**
+	 * Print the most expensive selectors and property handlers.
+	 *
+	 * @param out
+	 *            the stream to print to
+	 * @param limit
+	 *            the maximum number of entries printed per section
+	 */
+	public void dump(PrintStream out, int limit) {
+		out.println("CSS engine cost report"); //$NON-NLS-1$
+		dumpSection(out, "Selectors (attempts / matches)", getSelectorEntries(), limit); //$NON-NLS-1$
+		dumpSection(out, "Property handlers (calls / applied)", getPropertyHandlerEntries(), limit); //$NON-NLS-1$
+	}
+
+	private static void dumpSection(PrintStream out, String title, List<Entry> entries, int limit) {
+		long total = 0;
+		for (Entry entry : entries) {
+			total += entry.totalNanos;
+		}
+		out.println(String.format("%s: %d entries, %.3f ms total", title, entries.size(), total / 1e6)); //$NON-NLS-1$
+		int count = Math.min(limit, entries.size());
+		for (int i = 0; i < count; i++) {
+			Entry entry = entries.get(i);
+			out.println(String.format("  %10.3f ms  max %8.3f ms  %8d / %-8d %s", //$NON-NLS-1$
+					entry.totalNanos / 1e6, entry.maxNanos / 1e6, entry.attempts, entry.hits, entry.name));
+		}
+	}
+
+	private static Entry getEntry(Map<String, Entry> entries, String name) {
+		Entry entry = entries.get(name);
+		if (entry == null) {
+			entry = new Entry(name);
+			entries.put(name, entry);
+		}
+		return entry;
+	}
+
+	private static List<Entry> sorted(Map<String, Entry> entries) {
+		List<Entry> result = new ArrayList<>(entries.values());
+		result.sort((e1, e2) -> Long.compare(e2.totalNanos, e1.totalNanos));
+		return result;
+	}
+}
@@ -42,11 +42,14 @@ public class CTabFolderElement extends CompositeElement implements ChildVisibili
 	private SelectionListener selectionListener = new SelectionAdapter() {
 		@Override
 		public void widgetSelected(SelectionEvent e) {
-			applyStyles(getWidget(), true);
+			applySelectionStyles();
 		}
 
 	};
 
+	/** the selected item when the selection styles were last applied */
+	private CTabItem selectedItem;
+
 	public CTabFolderElement(CTabFolder tabFolder, CSSEngine engine) {
 		super(tabFolder, engine);
 	}
@@ -54,7 +57,9 @@ public class CTabFolderElement extends CompositeElement implements ChildVisibili
 	@Override
 	public void initialize() {
 		super.initialize();
-		((CTabFolder) getControl()).addSelectionListener(selectionListener);
+		CTabFolder folder = (CTabFolder) getControl();
+		selectedItem = folder.getSelection();
+		folder.addSelectionListener(selectionListener);
 	}
 
 	@Override
@@ -63,6 +68,7 @@ public class CTabFolderElement extends CompositeElement implements ChildVisibili
 		if (ctf != null && !ctf.isDisposed()) {
 			ctf.removeSelectionListener(selectionListener);
 		}
+		selectedItem = null;
 		super.dispose();
 	}
 
@@ -135,8 +141,57 @@ public class CTabFolderElement extends CompositeElement implements ChildVisibili
 		super.reset();
 	}
 
+	/**
+	 * Restyle the previously selected item, the newly selected item and its
+	 * content. The other items and the contents of the unselected tabs are
+	 * not affected by the selection change.
+	 */
+	private void applySelectionStyles() {
+		CTabFolder folder = (CTabFolder) getWidget();
+		CTabItem selection = folder.getSelection();
+		CTabItem previous = selectedItem;
+		selectedItem = selection;
+		if (previous != null && previous != selection && !previous.isDisposed()) {
+			applyStyles(previous, false);
+		}
+		if (selection == null) {
+			return;
+		}
+		applyStyles(selection, false);
+		Control control = selection.getControl();
+		if (control != null && !control.isDisposed()) {
+			applyStyles(control, true);
+		}
+	}
+
+	@Override
+	public boolean isChildVisible(Node child) {
+		if (!isChildrenVisible() || !(child instanceof WidgetElement)) {
+			return false;
+		}
+		CTabFolder folder = (CTabFolder) getWidget();
+		Widget widget = ((WidgetElement) child).getWidget();
+		if (widget instanceof CTabItem || widget == folder.getTopRight()) {
+			return true;
+		}
+		CTabItem selection = folder.getSelection();
+		return selection != null && selection.getControl() == widget;
+	}
+
+	@Override
+	public void onChildStylesDeferred(Node child) {
+		// the content of an unselected tab is styled when the tab gets
+		// selected
+		if (!isChildrenVisible()) {
+			super.onChildStylesDeferred(child);
+		}
+	}
+
 	@Override
 	public NodeList getVisibleChildNodes() {
+		if (!isChildrenVisible()) {
+			return super.getVisibleChildNodes();
+		}
 		// CTabFolder#getChildren() exposes the "tab controls" (the toolbars and
 		// the top-right area), as well as the composites used to host the
 		// CTabItem contents. We need to expose both the CTabItems but
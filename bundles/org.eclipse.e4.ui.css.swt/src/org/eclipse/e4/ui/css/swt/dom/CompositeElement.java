@@ -10,25 +10,122 @@
  *******************************************************************************/
 package org.eclipse.e4.ui.css.swt.dom;
 
+import java.util.Collections;
+import org.eclipse.e4.ui.css.core.dom.ArrayNodeList;
 import org.eclipse.e4.ui.css.core.dom.CSSStylableElement;
+import org.eclipse.e4.ui.css.core.dom.ChildVisibilityAwareElement;
 import org.eclipse.e4.ui.css.core.engine.CSSEngine;
+import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.CTabFolder;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Listener;
+import org.eclipse.swt.widgets.Shell;
 import org.eclipse.swt.widgets.Widget;
 import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
 
 /**
  * {@link CSSStylableElement} implementation which wrap SWT {@link Composite}.
- *
+ * <p>
+ * The children of a hidden composite are not styled: they are styled once the
+ * composite is shown again.
+ * </p>
  */
-public class CompositeElement extends ControlElement {
+public class CompositeElement extends ControlElement implements ChildVisibilityAwareElement {
 	private final static String BACKGROUND_OVERRIDDEN_BY_CSS_MARKER = "bgOverriddenByCSS";
 
+	private boolean childStylesDeferred;
+
+	private boolean showing;
+
+	private Listener showListener;
+
 	public CompositeElement(Composite composite, CSSEngine engine) {
 		super(composite, engine);
 	}
 
+	@Override
+	public void dispose() {
+		Composite composite = getComposite();
+		if (showListener != null && !composite.isDisposed()) {
+			composite.removeListener(SWT.Show, showListener);
+		}
+		showListener = null;
+		super.dispose();
+	}
+
+	/**
+	 * Return whether the children of the composite are visible and should be
+	 * styled. Shells are styled before being opened, so their children are
+	 * always considered visible.
+	 *
+	 * @return true if the children should be styled
+	 */
+	protected boolean isChildrenVisible() {
+		Composite composite = getComposite();
+		return showing || composite instanceof Shell || composite.getVisible();
+	}
+
+	@Override
+	public NodeList getVisibleChildNodes() {
+		if (isChildrenVisible()) {
+			return this;
+		}
+		return new ArrayNodeList(Collections.emptyList(), engine);
+	}
+
+	@Override
+	public boolean isChildVisible(Node child) {
+		return isChildrenVisible();
+	}
+
+	@Override
+	public void onChildStylesDeferred(Node child) {
+		deferChildStyles();
+	}
+
+	@Override
+	public void onStylesApplied(NodeList nodes) {
+		super.onStylesApplied(nodes);
+		if (!isChildrenVisible()) {
+			deferChildStyles();
+		}
+	}
+
+	/**
+	 * Remember that the children were not styled, and style them once the
+	 * composite is shown.
+	 */
+	protected void deferChildStyles() {
+		childStylesDeferred = true;
+		if (showListener == null) {
+			showListener = event -> applyDeferredChildStyles();
+			getComposite().addListener(SWT.Show, showListener);
+		}
+	}
+
+	/**
+	 * Style the children whose styles were deferred while the composite was
+	 * hidden.
+	 */
+	protected void applyDeferredChildStyles() {
+		if (!childStylesDeferred || getComposite().isDisposed()) {
+			return;
+		}
+		childStylesDeferred = false;
+		// SWT.Show is sent before the composite reports itself as visible
+		showing = true;
+		try {
+			NodeList nodes = getVisibleChildNodes();
+			for (int i = 0; i < nodes.getLength(); i++) {
+				engine.applyStyles(nodes.item(i), true);
+			}
+		} finally {
+			showing = false;
+		}
+	}
+
 	@Override
 	public int getLength() {
 		return getComposite().getChildren().length;
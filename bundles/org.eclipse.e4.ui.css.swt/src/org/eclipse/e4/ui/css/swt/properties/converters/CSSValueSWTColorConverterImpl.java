@@ -18,6 +18,7 @@ import org.eclipse.e4.ui.css.core.dom.properties.converters.ICSSValueConverterCo
 import org.eclipse.e4.ui.css.core.engine.CSSEngine;
 import org.eclipse.e4.ui.css.core.exceptions.DOMExceptionImpl;
 import org.eclipse.e4.ui.css.swt.helpers.CSSSWTColorHelper;
+import org.eclipse.e4.ui.css.swt.resources.SWTResourcePool;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.widgets.Display;
 import org.w3c.dom.DOMException;
@@ -49,6 +50,13 @@ public class CSSValueSWTColorConverterImpl extends AbstractCSSValueConverter {
 					DOMExceptionImpl.RGBCOLOR_ERROR);
 		}
 
+		// reuse an equivalent color of the other registries of the display
+		SWTResourcePool pool = SWTResourcePool.getPool(display);
+		Object pooled = pool != null ? pool.findEquivalent(color) : null;
+		if (pooled != null) {
+			color.dispose();
+			return (Color) pooled;
+		}
 		return color;
 	}
 
@@ -14,6 +14,7 @@ import org.eclipse.e4.ui.css.core.dom.properties.converters.ICSSValueConverter;
 import org.eclipse.e4.ui.css.core.dom.properties.converters.ICSSValueConverterConfig;
 import org.eclipse.e4.ui.css.core.engine.CSSEngine;
 import org.eclipse.e4.ui.css.swt.helpers.CSSSWTFontHelper;
+import org.eclipse.e4.ui.css.swt.resources.SWTResourcePool;
 import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.FontData;
 import org.eclipse.swt.widgets.Display;
@@ -34,7 +35,15 @@ public class CSSValueSWTFontConverterImpl extends
 		FontData fontData = (FontData) super.convert(value, engine, context);
 		if (fontData != null) {
 			Display display = super.getDisplay(context);
-			return new Font(display, fontData);
+			Font font = new Font(display, fontData);
+			// reuse an equivalent font of the other registries of the display
+			SWTResourcePool pool = SWTResourcePool.getPool(display);
+			Object pooled = pool != null ? pool.findEquivalent(font) : null;
+			if (pooled != null) {
+				font.dispose();
+				return pooled;
+			}
+			return font;
 		}
 		return null;
 	}
@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.css.swt.resources;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.Resource;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Reference-counted pool of SWT resources shared by all the
+ * {@link SWTResourcesRegistry} instances of a {@link Display}.
+ * <p>
+ * A resource registered in several registries is only disposed once the last
+ * of them releases it. Colors and fonts are also indexed by value, so that a
+ * converter which just created a resource can hand out an equivalent pooled
+ * one instead, see {@link #findEquivalent(Object)}. The pool never disposes a
+ * resource it was not given ownership of. Only resources created for the CSS
+ * engine are pooled: the colors and fonts of the JFace registries are disposed
+ * by their theme and are not shared.
+ * </p>
+ * <p>
+ * Resources released by a theme change are kept unreferenced in the pool
+ * rather than disposed, since widgets which are not restyled may still paint
+ * with them. They are reused when a later theme needs an equivalent value, so
+ * switching themes back and forth doesn't allocate new handles each time, and
+ * they are disposed by {@link #evictUnreferenced()} or with the display.
+ * </p>
+ * <p>
+ * The pool is not thread safe and must only be accessed from the UI thread of
+ * its display.
+ * </p>
+ */
+public class SWTResourcePool {
+	private static final String POOL_KEY = "org.eclipse.e4.ui.css.swt.resources.pool"; //$NON-NLS-1$
+
+	private static class PoolEntry {
+		final Object valueKey;
+
+		final Resource resource;
+
+		int refCount;
+
+		PoolEntry(Object valueKey, Resource resource) {
+			this.valueKey = valueKey;
+			this.resource = resource;
+		}
+	}
+
+	private final Map<Object, PoolEntry> entriesByValue = new HashMap<>();
+
+	private final Map<Resource, PoolEntry> entriesByResource = new IdentityHashMap<>();
+
+	private SWTResourcePool() {
+	}
+
+	/**
+	 * Return the pool of the given display, creating it when needed. The pool
+	 * is disposed together with the display.
+	 *
+	 * @param display
+	 *            the display, may be <code>null</code>
+	 * @return the pool or <code>null</code> if the display is
+	 *         <code>null</code> or disposed
+	 */
+	public static SWTResourcePool getPool(Display display) {
+		if (display == null || display.isDisposed()) {
+			return null;
+		}
+		Object pool = display.getData(POOL_KEY);
+		if (pool instanceof SWTResourcePool) {
+			return (SWTResourcePool) pool;
+		}
+		final SWTResourcePool newPool = new SWTResourcePool();
+		display.setData(POOL_KEY, newPool);
+		display.disposeExec(newPool::dispose);
+		return newPool;
+	}
+
+	/**
+	 * Return a pooled resource equivalent to the given one. Meant for the code
+	 * which just created <code>resource</code>: it may dispose its own
+	 * instance and use the pooled one, which it must then register to hold a
+	 * reference on it.
+	 *
+	 * @param resource
+	 *            a color or a font
+	 * @return the pooled equivalent resource, or <code>null</code> if there is
+	 *         none
+	 */
+	public Object findEquivalent(Object resource) {
+		if (!(resource instanceof Resource)) {
+			return null;
+		}
+		Object valueKey = getValueKey((Resource) resource);
+		PoolEntry entry = valueKey != null ? entriesByValue.get(valueKey) : null;
+		if (entry == null || entry.resource == resource) {
+			return null;
+		}
+		if (entry.resource.isDisposed()) {
+			forget(entry);
+			return null;
+		}
+		return entry.resource;
+	}
+
+	/**
+	 * Acquire a reference on the given resource. The pool takes ownership of
+	 * the resource: it is disposed when the last reference is released or
+	 * evicted.
+	 *
+	 * @param resource
+	 *            the resource to share
+	 */
+	public void acquire(Object resource) {
+		if (!(resource instanceof Resource) || ((Resource) resource).isDisposed()) {
+			return;
+		}
+		PoolEntry entry = entriesByResource.get(resource);
+		if (entry == null) {
+			entry = register((Resource) resource);
+		}
+		entry.refCount++;
+	}
+
+	/**
+	 * Release a reference acquired with {@link #acquire(Object)}. When the last
+	 * reference is released the resource leaves the pool and its ownership is
+	 * transferred back to the caller.
+	 *
+	 * @param resource
+	 *            the resource to release
+	 * @return <code>true</code> if the caller must dispose the resource,
+	 *         <code>false</code> if it is still referenced or not pooled
+	 */
+	public boolean release(Object resource) {
+		PoolEntry entry = entriesByResource.get(resource);
+		if (entry == null || --entry.refCount > 0) {
+			return false;
+		}
+		forget(entry);
+		return !entry.resource.isDisposed();
+	}
+
+	/**
+	 * Release a reference acquired with {@link #acquire(Object)}, keeping the
+	 * resource in the pool once it is no longer referenced, until it is reused
+	 * or evicted.
+	 *
+	 * @param resource
+	 *            the resource to release
+	 */
+	public void releaseAndKeep(Object resource) {
+		PoolEntry entry = entriesByResource.get(resource);
+		if (entry != null && entry.refCount > 0) {
+			entry.refCount--;
+		}
+	}
+
+	/**
+	 * @param resource
+	 *            the resource
+	 * @return the number of references held on the resource
+	 */
+	public int getReferenceCount(Object resource) {
+		PoolEntry entry = entriesByResource.get(resource);
+		return entry != null ? entry.refCount : 0;
+	}
+
+	/**
+	 * @return the number of resources currently pooled, referenced or not
+	 */
+	public int size() {
+		return entriesByResource.size();
+	}
+
+	/**
+	 * Dispose the pooled resources which are no longer referenced, and drop
+	 * the entries whose resource has been disposed behind the pool's back.
+	 * Only to be called when no widget paints with a released resource
+	 * anymore.
+	 *
+	 * @return the number of evicted entries
+	 */
+	public int evictUnreferenced() {
+		int evicted = 0;
+		Iterator<PoolEntry> iter = entriesByResource.values().iterator();
+		while (iter.hasNext()) {
+			PoolEntry entry = iter.next();
+			if (entry.refCount == 0 || entry.resource.isDisposed()) {
+				iter.remove();
+				if (entry.valueKey != null && entriesByValue.get(entry.valueKey) == entry) {
+					entriesByValue.remove(entry.valueKey);
+				}
+				if (!entry.resource.isDisposed()) {
+					entry.resource.dispose();
+				}
+				evicted++;
+			}
+		}
+		return evicted;
+	}
+
+	private void dispose() {
+		for (PoolEntry entry : entriesByResource.values()) {
+			if (!entry.resource.isDisposed()) {
+				entry.resource.dispose();
+			}
+		}
+		entriesByResource.clear();
+		entriesByValue.clear();
+	}
+
+	private PoolEntry register(Resource resource) {
+		Object valueKey = getValueKey(resource);
+		PoolEntry entry = new PoolEntry(valueKey, resource);
+		entriesByResource.put(resource, entry);
+		if (valueKey != null) {
+			// the first live resource of a value is the one handed out
+			PoolEntry current = entriesByValue.get(valueKey);
+			if (current == null || current.resource.isDisposed()) {
+				entriesByValue.put(valueKey, entry);
+			}
+		}
+		return entry;
+	}
+
+	private void forget(PoolEntry entry) {
+		entriesByResource.remove(entry.resource);
+		if (entry.valueKey != null && entriesByValue.get(entry.valueKey) == entry) {
+			entriesByValue.remove(entry.valueKey);
+		}
+	}
+
+	private static Object getValueKey(Resource resource) {
+		if (resource.isDisposed()) {
+			return null;
+		}
+		if (resource instanceof Color) {
+			return ((Color) resource).getRGBA();
+		}
+		if (resource instanceof Font) {
+			return Arrays.asList(((Font) resource).getFontData());
+		}
+		return null;
+	}
+}
@@ -28,10 +28,20 @@ import org.eclipse.swt.widgets.Listener;
 /**
  * SWT Resources Registry to cache SWT Resource like Color, Cursor and Font and
  * dispose it.
+ * <p>
+ * The registry holds a reference on each cached resource in the
+ * {@link SWTResourcePool} of its display, so resources are shared with the
+ * other registries of the display and only disposed once no registry uses them
+ * anymore. The registered resource itself is cached: the converters are the
+ * ones which reuse an equivalent pooled resource.
+ * </p>
  */
 public class SWTResourcesRegistry extends AbstractResourcesRegistry {
 
+	private final SWTResourcePool pool;
+
 	public SWTResourcesRegistry(Display display) {
+		pool = SWTResourcePool.getPool(display);
 		if (display == null) {
 			return;
 		}
@@ -52,8 +62,12 @@ public class SWTResourcesRegistry extends AbstractResourcesRegistry {
 			// test if resource is disposed
 			if (isDisposed(resource)) {
 				// SWT Resource is disposed
-				// unregister it.
-				super.unregisterResource(resource);
+				// unregister it, only once so that its reference is only
+				// released once
+				getCacheByType(type).remove(key);
+				if (pool != null) {
+					pool.release(resource);
+				}
 				return null;
 			}
 		}
@@ -82,11 +96,37 @@ public class SWTResourcesRegistry extends AbstractResourcesRegistry {
 			//			System.out.println("Cache" + hit + "Resource key=" + key);
 		}
 
+		if (pool != null) {
+			Object previous = super.getResource(type, key);
+			if (previous == resource) {
+				return;
+			}
+			if (previous != null && pool.release(previous)) {
+				disposeSWTResource(previous);
+			}
+			pool.acquire(resource);
+		}
 		super.registerResource(type, key, resource);
 	}
 
+	/**
+	 * @return the pool shared by the registries of the display, or
+	 *         <code>null</code> if this registry is not bound to a display
+	 */
+	public SWTResourcePool getPool() {
+		return pool;
+	}
+
 	@Override
 	public void disposeResource(Object type, Object key, Object resource) {
+		// with a pool, only dispose the resource once no other registry of the
+		// display references it
+		if (pool == null || pool.release(resource)) {
+			disposeSWTResource(resource);
+		}
+	}
+
+	private void disposeSWTResource(Object resource) {
 		// Dispose SWT Resource
 		if (resource instanceof Color) {
 			((Color)resource).dispose();
@@ -127,6 +167,18 @@ public class SWTResourcesRegistry extends AbstractResourcesRegistry {
 		return false;
 	}
 
+	/**
+	 * Remove from the cache the resources of the given types whose key is an
+	 * instance of <code>keyType</code>.
+	 *
+	 * @param keyType
+	 *            the type of keys to remove
+	 * @param types
+	 *            the resource types
+	 * @return the removed resources the caller is now responsible to dispose;
+	 *         with a pool, none: the pool keeps the released resources for
+	 *         reuse, see {@link SWTResourcePool#releaseAndKeep(Object)}
+	 */
 	public List<Object> removeResourcesByKeyTypeAndType(Class<?> keyType, Class<?>... types) {
 		List<Object> removedResources = new ArrayList<Object>();
 		for (Class<?> cls : types) {
@@ -134,7 +186,11 @@ public class SWTResourcesRegistry extends AbstractResourcesRegistry {
 			while (iter.hasNext()) {
 				Entry<Object, Object> entry = iter.next();
 				if (keyType.isAssignableFrom(entry.getKey().getClass())) {
-					removedResources.add(entry.getValue());
+					if (pool != null) {
+						pool.releaseAndKeep(entry.getValue());
+					} else {
+						removedResources.add(entry.getValue());
+					}
 					iter.remove();
 				}
 			}
@@ -14,6 +14,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import org.eclipse.e4.ui.model.application.MApplicationElement;
+import org.eclipse.e4.ui.model.internal.LazyEMapView;
 import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.common.notify.NotificationChain;
 import org.eclipse.emf.common.util.EList;
@@ -156,16 +157,32 @@ public abstract class ApplicationElementImpl extends org.eclipse.emf.ecore.impl.
 
 	/**
 	 * <!-- begin-user-doc -->
+	 * The map is only allocated once something is stored in it.
 	 * <!-- end-user-doc -->
-	 * @generated
 	 */
 	public Map<String, String> getPersistedState() {
 		if (persistedState == null) {
-			persistedState = new EcoreEMap<String,String>(ApplicationPackageImpl.Literals.STRING_TO_STRING_MAP, StringToStringMapImpl.class, this, ApplicationPackageImpl.APPLICATION_ELEMENT__PERSISTED_STATE);
+			return new LazyEMapView<String, String>() {
+				@Override
+				protected EMap<String, String> getEMap(boolean create) {
+					return create ? basicGetPersistedState() : persistedState;
+				}
+			};
 		}
 		return persistedState.map();
 	}
 
+	/**
+	 * <!-- begin-user-doc -->
+	 * <!-- end-user-doc -->
+	 */
+	private EMap<String, String> basicGetPersistedState() {
+		if (persistedState == null) {
+			persistedState = new EcoreEMap<String,String>(ApplicationPackageImpl.Literals.STRING_TO_STRING_MAP, StringToStringMapImpl.class, this, ApplicationPackageImpl.APPLICATION_ELEMENT__PERSISTED_STATE);
+		}
+		return persistedState;
+	}
+
 	/**
 	 * <!-- begin-user-doc -->
 	 * <!-- end-user-doc -->
@@ -200,16 +217,32 @@ public abstract class ApplicationElementImpl extends org.eclipse.emf.ecore.impl.
 
 	/**
 	 * <!-- begin-user-doc -->
+	 * The map is only allocated once something is stored in it.
 	 * <!-- end-user-doc -->
-	 * @generated
 	 */
 	public Map<String, Object> getTransientData() {
 		if (transientData == null) {
-			transientData = new EcoreEMap<String,Object>(ApplicationPackageImpl.Literals.STRING_TO_OBJECT_MAP, StringToObjectMapImpl.class, this, ApplicationPackageImpl.APPLICATION_ELEMENT__TRANSIENT_DATA);
+			return new LazyEMapView<String, Object>() {
+				@Override
+				protected EMap<String, Object> getEMap(boolean create) {
+					return create ? basicGetTransientData() : transientData;
+				}
+			};
 		}
 		return transientData.map();
 	}
 
+	/**
+	 * <!-- begin-user-doc -->
+	 * <!-- end-user-doc -->
+	 */
+	private EMap<String, Object> basicGetTransientData() {
+		if (transientData == null) {
+			transientData = new EcoreEMap<String,Object>(ApplicationPackageImpl.Literals.STRING_TO_OBJECT_MAP, StringToObjectMapImpl.class, this, ApplicationPackageImpl.APPLICATION_ELEMENT__TRANSIENT_DATA);
+		}
+		return transientData;
+	}
+
 	/**
 	 * <!-- begin-user-doc -->
 	 * <!-- end-user-doc -->
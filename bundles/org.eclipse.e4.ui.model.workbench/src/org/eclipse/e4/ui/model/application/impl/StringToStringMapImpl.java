@@ -102,12 +102,12 @@ public class StringToStringMapImpl extends org.eclipse.emf.ecore.impl.MinimalEOb
 
 	/**
 	 * <!-- begin-user-doc -->
+	 * The keys are shared by many elements, so they are interned.
 	 * <!-- end-user-doc -->
-	 * @generated
 	 */
 	public void setTypedKey(String newKey) {
 		String oldKey = key;
-		key = newKey;
+		key = (newKey == null) ? null : newKey.intern();
 		if (eNotificationRequired())
 			eNotify(new ENotificationImpl(this, Notification.SET, ApplicationPackageImpl.STRING_TO_STRING_MAP__KEY, oldKey, key));
 	}
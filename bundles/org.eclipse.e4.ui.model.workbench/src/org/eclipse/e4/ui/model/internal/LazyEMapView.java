@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.model.internal;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.emf.common.util.EMap;
+
+/**
+ * The map view of a map feature of a model element that has not been
+ * allocated yet.
+ * <p>
+ * Most elements never store anything in their persisted state or transient
+ * data but are queried for it all the time. Reading through this view does not
+ * allocate the underlying {@link EMap} and its entry list; the first
+ * modification does, as does asking for one of the collection views.
+ * </p>
+ *
+ * @param <K>
+ *            the type of the keys
+ * @param <V>
+ *            the type of the values
+ */
+public abstract class LazyEMapView<K, V> extends AbstractMap<K, V> implements EMap.InternalMapView<K, V> {
+
+	/**
+	 * @param create
+	 *            whether to allocate the map if it does not exist yet
+	 * @return the map of the element, or <code>null</code> if it does not exist
+	 *         and <code>create</code> is <code>false</code>
+	 */
+	protected abstract EMap<K, V> getEMap(boolean create);
+
+	private Map<K, V> map(boolean create) {
+		EMap<K, V> eMap = getEMap(create);
+		return eMap == null ? Collections.<K, V> emptyMap() : eMap.map();
+	}
+
+	public EMap<K, V> eMap() {
+		return getEMap(true);
+	}
+
+	@Override
+	public int size() {
+		return map(false).size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return map(false).isEmpty();
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return map(false).containsKey(key);
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		return map(false).containsValue(value);
+	}
+
+	@Override
+	public V get(Object key) {
+		return map(false).get(key);
+	}
+
+	@Override
+	public V put(K key, V value) {
+		return map(true).put(key, value);
+	}
+
+	@Override
+	public void putAll(Map<? extends K, ? extends V> m) {
+		if (!m.isEmpty()) {
+			map(true).putAll(m);
+		}
+	}
+
+	@Override
+	public V remove(Object key) {
+		return map(false).remove(key);
+	}
+
+	@Override
+	public void clear() {
+		map(false).clear();
+	}
+
+	@Override
+	public Set<K> keySet() {
+		return map(true).keySet();
+	}
+
+	@Override
+	public Collection<V> values() {
+		return map(true).values();
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		return map(true).entrySet();
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		return map(false).equals(object);
+	}
+
+	@Override
+	public int hashCode() {
+		return map(false).hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return map(false).toString();
+	}
+}
@@ -0,0 +1,268 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.e4.ui.internal.services;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkUtil;
+
+/**
+ * Attributes the time spent in the listeners notified by the workbench services
+ * to the listener classes and to the bundles contributing them. The
+ * notification sites call {@link #start()} before calling a listener and
+ * {@link #end(String, Object, long)} after it; both do nothing unless the
+ * statistics are enabled.
+ * <p>
+ * The listeners notified by bundles this bundle depends on are not recorded:
+ * the {@link org.eclipse.core.commands.ICommandListener}s of the commands, the
+ * execution listeners added directly to the command manager and the
+ * <code>@UIEventTopic</code> methods injected by
+ * <code>org.eclipse.e4.ui.di</code>.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ */
+public final class ListenerStatistics {
+
+	/** Listeners of the selection service. */
+	public static final String SELECTION = "selection";
+
+	/** Listeners of the part service. */
+	public static final String PART = "part";
+
+	/** Listeners of the page and perspective changes of the windows. */
+	public static final String PAGE = "page";
+
+	/** Handlers of the event broker called on the UI thread. */
+	public static final String EVENT = "event";
+
+	/** Handlers executed by the command service. */
+	public static final String HANDLER = "handler";
+
+	/** Execution listeners added to the command service. */
+	public static final String EXECUTION = "execution";
+
+	private static volatile boolean enabled;
+
+	private static final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * The timings of the listeners of a class for a kind of notification.
+	 */
+	public static final class Entry {
+		private final String kind;
+		private final Class<?> listenerClass;
+		private final String bundle;
+		private long count;
+		private long totalTime;
+		private long maxTime;
+
+		Entry(String kind, Class<?> listenerClass) {
+			this.kind = kind;
+			this.listenerClass = listenerClass;
+			Bundle contributor = FrameworkUtil.getBundle(listenerClass);
+			this.bundle = contributor == null ? "<unknown>" : contributor.getSymbolicName();
+		}
+
+		synchronized void add(long time) {
+			count++;
+			totalTime += time;
+			if (time > maxTime) {
+				maxTime = time;
+			}
+		}
+
+		/**
+		 * @return the kind of notification
+		 */
+		public String getKind() {
+			return kind;
+		}
+
+		/**
+		 * @return the class of the listeners
+		 */
+		public Class<?> getListenerClass() {
+			return listenerClass;
+		}
+
+		/**
+		 * @return the symbolic name of the bundle contributing the listeners
+		 */
+		public String getBundle() {
+			return bundle;
+		}
+
+		/**
+		 * @return the number of notifications
+		 */
+		public synchronized long getCount() {
+			return count;
+		}
+
+		/**
+		 * @return the time spent in the notifications, in nanoseconds
+		 */
+		public synchronized long getTotalTime() {
+			return totalTime;
+		}
+
+		/**
+		 * @return the longest notification, in nanoseconds
+		 */
+		public synchronized long getMaxTime() {
+			return maxTime;
+		}
+	}
+
+	private static final class Key {
+		final String kind;
+		final Class<?> listenerClass;
+
+		Key(String kind, Class<?> listenerClass) {
+			this.kind = kind;
+			this.listenerClass = listenerClass;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * kind.hashCode() + listenerClass.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return kind.equals(other.kind) && listenerClass == other.listenerClass;
+		}
+	}
+
+	private ListenerStatistics() {
+	}
+
+	/**
+	 * @return whether the time spent in the listeners is recorded
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Start or stop recording. The statistics recorded so far are kept.
+	 *
+	 * @param enabled
+	 */
+	public static void setEnabled(boolean enabled) {
+		ListenerStatistics.enabled = enabled;
+	}
+
+	/**
+	 * Remove all of the recorded statistics.
+	 */
+	public static void reset() {
+		entries.clear();
+	}
+
+	/**
+	 * Called before notifying a listener.
+	 *
+	 * @return the start time to pass to {@link #end(String, Object, long)}, or
+	 *         <code>0</code> if the statistics are disabled
+	 */
+	public static long start() {
+		return enabled ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Called after notifying a listener.
+	 *
+	 * @param kind
+	 *            the kind of notification, one of the constants of this class
+	 * @param listener
+	 *            the notified listener
+	 * @param start
+	 *            the value returned by {@link #start()}
+	 */
+	public static void end(String kind, Object listener, long start) {
+		if (start == 0 || listener == null) {
+			return;
+		}
+		long time = System.nanoTime() - start;
+		Class<?> listenerClass = listener.getClass();
+		entries.computeIfAbsent(new Key(kind, listenerClass), key -> new Entry(kind, listenerClass)).add(time);
+	}
+
+	/**
+	 * @return the statistics of the listener classes, the longest total time
+	 *         first
+	 */
+	public static List<Entry> getEntries() {
+		List<Entry> result = new ArrayList<>(entries.values());
+		result.sort((e1, e2) -> Long.compare(e2.getTotalTime(), e1.getTotalTime()));
+		return result;
+	}
+
+	/**
+	 * Return the statistics as text: the bundles, then the listener classes,
+	 * with the longest total time first.
+	 *
+	 * @param limit
+	 *            the maximum number of bundles and of listener classes to
+	 *            print
+	 * @return String
+	 */
+	public static String dump(int limit) {
+		List<Entry> sorted = getEntries();
+		Map<String, long[]> bundles = new HashMap<>();
+		for (Entry entry : sorted) {
+			long[] bundleTimes = bundles.computeIfAbsent(entry.getBundle(), bundle -> new long[3]);
+			bundleTimes[0] += entry.getCount();
+			bundleTimes[1] += entry.getTotalTime();
+			bundleTimes[2] = Math.max(bundleTimes[2], entry.getMaxTime());
+		}
+		List<Map.Entry<String, long[]>> sortedBundles = new ArrayList<>(bundles.entrySet());
+		sortedBundles.sort((b1, b2) -> Long.compare(b2.getValue()[1], b1.getValue()[1]));
+
+		StringWriter writer = new StringWriter();
+		PrintWriter out = new PrintWriter(writer);
+		out.println("Listener statistics (" + (enabled ? "recording" : "not recording")
+				+ "), times in ms: count, total, max");
+		out.println("By bundle:");
+		for (Map.Entry<String, long[]> bundle : sortedBundles.subList(0, Math.min(limit, sortedBundles.size()))) {
+			long[] times = bundle.getValue();
+			out.printf("  %-60s %8d %10.1f %8.1f%n", bundle.getKey(), Long.valueOf(times[0]),
+					toMillis(times[1]), toMillis(times[2]));
+		}
+		out.println("By listener:");
+		for (Entry entry : sorted.subList(0, Math.min(limit, sorted.size()))) {
+			out.printf("  %-9s %-50s %8d %10.1f %8.1f  (%s)%n", entry.getKind(), entry.getListenerClass().getName(),
+					Long.valueOf(entry.getCount()), toMillis(entry.getTotalTime()), toMillis(entry.getMaxTime()),
+					entry.getBundle());
+		}
+		out.flush();
+		return writer.toString();
+	}
+
+	private static Double toMillis(long nanos) {
+		return Double.valueOf(nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+	}
+}
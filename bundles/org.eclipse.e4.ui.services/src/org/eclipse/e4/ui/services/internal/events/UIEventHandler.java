@@ -11,6 +11,7 @@
 package org.eclipse.e4.ui.services.internal.events;
 
 import org.eclipse.e4.ui.di.UISynchronize;
+import org.eclipse.e4.ui.internal.services.ListenerStatistics;
 
 import org.osgi.service.event.Event;
 import org.osgi.service.event.EventHandler;
@@ -37,7 +38,12 @@ public class UIEventHandler implements EventHandler {
 
 				@Override
 				public void run() {
-					eventHandler.handleEvent(event);
+					long start = ListenerStatistics.start();
+					try {
+						eventHandler.handleEvent(event);
+					} finally {
+						ListenerStatistics.end(ListenerStatistics.EVENT, eventHandler, start);
+					}
 				}
 			});
 		}
@@ -21,6 +21,7 @@ import org.eclipse.e4.core.services.log.Logger;
 import org.eclipse.e4.ui.internal.workbench.Activator;
 import org.eclipse.e4.ui.internal.workbench.Policy;
 import org.eclipse.e4.ui.internal.workbench.RenderedElementUtil;
+import org.eclipse.e4.ui.internal.workbench.VariablesChangedSelector;
 import org.eclipse.e4.ui.internal.workbench.swt.AbstractPartRenderer;
 import org.eclipse.e4.ui.model.application.ui.MContext;
 import org.eclipse.e4.ui.model.application.ui.MUIElement;
@@ -551,4 +552,16 @@ public abstract class AbstractContributionItem extends ContributionItem {
 		SafeRunner.run(getUpdateRunner());
 	}
 
+	/**
+	 * Access for tests.
+	 *
+	 * @param selector
+	 *            the changed context variables or properties
+	 * @return <code>true</code> if the enablement of the item may depend on
+	 *         one of the variables
+	 */
+	public boolean isEnablementAffectedBy(VariablesChangedSelector selector) {
+		return selector.select(modelItem);
+	}
+
 }
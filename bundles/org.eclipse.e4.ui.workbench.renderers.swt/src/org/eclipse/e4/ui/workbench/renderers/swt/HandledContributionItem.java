@@ -28,6 +28,7 @@ import org.eclipse.core.commands.common.NotDefinedException;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.e4.core.commands.ECommandService;
 import org.eclipse.e4.core.commands.EHandlerService;
+import org.eclipse.e4.core.commands.internal.HandlerServiceImpl;
 import org.eclipse.e4.core.commands.internal.ICommandHelpService;
 import org.eclipse.e4.core.contexts.EclipseContextFactory;
 import org.eclipse.e4.core.contexts.IContextFunction;
@@ -36,7 +37,9 @@ import org.eclipse.e4.core.di.annotations.Optional;
 import org.eclipse.e4.ui.bindings.EBindingService;
 import org.eclipse.e4.ui.internal.workbench.Activator;
 import org.eclipse.e4.ui.internal.workbench.ContributionsAnalyzer;
+import org.eclipse.e4.ui.internal.workbench.IEnablementVariables;
 import org.eclipse.e4.ui.internal.workbench.Policy;
+import org.eclipse.e4.ui.internal.workbench.VariablesChangedSelector;
 import org.eclipse.e4.ui.internal.workbench.renderers.swt.IUpdateService;
 import org.eclipse.e4.ui.model.application.commands.MCommand;
 import org.eclipse.e4.ui.model.application.commands.MParameter;
@@ -99,6 +102,12 @@ public class HandledContributionItem extends AbstractContributionItem {
 
 	private State radioState;
 
+	/**
+	 * The handler active for the command when the dependencies of the
+	 * enablement were last checked.
+	 */
+	private Object enablementHandler;
+
 	@Override
 	public void setModel(MItem item) {
 		if (!(item instanceof MHandledItem)) {
@@ -443,6 +452,24 @@ public class HandledContributionItem extends AbstractContributionItem {
 		return service.canExecute(cmd, staticContext);
 	}
 
+	@Override
+	public boolean isEnablementAffectedBy(VariablesChangedSelector selector) {
+		ParameterizedCommand cmd = getModel().getWbCommand();
+		IEclipseContext lclContext = getContext(getModel());
+		if (cmd == null || lclContext == null) {
+			return true;
+		}
+		Object handler = HandlerServiceImpl.lookUpHandler(lclContext, cmd.getId());
+		String[] variables = handler instanceof IEnablementVariables
+				? ((IEnablementVariables) handler).getEnablementVariables() : null;
+		if (handler != enablementHandler) {
+			// another handler has been activated
+			enablementHandler = handler;
+			return true;
+		}
+		return selector.affects(variables);
+	}
+
 	@Override
 	public MHandledItem getModel() {
 		return (MHandledItem) super.getModel();
@@ -17,6 +17,7 @@ import java.util.ArrayList;
 import java.util.List;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.services.events.IEventBroker;
+import org.eclipse.e4.ui.internal.workbench.swt.LazyRendering;
 import org.eclipse.e4.ui.model.application.ui.MContext;
 import org.eclipse.e4.ui.model.application.ui.MElementContainer;
 import org.eclipse.e4.ui.model.application.ui.MGenericStack;
@@ -111,6 +112,7 @@ public abstract class LazyStackRenderer extends SWTPartRenderer {
 		// Lazy Loading: here we only process the contents through childAdded,
 		// we specifically do not render them
 		IPresentationEngine renderer = context.get(IPresentationEngine.class);
+		LazyRendering lazyRendering = context.get(LazyRendering.class);
 
 		for (MUIElement element : me.getChildren()) {
 			if (!element.isToBeRendered() || !element.isVisible())
@@ -119,8 +121,9 @@ public abstract class LazyStackRenderer extends SWTPartRenderer {
 
 			// Special case: we also render any placeholder that refers to
 			// an *existing* part, this doesn't break lazy loading since the
-			// part is already there...see bug 378138 for details
-			if (element instanceof MPlaceholder) {
+			// part is already there...see bug 378138 for details. The strict
+			// lazy rendering mode leaves it to the selection as well.
+			if (element instanceof MPlaceholder && (lazyRendering == null || !lazyRendering.shouldDefer(element))) {
 				MPlaceholder ph = (MPlaceholder) element;
 				if (ph.getRef() instanceof MPart && ph.getRef().getWidget() != null) {
 					lazy = false;
@@ -129,6 +132,9 @@ public abstract class LazyStackRenderer extends SWTPartRenderer {
 
 			if (lazy) {
 				createTab(me, element);
+				if (lazyRendering != null && element != me.getSelectedElement()) {
+					lazyRendering.deferred(element);
+				}
 			} else {
 				renderer.createGui(element);
 			}
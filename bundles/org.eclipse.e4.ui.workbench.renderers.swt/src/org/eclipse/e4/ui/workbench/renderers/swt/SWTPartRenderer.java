@@ -21,6 +21,7 @@ import org.eclipse.e4.ui.css.core.engine.CSSEngine;
 import org.eclipse.e4.ui.css.swt.dom.WidgetElement;
 import org.eclipse.e4.ui.internal.workbench.swt.AbstractPartRenderer;
 import org.eclipse.e4.ui.internal.workbench.swt.CSSConstants;
+import org.eclipse.e4.ui.internal.workbench.swt.LazyRendering;
 import org.eclipse.e4.ui.model.application.descriptor.basic.MPartDescriptor;
 import org.eclipse.e4.ui.model.application.ui.MElementContainer;
 import org.eclipse.e4.ui.model.application.ui.MUIElement;
@@ -63,8 +64,15 @@ public abstract class SWTPartRenderer extends AbstractPartRenderer {
 			// this is *not* the correct place for this
 			// hope that the ADD event will pick up the new part.
 			IPresentationEngine renderer = context.get(IPresentationEngine.class);
+			LazyRendering lazyRendering = context.get(LazyRendering.class);
 			for (int i = 0; i < parts.size(); i++) {
 				MUIElement childME = parts.get(i);
+				if (lazyRendering != null && lazyRendering.shouldDefer(childME)) {
+					if (childME.isToBeRendered()) {
+						lazyRendering.deferred(childME);
+					}
+					continue;
+				}
 				renderer.createGui(childME);
 			}
 		}
@@ -25,6 +25,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import org.eclipse.core.expressions.ExpressionInfo;
@@ -37,6 +38,7 @@ import org.eclipse.e4.core.services.events.IEventBroker;
 import org.eclipse.e4.ui.di.UIEventTopic;
 import org.eclipse.e4.ui.internal.workbench.ContributionsAnalyzer;
 import org.eclipse.e4.ui.internal.workbench.OpaqueElementUtil;
+import org.eclipse.e4.ui.internal.workbench.VariablesChangedSelector;
 import org.eclipse.e4.ui.internal.workbench.swt.AbstractPartRenderer;
 import org.eclipse.e4.ui.internal.workbench.swt.CSSRenderingUtils;
 import org.eclipse.e4.ui.model.application.MApplication;
@@ -91,6 +93,11 @@ public class ToolBarManagerRenderer extends SWTPartRenderer {
 	/**	 */
 	public static final String UPDATE_VARS = "ToolBarManagerRenderer.updateVars"; //$NON-NLS-1$
 	private static final String DISPOSE_ADDED = "ToolBarManagerRenderer.disposeAdded"; //$NON-NLS-1$
+	/**
+	 * Toggled by the legacy evaluation service to request the re-evaluation of
+	 * all of the items.
+	 */
+	private static final String EVALUATE_VAR = "org.eclipse.ui.internal.services.EvaluationService.evaluate"; //$NON-NLS-1$
 
 	private Map<MToolBar, ToolBarManager> modelToManager = new HashMap<>();
 	private Map<ToolBarManager, MToolBar> managerToModel = new HashMap<>();
@@ -268,6 +275,10 @@ public class ToolBarManagerRenderer extends SWTPartRenderer {
 	private void subscribeTopicUpdateToolbarEnablement(
 			@UIEventTopic(UIEvents.REQUEST_ENABLEMENT_UPDATE_TOPIC) Event eventData) {
 		final Object v = eventData != null ? eventData.getProperty(IEventBroker.DATA) : UIEvents.ALL_ELEMENT_ID;
+		if (v instanceof VariablesChangedSelector) {
+			getUpdater().updateContributionItems(((VariablesChangedSelector) v).getVariables());
+			return;
+		}
 		Selector s;
 		if (v instanceof Selector) {
 			s = (Selector) v;
@@ -327,7 +338,7 @@ public class ToolBarManagerRenderer extends SWTPartRenderer {
 		context.set(ToolBarManagerRenderer.class, this);
 
 		String[] vars = {
-				"org.eclipse.ui.internal.services.EvaluationService.evaluate", //$NON-NLS-1$
+				EVALUATE_VAR,
 				IServiceConstants.ACTIVE_CONTEXTS,
 				IServiceConstants.ACTIVE_PART,
 				IServiceConstants.ACTIVE_SELECTION,
@@ -335,13 +346,24 @@ public class ToolBarManagerRenderer extends SWTPartRenderer {
 		updateVariables.addAll(Arrays.asList(vars));
 		context.set(UPDATE_VARS, updateVariables);
 		RunAndTrack enablementUpdater = new RunAndTrack() {
+			private Map<String, Object> lastValues = new HashMap<>();
 
 			@Override
 			public boolean changed(IEclipseContext context) {
+				Set<String> changedVariables = new HashSet<>();
 				for (String var : updateVariables) {
-					context.get(var);
+					Object value = context.get(var);
+					if (lastValues.put(var, value) != value) {
+						changedVariables.add(var);
+					}
+				}
+				// only the items depending on the changed variables need an
+				// update, unless the change is unknown
+				if (changedVariables.isEmpty() || changedVariables.contains(EVALUATE_VAR)) {
+					getUpdater().updateContributionItems(ALL_SELECTOR);
+				} else {
+					getUpdater().updateContributionItems(changedVariables);
 				}
-				getUpdater().updateContributionItems(ALL_SELECTOR);
 				return true;
 			}
 		};
@@ -946,7 +968,12 @@ public class ToolBarManagerRenderer extends SWTPartRenderer {
 		return super.getContext(el);
 	}
 
-	ToolItemUpdater getUpdater() {
+	/**
+	 * Access for tests.
+	 *
+	 * @return the updater of the enablement of the tool items
+	 */
+	public ToolItemUpdater getUpdater() {
 		return enablementUpdater;
 	}
 
@@ -12,18 +12,19 @@
 package org.eclipse.e4.ui.workbench.renderers.swt;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import org.eclipse.e4.ui.internal.workbench.VariablesChangedSelector;
 import org.eclipse.e4.ui.workbench.Selector;
 
 public class ToolItemUpdater {
 
-	private List<AbstractContributionItem> itemsToCheck = new ArrayList<>();
+	private final Set<AbstractContributionItem> itemsToCheck = new LinkedHashSet<>();
 	private final List<AbstractContributionItem> orphanedToolItems = new ArrayList<>();
 
 	void registerItem(AbstractContributionItem item) {
-		if (!itemsToCheck.contains(item)) {
-			itemsToCheck.add(item);
-		}
+		itemsToCheck.add(item);
 	}
 
 	void removeItem(AbstractContributionItem item) {
@@ -32,12 +33,40 @@ public class ToolItemUpdater {
 
 	public void updateContributionItems(Selector selector) {
 		for (final AbstractContributionItem ci : itemsToCheck) {
-			if (ci.getModel() != null && ci.getModel().getParent() != null && selector.select(ci.getModel())) {
+			if (isOrphaned(ci)) {
+				orphanedToolItems.add(ci);
+			} else if (selector.select(ci.getModel())) {
 				ci.updateItemEnablement();
-			} else {
+			}
+		}
+		removeOrphanedItems();
+	}
+
+	/**
+	 * Update the enablement of the items which may depend on one of the given
+	 * context variables. The items bound to handlers which don't know the
+	 * variables their enablement depends on are always updated.
+	 *
+	 * @param changedVariables
+	 *            the names of the changed context variables or properties
+	 */
+	public void updateContributionItems(Set<String> changedVariables) {
+		VariablesChangedSelector selector = new VariablesChangedSelector(changedVariables);
+		for (final AbstractContributionItem ci : itemsToCheck) {
+			if (isOrphaned(ci)) {
 				orphanedToolItems.add(ci);
+			} else if (ci.isEnablementAffectedBy(selector)) {
+				ci.updateItemEnablement();
 			}
 		}
+		removeOrphanedItems();
+	}
+
+	private static boolean isOrphaned(AbstractContributionItem item) {
+		return item.getModel() == null || item.getModel().getParent() == null;
+	}
+
+	private void removeOrphanedItems() {
 		if (!orphanedToolItems.isEmpty()) {
 			itemsToCheck.removeAll(orphanedToolItems);
 			orphanedToolItems.clear();
@@ -367,6 +367,15 @@ public class E4Application implements IApplication {
 				.map(value -> Boolean.parseBoolean(value)).orElse(Boolean.FALSE);
 		eclipseContext.set(IWorkbench.CLEAR_PERSISTED_STATE, clearPersistedState);
 
+		// Persisted model format
+		getArgValue(E4Workbench.PERSISTED_MODEL_FORMAT, appContext, false)
+				.ifPresent(value -> eclipseContext.set(E4Workbench.PERSISTED_MODEL_FORMAT, value));
+
+		// Journaled auto-save of the model
+		Boolean modelJournal = getArgValue(E4Workbench.MODEL_JOURNAL, appContext, true)
+				.map(value -> Boolean.parseBoolean(value)).orElse(Boolean.FALSE);
+		eclipseContext.set(E4Workbench.MODEL_JOURNAL, modelJournal);
+
 		String resourceHandler = getArgValue(IWorkbench.MODEL_RESOURCE_HANDLER, appContext, false)
 				.orElse("bundleclass://org.eclipse.e4.ui.workbench/" + ResourceHandler.class.getName());
 
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.e4.ui.internal.workbench.swt;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import org.eclipse.e4.ui.internal.workbench.Activator;
+import org.eclipse.e4.ui.model.application.ui.MElementContainer;
+import org.eclipse.e4.ui.model.application.ui.MUIElement;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MTrimBar;
+
+/**
+ * Keeps track of the elements whose rendering is deferred until they are
+ * shown, and of how many of them were eventually rendered.
+ * <p>
+ * Stacks always defer the rendering of their non-selected children. In strict
+ * mode, enabled with the {@link #STRICT_LAZY_RENDERING_KEY} preference, this
+ * also applies to the elements of a stack that are made to be rendered while
+ * not selected, to the placeholders of a stack whose part is already rendered
+ * elsewhere, and to the invisible elements of the trim bars.
+ * </p>
+ * <p>
+ * Only used on the UI thread.
+ * </p>
+ */
+public class LazyRendering {
+
+	/**
+	 * Preference of the <code>org.eclipse.e4.ui.workbench.renderers.swt</code>
+	 * node enabling the strict lazy rendering mode.
+	 */
+	public static final String STRICT_LAZY_RENDERING_KEY = "strictLazyRendering"; //$NON-NLS-1$
+
+	private final boolean strict;
+
+	private final Set<MUIElement> deferredElements = Collections.newSetFromMap(new WeakHashMap<MUIElement, Boolean>());
+
+	private int deferredCount;
+
+	private int renderedOnDemandCount;
+
+	/**
+	 * @param strict
+	 *            whether the strict lazy rendering mode is enabled
+	 */
+	public LazyRendering(boolean strict) {
+		this.strict = strict;
+	}
+
+	/**
+	 * @return <code>true</code> if the strict lazy rendering mode is enabled
+	 */
+	public boolean isStrict() {
+		return strict;
+	}
+
+	/**
+	 * @param element
+	 *            an element about to be rendered in a rendered container
+	 * @return <code>true</code> if the strict mode defers the rendering of the
+	 *         element until it is shown
+	 */
+	public boolean shouldDefer(MUIElement element) {
+		if (!strict || element.getWidget() != null) {
+			return false;
+		}
+		MElementContainer<MUIElement> parent = element.getParent();
+		if (parent instanceof MPartStack) {
+			return parent.getSelectedElement() != element;
+		}
+		return parent instanceof MTrimBar && !element.isVisible();
+	}
+
+	/**
+	 * Records that the rendering of the element is deferred.
+	 *
+	 * @param element
+	 *            the element
+	 */
+	public void deferred(MUIElement element) {
+		if (element.getWidget() == null && deferredElements.add(element)) {
+			deferredCount++;
+			Activator.trace(Policy.DEBUG_RENDERER, "Deferred rendering of " + element, null); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * @param element
+	 *            an element
+	 * @return <code>true</code> if the rendering of the element was deferred
+	 *         and the element has not been rendered since
+	 */
+	public boolean isDeferred(MUIElement element) {
+		return deferredElements.contains(element);
+	}
+
+	/**
+	 * Records that the element was rendered.
+	 *
+	 * @param element
+	 *            the element
+	 */
+	public void rendered(MUIElement element) {
+		if (deferredElements.remove(element)) {
+			renderedOnDemandCount++;
+		}
+	}
+
+	/**
+	 * @return the number of elements whose rendering was deferred
+	 */
+	public int getDeferredCount() {
+		return deferredCount;
+	}
+
+	/**
+	 * @return the number of deferred elements rendered once shown
+	 */
+	public int getRenderedOnDemandCount() {
+		return renderedOnDemandCount;
+	}
+
+	/**
+	 * @return the number of deferred elements that have not been rendered,
+	 *         i.e. the number of widget trees whose creation was avoided so far
+	 */
+	public int getAvoidedCount() {
+		return deferredCount - renderedOnDemandCount;
+	}
+
+	@Override
+	public String toString() {
+		return "LazyRendering [strict=" + strict + ", deferred=" + deferredCount + ", renderedOnDemand=" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ renderedOnDemandCount + ", avoided=" + getAvoidedCount() + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
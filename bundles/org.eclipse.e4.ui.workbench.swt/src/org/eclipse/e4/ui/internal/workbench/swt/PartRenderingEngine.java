@@ -145,6 +145,19 @@ public class PartRenderingEngine implements IPresentationEngine {
 		if (changedElement.isToBeRendered() && okToRender) {
 			Activator.trace(Policy.DEBUG_RENDERER, "visible -> true", null); //$NON-NLS-1$
 
+			if (lazyRendering.shouldDefer(changedElement)) {
+				// Only show the affordance (i.e. tab) of the element, it gets
+				// rendered once selected
+				AbstractPartRenderer parentRenderer = getRendererFor(parent);
+				if (parentRenderer != null) {
+					@SuppressWarnings("unchecked")
+					MElementContainer<MUIElement> container = (MElementContainer<MUIElement>) parent;
+					parentRenderer.childRendered(container, changedElement);
+				}
+				lazyRendering.deferred(changedElement);
+				return;
+			}
+
 			// Note that the 'createGui' protocol calls 'childAdded'
 			Object w = createGui(changedElement);
 			if (w instanceof Control && !(w instanceof Shell)) {
@@ -196,6 +209,12 @@ public class PartRenderingEngine implements IPresentationEngine {
 		// Re-parent the control based on the visible state
 		if (changedElement.isVisible()) {
 			if (changedElement.isToBeRendered()) {
+				if (changedElement.getWidget() == null && parent.getWidget() != null
+						&& lazyRendering.isDeferred(changedElement)) {
+					// rendering deferred while the element was hidden
+					createGui(changedElement);
+				}
+
 				if (changedElement.getWidget() instanceof Control) {
 					// Ensure that the control is under its 'real' parent if
 					// it's visible
@@ -290,7 +309,7 @@ public class PartRenderingEngine implements IPresentationEngine {
 				boolean isStack = changedObj instanceof MGenericStack<?>;
 				boolean hasWidget = added.getWidget() != null;
 				boolean isSelected = added == changedElement.getSelectedElement();
-				boolean renderIt = !isStack || hasWidget || isSelected;
+				boolean renderIt = (!isStack || hasWidget || isSelected) && !lazyRendering.shouldDefer(added);
 				if (renderIt) {
 					// NOTE: createGui will call 'childAdded' if successful
 					Object w = createGui(added);
@@ -304,6 +323,7 @@ public class PartRenderingEngine implements IPresentationEngine {
 				} else {
 					if (renderer != null && added.isToBeRendered()) {
 						renderer.childRendered(changedElement, added);
+						lazyRendering.deferred(added);
 					}
 				}
 
@@ -388,6 +408,8 @@ public class PartRenderingEngine implements IPresentationEngine {
 
 	private StylingPreferencesHandler cssThemeChangedHandler;
 
+	private LazyRendering lazyRendering = new LazyRendering(false);
+
 	@Inject
 	public PartRenderingEngine(
 			@Named(E4Workbench.RENDERER_FACTORY_URI) @Optional String factoryUrl) {
@@ -485,6 +507,9 @@ public class PartRenderingEngine implements IPresentationEngine {
 		IEclipsePreferences node = InstanceScope.INSTANCE.getNode("org.eclipse.e4.ui.workbench.renderers.swt");
 		enableThemePreference = node.getBoolean(ENABLED_THEME_KEY, true);
 
+		lazyRendering = new LazyRendering(node.getBoolean(LazyRendering.STRICT_LAZY_RENDERING_KEY, false));
+		context.set(LazyRendering.class, lazyRendering);
+
 		cssThemeChangedHandler = new StylingPreferencesHandler(context.get(Display.class));
 	}
 
@@ -652,6 +677,7 @@ public class PartRenderingEngine implements IPresentationEngine {
 
 		// Remember that we've created the control
 		if (newWidget != null) {
+			lazyRendering.rendered(element);
 			AbstractPartRenderer renderer = getRendererFor(element);
 
 			// Have the renderer hook up any widget specific listeners
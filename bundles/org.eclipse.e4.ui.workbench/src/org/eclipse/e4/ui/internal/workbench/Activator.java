@@ -48,6 +48,8 @@ public class Activator implements BundleActivator {
 
 	private DebugTrace trace;
 
+	private EventTopicSubscriptions eventTopicSubscriptions;
+
 	/**
 	 * Get the default activator.
 	 *
@@ -106,6 +108,10 @@ public class Activator implements BundleActivator {
 			logTracker.close();
 			logTracker = null;
 		}
+		if (eventTopicSubscriptions != null) {
+			eventTopicSubscriptions.close();
+			eventTopicSubscriptions = null;
+		}
 		if (resolvedBundles != null) {
 			// the close of the BundleTracker will also remove all entries form the BundleFinder
 			resolvedBundles.close();
@@ -113,6 +119,20 @@ public class Activator implements BundleActivator {
 		}
 	}
 
+	/**
+	 * @return the table of topics event handlers are subscribed to, or
+	 *         <code>null</code> if the bundle is not started
+	 */
+	public synchronized EventTopicSubscriptions getEventTopicSubscriptions() {
+		if (eventTopicSubscriptions == null) {
+			if (context == null)
+				return null;
+			eventTopicSubscriptions = new EventTopicSubscriptions(context);
+			eventTopicSubscriptions.open();
+		}
+		return eventTopicSubscriptions;
+	}
+
 	public DebugOptions getDebugOptions() {
 		if (debugTracker == null) {
 			if (context == null)
@@ -84,6 +84,35 @@ public class E4Workbench implements IWorkbench {
 	 */
 	public static final String FORCED_SHOW_LOCATION = "forcedShowLocation"; //$NON-NLS-1$
 
+	/**
+	 * The argument for the format used to persist the workbench model, either
+	 * {@link #PERSISTED_MODEL_FORMAT_XMI} (the default) or
+	 * {@link #PERSISTED_MODEL_FORMAT_BINARY}<br>
+	 * <br>
+	 * Value is: <code>persistedModelFormat</code>
+	 */
+	public static final String PERSISTED_MODEL_FORMAT = "persistedModelFormat"; //$NON-NLS-1$
+
+	/**
+	 * Persist the workbench model as XMI in <code>workbench.xmi</code>
+	 */
+	public static final String PERSISTED_MODEL_FORMAT_XMI = "xmi"; //$NON-NLS-1$
+
+	/**
+	 * Persist the workbench model with the EMF binary format in
+	 * <code>workbench.e4bin</code>, which is faster to load and save
+	 */
+	public static final String PERSISTED_MODEL_FORMAT_BINARY = "binary"; //$NON-NLS-1$
+
+	/**
+	 * The argument for whether the auto-save of the workbench model appends the
+	 * changes of the model to a journal instead of saving the whole model when
+	 * possible<br>
+	 * <br>
+	 * Value is: <code>modelJournal</code>
+	 */
+	public static final String MODEL_JOURNAL = "modelJournal"; //$NON-NLS-1$
+
 	private final String id;
 	private ServiceRegistration<?> osgiRegistration;
 
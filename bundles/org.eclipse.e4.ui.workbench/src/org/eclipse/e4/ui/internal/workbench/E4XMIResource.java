@@ -12,30 +12,54 @@
 
 package org.eclipse.e4.ui.internal.workbench;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.WeakHashMap;
 import org.eclipse.e4.ui.model.application.MApplicationElement;
 import org.eclipse.e4.ui.model.application.ui.menu.MMenuFactory;
+import org.eclipse.emf.common.util.TreeIterator;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EClassifier;
 import org.eclipse.emf.ecore.EFactory;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
 import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.emf.ecore.xmi.XMLHelper;
 import org.eclipse.emf.ecore.xmi.impl.XMIHelperImpl;
 import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
 
+/**
+ * Resource holding an application model. The model is stored as XMI or, if
+ * {@link #setBinary(boolean) binary} is set, with the EMF binary format
+ * preceded by the table of the element ids, which are not part of that format.
+ */
 public class E4XMIResource extends XMIResourceImpl {
 
+	/** Marks the files written in the binary format, "E4BI" */
+	private static final int BINARY_SIGNATURE = 0x45344249;
+
+	private static final int BINARY_VERSION = 1;
+
 	private Map<EObject, String> objectMap = new WeakHashMap<>();
 	private Set<String> knownIds = new HashSet<>();
 
+	private boolean binary;
+
 	public E4XMIResource() {
 	}
 
@@ -43,6 +67,88 @@ public class E4XMIResource extends XMIResourceImpl {
 		super(uri);
 	}
 
+	/**
+	 * @param binary
+	 *            <code>true</code> to load and save the model with the binary
+	 *            format, <code>false</code> for XMI
+	 */
+	public void setBinary(boolean binary) {
+		this.binary = binary;
+	}
+
+	/**
+	 * @return <code>true</code> if the model is loaded and saved with the
+	 *         binary format
+	 */
+	public boolean isBinary() {
+		return binary;
+	}
+
+	@Override
+	public void doSave(OutputStream outputStream, Map<?, ?> options) throws IOException {
+		if (!binary) {
+			super.doSave(outputStream, options);
+			return;
+		}
+		BufferedOutputStream bufferedStream = new BufferedOutputStream(outputStream);
+		DataOutputStream dataStream = new DataOutputStream(bufferedStream);
+		dataStream.writeInt(BINARY_SIGNATURE);
+		dataStream.writeInt(BINARY_VERSION);
+
+		// ids in containment order, so they can be assigned back on load
+		List<String> ids = new ArrayList<>();
+		for (Iterator<EObject> it = getAllContents(); it.hasNext();) {
+			ids.add(getID(it.next()));
+		}
+		dataStream.writeInt(ids.size());
+		for (String id : ids) {
+			dataStream.writeBoolean(id != null);
+			if (id != null) {
+				dataStream.writeUTF(id);
+			}
+		}
+		dataStream.flush();
+
+		BinaryResourceImpl.EObjectOutputStream eObjectStream = new BinaryResourceImpl.EObjectOutputStream(
+				bufferedStream, options);
+		eObjectStream.saveResource(this);
+		eObjectStream.flush();
+	}
+
+	@Override
+	public void doLoad(InputStream inputStream, Map<?, ?> options) throws IOException {
+		if (!binary) {
+			super.doLoad(inputStream, options);
+			return;
+		}
+		BufferedInputStream bufferedStream = new BufferedInputStream(inputStream);
+		DataInputStream dataStream = new DataInputStream(bufferedStream);
+		if (dataStream.readInt() != BINARY_SIGNATURE) {
+			throw new IOException("Not a binary application model: " + getURI()); //$NON-NLS-1$
+		}
+		int version = dataStream.readInt();
+		if (version != BINARY_VERSION) {
+			throw new IOException("Unsupported binary application model version " + version + ": " + getURI()); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		int count = dataStream.readInt();
+		String[] ids = new String[count];
+		for (int i = 0; i < count; i++) {
+			ids[i] = dataStream.readBoolean() ? dataStream.readUTF() : null;
+		}
+
+		BinaryResourceImpl.EObjectInputStream eObjectStream = new BinaryResourceImpl.EObjectInputStream(
+				bufferedStream, options);
+		eObjectStream.loadResource(this);
+
+		int i = 0;
+		for (TreeIterator<EObject> it = getAllContents(); it.hasNext() && i < count; i++) {
+			EObject eObject = it.next();
+			if (ids[i] != null) {
+				setID(eObject, ids[i]);
+			}
+		}
+	}
+
 	public void setInternalId(EObject object, String id) {
 		objectMap.put(object, id);
 		knownIds.add(id);
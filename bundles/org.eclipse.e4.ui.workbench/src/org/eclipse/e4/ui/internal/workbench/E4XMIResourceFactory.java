@@ -42,9 +42,29 @@ public class E4XMIResourceFactory extends XMIResourceFactoryImpl {
 	 */
 	private final ThreadLocal<Map<Object, Object>> nameToFeatureMap = new ThreadLocal<>();
 
+	private final boolean binary;
+
+	/**
+	 * Create a factory for resources stored as XMI.
+	 */
+	public E4XMIResourceFactory() {
+		this(false);
+	}
+
+	/**
+	 * @param binary
+	 *            <code>true</code> to create resources stored with the binary
+	 *            format
+	 * @see E4XMIResource#setBinary(boolean)
+	 */
+	public E4XMIResourceFactory(boolean binary) {
+		this.binary = binary;
+	}
+
 	@Override
 	public Resource createResource(URI uri) {
 		final E4XMIResource resource = new E4XMIResource(uri);
+		resource.setBinary(binary);
 
 		// configure default save/load options, as suggested by
 		// EMF: Eclipse Modeling Framework, Second Edition
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.internal.workbench;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.e4.ui.workbench.UIEvents;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
+import org.osgi.service.event.EventConstants;
+import org.osgi.service.event.EventHandler;
+import org.osgi.util.tracker.ServiceTracker;
+
+/**
+ * Keeps a table of the topics the registered OSGi {@link EventHandler}s
+ * subscribe to, so publishers can find out cheaply whether anybody listens to
+ * a topic before building an event for it.
+ * <p>
+ * Exact topics and wildcard topics (<code>a/b/*</code> and <code>*</code>) are
+ * counted separately. A lookup costs one hash probe per topic segment.
+ * </p>
+ */
+public class EventTopicSubscriptions {
+
+	private static final String WILDCARD = "*"; //$NON-NLS-1$
+
+	private final Map<String, Integer> exactTopics = new ConcurrentHashMap<>();
+
+	/** wildcard topics, stored without the trailing '*' */
+	private final Map<String, Integer> prefixTopics = new ConcurrentHashMap<>();
+
+	private final ServiceTracker<EventHandler, String[][]> tracker;
+
+	/**
+	 * @param context
+	 *            the bundle context used to track the event handlers
+	 */
+	public EventTopicSubscriptions(BundleContext context) {
+		// the tracked object is a holder for the topics currently counted
+		tracker = new ServiceTracker<EventHandler, String[][]>(context, EventHandler.class, null) {
+			@Override
+			public String[][] addingService(ServiceReference<EventHandler> reference) {
+				String[] topics = getTopics(reference);
+				update(topics, 1);
+				return new String[][] { topics };
+			}
+
+			@Override
+			public void modifiedService(ServiceReference<EventHandler> reference, String[][] holder) {
+				update(holder[0], -1);
+				holder[0] = getTopics(reference);
+				update(holder[0], 1);
+			}
+
+			@Override
+			public void removedService(ServiceReference<EventHandler> reference, String[][] holder) {
+				update(holder[0], -1);
+			}
+		};
+	}
+
+	/**
+	 * Start tracking the event handlers.
+	 */
+	public void open() {
+		tracker.open();
+	}
+
+	/**
+	 * Stop tracking the event handlers.
+	 */
+	public void close() {
+		tracker.close();
+		exactTopics.clear();
+		prefixTopics.clear();
+	}
+
+	/**
+	 * Return whether at least one event handler subscribes to the given topic,
+	 * either directly or through a wildcard.
+	 *
+	 * @param topic
+	 *            the topic of an event about to be sent
+	 * @return <code>true</code> if the event may be delivered to a handler
+	 */
+	public boolean hasSubscribers(String topic) {
+		if (exactTopics.containsKey(topic) || prefixTopics.containsKey("")) { //$NON-NLS-1$
+			return true;
+		}
+		if (prefixTopics.isEmpty()) {
+			return false;
+		}
+		int index = topic.lastIndexOf(UIEvents.TOPIC_SEP);
+		while (index > 0) {
+			if (prefixTopics.containsKey(topic.substring(0, index + 1))) {
+				return true;
+			}
+			index = topic.lastIndexOf(UIEvents.TOPIC_SEP, index - 1);
+		}
+		return false;
+	}
+
+	private void update(String[] topics, int delta) {
+		for (String topic : topics) {
+			update(topic, delta);
+		}
+	}
+
+	private void update(String topic, int delta) {
+		Map<String, Integer> table = exactTopics;
+		if (topic.endsWith(WILDCARD)) {
+			table = prefixTopics;
+			topic = topic.substring(0, topic.length() - 1);
+		}
+		table.compute(topic, (t, count) -> {
+			int newCount = (count == null ? 0 : count.intValue()) + delta;
+			return newCount > 0 ? Integer.valueOf(newCount) : null;
+		});
+	}
+
+	private static String[] getTopics(ServiceReference<EventHandler> reference) {
+		Object topics = reference.getProperty(EventConstants.EVENT_TOPIC);
+		if (topics instanceof String) {
+			return new String[] { (String) topics };
+		}
+		if (topics instanceof String[]) {
+			return ((String[]) topics).clone();
+		}
+		if (topics instanceof Collection<?>) {
+			return ((Collection<?>) topics).stream().filter(String.class::isInstance).toArray(String[]::new);
+		}
+		// no topic: the handler does not receive any event
+		return new String[0];
+	}
+}
@@ -0,0 +1,31 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.internal.workbench;
+
+/**
+ * Implemented by handlers which know the context variables their enablement
+ * depends on, so that the tool items bound to them are re-evaluated only when
+ * one of these variables changes.
+ *
+ * @see VariablesChangedSelector
+ */
+public interface IEnablementVariables {
+
+	/**
+	 * @return the names of the context variables and of the properties the
+	 *         enablement depends on, named as in a
+	 *         {@link VariablesChangedSelector}, or <code>null</code> if they
+	 *         are not known
+	 */
+	public String[] getEnablementVariables();
+
+}
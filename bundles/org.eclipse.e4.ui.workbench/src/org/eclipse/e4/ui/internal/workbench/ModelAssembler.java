@@ -15,12 +15,19 @@
 
 package org.eclipse.e4.ui.internal.workbench;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.inject.Inject;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IContributor;
@@ -44,9 +51,12 @@ import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.common.util.TreeIterator;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
 import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.impl.EPackageRegistryImpl;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
 import org.eclipse.emf.ecore.util.Diagnostician;
 import org.eclipse.emf.ecore.util.EContentsEList;
 import org.eclipse.emf.ecore.util.EcoreUtil;
@@ -95,7 +105,11 @@ public class ModelAssembler {
 
 		// run processors which are marked to run before fragments
 		runProcessors(extensions, initial, false);
-		// process fragments (and resolve imports)
+		// process fragments (and resolve imports). This is done on each start,
+		// even when the extensions are unchanged: the fragments applied always
+		// restore the elements removed before the model was persisted (the
+		// main menu, the menu, toolbar and trim contributions), and merging a
+		// fragment may change the model even when its elements already exist.
 		processFragments(extensions, initial);
 		// run processors which are marked to run after fragments
 		runProcessors(extensions, initial, true);
@@ -113,26 +127,147 @@ public class ModelAssembler {
 	 *
 	 */
 	private void processFragments(IExtension[] extensions, boolean initial) {
-		Set<ModelFragmentWrapper> fragmentList = new TreeSet<>(new ModelFragmentComparator());
+		List<IConfigurationElement> fragmentElements = new ArrayList<>();
 		for (IExtension extension : extensions) {
 			IConfigurationElement[] ces = extension.getConfigurationElements();
 			for (IConfigurationElement ce : ces) {
 				if ("fragment".equals(ce.getName()) && (initial || !INITIAL.equals(ce.getAttribute("apply")))) { //$NON-NLS-1$ //$NON-NLS-2$
-					MModelFragments fragmentsContainer = getFragmentsContainer(ce);
-					if (fragmentsContainer == null)
-						continue;
-					for (MModelFragment fragment : fragmentsContainer.getFragments()) {
-						boolean checkExist = !initial && NOTEXISTS.equals(ce.getAttribute("apply")); //$NON-NLS-1$
-						fragmentList.add(new ModelFragmentWrapper(fragmentsContainer, fragment,
-								ce.getContributor().getName(), URIHelper.constructPlatformURI(ce.getContributor()),
-								checkExist)); // $NON-NLS-1$
-					}
+					fragmentElements.add(ce);
 				}
 			}
 		}
+		Map<IConfigurationElement, URI> fragmentURIs = new LinkedHashMap<>();
+		for (IConfigurationElement ce : fragmentElements) {
+			URI uri = getFragmentURI(ce);
+			if (uri != null) {
+				fragmentURIs.put(ce, uri);
+			}
+		}
+		loadFragmentResources(fragmentURIs.values());
+
+		// merge in the same order as if the fragments had been loaded one by
+		// one, the comparator depends on it
+		Set<ModelFragmentWrapper> fragmentList = new TreeSet<>(new ModelFragmentComparator());
+		for (Map.Entry<IConfigurationElement, URI> entry : fragmentURIs.entrySet()) {
+			IConfigurationElement ce = entry.getKey();
+			MModelFragments fragmentsContainer = getFragmentsContainer(ce, entry.getValue());
+			if (fragmentsContainer == null)
+				continue;
+			for (MModelFragment fragment : fragmentsContainer.getFragments()) {
+				boolean checkExist = !initial && NOTEXISTS.equals(ce.getAttribute("apply")); //$NON-NLS-1$
+				fragmentList.add(new ModelFragmentWrapper(fragmentsContainer, fragment,
+						ce.getContributor().getName(), URIHelper.constructPlatformURI(ce.getContributor()),
+						checkExist)); // $NON-NLS-1$
+			}
+		}
 		processFragments(fragmentList);
 	}
 
+	/**
+	 * Parses the fragment resources concurrently and adds them to the resource
+	 * set of the application. Resources that fail to load are left out and
+	 * loaded again, with the failure reported, by
+	 * {@link #getFragmentsContainer(IConfigurationElement, URI)}.
+	 * <p>
+	 * Neither the registries nor the resource list of the application resource
+	 * set are thread safe. The resource factories and the already resolved
+	 * packages are therefore looked up on the calling thread, each resource is
+	 * parsed in a resource set of its own, and the loaded resources are added
+	 * to the application resource set on the calling thread.
+	 * </p>
+	 *
+	 * @param uris
+	 *            the URIs of the fragment resources
+	 */
+	private void loadFragmentResources(Collection<URI> uris) {
+		ResourceSet resourceSet = ((EObject) application).eResource().getResourceSet();
+		if (resourceSet == null) {
+			return;
+		}
+		Map<URI, Resource.Factory> toLoad = new LinkedHashMap<>();
+		for (URI uri : uris) {
+			if (resourceSet.getResource(uri, false) == null) {
+				Resource.Factory factory = resourceSet.getResourceFactoryRegistry().getFactory(uri);
+				if (factory != null) {
+					toLoad.put(uri, factory);
+				}
+			}
+		}
+		if (toLoad.size() < 2) {
+			return;
+		}
+		Map<String, Object> packages = getResolvedPackages(resourceSet);
+		Map<URI, URI> uriMap = new HashMap<>(resourceSet.getURIConverter().getURIMap());
+		Map<Object, Object> loadOptions = new HashMap<>(resourceSet.getLoadOptions());
+
+		int threads = Math.min(toLoad.size(), Runtime.getRuntime().availableProcessors());
+		ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "Model Fragment Loader"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			Map<URI, Future<Resource>> loads = new LinkedHashMap<>();
+			for (Map.Entry<URI, Resource.Factory> entry : toLoad.entrySet()) {
+				URI uri = entry.getKey();
+				Resource.Factory factory = entry.getValue();
+				loads.put(uri,
+						executor.submit(() -> loadFragmentResource(uri, factory, packages, uriMap, loadOptions)));
+			}
+			for (Future<Resource> load : loads.values()) {
+				try {
+					resourceSet.getResources().add(load.get());
+				} catch (ExecutionException e) {
+					// reported when loaded again
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Returns the packages already resolved in the package registry of the
+	 * resource set and in the global package registry. The fragments of the
+	 * application model only use packages the application model uses, which
+	 * are resolved once it is loaded. Fragments using another package fail to
+	 * load concurrently and are loaded again on the calling thread.
+	 */
+	private static Map<String, Object> getResolvedPackages(ResourceSet resourceSet) {
+		Map<String, Object> packages = new HashMap<>();
+		packages.put(FragmentPackageImpl.eNS_URI, FragmentPackageImpl.eINSTANCE);
+		for (EPackage.Registry registry : new EPackage.Registry[] { EPackage.Registry.INSTANCE,
+				resourceSet.getPackageRegistry() }) {
+			for (Map.Entry<String, Object> entry : new ArrayList<>(registry.entrySet())) {
+				// descriptors would be resolved, and replaced, concurrently
+				if (entry.getValue() instanceof EPackage) {
+					packages.put(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+		return packages;
+	}
+
+	/**
+	 * Loads a fragment resource in a resource set of its own, whose package
+	 * registry only holds the given resolved packages and doesn't delegate to
+	 * the global registry.
+	 */
+	private static Resource loadFragmentResource(URI uri, Resource.Factory factory, Map<String, Object> packages,
+			Map<URI, URI> uriMap, Map<Object, Object> loadOptions) throws IOException {
+		ResourceSetImpl loadingSet = new ResourceSetImpl();
+		EPackage.Registry packageRegistry = new EPackageRegistryImpl();
+		packageRegistry.putAll(packages);
+		loadingSet.setPackageRegistry(packageRegistry);
+		loadingSet.getURIConverter().getURIMap().putAll(uriMap);
+		Resource resource = factory.createResource(uri);
+		loadingSet.getResources().add(resource);
+		resource.load(loadOptions);
+		return resource;
+	}
+
 	/**
 	 * Processes the given list of fragments wrapped in
 	 * {@link ModelFragmentWrapper} elements.
@@ -200,12 +335,9 @@ public class ModelAssembler {
 		}
 	}
 
-	private MModelFragments getFragmentsContainer(IConfigurationElement ce) {
-		E4XMIResource applicationResource = (E4XMIResource) ((EObject) application).eResource();
-		ResourceSet resourceSet = applicationResource.getResourceSet();
-		IContributor contributor = ce.getContributor();
+	private URI getFragmentURI(IConfigurationElement ce) {
 		String attrURI = ce.getAttribute("uri"); //$NON-NLS-1$
-		String bundleName = contributor.getName();
+		String bundleName = ce.getContributor().getName();
 		if (attrURI == null) {
 			logger.warn("Unable to find location for the model extension \"{0}\"", bundleName); //$NON-NLS-1$
 			return null;
@@ -224,6 +356,14 @@ public class ModelAssembler {
 			logger.warn(e, "Invalid location \"" + attrURI + "\" of model extension \"" + bundleName + "\""); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 			return null;
 		}
+		return uri;
+	}
+
+	private MModelFragments getFragmentsContainer(IConfigurationElement ce, URI uri) {
+		E4XMIResource applicationResource = (E4XMIResource) ((EObject) application).eResource();
+		ResourceSet resourceSet = applicationResource.getResourceSet();
+		IContributor contributor = ce.getContributor();
+		String bundleName = contributor.getName();
 
 		Resource resource;
 		try {
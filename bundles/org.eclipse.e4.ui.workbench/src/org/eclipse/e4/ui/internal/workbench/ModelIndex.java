@@ -0,0 +1,286 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.internal.workbench;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.MApplicationElement;
+import org.eclipse.e4.ui.model.application.impl.ApplicationPackageImpl;
+import org.eclipse.e4.ui.model.application.ui.MUIElement;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPlaceholder;
+import org.eclipse.e4.ui.model.application.ui.advanced.impl.AdvancedPackageImpl;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+
+/**
+ * Live index of the elements contained in an application model, by element id,
+ * by tag and by implementation class, kept up to date through an
+ * {@link EContentAdapter}.
+ * <p>
+ * The index is used by {@link ModelServiceImpl} to restrict the traversal done
+ * by <code>findElements</code> to the subtrees that contain candidate
+ * elements, see {@link #getSearchScope(String, Class, List)}. The traversal
+ * itself is unchanged so the results, and their order, are the same as with a
+ * full traversal.
+ * </p>
+ */
+public class ModelIndex extends EContentAdapter {
+
+	private static class IndexEntry {
+		String id;
+
+		List<String> tags;
+
+		MUIElement ref;
+	}
+
+	private final MApplication application;
+
+	private final Map<MApplicationElement, IndexEntry> entries = new IdentityHashMap<>();
+
+	private final Map<String, Set<MApplicationElement>> byId = new HashMap<>();
+
+	private final Map<String, Set<MApplicationElement>> byTag = new HashMap<>();
+
+	private final Map<Class<?>, Set<MApplicationElement>> byClass = new HashMap<>();
+
+	/** The placeholders referencing an element, by element */
+	private final Map<MUIElement, Set<MPlaceholder>> byRef = new IdentityHashMap<>();
+
+	/**
+	 * Create the index of the given application and attach it to the model.
+	 *
+	 * @param application
+	 *            the application to index
+	 */
+	public ModelIndex(MApplication application) {
+		this.application = application;
+		((Notifier) application).eAdapters().add(this);
+	}
+
+	/**
+	 * Detach the index from the model.
+	 */
+	public void dispose() {
+		((Notifier) application).eAdapters().remove(this);
+		entries.clear();
+		byId.clear();
+		byTag.clear();
+		byClass.clear();
+		byRef.clear();
+	}
+
+	/**
+	 * @return the indexed application
+	 */
+	public MApplication getApplication() {
+		return application;
+	}
+
+	/**
+	 * @param element
+	 *            an element
+	 * @return <code>true</code> if the element is contained in the indexed
+	 *         application
+	 */
+	public boolean isIndexed(Object element) {
+		return entries.containsKey(element);
+	}
+
+	/**
+	 * @return the number of indexed elements
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Compute the elements a search must visit to find all the elements
+	 * matching the given criteria: the candidate elements, their ancestors and
+	 * the placeholders (and their ancestors) through which they are reachable.
+	 * Placeholders referencing elements outside of the model are always part
+	 * of the scope.
+	 *
+	 * @param id
+	 *            the element id to match, may be <code>null</code>
+	 * @param clazz
+	 *            the class to match, may be <code>null</code>
+	 * @param tags
+	 *            the tags to match, may be <code>null</code>
+	 * @return the search scope, or <code>null</code> if the criteria are not
+	 *         selective enough for the scope to be worth computing
+	 */
+	public Set<Object> getSearchScope(String id, Class<?> clazz, List<String> tags) {
+		Collection<MApplicationElement> candidates = null;
+		if (id != null) {
+			candidates = get(byId, id);
+		}
+		if (tags != null) {
+			for (String tag : tags) {
+				candidates = smallest(candidates, get(byTag, tag));
+			}
+		}
+		if (clazz != null && (candidates == null || !candidates.isEmpty())) {
+			candidates = smallest(candidates, getInstances(clazz));
+		}
+		// a search for almost everything visits almost everything anyway
+		if (candidates == null || candidates.size() > entries.size() / 4) {
+			return null;
+		}
+
+		Set<Object> scope = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+		Deque<Object> pending = new ArrayDeque<>(candidates);
+		for (Map.Entry<MUIElement, Set<MPlaceholder>> refEntry : byRef.entrySet()) {
+			if (!entries.containsKey(refEntry.getKey())) {
+				pending.addAll(refEntry.getValue());
+			}
+		}
+		while (!pending.isEmpty()) {
+			Object element = pending.pop();
+			while (element != null && scope.add(element)) {
+				Set<MPlaceholder> placeholders = byRef.get(element);
+				if (placeholders != null) {
+					pending.addAll(placeholders);
+				}
+				element = ((EObject) element).eContainer();
+			}
+		}
+		return scope;
+	}
+
+	private Collection<MApplicationElement> getInstances(Class<?> clazz) {
+		List<MApplicationElement> instances = new ArrayList<>();
+		for (Map.Entry<Class<?>, Set<MApplicationElement>> entry : byClass.entrySet()) {
+			if (clazz.isAssignableFrom(entry.getKey())) {
+				instances.addAll(entry.getValue());
+			}
+		}
+		return instances;
+	}
+
+	private static Collection<MApplicationElement> smallest(Collection<MApplicationElement> c1,
+			Collection<MApplicationElement> c2) {
+		return c1 == null || c2.size() < c1.size() ? c2 : c1;
+	}
+
+	private static Collection<MApplicationElement> get(Map<String, Set<MApplicationElement>> map, String key) {
+		Set<MApplicationElement> set = map.get(key);
+		return set != null ? set : Collections.<MApplicationElement> emptySet();
+	}
+
+	@Override
+	protected void setTarget(EObject target) {
+		super.setTarget(target);
+		if (target instanceof MApplicationElement) {
+			add((MApplicationElement) target);
+		}
+	}
+
+	@Override
+	protected void unsetTarget(EObject target) {
+		super.unsetTarget(target);
+		if (target instanceof MApplicationElement) {
+			remove((MApplicationElement) target);
+		}
+	}
+
+	@Override
+	public void notifyChanged(Notification notification) {
+		super.notifyChanged(notification);
+		if (notification.isTouch()) {
+			return;
+		}
+		Object notifier = notification.getNotifier();
+		Object feature = notification.getFeature();
+		if (!(notifier instanceof MApplicationElement) || !entries.containsKey(notifier)) {
+			return;
+		}
+		if (feature == ApplicationPackageImpl.Literals.APPLICATION_ELEMENT__ELEMENT_ID
+				|| feature == ApplicationPackageImpl.Literals.APPLICATION_ELEMENT__TAGS
+				|| feature == AdvancedPackageImpl.Literals.PLACEHOLDER__REF) {
+			MApplicationElement element = (MApplicationElement) notifier;
+			remove(element);
+			add(element);
+		}
+	}
+
+	private void add(MApplicationElement element) {
+		if (entries.containsKey(element)) {
+			return;
+		}
+		IndexEntry entry = new IndexEntry();
+		entries.put(element, entry);
+		addTo(byClass, element.getClass(), element);
+		entry.id = element.getElementId();
+		if (entry.id != null) {
+			addTo(byId, entry.id, element);
+		}
+		if (!element.getTags().isEmpty()) {
+			entry.tags = new ArrayList<>(element.getTags());
+			for (String tag : entry.tags) {
+				addTo(byTag, tag, element);
+			}
+		}
+		if (element instanceof MPlaceholder) {
+			entry.ref = ((MPlaceholder) element).getRef();
+			if (entry.ref != null) {
+				addTo(byRef, entry.ref, (MPlaceholder) element);
+			}
+		}
+	}
+
+	private void remove(MApplicationElement element) {
+		IndexEntry entry = entries.remove(element);
+		if (entry == null) {
+			return;
+		}
+		removeFrom(byClass, element.getClass(), element);
+		if (entry.id != null) {
+			removeFrom(byId, entry.id, element);
+		}
+		if (entry.tags != null) {
+			for (String tag : entry.tags) {
+				removeFrom(byTag, tag, element);
+			}
+		}
+		if (entry.ref != null) {
+			removeFrom(byRef, entry.ref, (MPlaceholder) element);
+		}
+	}
+
+	private static <K, V> void addTo(Map<K, Set<V>> map, K key, V value) {
+		Set<V> set = map.get(key);
+		if (set == null) {
+			set = Collections.newSetFromMap(new IdentityHashMap<V, Boolean>());
+			map.put(key, set);
+		}
+		set.add(value);
+	}
+
+	private static <K, V> void removeFrom(Map<K, Set<V>> map, K key, V value) {
+		Set<V> set = map.get(key);
+		if (set != null && set.remove(value) && set.isEmpty()) {
+			map.remove(key);
+		}
+	}
+}
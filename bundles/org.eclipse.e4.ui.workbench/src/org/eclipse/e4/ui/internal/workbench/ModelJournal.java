@@ -0,0 +1,527 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.internal.workbench;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.MApplicationElement;
+import org.eclipse.e4.ui.model.application.impl.ApplicationPackageImpl;
+import org.eclipse.e4.ui.model.application.impl.StringToObjectMapImpl;
+import org.eclipse.e4.ui.model.application.impl.StringToStringMapImpl;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+
+/**
+ * Journal of the changes made to the application model since the last
+ * auto-saved snapshot of the model.
+ * <p>
+ * Changes to single-valued attributes and references and to the persisted
+ * state of the elements are recorded by element id, coalesced, and appended to
+ * the journal file by the auto-save instead of writing a snapshot of the whole
+ * model. Any other change, such as adding or removing elements, requires a new
+ * snapshot, as does a journal that grew too large. When the model is restored
+ * the journal is replayed on the snapshot it was started for.
+ * </p>
+ * <p>
+ * Changes are recorded and taken on the UI thread, the journal file is written
+ * by the auto-save job.
+ * </p>
+ */
+public class ModelJournal extends EContentAdapter {
+
+	/** Key of the persisted state of the snapshot identifying its journal */
+	static final String GENERATION_KEY = "org.eclipse.e4.ui.workbench.modelJournal.generation"; //$NON-NLS-1$
+
+	private static final int JOURNAL_SIGNATURE = 0x45344a4c; // "E4JL"
+
+	private static final int MAX_RECORDS = 10000;
+
+	private static final long MAX_BYTES = 4 * 1024 * 1024;
+
+	private static final byte KIND_ATTRIBUTE = 1;
+
+	private static final byte KIND_REFERENCE = 2;
+
+	private static final byte KIND_STATE_PUT = 3;
+
+	private static final byte KIND_STATE_REMOVE = 4;
+
+	/**
+	 * A coalesced change of the model.
+	 */
+	public static class Change {
+		final byte kind;
+
+		final String elementId;
+
+		final String name;
+
+		final String value;
+
+		Change(byte kind, String elementId, String name, String value) {
+			this.kind = kind;
+			this.elementId = elementId;
+			this.name = name;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * A snapshot of the model being saved, which the journal will be based on
+	 * once saved.
+	 */
+	public static class Snapshot {
+		final String generation;
+
+		private final Map<EObject, String> ids;
+
+		Snapshot(String generation, Map<EObject, String> ids) {
+			this.generation = generation;
+			this.ids = ids;
+		}
+
+		/**
+		 * Give the elements of the snapshot the ids of the elements they were
+		 * copied from, so the journal entries can be replayed on it.
+		 *
+		 * @param resource
+		 *            the resource holding the copied application
+		 */
+		public void assignIds(Resource resource) {
+			if (!(resource instanceof XMLResource)) {
+				return;
+			}
+			for (Map.Entry<EObject, String> entry : ids.entrySet()) {
+				if (entry.getKey().eResource() == resource) {
+					((XMLResource) resource).setID(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+	}
+
+	private final File journalFile;
+
+	private final XMLResource resource;
+
+	private final Map<String, Change> pendingChanges = new LinkedHashMap<>();
+
+	private boolean structuralChange;
+
+	/** generation of the snapshot the journal file is based on */
+	private String generation;
+
+	private int records;
+
+	/**
+	 * Create a journal for the given model and start recording its changes.
+	 *
+	 * @param journalFile
+	 *            the journal file
+	 * @param resource
+	 *            the resource of the model
+	 */
+	public ModelJournal(File journalFile, XMLResource resource) {
+		this.journalFile = journalFile;
+		this.resource = resource;
+		((Notifier) resource.getContents().get(0)).eAdapters().add(this);
+	}
+
+	/**
+	 * Stop recording the changes of the model.
+	 */
+	public void dispose() {
+		((Notifier) resource.getContents().get(0)).eAdapters().remove(this);
+	}
+
+	/**
+	 * @return <code>true</code> if the pending changes can be appended to the
+	 *         journal, <code>false</code> if a new snapshot is needed
+	 */
+	public synchronized boolean canAppend() {
+		return generation != null && !structuralChange && records < MAX_RECORDS
+				&& journalFile.length() < MAX_BYTES;
+	}
+
+	/**
+	 * Return the changes recorded since the last call and forget them.
+	 *
+	 * @return the changes to append to the journal
+	 */
+	public synchronized List<Change> takeChanges() {
+		List<Change> changes = new ArrayList<>(pendingChanges.values());
+		pendingChanges.clear();
+		return changes;
+	}
+
+	/**
+	 * Append changes to the journal file.
+	 *
+	 * @param changes
+	 *            the changes
+	 * @throws IOException
+	 *             if the journal cannot be written, in which case a new
+	 *             snapshot is needed
+	 */
+	public synchronized void append(List<Change> changes) throws IOException {
+		try (FileOutputStream fileStream = new FileOutputStream(journalFile, true)) {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileStream));
+			for (Change change : changes) {
+				out.writeByte(change.kind);
+				writeString(out, change.elementId);
+				writeString(out, change.name);
+				out.writeBoolean(change.value != null);
+				if (change.value != null) {
+					writeString(out, change.value);
+				}
+			}
+			out.flush();
+			fileStream.getFD().sync();
+			records += changes.size();
+		} catch (IOException e) {
+			generation = null;
+			throw e;
+		}
+	}
+
+	/**
+	 * Prepare a snapshot of the model: the pending changes are part of it and
+	 * are dropped. The copy must have been made from the model in the same UI
+	 * thread operation.
+	 *
+	 * @param application
+	 *            the application model
+	 * @param copy
+	 *            the copy of the application model that will be saved
+	 * @return the snapshot, to be passed to {@link #snapshotSaved(Snapshot)}
+	 *         once saved
+	 */
+	public synchronized Snapshot startSnapshot(MApplication application, MApplication copy) {
+		pendingChanges.clear();
+		structuralChange = false;
+
+		Map<EObject, String> ids = new IdentityHashMap<>();
+		Iterator<EObject> copies = EcoreUtil.getAllContents(Collections.singleton(copy), false);
+		for (Iterator<EObject> it = EcoreUtil.getAllContents(Collections.singleton(application), false); it
+				.hasNext();) {
+			EObject eObject = it.next();
+			EObject eCopy = copies.hasNext() ? copies.next() : null;
+			if (eCopy == null || eCopy.eClass() != eObject.eClass()) {
+				// not a faithful copy, no journal for this snapshot
+				ids.clear();
+				break;
+			}
+			// the elements without an id get one here, it is saved with the
+			// snapshot
+			String id = resource.getID(eObject);
+			if (id != null) {
+				ids.put(eCopy, id);
+			}
+		}
+		String snapshotGeneration = ids.isEmpty() ? null : EcoreUtil.generateUUID();
+		if (snapshotGeneration != null) {
+			copy.getPersistedState().put(GENERATION_KEY, snapshotGeneration);
+		}
+		return new Snapshot(snapshotGeneration, ids);
+	}
+
+	/**
+	 * Start a new journal for a snapshot that has been saved.
+	 *
+	 * @param snapshot
+	 *            the saved snapshot
+	 * @throws IOException
+	 *             if the journal cannot be reset
+	 */
+	public synchronized void snapshotSaved(Snapshot snapshot) throws IOException {
+		generation = null;
+		records = 0;
+		if (snapshot.generation == null) {
+			Files.deleteIfExists(journalFile.toPath());
+			return;
+		}
+		File tmpFile = new File(journalFile.getParentFile(), journalFile.getName() + ".tmp"); //$NON-NLS-1$
+		try (FileOutputStream fileStream = new FileOutputStream(tmpFile)) {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileStream));
+			out.writeInt(JOURNAL_SIGNATURE);
+			writeString(out, snapshot.generation);
+			out.flush();
+			fileStream.getFD().sync();
+		}
+		Files.move(tmpFile.toPath(), journalFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+		generation = snapshot.generation;
+	}
+
+	/**
+	 * Discard the journal, e.g. after the whole model has been saved.
+	 */
+	public synchronized void reset() {
+		pendingChanges.clear();
+		generation = null;
+		records = 0;
+		journalFile.delete();
+	}
+
+	@Override
+	public void notifyChanged(Notification notification) {
+		super.notifyChanged(notification);
+		if (notification.isTouch()) {
+			return;
+		}
+		Object notifier = notification.getNotifier();
+		Object feature = notification.getFeature();
+		if (notifier instanceof StringToStringMapImpl) {
+			// a value of the persisted state
+			StringToStringMapImpl entry = (StringToStringMapImpl) notifier;
+			if (feature == ApplicationPackageImpl.Literals.STRING_TO_STRING_MAP__VALUE
+					&& entry.eContainer() != null) {
+				recordState(entry.eContainer(), entry.getKey(), entry.getValue());
+			} else {
+				recordStructuralChange();
+			}
+			return;
+		}
+		if (notifier instanceof StringToObjectMapImpl || !(feature instanceof EStructuralFeature)) {
+			// transient data
+			return;
+		}
+		if (!(notifier instanceof MApplicationElement)) {
+			recordStructuralChange();
+			return;
+		}
+		EObject element = (EObject) notifier;
+		EStructuralFeature eFeature = (EStructuralFeature) feature;
+		if (eFeature.isTransient()) {
+			return;
+		}
+		if (eFeature == ApplicationPackageImpl.Literals.APPLICATION_ELEMENT__PERSISTED_STATE) {
+			recordStateChange(element, notification);
+		} else if (eFeature.isMany() || !eFeature.isChangeable()) {
+			recordStructuralChange();
+		} else if (eFeature instanceof EAttribute) {
+			EAttribute attribute = (EAttribute) eFeature;
+			Object value = element.eGet(attribute);
+			String stringValue = value == null ? null
+					: EcoreUtil.convertToString(attribute.getEAttributeType(), value);
+			record(KIND_ATTRIBUTE, element, attribute.getName(), stringValue);
+		} else {
+			EReference reference = (EReference) eFeature;
+			EObject target = (EObject) element.eGet(reference);
+			if (reference.isContainment() || (target != null && target.eResource() != resource)) {
+				recordStructuralChange();
+			} else if (target == null) {
+				record(KIND_REFERENCE, element, reference.getName(), null);
+			} else {
+				String targetId = getExistingId(target);
+				if (targetId == null) {
+					recordStructuralChange();
+				} else {
+					record(KIND_REFERENCE, element, reference.getName(), targetId);
+				}
+			}
+		}
+	}
+
+	private void recordStateChange(EObject element, Notification notification) {
+		switch (notification.getEventType()) {
+		case Notification.ADD:
+			recordStateEntry(element, notification.getNewValue(), true);
+			break;
+		case Notification.ADD_MANY:
+			for (Object entry : (List<?>) notification.getNewValue()) {
+				recordStateEntry(element, entry, true);
+			}
+			break;
+		case Notification.REMOVE:
+			recordStateEntry(element, notification.getOldValue(), false);
+			break;
+		case Notification.REMOVE_MANY:
+			for (Object entry : (List<?>) notification.getOldValue()) {
+				recordStateEntry(element, entry, false);
+			}
+			break;
+		case Notification.MOVE:
+			// the order of the entries does not matter
+			break;
+		default:
+			recordStructuralChange();
+		}
+	}
+
+	private void recordStateEntry(EObject element, Object entry, boolean added) {
+		if (entry instanceof StringToStringMapImpl) {
+			StringToStringMapImpl mapEntry = (StringToStringMapImpl) entry;
+			if (added) {
+				recordState(element, mapEntry.getKey(), mapEntry.getValue());
+			} else if (!((MApplicationElement) element).getPersistedState().containsKey(mapEntry.getKey())) {
+				record(KIND_STATE_REMOVE, element, mapEntry.getKey(), null);
+			}
+		}
+	}
+
+	private void recordState(EObject element, String key, String value) {
+		if (key == null || GENERATION_KEY.equals(key)) {
+			return;
+		}
+		record(KIND_STATE_PUT, element, key, value);
+	}
+
+	private synchronized void record(byte kind, EObject element, String name, String value) {
+		if (structuralChange) {
+			return;
+		}
+		String elementId = getExistingId(element);
+		if (elementId == null) {
+			// not part of the last snapshot
+			recordStructuralChange();
+			return;
+		}
+		boolean state = kind == KIND_STATE_PUT || kind == KIND_STATE_REMOVE;
+		String key = elementId + (state ? "\u0000state\u0000" : "\u0000feature\u0000") + name; //$NON-NLS-1$ //$NON-NLS-2$
+		pendingChanges.put(key, new Change(kind, elementId, name, value));
+	}
+
+	/**
+	 * @return the id of the element, or <code>null</code> if it has none.
+	 *         Unlike {@link XMLResource#getID(EObject)} with the application
+	 *         model resource, no id is assigned to the element.
+	 */
+	private String getExistingId(EObject element) {
+		return resource.getEObjectToIDMap().get(element);
+	}
+
+	private synchronized void recordStructuralChange() {
+		structuralChange = true;
+		pendingChanges.clear();
+	}
+
+	/**
+	 * Replay the journal on the model it was started for. Journals started for
+	 * another snapshot of the model are ignored, and a truncated last entry,
+	 * e.g. after a crash, is dropped.
+	 *
+	 * @param journalFile
+	 *            the journal file
+	 * @param resource
+	 *            the resource of the restored model
+	 * @return the number of changes replayed
+	 * @throws IOException
+	 *             if the journal cannot be read
+	 */
+	public static int replay(File journalFile, XMLResource resource) throws IOException {
+		if (!journalFile.exists() || resource.getContents().isEmpty()
+				|| !(resource.getContents().get(0) instanceof MApplication)) {
+			return 0;
+		}
+		MApplication application = (MApplication) resource.getContents().get(0);
+		String modelGeneration = application.getPersistedState().get(GENERATION_KEY);
+		int replayed = 0;
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new FileInputStream(journalFile)))) {
+			if (in.readInt() != JOURNAL_SIGNATURE || !readString(in).equals(modelGeneration)) {
+				return 0;
+			}
+			while (true) {
+				byte kind = in.readByte();
+				String elementId = readString(in);
+				String name = readString(in);
+				String value = in.readBoolean() ? readString(in) : null;
+				EObject element = resource.getEObject(elementId);
+				if (element != null && apply(resource, element, kind, name, value)) {
+					replayed++;
+				}
+			}
+		} catch (EOFException e) {
+			// end of the journal, or an entry truncated by a crash
+		}
+		return replayed;
+	}
+
+	private static boolean apply(XMLResource resource, EObject element, byte kind, String name, String value) {
+		switch (kind) {
+		case KIND_STATE_PUT:
+		case KIND_STATE_REMOVE:
+			if (!(element instanceof MApplicationElement)) {
+				return false;
+			}
+			if (kind == KIND_STATE_PUT) {
+				((MApplicationElement) element).getPersistedState().put(name, value);
+			} else {
+				((MApplicationElement) element).getPersistedState().remove(name);
+			}
+			return true;
+		case KIND_ATTRIBUTE:
+			EStructuralFeature attribute = element.eClass().getEStructuralFeature(name);
+			if (!(attribute instanceof EAttribute) || attribute.isMany()) {
+				return false;
+			}
+			element.eSet(attribute, value == null ? null
+					: EcoreUtil.createFromString(((EAttribute) attribute).getEAttributeType(), value));
+			return true;
+		case KIND_REFERENCE:
+			EStructuralFeature reference = element.eClass().getEStructuralFeature(name);
+			if (!(reference instanceof EReference) || reference.isMany()) {
+				return false;
+			}
+			EObject target = value == null ? null : resource.getEObject(value);
+			if (value != null && target == null) {
+				return false;
+			}
+			element.eSet(reference, target);
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0 || length > MAX_BYTES) {
+			throw new EOFException();
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
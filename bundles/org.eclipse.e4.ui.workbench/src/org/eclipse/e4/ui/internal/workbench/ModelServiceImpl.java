@@ -15,12 +15,20 @@ package org.eclipse.e4.ui.internal.workbench;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IExtensionRegistry;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.services.events.IEventBroker;
 import org.eclipse.e4.core.services.log.Logger;
+import org.eclipse.e4.ui.di.UISynchronize;
 import org.eclipse.e4.ui.model.application.MAddon;
 import org.eclipse.e4.ui.model.application.MApplication;
 import org.eclipse.e4.ui.model.application.MApplicationElement;
@@ -61,7 +69,9 @@ import org.eclipse.e4.ui.workbench.modeling.EModelService;
 import org.eclipse.e4.ui.workbench.modeling.EPartService;
 import org.eclipse.e4.ui.workbench.modeling.EPlaceholderResolver;
 import org.eclipse.e4.ui.workbench.modeling.ElementMatcher;
+import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EContentAdapter;
 import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.osgi.service.event.Event;
 import org.osgi.service.event.EventHandler;
@@ -77,6 +87,27 @@ public class ModelServiceImpl implements EModelService {
 	/** Factory which is able to create {@link MApplicationElement}s in a generic way. */
 	private GenericMApplicationElementFactoryImpl mApplicationElementFactory;
 
+	/** Index of the application model, created on the first search */
+	private ModelIndex modelIndex;
+
+	/** The number of snippets copied ahead of time which are kept */
+	private static final int MAX_PREPARED_SNIPPETS = 4;
+
+	/** Snippets copied ahead of time, only accessed on the UI thread */
+	private Map<MApplicationElement, PreparedSnippet> preparedSnippets =
+			new LinkedHashMap<MApplicationElement, PreparedSnippet>(MAX_PREPARED_SNIPPETS + 1, 1, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<MApplicationElement, PreparedSnippet> eldest) {
+			if (size() > MAX_PREPARED_SNIPPETS) {
+				eldest.getValue().dispose();
+				return true;
+			}
+			return false;
+		}
+	};
+
 	// Cleans up after a hosted element is disposed
 	private EventHandler hostedElementHandler = new EventHandler() {
 
@@ -125,6 +156,33 @@ public class ModelServiceImpl implements EModelService {
 				appContext.get(IExtensionRegistry.class));
 	}
 
+	/**
+	 * Run a bulk model mutation as a batch: the UI events it raises are
+	 * buffered, coalesced and delivered once the mutation is done, so the
+	 * renderers only react to the final state of each element.
+	 * <p>
+	 * The mutation must leave the model in a state the event handlers can
+	 * process, e.g. an element hidden by the mutation should not be removed
+	 * from the model by the same batch.
+	 * </p>
+	 *
+	 * @param mutation
+	 *            the model changes to perform
+	 */
+	public void runBatched(Runnable mutation) {
+		UIEventPublisher publisher = appContext.get(UIEventPublisher.class);
+		if (publisher == null) {
+			mutation.run();
+			return;
+		}
+		publisher.beginBatch();
+		try {
+			mutation.run();
+		} finally {
+			publisher.endBatch();
+		}
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	public final <T extends MApplicationElement> T createModelElement(Class<T> elementType) {
@@ -141,12 +199,21 @@ public class ModelServiceImpl implements EModelService {
 				"Unsupported model object type: " + elementType.getCanonicalName()); //$NON-NLS-1$
 	}
 
+	/**
+	 * @param scope
+	 *            if not <code>null</code>, the indexed elements to visit, see
+	 *            {@link ModelIndex#getSearchScope(String, Class, List)}
+	 */
 	private <T> void findElementsRecursive(MApplicationElement searchRoot, Class<T> clazz,
-			Selector matcher, List<T> elements, int searchFlags) {
+			Selector matcher, List<T> elements, int searchFlags, Set<Object> scope) {
 		Assert.isLegal(searchRoot != null);
 		if (searchFlags == 0) {
 			return;
 		}
+		// Nothing to find below this element
+		if (scope != null && !scope.contains(searchRoot) && modelIndex.isIndexed(searchRoot)) {
+			return;
+		}
 
 		// are *we* a match ?
 		boolean classMatch = clazz == null ? true : clazz.isInstance(searchRoot);
@@ -181,21 +248,21 @@ public class ModelServiceImpl implements EModelService {
 			}
 
 			for (MApplicationElement child : children) {
-				findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(child, clazz, matcher, elements, searchFlags, scope);
 			}
 		}
 
 		if (searchRoot instanceof MBindingContext && (searchFlags == ANYWHERE)) {
 			MBindingContext bindingContext = (MBindingContext) searchRoot;
 			for (MBindingContext child : bindingContext.getChildren()) {
-				findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(child, clazz, matcher, elements, searchFlags, scope);
 			}
 		}
 
 		if (searchRoot instanceof MBindingTable) {
 			MBindingTable bindingTable = (MBindingTable) searchRoot;
 			for (MKeyBinding child : bindingTable.getBindings()) {
-				findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(child, clazz, matcher, elements, searchFlags, scope);
 			}
 		}
 
@@ -221,19 +288,19 @@ public class ModelServiceImpl implements EModelService {
 					MElementContainer<? extends MUIElement> container = searchContainer;
 					List<? extends MUIElement> children = container.getChildren();
 					for (MUIElement child : children) {
-						findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+						findElementsRecursive(child, clazz, matcher, elements, searchFlags, scope);
 					}
 				} else if ((searchFlags & IN_ACTIVE_PERSPECTIVE) != 0) {
 					// Only search the currently active perspective, if any
 					MPerspective active = ((MPerspectiveStack) searchContainer).getSelectedElement();
 					if (active != null) {
-						findElementsRecursive(active, clazz, matcher, elements, searchFlags);
+						findElementsRecursive(active, clazz, matcher, elements, searchFlags, scope);
 					}
 				} else if ((searchFlags & IN_SHARED_AREA) != 0) {
 					// Only recurse through the shared areas
 					List<MArea> areas = findElements(searchContainer, null, MArea.class, null);
 					for (MArea area : areas) {
-						findElementsRecursive(area, clazz, matcher, elements, searchFlags);
+						findElementsRecursive(area, clazz, matcher, elements, searchFlags, scope);
 					}
 				}
 			} else {
@@ -241,7 +308,7 @@ public class ModelServiceImpl implements EModelService {
 				MElementContainer<MUIElement> container = (MElementContainer<MUIElement>) searchRoot;
 				List<MUIElement> children = container.getChildren();
 				for (MUIElement child : children) {
-					findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+					findElementsRecursive(child, clazz, matcher, elements, searchFlags, scope);
 				}
 			}
 		}
@@ -251,7 +318,7 @@ public class ModelServiceImpl implements EModelService {
 			MTrimmedWindow tw = (MTrimmedWindow) searchRoot;
 			List<MTrimBar> bars = tw.getTrimBars();
 			for (MTrimBar bar : bars) {
-				findElementsRecursive(bar, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(bar, clazz, matcher, elements, searchFlags, scope);
 			}
 		}
 
@@ -259,17 +326,17 @@ public class ModelServiceImpl implements EModelService {
 		if (searchRoot instanceof MWindow) {
 			MWindow window = (MWindow) searchRoot;
 			for (MWindow dw : window.getWindows()) {
-				findElementsRecursive(dw, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(dw, clazz, matcher, elements, searchFlags, scope);
 			}
 
 			MMenu menu = window.getMainMenu();
 			if (menu != null && (searchFlags & IN_MAIN_MENU) != 0) {
-				findElementsRecursive(menu, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(menu, clazz, matcher, elements, searchFlags, scope);
 			}
 			// Check for Handlers
 			if (searchFlags == ANYWHERE && MHandler.class.equals(clazz)) {
 				for (MHandler child : window.getHandlers()) {
-					findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+					findElementsRecursive(child, clazz, matcher, elements, searchFlags, scope);
 				}
 			}
 		}
@@ -277,7 +344,7 @@ public class ModelServiceImpl implements EModelService {
 		if (searchRoot instanceof MPerspective) {
 			MPerspective persp = (MPerspective) searchRoot;
 			for (MWindow dw : persp.getWindows()) {
-				findElementsRecursive(dw, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(dw, clazz, matcher, elements, searchFlags, scope);
 			}
 		}
 		// Search shared elements
@@ -287,7 +354,7 @@ public class ModelServiceImpl implements EModelService {
 			// Don't search in shared areas unless the flag is set
 			if (ph.getRef() != null
 					&& (!(ph.getRef() instanceof MArea) || (searchFlags & IN_SHARED_AREA) != 0)) {
-				findElementsRecursive(ph.getRef(), clazz, matcher, elements, searchFlags);
+				findElementsRecursive(ph.getRef(), clazz, matcher, elements, searchFlags, scope);
 			}
 		}
 
@@ -295,16 +362,16 @@ public class ModelServiceImpl implements EModelService {
 			MPart part = (MPart) searchRoot;
 
 			for (MMenu menu : part.getMenus()) {
-				findElementsRecursive(menu, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(menu, clazz, matcher, elements, searchFlags, scope);
 			}
 
 			MToolBar toolBar = part.getToolbar();
 			if (toolBar != null) {
-				findElementsRecursive(toolBar, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(toolBar, clazz, matcher, elements, searchFlags, scope);
 			}
 			if (MHandler.class.equals(clazz)) {
 				for (MHandler child : part.getHandlers()) {
-					findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+					findElementsRecursive(child, clazz, matcher, elements, searchFlags, scope);
 				}
 			}
 		}
@@ -379,32 +446,60 @@ public class ModelServiceImpl implements EModelService {
 	@Override
 	public <T> List<T> findElements(MUIElement searchRoot, String id, Class<T> clazz,
 			List<String> tagsToMatch) {
-		ElementMatcher matcher = new ElementMatcher(id, clazz, tagsToMatch);
-		return findElements(searchRoot, clazz, ANYWHERE, matcher);
+		return findElements(searchRoot, id, clazz, tagsToMatch, ANYWHERE);
 	}
 
 	@Override
 	public <T> List<T> findElements(MUIElement searchRoot, String id, Class<T> clazz,
 			List<String> tagsToMatch, int searchFlags) {
 		ElementMatcher matcher = new ElementMatcher(id, clazz, tagsToMatch);
-		return findElements(searchRoot, clazz, searchFlags, matcher);
+		return findElements(searchRoot, id, clazz, tagsToMatch, searchFlags, matcher);
 	}
 
 	@Override
 	public <T> List<T> findElements(MApplicationElement searchRoot, Class<T> clazz,
 			int searchFlags, Selector matcher) {
+		return findElements(searchRoot, null, clazz, null, searchFlags, matcher);
+	}
+
+	private <T> List<T> findElements(MApplicationElement searchRoot, String id, Class<T> clazz,
+			List<String> tagsToMatch, int searchFlags, Selector matcher) {
 		List<T> elements = new ArrayList<>();
-		findElementsRecursive(searchRoot, clazz, matcher, elements, searchFlags);
+		Set<Object> scope = null;
+		ModelIndex index = getModelIndex();
+		if (index != null && index.isIndexed(searchRoot)) {
+			scope = index.getSearchScope(id, clazz, tagsToMatch);
+			if (scope != null && !scope.contains(searchRoot)) {
+				return elements;
+			}
+		}
+		findElementsRecursive(searchRoot, clazz, matcher, elements, searchFlags, scope);
 		return elements;
 	}
 
+	/**
+	 * @return the index of the running application, or <code>null</code> if
+	 *         there is no application yet
+	 */
+	private ModelIndex getModelIndex() {
+		MApplication application = appContext.get(MApplication.class);
+		if (application == null) {
+			return null;
+		}
+		if (modelIndex == null || modelIndex.getApplication() != application) {
+			if (modelIndex != null) {
+				modelIndex.dispose();
+			}
+			modelIndex = new ModelIndex(application);
+		}
+		return modelIndex;
+	}
+
 	private <T> List<T> findPerspectiveElements(MUIElement searchRoot, String id,
 			Class<T> clazz,
 			List<String> tagsToMatch) {
-		List<T> elements = new ArrayList<>();
 		ElementMatcher matcher = new ElementMatcher(id, clazz, tagsToMatch);
-		findElementsRecursive(searchRoot, clazz, matcher, elements, PRESENTATION);
-		return elements;
+		return findElements(searchRoot, id, clazz, tagsToMatch, PRESENTATION, matcher);
 	}
 
 	@Override
@@ -501,17 +596,158 @@ public class ModelServiceImpl implements EModelService {
 			return null;
 		}
 
-		EObject eObj = (EObject) elementToClone;
-		MUIElement element = (MUIElement) EcoreUtil.copy(eObj);
+		MUIElement element = takePreparedCopy(elementToClone);
+		if (element == null) {
+			element = (MUIElement) EcoreUtil.copy((EObject) elementToClone);
+		}
 
 		MUIElement appElement = refWin == null ? null : refWin.getParent();
 		if (appElement instanceof MApplication) {
-			getNullRefPlaceHolders(element, refWin, true);
+			// resolving the placeholders may share elements with the window
+			MUIElement clone = element;
+			runBatched(() -> getNullRefPlaceHolders(clone, refWin, true));
 		}
 
 		return element;
 	}
 
+	/**
+	 * Copy a snippet ahead of time so that a later
+	 * {@link #cloneSnippet(MSnippetContainer, String, MWindow)} of the same
+	 * snippet only has to resolve its placeholders. Meant to be called when
+	 * the snippet is about to be opened, e.g. when it is offered in a menu.
+	 * <p>
+	 * The copy is made by a job and handed over on the UI thread. It is
+	 * discarded if the snippet is modified before it is cloned, and only the
+	 * last {@value #MAX_PREPARED_SNIPPETS} prepared snippets are kept. Must be
+	 * called on the UI thread.
+	 * </p>
+	 *
+	 * @param snippetContainer
+	 *            the container of the snippet
+	 * @param snippetId
+	 *            the id of the snippet
+	 */
+	public void prepareSnippet(MSnippetContainer snippetContainer, String snippetId) {
+		prepare(snippetContainer, snippetId);
+	}
+
+	/**
+	 * Copy several snippets ahead of time, see
+	 * {@link #prepareSnippet(MSnippetContainer, String)}. At most
+	 * {@value #MAX_PREPARED_SNIPPETS} snippets are prepared, the first ones of
+	 * the list, so that a long list doesn't evict the copies it just made
+	 * each time it is prepared. Must be called on the UI thread.
+	 *
+	 * @param snippetContainer
+	 *            the container of the snippets
+	 * @param snippetIds
+	 *            the ids of the snippets, the most likely to be opened first
+	 */
+	public void prepareSnippets(MSnippetContainer snippetContainer, List<String> snippetIds) {
+		int count = 0;
+		for (String snippetId : snippetIds) {
+			if (count == MAX_PREPARED_SNIPPETS) {
+				return;
+			}
+			if (prepare(snippetContainer, snippetId)) {
+				count++;
+			}
+		}
+	}
+
+	/**
+	 * @return whether the snippet is prepared or being prepared
+	 */
+	private boolean prepare(MSnippetContainer snippetContainer, String snippetId) {
+		if (snippetContainer == null || snippetId == null || snippetId.length() == 0) {
+			return false;
+		}
+
+		MUIElement snippet = findSnippet(snippetContainer, snippetId);
+		if (!(snippet instanceof MPerspective || snippet instanceof MWindow)) {
+			return false;
+		}
+		if (preparedSnippets.get(snippet) != null) {
+			return true;
+		}
+
+		PreparedSnippet prepared = new PreparedSnippet((EObject) snippet);
+		preparedSnippets.put(snippet, prepared);
+		UISynchronize sync = appContext.get(UISynchronize.class);
+		if (sync == null) {
+			prepared.publish(EcoreUtil.copy((EObject) snippet));
+			return true;
+		}
+		Job job = new Job("Prepare " + snippetId) { //$NON-NLS-1$
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				EObject copy;
+				try {
+					copy = EcoreUtil.copy((EObject) snippet);
+				} catch (RuntimeException e) {
+					// the snippet was modified while it was copied, the
+					// modification discards it anyway
+					return Status.OK_STATUS;
+				}
+				sync.asyncExec(() -> prepared.publish(copy));
+				return Status.OK_STATUS;
+			}
+		};
+		job.setSystem(true);
+		job.setPriority(Job.DECORATE);
+		job.schedule();
+		return true;
+	}
+
+	private MUIElement takePreparedCopy(MApplicationElement snippet) {
+		PreparedSnippet prepared = preparedSnippets.remove(snippet);
+		if (prepared == null) {
+			return null;
+		}
+		prepared.dispose();
+		return (MUIElement) prepared.copy;
+	}
+
+	/**
+	 * A copy of a snippet made ahead of time. The snippet is watched until the
+	 * copy is taken: any change to it discards the copy, including a change
+	 * made while the copy is in progress.
+	 */
+	private class PreparedSnippet extends EContentAdapter {
+
+		final EObject snippet;
+
+		EObject copy;
+
+		PreparedSnippet(EObject snippet) {
+			this.snippet = snippet;
+			snippet.eAdapters().add(this);
+		}
+
+		void publish(EObject snippetCopy) {
+			// the snippet may have been modified, taken or evicted in the
+			// meantime: as it is only modified on the UI thread, an entry
+			// which is still current proves that the copy is up to date
+			if (copy == null && preparedSnippets.get(snippet) == this) {
+				copy = snippetCopy;
+			}
+		}
+
+		@Override
+		public void notifyChanged(Notification notification) {
+			super.notifyChanged(notification);
+			if (!notification.isTouch() && preparedSnippets.get(snippet) == this) {
+				preparedSnippets.remove(snippet);
+				dispose();
+			}
+		}
+
+		void dispose() {
+			snippet.eAdapters().remove(this);
+		}
+	}
+
 	private List<MPlaceholder> getNullRefPlaceHolders(MUIElement element, MWindow refWin, boolean resolveAlways) {
 		// use appContext as MApplication.getContext() is null during the processing of
 		// the model processor classes
@@ -673,6 +909,15 @@ public class ModelServiceImpl implements EModelService {
 	@Override
 	public <T extends MUIElement> void move(T element, MElementContainer<? super T> newParent, int index,
 			boolean leavePlaceholder) {
+		if (!leavePlaceholder) {
+			moveElement(element, newParent, index, false);
+			return;
+		}
+		runBatched(() -> moveElement(element, newParent, index, true));
+	}
+
+	private <T extends MUIElement> void moveElement(T element, MElementContainer<? super T> newParent,
+			int index, boolean leavePlaceholder) {
 		// Cache where we were
 		MElementContainer<MUIElement> curParent = element.getParent();
 		int curIndex = curParent.getChildren().indexOf(element);
@@ -888,22 +1133,27 @@ public class ModelServiceImpl implements EModelService {
 					ph.getParent().getChildren().remove(ph);
 				}
 
-				// Prevent shared stacks ids from clashing with the ones in the perspective
-				List<MPartStack> stacks = findElements(area, null, MPartStack.class, null);
-				for (MPartStack stack : stacks) {
-					String generatedId = "PartStack@" + Integer.toHexString(stack.hashCode()); //$NON-NLS-1$
-					stack.setElementId(generatedId);
-				}
+				// The placeholders are hidden and removed one at a time above as
+				// the renderers must see them hidden while they are still in
+				// the model. The remaining changes are batched.
+				runBatched(() -> {
+					// Prevent shared stacks ids from clashing with the ones in the perspective
+					List<MPartStack> stacks = findElements(area, null, MPartStack.class, null);
+					for (MPartStack stack : stacks) {
+						String generatedId = "PartStack@" + Integer.toHexString(stack.hashCode()); //$NON-NLS-1$
+						stack.setElementId(generatedId);
+					}
 
-				// Also remove any min/max tags on the area (or its placeholder)
-				MUIElement areaPresentation = area;
-				if (area.getCurSharedRef() != null) {
-					areaPresentation = area.getCurSharedRef();
-				}
+					// Also remove any min/max tags on the area (or its placeholder)
+					MUIElement areaPresentation = area;
+					if (area.getCurSharedRef() != null) {
+						areaPresentation = area.getCurSharedRef();
+					}
 
-				areaPresentation.getTags().remove(IPresentationEngine.MAXIMIZED);
-				areaPresentation.getTags().remove(IPresentationEngine.MINIMIZED);
-				areaPresentation.getTags().remove(IPresentationEngine.MINIMIZED_BY_ZOOM);
+					areaPresentation.getTags().remove(IPresentationEngine.MAXIMIZED);
+					areaPresentation.getTags().remove(IPresentationEngine.MINIMIZED);
+					areaPresentation.getTags().remove(IPresentationEngine.MINIMIZED_BY_ZOOM);
+				});
 			}
 		}
 
@@ -1079,6 +1329,12 @@ public class ModelServiceImpl implements EModelService {
 
 	@Override
 	public void hideLocalPlaceholders(MWindow window, MPerspective perspective) {
+		// stacks are typically shown and hidden several times while their
+		// placeholders are processed, only their final state is published
+		runBatched(() -> hideLocalPlaceholdersBatched(window, perspective));
+	}
+
+	private void hideLocalPlaceholdersBatched(MWindow window, MPerspective perspective) {
 		List<MPlaceholder> globals = findElements(window, null, MPlaceholder.class, null,
 				OUTSIDE_PERSPECTIVE | IN_SHARED_AREA);
 
@@ -21,6 +21,9 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Collections;
 import java.util.Map;
 import javax.annotation.PostConstruct;
@@ -75,6 +78,26 @@ public class ResourceHandler implements IModelResourceHandler {
 	@Named(E4Workbench.INSTANCE_LOCATION)
 	private Location instanceLocation;
 
+	@Inject
+	@Optional
+	@Named(E4Workbench.PERSISTED_MODEL_FORMAT)
+	private String persistedModelFormat;
+
+	@Inject
+	@Optional
+	@Named(E4Workbench.MODEL_JOURNAL)
+	private Boolean modelJournalEnabled;
+
+	private ModelJournal modelJournal;
+
+	private static final String XMI_SAVE_FILE = "workbench.xmi"; //$NON-NLS-1$
+
+	private static final String BINARY_SAVE_FILE = "workbench.e4bin"; //$NON-NLS-1$
+
+	private static final String BINARY_EXTENSION = "e4bin"; //$NON-NLS-1$
+
+	private static final String JOURNAL_FILE = "workbench.journal"; //$NON-NLS-1$
+
 	/**
 	 * Dictates whether the model should be stored using EMF or with the merging algorithm.
 	 * https://bugs.eclipse.org/bugs/show_bug.cgi?id=295524
@@ -101,6 +124,8 @@ public class ResourceHandler implements IModelResourceHandler {
 		resourceSetImpl = new ResourceSetImpl();
 		resourceSetImpl.getResourceFactoryRegistry().getExtensionToFactoryMap()
 				.put(Resource.Factory.Registry.DEFAULT_EXTENSION, new E4XMIResourceFactory());
+		resourceSetImpl.getResourceFactoryRegistry().getExtensionToFactoryMap().put(BINARY_EXTENSION,
+				new E4XMIResourceFactory(true));
 
 		resourceSetImpl.getPackageRegistry().put(ApplicationPackageImpl.eNS_URI,
 				ApplicationPackageImpl.eINSTANCE);
@@ -146,12 +171,17 @@ public class ResourceHandler implements IModelResourceHandler {
 		URI restoreLocation = null;
 
 		if (saveAndRestore) {
-			workbenchData = getWorkbenchSaveLocation();
+			workbenchData = getWorkbenchRestoreLocation();
 			restoreLocation = URI.createFileURI(workbenchData.getAbsolutePath());
 		}
 
-		if (clearPersistedState && workbenchData != null && workbenchData.exists()) {
-			workbenchData.delete();
+		if (clearPersistedState && workbenchData != null) {
+			for (File saveFile : getWorkbenchSaveFiles()) {
+				if (saveFile.exists()) {
+					saveFile.delete();
+				}
+			}
+			getJournalLocation().delete();
 		}
 
 		// last stored time-stamp
@@ -167,6 +197,8 @@ public class ResourceHandler implements IModelResourceHandler {
 		resource = null;
 		if (restore && saveAndRestore) {
 			resource = loadResource(restoreLocation);
+			replayJournal(resource);
+			switchToSaveLocation(resource);
 			// If the saved model does not have any top-level windows, Eclipse will exit
 			// immediately, so throw out the persisted state and reinitialize with the defaults.
 			if (!hasTopLevelWindows(resource)) {
@@ -206,13 +238,66 @@ public class ResourceHandler implements IModelResourceHandler {
 		CommandLineOptionModelProcessor processor = ContextInjectionFactory.make(CommandLineOptionModelProcessor.class, context);
 		processor.process();
 
+		if (saveAndRestore && Boolean.TRUE.equals(modelJournalEnabled) && resource instanceof E4XMIResource) {
+			modelJournal = new ModelJournal(getJournalLocation(), (E4XMIResource) resource);
+		}
+
 		return resource;
 	}
 
 	@Override
 	public void save() throws IOException {
-		if (saveAndRestore)
-			resource.save(null);
+		if (saveAndRestore) {
+			if (modelJournal != null) {
+				saveAtomically(resource);
+				// the saved model contains all the journaled changes
+				modelJournal.reset();
+			} else {
+				resource.save(null);
+			}
+		}
+	}
+
+	/**
+	 * Save a resource to its file through a temporary file replacing the
+	 * previous file once completely written, so that a crash during the save
+	 * leaves the previous file intact. The file is simply replaced if the file
+	 * system doesn't support atomic moves.
+	 *
+	 * @param res
+	 *            the resource to save
+	 * @throws IOException
+	 *             if the resource cannot be saved
+	 */
+	public void saveAtomically(Resource res) throws IOException {
+		URI uri = res.getURI();
+		if (!uri.isFile()) {
+			res.save(null);
+			return;
+		}
+		File file = new File(uri.toFileString());
+		File tmpFile = new File(file.getParentFile(), file.getName() + ".tmp"); //$NON-NLS-1$
+		res.setURI(URI.createFileURI(tmpFile.getAbsolutePath()));
+		try {
+			res.save(null);
+		} finally {
+			res.setURI(uri);
+		}
+		try {
+			Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * @return the journal of the changes of the model since its last
+	 *         auto-save, or <code>null</code> if the model changes are not
+	 *         journaled
+	 */
+	public ModelJournal getModelJournal() {
+		return modelJournal;
 	}
 
 	/**
@@ -238,10 +323,69 @@ public class ResourceHandler implements IModelResourceHandler {
 	}
 
 	private File getWorkbenchSaveLocation() {
-		File workbenchData = new File(getBaseLocation(), "workbench.xmi"); //$NON-NLS-1$
+		File workbenchData = new File(getBaseLocation(), isBinaryFormat() ? BINARY_SAVE_FILE : XMI_SAVE_FILE);
 		return workbenchData;
 	}
 
+	private File[] getWorkbenchSaveFiles() {
+		File baseLocation = getBaseLocation();
+		return new File[] { new File(baseLocation, XMI_SAVE_FILE), new File(baseLocation, BINARY_SAVE_FILE) };
+	}
+
+	/**
+	 * @return the most recently saved model, which may have been saved with
+	 *         the other format than the configured one
+	 */
+	private File getWorkbenchRestoreLocation() {
+		File saveLocation = getWorkbenchSaveLocation();
+		File newest = saveLocation;
+		for (File saveFile : getWorkbenchSaveFiles()) {
+			if (saveFile.lastModified() > newest.lastModified()) {
+				newest = saveFile;
+			}
+		}
+		return newest;
+	}
+
+	/**
+	 * Make the restored resource save to the location and with the format
+	 * configured, in case it was restored from the other format.
+	 */
+	private void switchToSaveLocation(Resource restored) {
+		if (!(restored instanceof E4XMIResource)) {
+			return;
+		}
+		URI saveLocation = URI.createFileURI(getWorkbenchSaveLocation().getAbsolutePath());
+		if (!saveLocation.equals(restored.getURI())) {
+			((E4XMIResource) restored).setBinary(isBinaryFormat());
+			restored.setURI(saveLocation);
+		}
+	}
+
+	private File getJournalLocation() {
+		return new File(getBaseLocation(), JOURNAL_FILE);
+	}
+
+	/**
+	 * Apply the changes journaled since the restored model was saved.
+	 */
+	private void replayJournal(Resource restored) {
+		if (!(restored instanceof E4XMIResource)) {
+			return;
+		}
+		try {
+			ModelJournal.replay(getJournalLocation(), (E4XMIResource) restored);
+		} catch (IOException e) {
+			if (logger != null) {
+				logger.error(e, "Unable to replay the workbench model journal"); //$NON-NLS-1$
+			}
+		}
+	}
+
+	private boolean isBinaryFormat() {
+		return E4Workbench.PERSISTED_MODEL_FORMAT_BINARY.equals(persistedModelFormat);
+	}
+
 	private File getBaseLocation() {
 		File baseLocation;
 		try {
@@ -11,8 +11,12 @@
  *******************************************************************************/
 package org.eclipse.e4.ui.internal.workbench;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.services.events.IEventBroker;
@@ -30,16 +34,87 @@ import org.eclipse.emf.ecore.util.EContentAdapter;
 
 /**
  * Transforms E4 MPart events into 3.x legacy events.
+ * <p>
+ * Topics are computed once per feature and event type, and no event is built
+ * at all when no event handler subscribes to its topic.
+ * </p>
+ * <p>
+ * Between {@link #beginBatch()} and {@link #endBatch()} the events raised by
+ * the batching thread are buffered and delivered in order when the outermost
+ * batch ends. Consecutive SET events on the same element and feature are
+ * coalesced into the first one, and dropped when the value ends up unchanged.
+ * </p>
  */
 public class UIEventPublisher extends EContentAdapter {
 
+	private static final String TRANSIENTDATA_TOPIC_BASE = "org/eclipse/e4/ui/model/application/ApplicationElement/" //$NON-NLS-1$
+			+ UIEvents.ApplicationElement.TRANSIENTDATA;
+
+	private static final String PERSISTEDSTATE_TOPIC_BASE = "org/eclipse/e4/ui/model/application/ApplicationElement/" //$NON-NLS-1$
+			+ UIEvents.ApplicationElement.PERSISTEDSTATE;
+
+	/** Number of event types cached per feature, from CREATE to RESOLVE */
+	private static final int CACHED_EVENT_TYPES = Notification.RESOLVE + 1;
+
 	private IEclipseContext context;
 
+	private final EventTopicSubscriptions subscriptions;
+
+	/** Topics per feature, indexed by EMF notification event type */
+	private final Map<Object, String[]> topics = new ConcurrentHashMap<>();
+
+	/** The thread owning the batch, only changed while holding the lock */
+	private volatile Thread batchThread;
+
+	private final Object batchLock = new Object();
+
+	/** Only accessed by the batch thread */
+	private int batchDepth;
+
+	/** Only accessed by the batch thread */
+	private final List<PendingEvent> pendingEvents = new ArrayList<>();
+
+	private static class PendingEvent {
+		final String topic;
+
+		final Map<String, Object> argMap;
+
+		final Object notifier;
+
+		final Object feature;
+
+		PendingEvent(String topic, Map<String, Object> argMap, Object notifier, Object feature) {
+			this.topic = topic;
+			this.argMap = argMap;
+			this.notifier = notifier;
+			this.feature = feature;
+		}
+
+		boolean isSetOf(Object otherNotifier, Object otherFeature) {
+			return feature != null && notifier == otherNotifier && feature == otherFeature;
+		}
+
+		void coalesce(Map<String, Object> newArgMap) {
+			Object newValue = newArgMap.get(EventTags.NEW_VALUE);
+			if (newValue != null) {
+				argMap.put(EventTags.NEW_VALUE, newValue);
+			} else {
+				argMap.remove(EventTags.NEW_VALUE);
+			}
+		}
+
+		boolean isNoOp() {
+			return Objects.equals(argMap.get(EventTags.OLD_VALUE), argMap.get(EventTags.NEW_VALUE));
+		}
+	}
+
 	/**
 	 * @param e4Context
 	 */
 	public UIEventPublisher(IEclipseContext e4Context) {
 		this.context = e4Context;
+		Activator activator = Activator.getDefault();
+		this.subscriptions = activator != null ? activator.getEventTopicSubscriptions() : null;
 	}
 
 	@Override
@@ -50,15 +125,144 @@ public class UIEventPublisher extends EContentAdapter {
 		if (notification.isTouch())
 			return;
 
+		String topic = getTopic(notification);
+		if (topic == null) {
+			// Unhandled notification type. Ignore event
+			return;
+		}
+
+		// Nobody listens, skip building the event
+		if (subscriptions != null && !subscriptions.hasSubscribers(topic)) {
+			return;
+		}
+
 		// Format the EMF event as an E4 UIEvent
 		Map<String, Object> argMap = new HashMap<>();
+		formatData(notification, argMap);
+
+		if (batchThread == Thread.currentThread()) {
+			queue(topic, argMap, notification);
+			return;
+		}
+
+		IEventBroker eventManager = context.get(IEventBroker.class);
+		eventManager.send(topic, argMap);
+	}
+
+	/**
+	 * Start buffering the events raised by the current thread until the
+	 * matching call to {@link #endBatch()}. Batches can be nested; events raised
+	 * by other threads are delivered immediately.
+	 */
+	public void beginBatch() {
+		synchronized (batchLock) {
+			if (batchThread == null) {
+				batchThread = Thread.currentThread();
+			} else if (batchThread != Thread.currentThread()) {
+				// another thread owns the batch, deliver this thread's events
+				// directly
+				return;
+			}
+			batchDepth++;
+		}
+	}
+
+	/**
+	 * End a batch started with {@link #beginBatch()}. When the outermost batch
+	 * ends the buffered events are delivered.
+	 */
+	public void endBatch() {
+		List<PendingEvent> events;
+		synchronized (batchLock) {
+			if (batchThread != Thread.currentThread() || --batchDepth > 0) {
+				return;
+			}
+			batchThread = null;
+
+			// handlers may change the model again: their events are not
+			// batched
+			events = new ArrayList<>(pendingEvents);
+			pendingEvents.clear();
+		}
+
+		IEventBroker eventManager = context.get(IEventBroker.class);
+		for (PendingEvent event : events) {
+			if (event.feature != null && event.isNoOp()) {
+				continue;
+			}
+			if (event.notifier instanceof MUIElement) {
+				event.argMap.put(EventTags.WIDGET, ((MUIElement) event.notifier).getWidget());
+			}
+			eventManager.send(event.topic, event.argMap);
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the events of the current thread are
+	 *         currently buffered
+	 */
+	public boolean isBatching() {
+		return batchThread == Thread.currentThread();
+	}
+
+	private void queue(String topic, Map<String, Object> argMap, Notification notification) {
+		Object notifier = notification.getNotifier();
+		if (notification.getEventType() != Notification.SET || !(notifier instanceof MApplicationElement)) {
+			pendingEvents.add(new PendingEvent(topic, argMap, notifier, null));
+			return;
+		}
+		// only coalesce with the previous event, so that the SET is not moved
+		// before the events raised in between
+		Object feature = notification.getFeature();
+		if (!pendingEvents.isEmpty()) {
+			PendingEvent previous = pendingEvents.get(pendingEvents.size() - 1);
+			if (previous.isSetOf(notifier, feature)) {
+				previous.coalesce(argMap);
+				return;
+			}
+		}
+		pendingEvents.add(new PendingEvent(topic, argMap, notifier, feature));
+	}
 
-		String topic = formatData(notification, argMap);
+	private String getTopic(Notification notification) {
+		Object notifier = notification.getNotifier();
+		if (notifier instanceof MApplicationElement) {
+			EStructuralFeature feature = (EStructuralFeature) notification.getFeature();
+			return getCachedTopic(feature, notification);
+		} else if (notifier instanceof StringToObjectMapImpl) {
+			return getCachedTopic(TRANSIENTDATA_TOPIC_BASE, notification);
+		} else if (notifier instanceof StringToStringMapImpl) {
+			return getCachedTopic(PERSISTEDSTATE_TOPIC_BASE, notification);
+		}
+		return null;
+	}
 
-		if (topic != null) {
-			IEventBroker eventManager = context.get(IEventBroker.class);
-			eventManager.send(topic, argMap);
+	private String getCachedTopic(Object key, Notification notification) {
+		int eventType = notification.getEventType();
+		if (eventType < 0 || eventType >= CACHED_EVENT_TYPES) {
+			return computeTopic(key, getEventType(notification));
+		}
+		String[] keyTopics = topics.get(key);
+		if (keyTopics == null) {
+			keyTopics = new String[CACHED_EVENT_TYPES];
+			String[] existing = topics.putIfAbsent(key, keyTopics);
+			if (existing != null) {
+				keyTopics = existing;
+			}
+		}
+		String topic = keyTopics[eventType];
+		if (topic == null) {
+			topic = computeTopic(key, getEventType(notification));
+			keyTopics[eventType] = topic;
 		}
+		return topic;
+	}
+
+	private String computeTopic(Object key, String type) {
+		if (key instanceof EStructuralFeature) {
+			return getTopic((EStructuralFeature) key, type);
+		}
+		return key + UIEvents.TOPIC_SEP + type;
 	}
 
 	/**
@@ -99,11 +303,10 @@ public class UIEventPublisher extends EContentAdapter {
 	 * Likely there is some "simple" EMF wisdom we are missing to make this work with a couple of
 	 * annotations, a white swan and a full moon.
 	 */
-	private String formatData(final Notification notification, Map<String, Object> argMap) {
+	private void formatData(final Notification notification, Map<String, Object> argMap) {
 		MApplicationElement appElement = null;
 		EStructuralFeature feature = null;
 		String attributeName = null;
-		String topic = null;
 
 		Object notifier = notification.getNotifier();
 		Object oldValue = null;
@@ -115,7 +318,6 @@ public class UIEventPublisher extends EContentAdapter {
 			appElement = (MApplicationElement) notifier;
 			feature = (EStructuralFeature) notification.getFeature();
 			attributeName = feature.getName();
-			topic = getTopic(feature, getEventType(notification));
 			switch (notification.getEventType()) {
 			case Notification.MOVE:
 				// for MOVE, oldValue is actually the source position
@@ -165,7 +367,6 @@ public class UIEventPublisher extends EContentAdapter {
 			}
 
 			attributeName = UIEvents.ApplicationElement.TRANSIENTDATA;
-			topic = getTopic(attributeName, getEventType(notification));
 
 			// We need to send MapEntries for the old and new values.
 			oldValue = createMapEntry(key, notification.getOldValue());
@@ -188,12 +389,11 @@ public class UIEventPublisher extends EContentAdapter {
 			}
 
 			attributeName = UIEvents.ApplicationElement.PERSISTEDSTATE;
-			topic = getTopic(attributeName, getEventType(notification));
 			oldValue = createMapEntry(key, notification.getOldValue());
 			newValue = createMapEntry(key, notification.getNewValue());
 		} else {
-			// Unhandled notification type. Ignore event
-			return null;
+			// Unhandled notification type, filtered out by getTopic()
+			return;
 		}
 
 		argMap.put(EventTags.TYPE, getEventType(notification));
@@ -221,8 +421,6 @@ public class UIEventPublisher extends EContentAdapter {
 		if (appElement instanceof MUIElement) {
 			argMap.put(EventTags.WIDGET, ((MUIElement) appElement).getWidget());
 		}
-
-		return topic;
 	}
 
 	private String getEventType(Notification notification) {
@@ -276,9 +474,4 @@ public class UIEventPublisher extends EContentAdapter {
 				+ eContainingClass.getName() + UIEvents.TOPIC_SEP + eFeature.getName()
 				+ UIEvents.TOPIC_SEP + type;
 	}
-
-	private String getTopic(String attributeName, String type) {
-		String topicBase = "org/eclipse/e4/ui/model/application/ApplicationElement/"; //$NON-NLS-1$
-		return topicBase + attributeName + UIEvents.TOPIC_SEP + type;
-	}
 }
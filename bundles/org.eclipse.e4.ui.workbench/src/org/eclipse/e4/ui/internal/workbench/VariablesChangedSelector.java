@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.internal.workbench;
+
+import java.util.Collections;
+import java.util.Set;
+import org.eclipse.e4.ui.model.application.MApplicationElement;
+import org.eclipse.e4.ui.workbench.Selector;
+import org.eclipse.e4.ui.workbench.UIEvents;
+
+/**
+ * The data of a {@link UIEvents#REQUEST_ENABLEMENT_UPDATE_TOPIC} event
+ * requesting the update of the elements whose enablement may depend on the
+ * given context variables. The dependencies of an element are only known to
+ * the item rendering it, which checks them with {@link #affects(String[])}; as
+ * a selector it matches all of the elements.
+ * <p>
+ * A variable derived from an e4 context variable, like the legacy
+ * <code>activePart</code> derived from
+ * {@link org.eclipse.e4.ui.services.IServiceConstants#ACTIVE_PART}, is named
+ * after the e4 variable both in the changed variables and in the
+ * dependencies.
+ * </p>
+ *
+ * @see IEnablementVariables
+ */
+public class VariablesChangedSelector implements Selector {
+
+	private final Set<String> variables;
+
+	/**
+	 * @param variables
+	 *            the names of the changed context variables or properties
+	 */
+	public VariablesChangedSelector(Set<String> variables) {
+		this.variables = Collections.unmodifiableSet(variables);
+	}
+
+	/**
+	 * @return the names of the changed context variables or properties
+	 */
+	public Set<String> getVariables() {
+		return variables;
+	}
+
+	/**
+	 * @param dependencies
+	 *            the names of the variables an enablement depends on, or
+	 *            <code>null</code> if they are not known
+	 * @return <code>true</code> if the enablement may depend on one of the
+	 *         changed variables
+	 */
+	public boolean affects(String[] dependencies) {
+		if (dependencies == null) {
+			return true;
+		}
+		for (String dependency : dependencies) {
+			if (variables.contains(dependency)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean select(MApplicationElement element) {
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "VariablesChangedSelector " + variables; //$NON-NLS-1$
+	}
+}
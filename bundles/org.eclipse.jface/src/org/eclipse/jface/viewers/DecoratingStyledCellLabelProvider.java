@@ -47,6 +47,7 @@ public class DecoratingStyledCellLabelProvider extends
 	private ILabelDecorator decorator;
 	private IDecorationContext decorationContext= DecorationContext.DEFAULT_CONTEXT;
 	private ILabelProviderListener labelProviderListener;
+	private DecorationViewportTracker viewportTracker;
 
 	/**
 	 * Creates a {@link DecoratingStyledCellLabelProvider} that delegates the
@@ -111,7 +112,7 @@ public class DecoratingStyledCellLabelProvider extends
 		boolean isDecorationPending = false;
 		if (this.decorator instanceof LabelDecorator) {
 			isDecorationPending = !((LabelDecorator) this.decorator)
-					.prepareDecoration(element, oldText, getDecorationContext());
+					.prepareDecoration(element, oldText, getRequestContext());
 		} else if (this.decorator instanceof IDelayedLabelDecorator) {
 			isDecorationPending = !((IDelayedLabelDecorator) this.decorator)
 					.prepareDecoration(element, oldText);
@@ -123,6 +124,17 @@ public class DecoratingStyledCellLabelProvider extends
 		return isDecorationPending;
 	}
 
+	/**
+	 * @return the decoration context of the requests to the decorator, which
+	 *         tells whether the visible elements of the viewer are tracked
+	 */
+	private IDecorationContext getRequestContext() {
+		if (viewportTracker != null) {
+			return viewportTracker.getDecorationContext();
+		}
+		return getDecorationContext();
+	}
+
 	@Override
 	public void update(ViewerCell cell) {
 		if (waitForPendingDecoration(cell)) {
@@ -131,6 +143,33 @@ public class DecoratingStyledCellLabelProvider extends
 		super.update(cell);
 	}
 
+	/**
+	 * Initializes the label provider. When the viewer is a tree or table
+	 * viewer and the decorator an {@link IPrioritizedLabelDecorator}, the
+	 * decorations of the visible elements are prepared first.
+	 *
+	 * @since 3.13
+	 */
+	@Override
+	public void initialize(ColumnViewer viewer, ViewerColumn column) {
+		super.initialize(viewer, column);
+		if (viewportTracker == null && DecorationViewportTracker.canTrack(viewer)) {
+			viewportTracker = new DecorationViewportTracker(viewer, this);
+		}
+	}
+
+	/**
+	 * @since 3.13
+	 */
+	@Override
+	public void dispose(ColumnViewer viewer, ViewerColumn column) {
+		if (viewportTracker != null) {
+			viewportTracker.dispose();
+			viewportTracker = null;
+		}
+		super.dispose(viewer, column);
+	}
+
 	@Override
 	public Color getForeground(Object element) {
 		if (this.decorator instanceof IColorDecorator) {
@@ -172,7 +211,7 @@ public class DecoratingStyledCellLabelProvider extends
 		Image decorated = null;
 		if (this.decorator instanceof LabelDecorator) {
 			decorated = ((LabelDecorator) this.decorator).decorateImage(image,
-					element, getDecorationContext());
+					element, getRequestContext());
 		} else {
 			decorated = this.decorator.decorateImage(image, element);
 		}
@@ -200,7 +239,7 @@ public class DecoratingStyledCellLabelProvider extends
 		String decorated;
 		if (this.decorator instanceof LabelDecorator) {
 			decorated = ((LabelDecorator) this.decorator).decorateText(label,
-					element, getDecorationContext());
+					element, getRequestContext());
 		} else {
 			decorated = this.decorator.decorateText(label, element);
 		}
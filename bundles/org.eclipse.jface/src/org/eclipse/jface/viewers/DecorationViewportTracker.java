@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.viewers;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Listener;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.Tree;
+import org.eclipse.swt.widgets.TreeItem;
+
+/**
+ * Tells the {@link IPrioritizedLabelDecorator} of a
+ * {@link DecoratingStyledCellLabelProvider} which elements of a tree or table
+ * viewer are visible. The visible elements are decorated first; the pending
+ * decorations of the elements scrolled out of view are dropped, and their
+ * labels are updated again when they are scrolled back into view.
+ * <p>
+ * The decorations of the viewer are requested with a context having the
+ * {@link IPrioritizedLabelDecorator#VIEWPORT_TRACKED} property, so that the
+ * decorator doesn't drop the decorations other viewers wait for.
+ * </p>
+ */
+class DecorationViewportTracker implements Listener {
+
+	/** Delay used to coalesce the paint events, in milliseconds. */
+	private static final int UPDATE_DELAY = 50;
+
+	private final ColumnViewer viewer;
+
+	private final DecoratingStyledCellLabelProvider labelProvider;
+
+	private final Control control;
+
+	private Set<Object> visibleElements = new HashSet<>();
+
+	private final Set<Object> cancelledElements = new HashSet<>();
+
+	private TrackedDecorationContext decorationContext;
+
+	private boolean updateScheduled;
+
+	private boolean disposed;
+
+	private final Runnable updateRunnable = () -> {
+		updateScheduled = false;
+		update();
+	};
+
+	/**
+	 * @param viewer
+	 *            the viewer, whose control is a {@link Tree} or a
+	 *            {@link Table}
+	 * @param labelProvider
+	 *            the label provider of the viewer
+	 */
+	DecorationViewportTracker(ColumnViewer viewer, DecoratingStyledCellLabelProvider labelProvider) {
+		this.viewer = viewer;
+		this.labelProvider = labelProvider;
+		this.control = viewer.getControl();
+		control.addListener(SWT.Paint, this);
+		control.addListener(SWT.Dispose, this);
+	}
+
+	/**
+	 * @param viewer
+	 *            a viewer
+	 * @return <code>true</code> if the visible elements of the viewer can be
+	 *         tracked
+	 */
+	static boolean canTrack(ColumnViewer viewer) {
+		Control control = viewer.getControl();
+		return (control instanceof Tree || control instanceof Table) && !control.isDisposed();
+	}
+
+	/**
+	 * @return the decoration context of the label provider, with the
+	 *         {@link IPrioritizedLabelDecorator#VIEWPORT_TRACKED} property
+	 */
+	IDecorationContext getDecorationContext() {
+		IDecorationContext context = labelProvider.getDecorationContext();
+		if (decorationContext == null || decorationContext.context != context) {
+			decorationContext = new TrackedDecorationContext(context);
+		}
+		return decorationContext;
+	}
+
+	@Override
+	public void handleEvent(Event event) {
+		if (event.type == SWT.Dispose) {
+			dispose();
+		} else if (!updateScheduled) {
+			// paint events are sent on scroll, expansion and resize
+			updateScheduled = true;
+			control.getDisplay().timerExec(UPDATE_DELAY, updateRunnable);
+		}
+	}
+
+	private void update() {
+		ILabelDecorator decorator = labelProvider.getLabelDecorator();
+		if (disposed || control.isDisposed() || !(decorator instanceof IPrioritizedLabelDecorator)) {
+			return;
+		}
+		IPrioritizedLabelDecorator prioritizedDecorator = (IPrioritizedLabelDecorator) decorator;
+
+		Set<Object> newVisibleElements = getVisibleElements();
+		List<Object> shown = new ArrayList<>();
+		for (Object element : newVisibleElements) {
+			if (!visibleElements.contains(element)) {
+				shown.add(element);
+			}
+		}
+		List<Object> hidden = new ArrayList<>();
+		for (Object element : visibleElements) {
+			if (!newVisibleElements.contains(element)) {
+				hidden.add(element);
+			}
+		}
+		visibleElements = newVisibleElements;
+
+		if (!hidden.isEmpty()) {
+			for (Object element : prioritizedDecorator.cancelDecoration(hidden.toArray())) {
+				cancelledElements.add(element);
+			}
+		}
+		if (!shown.isEmpty()) {
+			for (Object element : shown) {
+				if (cancelledElements.remove(element)) {
+					// request the dropped decoration again
+					viewer.update(element, null);
+				}
+			}
+			prioritizedDecorator.prioritizeDecoration(shown.toArray());
+		}
+	}
+
+	private Set<Object> getVisibleElements() {
+		Set<Object> elements = new HashSet<>();
+		if (control instanceof Tree) {
+			Tree tree = (Tree) control;
+			int count = getVisibleItemCount(tree.getClientArea().height, tree.getItemHeight());
+			TreeItem item = tree.getTopItem();
+			while (item != null && count-- > 0) {
+				addElement(elements, item.getData());
+				item = getNextVisibleItem(tree, item);
+			}
+		} else if (control instanceof Table) {
+			Table table = (Table) control;
+			int count = getVisibleItemCount(table.getClientArea().height, table.getItemHeight());
+			int top = table.getTopIndex();
+			int end = Math.min(table.getItemCount(), top + count);
+			for (int i = top; i < end; i++) {
+				addElement(elements, table.getItem(i).getData());
+			}
+		}
+		return elements;
+	}
+
+	private static void addElement(Set<Object> elements, Object data) {
+		// dummy and virtual items have no element
+		if (data != null) {
+			elements.add(data);
+		}
+	}
+
+	private static int getVisibleItemCount(int height, int itemHeight) {
+		return itemHeight <= 0 ? 0 : height / itemHeight + 1;
+	}
+
+	private static TreeItem getNextVisibleItem(Tree tree, TreeItem item) {
+		if (item.getExpanded() && item.getItemCount() > 0) {
+			return item.getItem(0);
+		}
+		while (item != null) {
+			TreeItem parent = item.getParentItem();
+			int index = parent == null ? tree.indexOf(item) : parent.indexOf(item);
+			int siblingCount = parent == null ? tree.getItemCount() : parent.getItemCount();
+			if (index + 1 < siblingCount) {
+				return parent == null ? tree.getItem(index + 1) : parent.getItem(index + 1);
+			}
+			item = parent;
+		}
+		return null;
+	}
+
+	/**
+	 * Stop tracking the viewer and drop the pending decorations of its
+	 * visible elements.
+	 */
+	void dispose() {
+		if (disposed) {
+			return;
+		}
+		disposed = true;
+		if (!control.isDisposed()) {
+			control.removeListener(SWT.Paint, this);
+			control.removeListener(SWT.Dispose, this);
+		}
+		ILabelDecorator decorator = labelProvider.getLabelDecorator();
+		if (decorator instanceof IPrioritizedLabelDecorator && !visibleElements.isEmpty()) {
+			((IPrioritizedLabelDecorator) decorator).cancelDecoration(visibleElements.toArray());
+		}
+		visibleElements.clear();
+		cancelledElements.clear();
+	}
+
+	/**
+	 * A decoration context which adds the
+	 * {@link IPrioritizedLabelDecorator#VIEWPORT_TRACKED} property to the
+	 * properties of another context.
+	 */
+	private static class TrackedDecorationContext implements IDecorationContext {
+
+		final IDecorationContext context;
+
+		TrackedDecorationContext(IDecorationContext context) {
+			this.context = context;
+		}
+
+		@Override
+		public Object getProperty(String property) {
+			if (IPrioritizedLabelDecorator.VIEWPORT_TRACKED.equals(property)) {
+				return context;
+			}
+			return context.getProperty(property);
+		}
+
+		@Override
+		public String[] getProperties() {
+			String[] properties = context.getProperties();
+			String[] result = new String[properties.length + 1];
+			System.arraycopy(properties, 0, result, 0, properties.length);
+			result[properties.length] = IPrioritizedLabelDecorator.VIEWPORT_TRACKED;
+			return result;
+		}
+	}
+}
@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.viewers;
+
+/**
+ * The <code>IBatchLightweightLabelDecorator</code> is a lightweight decorator
+ * that can decorate several elements in one call, e.g. to fetch the state of
+ * all of them at once. Decoration managers that decorate elements in batches
+ * call {@link #decorate(Object[], IDecoration[])} instead of
+ * {@link #decorate(Object, IDecoration)} for each element.
+ *
+ * @since 3.13
+ */
+public interface IBatchLightweightLabelDecorator extends ILightweightLabelDecorator {
+
+	/**
+	 * Calculates decorations based on elements.
+	 *
+	 * @param elements
+	 *            the elements to decorate
+	 * @param decorations
+	 *            the decorations to set, one for each element at the same
+	 *            index
+	 */
+	public void decorate(Object[] elements, IDecoration[] decorations);
+
+}
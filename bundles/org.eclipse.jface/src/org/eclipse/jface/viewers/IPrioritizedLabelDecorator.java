@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.viewers;
+
+/**
+ * A prioritized label decorator is a delayed label decorator that lets viewers
+ * tell which elements are visible, so that the decorations of these elements
+ * are prepared first, and which elements are not visible anymore, so that
+ * their pending decorations can be dropped.
+ * <p>
+ * Several viewers may show the same element: each call to
+ * {@link #prioritizeDecoration(Object[])} must be balanced by a call to
+ * {@link #cancelDecoration(Object[])} from the same viewer, and the pending
+ * decoration of an element is only dropped once no viewer shows it anymore. A
+ * viewer whose request dropped the pending decoration of an element must
+ * update the label of the element again when it becomes visible.
+ * </p>
+ * <p>
+ * Viewers which don't tell their visible elements may wait for the same
+ * decorations. A viewer which does must therefore request its decorations
+ * with a decoration context having the {@link #VIEWPORT_TRACKED} property:
+ * only the pending decorations requested exclusively with such contexts are
+ * dropped.
+ * </p>
+ *
+ * @since 3.13
+ */
+public interface IPrioritizedLabelDecorator extends IDelayedLabelDecorator {
+
+	/**
+	 * Property of the decoration context of the requests made by a viewer
+	 * which tells its visible elements. Its value is the decoration context of
+	 * the viewer the property was added to, which the decorator uses in place
+	 * of the requesting context.
+	 */
+	public static final String VIEWPORT_TRACKED = "org.eclipse.jface.viewers.IPrioritizedLabelDecorator.viewportTracked"; //$NON-NLS-1$
+
+	/**
+	 * The given elements became visible in a viewer. Prepare their pending
+	 * decorations before those of the other elements.
+	 *
+	 * @param elements
+	 *            the visible elements
+	 */
+	public void prioritizeDecoration(Object[] elements);
+
+	/**
+	 * The given elements are not visible anymore in a viewer. Drop the pending
+	 * decorations of the ones no other viewer shows, unless they were also
+	 * requested without the {@link #VIEWPORT_TRACKED} property.
+	 *
+	 * @param elements
+	 *            the elements which are not visible anymore
+	 * @return the elements whose pending decoration was dropped
+	 */
+	public Object[] cancelDecoration(Object[] elements);
+
+}
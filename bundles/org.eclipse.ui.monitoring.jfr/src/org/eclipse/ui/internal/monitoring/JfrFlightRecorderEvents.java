@@ -0,0 +1,249 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Google Inc and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *	   Google Inc - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.IJobChangeListener;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.swt.widgets.Display;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+import jdk.jfr.Timestamp;
+
+/**
+ * Implementation of {@link FlightRecorderEvents} declaring the Flight Recorder events. This class
+ * is contributed to the host bundle by this Java 11 fragment and is loaded reflectively by
+ * {@link FlightRecorderEvents#create(Display)}. Events not enabled in the running recordings cost
+ * little more than an allocation.
+ */
+class JfrFlightRecorderEvents extends FlightRecorderEvents {
+	private static final String CATEGORY = "Eclipse UI"; //$NON-NLS-1$
+	/**
+	 * Interval between two measurements of the latency of asyncExec, and of syncExec, in
+	 * milliseconds.
+	 */
+	private static final long EXEC_PROBE_INTERVAL = 1000;
+	private static final int MAX_NESTING_LEVEL = 64;
+
+	@Name("org.eclipse.ui.monitoring.UiFreeze") //$NON-NLS-1$
+	@Label("UI Freeze") //$NON-NLS-1$
+	@Category(CATEGORY)
+	@Description("An event or a sequence of events that blocked the UI thread" //$NON-NLS-1$
+			+ " for longer than the warning threshold") //$NON-NLS-1$
+	static class UiFreezeEvent extends Event {
+		@Label("Freeze Start") //$NON-NLS-1$
+		@Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+		long freezeStart;
+
+		@Label("Freeze Duration") //$NON-NLS-1$
+		@Timespan(Timespan.MILLISECONDS)
+		long freezeDuration;
+	}
+
+	@Name("org.eclipse.ui.monitoring.EventDispatch") //$NON-NLS-1$
+	@Label("SWT Event Dispatch") //$NON-NLS-1$
+	@Category(CATEGORY)
+	@Description("Dispatching of an SWT event, including the nested event loops" //$NON-NLS-1$
+			+ " it ran") //$NON-NLS-1$
+	@Threshold("20 ms") //$NON-NLS-1$
+	static class EventDispatchEvent extends Event {
+		@Label("Event Type") //$NON-NLS-1$
+		@Description("The SWT event type constant") //$NON-NLS-1$
+		int eventType;
+
+		@Label("Nesting Level") //$NON-NLS-1$
+		int nestingLevel;
+	}
+
+	@Name("org.eclipse.ui.monitoring.AsyncExecLatency") //$NON-NLS-1$
+	@Label("asyncExec Latency") //$NON-NLS-1$
+	@Category(CATEGORY)
+	@Description("Time a runnable posted with Display.asyncExec waited" //$NON-NLS-1$
+			+ " before running") //$NON-NLS-1$
+	static class AsyncExecLatencyEvent extends Event {
+	}
+
+	@Name("org.eclipse.ui.monitoring.SyncExecLatency") //$NON-NLS-1$
+	@Label("syncExec Latency") //$NON-NLS-1$
+	@Category(CATEGORY)
+	@Description("Time a thread calling Display.syncExec waited for its runnable" //$NON-NLS-1$
+			+ " to start running") //$NON-NLS-1$
+	static class SyncExecLatencyEvent extends Event {
+	}
+
+	@Name("org.eclipse.ui.monitoring.JobRun") //$NON-NLS-1$
+	@Label("Job Run") //$NON-NLS-1$
+	@Category(CATEGORY)
+	@Description("A run of an Eclipse job") //$NON-NLS-1$
+	static class JobRunEvent extends Event {
+		@Label("Job Name") //$NON-NLS-1$
+		String jobName;
+
+		@Label("Job Class") //$NON-NLS-1$
+		Class<?> jobClass;
+
+		@Label("System Job") //$NON-NLS-1$
+		boolean system;
+	}
+
+	private final Display display;
+	// Accessed only by the UI thread.
+	private final EventDispatchEvent[] dispatchEvents = new EventDispatchEvent[MAX_NESTING_LEVEL];
+	private int dispatchDepth;
+	// Accessed by the job worker threads.
+	private final Map<Job, JobRunEvent> jobRunEvents = new ConcurrentHashMap<Job, JobRunEvent>();
+	private final IJobChangeListener jobListener = new JobChangeAdapter() {
+		@Override
+		public void aboutToRun(IJobChangeEvent event) {
+			JobRunEvent jobRunEvent = new JobRunEvent();
+			if (jobRunEvent.isEnabled()) {
+				jobRunEvent.begin();
+				jobRunEvents.put(event.getJob(), jobRunEvent);
+			}
+		}
+
+		@Override
+		public void done(IJobChangeEvent event) {
+			Job job = event.getJob();
+			JobRunEvent jobRunEvent = jobRunEvents.remove(job);
+			if (jobRunEvent != null) {
+				jobRunEvent.jobName = job.getName();
+				jobRunEvent.jobClass = job.getClass();
+				jobRunEvent.system = job.isSystem();
+				jobRunEvent.commit();
+			}
+		}
+	};
+	// Set while a probe posted with asyncExec has not run yet.
+	private final AtomicBoolean probePending = new AtomicBoolean();
+	private Timer probeTimer;
+
+	JfrFlightRecorderEvents(Display display) {
+		this.display = display;
+	}
+
+	@Override
+	public synchronized void start() {
+		Job.getJobManager().addJobChangeListener(jobListener);
+		probeTimer = new Timer("Event Loop Monitor Exec Probe", true); //$NON-NLS-1$
+		probeTimer.schedule(new TimerTask() {
+			@Override
+			public void run() {
+				postAsyncExecProbe();
+			}
+		}, EXEC_PROBE_INTERVAL, EXEC_PROBE_INTERVAL);
+		// Half an interval apart from the asyncExec probe, so that the syncExec probe doesn't wait
+		// behind it in the queue. While the UI thread is frozen the syncExec probe blocks the timer
+		// thread, which also stops posting asyncExec probes.
+		probeTimer.schedule(new TimerTask() {
+			@Override
+			public void run() {
+				runSyncExecProbe();
+			}
+		}, EXEC_PROBE_INTERVAL * 3 / 2, EXEC_PROBE_INTERVAL);
+	}
+
+	@Override
+	public synchronized void stop() {
+		Job.getJobManager().removeJobChangeListener(jobListener);
+		jobRunEvents.clear();
+		if (probeTimer != null) {
+			probeTimer.cancel();
+			probeTimer = null;
+		}
+	}
+
+	private void postAsyncExecProbe() {
+		AsyncExecLatencyEvent latencyEvent = new AsyncExecLatencyEvent();
+		// Don't post another probe while the previous one is still waiting in the queue.
+		if (!latencyEvent.isEnabled() || display.isDisposed()
+				|| !probePending.compareAndSet(false, true)) {
+			return;
+		}
+		latencyEvent.begin();
+		try {
+			display.asyncExec(() -> {
+				latencyEvent.commit();
+				probePending.set(false);
+			});
+		} catch (RuntimeException e) {
+			// The display has been disposed in the meantime.
+			probePending.set(false);
+		}
+	}
+
+	private void runSyncExecProbe() {
+		SyncExecLatencyEvent latencyEvent = new SyncExecLatencyEvent();
+		if (!latencyEvent.isEnabled() || display.isDisposed()) {
+			return;
+		}
+		latencyEvent.begin();
+		try {
+			display.syncExec(latencyEvent::commit);
+		} catch (RuntimeException e) {
+			// The display has been disposed in the meantime.
+		}
+	}
+
+	@Override
+	public void eventDispatchStarted(int eventType) {
+		if (dispatchDepth < MAX_NESTING_LEVEL) {
+			EventDispatchEvent dispatchEvent = new EventDispatchEvent();
+			if (dispatchEvent.isEnabled()) {
+				dispatchEvent.eventType = eventType;
+				dispatchEvent.nestingLevel = dispatchDepth;
+				dispatchEvent.begin();
+			} else {
+				dispatchEvent = null;
+			}
+			dispatchEvents[dispatchDepth] = dispatchEvent;
+		}
+		dispatchDepth++;
+	}
+
+	@Override
+	public void eventDispatchEnded() {
+		if (dispatchDepth == 0) {
+			// Some PreEvent events had occurred before we started listening to SWT events.
+			return;
+		}
+		if (--dispatchDepth < MAX_NESTING_LEVEL) {
+			EventDispatchEvent dispatchEvent = dispatchEvents[dispatchDepth];
+			if (dispatchEvent != null) {
+				dispatchEvent.commit();
+				dispatchEvents[dispatchDepth] = null;
+			}
+		}
+	}
+
+	@Override
+	public void uiFreeze(LongEventInfo info) {
+		UiFreezeEvent freezeEvent = new UiFreezeEvent();
+		if (freezeEvent.isEnabled()) {
+			freezeEvent.freezeStart = info.start;
+			freezeEvent.freezeDuration = info.duration;
+			freezeEvent.commit();
+		}
+	}
+}
@@ -77,6 +77,11 @@ public class EventLoopMonitorThread extends Thread {
 		public String uiThreadFilter;
 		/** @see org.eclipse.ui.monitoring.PreferenceConstants#NONINTERESTING_THREAD_FILTER */
 		public String noninterestingThreadFilter;
+		/**
+		 * If not null, stack samples of the UI thread taken at regular intervals during UI freezes
+		 * are aggregated into this call tree.
+		 */
+		public StackAggregator stackAggregator;
 
 		/**
 		 * Checks if the values of parameters for UI responsiveness monitoring are valid.
@@ -164,6 +169,9 @@ public class EventLoopMonitorThread extends Thread {
 					break;  // Ignore events that may be produced during a UI freeze.
 				}
 				nestingLevel++;
+				if (flightRecorderEvents != null) {
+					flightRecorderEvents.eventDispatchStarted(event.detail);
+				}
 				if (eventHistory != null) {
 					eventHistory.recordEvent(event.type, event.detail, nestingLevel);
 				}
@@ -179,6 +187,9 @@ public class EventLoopMonitorThread extends Thread {
 					// started listening to SWT events.
 					nestingLevel = 0;
 				}
+				if (flightRecorderEvents != null) {
+					flightRecorderEvents.eventDispatchEnded();
+				}
 				if (eventHistory != null) {
 					eventHistory.recordEvent(event.type, event.detail, nestingLevel);
 				}
@@ -355,6 +366,8 @@ public class EventLoopMonitorThread extends Thread {
 	private final long uiThreadId;
 	private final Object sleepMonitor;
 	private final boolean logToErrorLog;
+	private final StackAggregator stackAggregator;
+	private final FlightRecorderEvents flightRecorderEvents;
 	private EventHistory eventHistory;
 	private ThreadMXBean threadMXBean;
 	private boolean dumpLockedMonitors;
@@ -390,6 +403,8 @@ public class EventLoopMonitorThread extends Thread {
 		allThreadsSampleInterval = longEventErrorThreshold * 2 / 3;
 		deadlockThreshold = args.deadlockThreshold;
 		logToErrorLog = args.logToErrorLog;
+		stackAggregator = args.stackAggregator;
+		flightRecorderEvents = FlightRecorderEvents.create(display);
 		uiThreadFilter = new FilterHandler(args.uiThreadFilter);
 		noninterestingThreadFilter = new FilterHandler(args.noninterestingThreadFilter);
 		sleepMonitor = new Object();
@@ -400,6 +415,9 @@ public class EventLoopMonitorThread extends Thread {
 	 */
 	public void shutdown() throws SWTException {
 		cancelled.set(true);
+		if (flightRecorderEvents != null) {
+			flightRecorderEvents.stop();
+		}
 		if (!display.isDisposed()) {
 			display.removeListener(SWT.PreEvent, eventLoopState);
 			display.removeListener(SWT.PostEvent, eventLoopState);
@@ -455,6 +473,10 @@ public class EventLoopMonitorThread extends Thread {
 			MonitoringPlugin.logWarning(Messages.EventLoopMonitorThread_logging_disabled_error);
 		}
 
+		if (flightRecorderEvents != null && !cancelled.get()) {
+			flightRecorderEvents.start();
+		}
+
 		monitoringThreadId = Thread.currentThread().getId();
 		threadMXBean = ManagementFactory.getThreadMXBean();
 		dumpLockedMonitors = threadMXBean.isObjectMonitorUsageSupported();
@@ -480,6 +502,10 @@ public class EventLoopMonitorThread extends Thread {
 		StackSample[] stackSamples = new StackSample[maxStackSamples];
 		int numSamples = 0;
 
+		// Samples of the UI thread to aggregate once the event turns out to be a UI freeze.
+		List<StackSample> pendingAggregatedSamples = new ArrayList<StackSample>();
+		long grabAggregatedSampleAt = 0; // Immediately updated by resetStalledEventState.
+
 		boolean starvedAwake = false;
 		boolean starvedAsleep = false;
 
@@ -499,6 +525,8 @@ public class EventLoopMonitorThread extends Thread {
 					eventTime = currTime;
 				}
 				grabStackSampleAt = eventTime + sampleInterval;
+				grabAggregatedSampleAt = grabStackSampleAt;
+				pendingAggregatedSamples.clear();
 				numSamples = 0;
 				starvedAwake = false;
 				starvedAsleep = false;
@@ -606,12 +634,29 @@ public class EventLoopMonitorThread extends Thread {
 					}
 					grabStackSampleAt += pollingDelay;
 				}
+
+				// Unlike the logged samples, the aggregated samples are taken at a fixed interval
+				// for the whole duration of the event so that each of them has the same weight.
+				if (stackAggregator != null && currTime >= grabAggregatedSampleAt) {
+					StackSample sample = new StackSample(getTimestamp(), captureThreadStacks(false));
+					if (currTime - lastEventStartOrResumeTime >= longEventWarningThreshold) {
+						aggregateSamples(pendingAggregatedSamples, Long.MAX_VALUE);
+						aggregateSample(sample);
+					} else {
+						pendingAggregatedSamples.add(sample);
+					}
+					grabAggregatedSampleAt = Math.max(grabAggregatedSampleAt + sampleInterval,
+							currTime + 1);
+				}
 			}
 
 			// If a stalled event has finished, publish it and mark that the information should
 			// be reset.
 			LongEventInfo eventSnapshot = eventToPublish.getAndSet(null);
 			if (eventSnapshot != null) {
+				if (flightRecorderEvents != null) {
+					flightRecorderEvents.uiFreeze(eventSnapshot);
+				}
 				long eventEnd = eventSnapshot.start + eventSnapshot.duration;
 				// Remove stack samples collected after the end of the event.
 				while (numSamples > 0 && eventEnd <= stackSamples[numSamples - 1].getTimestamp()) {
@@ -634,6 +679,9 @@ public class EventLoopMonitorThread extends Thread {
 							Arrays.copyOf(stackSamples, numSamples),
 							false, starvedAwake, starvedAsleep));
 				}
+				if (stackAggregator != null) {
+					aggregateSamples(pendingAggregatedSamples, eventEnd);
+				}
 
 				resetStalledEventState = true;
 			}
@@ -671,6 +719,33 @@ public class EventLoopMonitorThread extends Thread {
 		}
 	}
 
+	/**
+	 * Adds the samples taken before the given time to the aggregated call tree and clears the list.
+	 */
+	private void aggregateSamples(List<StackSample> samples, long endTime) {
+		for (StackSample sample : samples) {
+			if (sample.getTimestamp() < endTime) {
+				aggregateSample(sample);
+			}
+		}
+		samples.clear();
+	}
+
+	/**
+	 * Adds a sample of the UI thread to the aggregated call tree unless it contains a stack frame
+	 * matching {@link #uiThreadFilter}. Each sample accounts for one sample interval.
+	 */
+	private void aggregateSample(StackSample sample) {
+		ThreadInfo uiThread = sample.getStackTraces()[0];
+		if (uiThread == null) {
+			return;
+		}
+		StackTraceElement[] stackTrace = uiThread.getStackTrace();
+		if (!uiThreadFilter.matchesFilter(stackTrace)) {
+			stackAggregator.addSample(stackTrace, sampleInterval);
+		}
+	}
+
 	/**
 	 * A thread is considered interesting if its stack trace includes at least one frame not
 	 * matching any of the methods in {@link #noninterestingThreadFilter}.
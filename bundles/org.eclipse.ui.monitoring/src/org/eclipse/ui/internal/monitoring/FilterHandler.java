@@ -167,12 +167,7 @@ public class FilterHandler {
 	private boolean hasFilteredTraces(ThreadInfo[] stackTraces, long displayThreadId) {
 		for (ThreadInfo threadInfo : stackTraces) {
 			if (threadInfo.getThreadId() == displayThreadId) {
-				for (StackTraceElement element : threadInfo.getStackTrace()) {
-					if (matchesFilter(element)) {
-						return true;
-					}
-				}
-				return false;
+				return matchesFilter(threadInfo.getStackTrace());
 			}
 		}
 
@@ -180,6 +175,18 @@ public class FilterHandler {
 		return false;
 	}
 
+	/**
+	 * Checks whether any frame of the given stack trace matches the filter.
+	 */
+	boolean matchesFilter(StackTraceElement[] stackTrace) {
+		for (StackTraceElement element : stackTrace) {
+			if (matchesFilter(element)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Checks whether the given stack frame matches the filter.
 	 */
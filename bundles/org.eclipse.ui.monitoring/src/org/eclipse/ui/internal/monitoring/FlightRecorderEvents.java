@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Google Inc and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *	   Google Inc - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Emits Java Flight Recorder events for UI freezes, dispatching of SWT events, latency of
+ * {@link Display#asyncExec} and {@link Display#syncExec} and runs of jobs, so that they can be
+ * correlated with garbage collection, I/O and other JVM events in a single recording.
+ * <p>
+ * This bundle targets Java 8 and doesn't reference {@code jdk.jfr}. The implementation declaring
+ * the events is contributed by the {@code org.eclipse.ui.monitoring.jfr} fragment, which requires
+ * Java 11 and only resolves when Flight Recorder is available. Instances must be created through
+ * {@link #create(Display)}, which returns {@code null} when the fragment is not installed.
+ */
+public abstract class FlightRecorderEvents {
+	private static final String IMPLEMENTATION_CLASS =
+			"org.eclipse.ui.internal.monitoring.JfrFlightRecorderEvents"; //$NON-NLS-1$
+
+	/**
+	 * Returns an instance emitting events for the given display, or {@code null} if the fragment
+	 * implementing the Flight Recorder events is not installed or not resolved.
+	 */
+	public static FlightRecorderEvents create(Display display) {
+		ClassLoader classLoader = FlightRecorderEvents.class.getClassLoader();
+		Class<?> implementation;
+		try {
+			implementation = Class.forName(IMPLEMENTATION_CLASS, true, classLoader);
+		} catch (ClassNotFoundException e) {
+			return null;
+		} catch (LinkageError e) {
+			MonitoringPlugin.logError(e.getMessage(), e);
+			return null;
+		}
+		try {
+			return (FlightRecorderEvents) implementation.getDeclaredConstructor(Display.class)
+					.newInstance(display);
+		} catch (ReflectiveOperationException e) {
+			MonitoringPlugin.logError(e.getMessage(), e);
+			return null;
+		}
+	}
+
+	/**
+	 * Starts tracking the jobs and the latency of asyncExec and syncExec. Called on the monitoring
+	 * thread.
+	 */
+	public abstract void start();
+
+	/**
+	 * Stops tracking the jobs and the latency of asyncExec and syncExec.
+	 */
+	public abstract void stop();
+
+	/**
+	 * Starts timing the dispatching of an event. Called on the UI thread on
+	 * {@link org.eclipse.swt.SWT#PreEvent PreEvent}.
+	 *
+	 * @param eventType the type of the dispatched event
+	 */
+	public abstract void eventDispatchStarted(int eventType);
+
+	/**
+	 * Emits the event for the dispatching of the innermost event. Called on the UI thread on
+	 * {@link org.eclipse.swt.SWT#PostEvent PostEvent}.
+	 */
+	public abstract void eventDispatchEnded();
+
+	/**
+	 * Emits the event for a UI freeze. Called on the monitoring thread.
+	 *
+	 * @param info the start and the duration of the freeze
+	 */
+	public abstract void uiFreeze(LongEventInfo info);
+}
@@ -38,6 +38,7 @@ final class Messages extends NLS {
 	public static String EventLoopMonitorThread_max_event_loop_depth_exceeded_1;
 	public static String EventLoopMonitorThread_workbench_was_null;
 	public static String FilterHandler_missing_thread_error;
+	public static String MonitoringPlugin_aggregated_stacks_write_error_1;
 	public static String MonitoringStartup_initialization_error;
 
 	private Messages() {
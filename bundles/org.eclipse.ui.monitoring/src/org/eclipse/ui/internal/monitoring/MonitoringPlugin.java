@@ -12,8 +12,17 @@
  *******************************************************************************/
 package org.eclipse.ui.internal.monitoring;
 
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.osgi.util.NLS;
 import org.eclipse.ui.monitoring.PreferenceConstants;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
@@ -22,7 +31,9 @@ import org.osgi.framework.BundleContext;
  * The activator class that controls the plug-in life cycle.
  */
 public class MonitoringPlugin extends AbstractUIPlugin {
+	private static final String AGGREGATED_STACKS_FILE = "ui_freezes.collapsed"; //$NON-NLS-1$
 	private static MonitoringPlugin plugin;
+	private final StackAggregator stackAggregator = new StackAggregator();
 
 	@Override
 	public void start(BundleContext context) throws Exception {
@@ -32,6 +43,7 @@ public class MonitoringPlugin extends AbstractUIPlugin {
 
 	@Override
 	public void stop(BundleContext context) throws Exception {
+		saveAggregatedStacks();
 		plugin = null;
 		super.stop(context);
 	}
@@ -40,6 +52,32 @@ public class MonitoringPlugin extends AbstractUIPlugin {
 		return plugin;
 	}
 
+	/**
+	 * Returns the call tree aggregating the stack samples of the UI thread across UI freezes.
+	 * The call tree outlives the monitoring thread, which is restarted when the preferences
+	 * change.
+	 */
+	public StackAggregator getStackAggregator() {
+		return stackAggregator;
+	}
+
+	/**
+	 * Writes the aggregated stack samples, if any, in the collapsed stack format to a file in
+	 * the state location of the plug-in.
+	 */
+	private void saveAggregatedStacks() {
+		if (stackAggregator.getSampleCount() == 0) {
+			return;
+		}
+		File file = getStateLocation().append(AGGREGATED_STACKS_FILE).toFile();
+		try (Writer writer = new BufferedWriter(
+				new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+			stackAggregator.writeCollapsedStacks(writer);
+		} catch (IOException e) {
+			logError(NLS.bind(Messages.MonitoringPlugin_aggregated_stacks_write_error_1, file), e);
+		}
+	}
+
 	public static void logError(String message, Throwable e) {
 		log(new Status(IStatus.ERROR, PreferenceConstants.PLUGIN_ID, message, e));
 	}
@@ -79,6 +79,9 @@ public class MonitoringStartup implements IStartup {
 		args.noninterestingThreadFilter =
 				preferences.getString(PreferenceConstants.NONINTERESTING_THREAD_FILTER);
 		args.logToErrorLog = preferences.getBoolean(PreferenceConstants.LOG_TO_ERROR_LOG);
+		if (preferences.getBoolean(PreferenceConstants.AGGREGATE_STACK_SAMPLES)) {
+			args.stackAggregator = MonitoringPlugin.getDefault().getStackAggregator();
+		}
 
 		return args;
 	}
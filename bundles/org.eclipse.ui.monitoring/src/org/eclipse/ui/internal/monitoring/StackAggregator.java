@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Google Inc and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *	   Google Inc - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregates stack samples of the UI thread into a call tree. Each sample is added with a weight,
+ * the time in milliseconds it represents, so that the weight of a node of the tree is the total
+ * time the UI thread spent in the corresponding call path across all aggregated UI freezes.
+ * <p>
+ * The tree can be exported in the collapsed stack format, one line per call path with frames
+ * separated by semicolons followed by a space and the weight, as understood by flame graph tools.
+ * <p>
+ * Frames are identified by the fully qualified method name; line numbers are ignored so that
+ * samples taken in different lines of the same method are merged. The number of nodes is bounded
+ * by {@link #MAX_NODES}. Once the limit is reached the samples with new call paths are attributed
+ * to the deepest existing node of their path.
+ * <p>
+ * This class is thread safe.
+ */
+public class StackAggregator {
+	/** Maximum number of nodes in the call tree. */
+	static final int MAX_NODES = 100000;
+
+	private static class Node {
+		final String frame;
+		final Node parent;
+		Map<String, Node> children;
+		/** Weight of the samples ending in this node. */
+		long selfWeight;
+
+		Node(String frame, Node parent) {
+			this.frame = frame;
+			this.parent = parent;
+		}
+
+		Node getOrCreateChild(String childFrame, StackAggregator aggregator) {
+			if (children == null) {
+				children = new HashMap<String, Node>();
+			}
+			Node child = children.get(childFrame);
+			if (child == null && aggregator.nodeCount < MAX_NODES) {
+				child = new Node(childFrame, this);
+				children.put(childFrame, child);
+				aggregator.nodeCount++;
+			}
+			return child;
+		}
+	}
+
+	private final Node root = new Node("", null); //$NON-NLS-1$
+	private int nodeCount;
+	private long totalWeight;
+	private int sampleCount;
+
+	/**
+	 * Adds a stack sample to the call tree.
+	 *
+	 * @param stackTrace the stack trace of the UI thread, the innermost frame first, as returned
+	 *     by {@link Thread#getStackTrace()}
+	 * @param weight the time in milliseconds represented by the sample
+	 */
+	public synchronized void addSample(StackTraceElement[] stackTrace, long weight) {
+		Node node = root;
+		for (int i = stackTrace.length; --i >= 0;) {
+			StackTraceElement element = stackTrace[i];
+			Node child = node.getOrCreateChild(element.getClassName() + '.' + element.getMethodName(),
+					this);
+			if (child == null) {
+				break; // The tree is full.
+			}
+			node = child;
+		}
+		node.selfWeight += weight;
+		totalWeight += weight;
+		sampleCount++;
+	}
+
+	/**
+	 * Returns the total weight of the aggregated samples in milliseconds.
+	 */
+	public synchronized long getTotalWeight() {
+		return totalWeight;
+	}
+
+	/**
+	 * Returns the number of aggregated samples.
+	 */
+	public synchronized int getSampleCount() {
+		return sampleCount;
+	}
+
+	/**
+	 * Removes all aggregated samples.
+	 */
+	public synchronized void clear() {
+		root.children = null;
+		root.selfWeight = 0;
+		nodeCount = 0;
+		totalWeight = 0;
+		sampleCount = 0;
+	}
+
+	/**
+	 * Writes the call tree in the collapsed stack format.
+	 *
+	 * @param writer the writer to write to
+	 * @throws IOException if writing fails
+	 */
+	public synchronized void writeCollapsedStacks(Writer writer) throws IOException {
+		List<Node> stack = new ArrayList<Node>();
+		stack.add(root);
+		StringBuilder line = new StringBuilder();
+		while (!stack.isEmpty()) {
+			Node node = stack.remove(stack.size() - 1);
+			if (node.selfWeight != 0 && node != root) {
+				line.setLength(0);
+				appendPath(line, node);
+				line.append(' ').append(node.selfWeight).append('\n');
+				writer.write(line.toString());
+			}
+			if (node.children != null) {
+				stack.addAll(node.children.values());
+			}
+		}
+	}
+
+	/**
+	 * Returns the call tree in the collapsed stack format.
+	 */
+	public String toCollapsedStacks() {
+		StringWriter writer = new StringWriter();
+		try {
+			writeCollapsedStacks(writer);
+		} catch (IOException e) {
+			// StringWriter does not throw IOException.
+		}
+		return writer.toString();
+	}
+
+	private static void appendPath(StringBuilder buf, Node node) {
+		int start = buf.length();
+		for (; node.parent != null; node = node.parent) {
+			// Insert the frames in front, the outermost frame comes first.
+			if (buf.length() != start) {
+				buf.insert(start, ';');
+			}
+			buf.insert(start, node.frame);
+		}
+	}
+}
@@ -25,6 +25,7 @@ public final class Messages extends NLS {
 	public static String MonitoringPreferenceListener_preference_error;
 	public static String MonitoringPreferencePage_add_ui_thread_filter_button_label;
 	public static String MonitoringPreferencePage_add_noninteresting_thread_filter_button_label;
+	public static String MonitoringPreferencePage_aggregate_stack_samples_label;
 	public static String MonitoringPreferencePage_deadlock_threshold_label;
 	public static String MonitoringPreferencePage_deadlock_threshold_too_low_error;
 	public static String MonitoringPreferencePage_enable_monitoring_label;
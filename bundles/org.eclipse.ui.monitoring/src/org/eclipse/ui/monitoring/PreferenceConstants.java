@@ -55,6 +55,12 @@ public class PreferenceConstants {
 	 * message if all stack frames of the thread match the filter.
 	 */
 	public static final String NONINTERESTING_THREAD_FILTER = "noninteresting_thread_filter"; //$NON-NLS-1$
+	/**
+	 * If true, stack samples of the UI thread taken during UI freezes are aggregated into a call
+	 * tree. The call tree is saved in the collapsed stack format to the {@code ui_freezes.collapsed}
+	 * file in the state location of the plug-in when the workbench shuts down.
+	 */
+	public static final String AGGREGATE_STACK_SAMPLES = "aggregate_stack_samples"; //$NON-NLS-1$
 
 	private PreferenceConstants() {}
 }
@@ -94,6 +94,17 @@ public class ActionExpression {
 		public Collection valuesForExpression(String expressionType) {
 			return null;
 		}
+
+		/**
+		 * Returns whether the result of the expression only depends on the
+		 * class of the object it is evaluated for.
+		 *
+		 * @return boolean <code>true</code> if only the class of the object
+		 *         is tested
+		 */
+		public boolean isClassBased() {
+			return false;
+		}
 	}
 
 	private static class AndExpression extends CompositeExpression {
@@ -246,6 +257,17 @@ public class ActionExpression {
 			}
 			return allValues;
 		}
+
+		@Override
+		public boolean isClassBased() {
+			Iterator iterator = list.iterator();
+			while (iterator.hasNext()) {
+				if (!((AbstractExpression) iterator.next()).isClassBased()) {
+					return false;
+				}
+			}
+			return true;
+		}
 	}
 
 	private static class NotExpression extends SingleExpression {
@@ -410,6 +432,11 @@ public class ActionExpression {
 			}
 			return false;
 		}
+
+		@Override
+		public boolean isClassBased() {
+			return true;
+		}
 	}
 
 	private static class ObjectStateExpression extends AbstractExpression {
@@ -727,6 +754,11 @@ public class ActionExpression {
 			return child.valuesForExpression(expressionType);
 		}
 
+		@Override
+		public boolean isClassBased() {
+			return child.isClassBased();
+		}
+
 	}
 
 	private static class SystemPropertyExpression extends AbstractExpression {
@@ -1055,4 +1087,15 @@ public class ActionExpression {
 	public Collection valuesForExpression(String expressionType) {
 		return root.valuesForExpression(expressionType);
 	}
+
+	/**
+	 * Returns whether the result of the expression only depends on the class
+	 * of the object it is evaluated for, so that it can be cached per class.
+	 *
+	 * @return boolean <code>true</code> if only the class of the object is
+	 *         tested
+	 */
+	public boolean isClassBased() {
+		return root != null && root.isClassBased();
+	}
 }
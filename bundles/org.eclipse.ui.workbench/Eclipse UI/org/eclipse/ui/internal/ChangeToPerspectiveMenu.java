@@ -11,6 +11,7 @@
  *******************************************************************************/
 package org.eclipse.ui.internal;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -55,6 +56,17 @@ public class ChangeToPerspectiveMenu extends PerspectiveMenu {
         showActive(true);
     }
 
+	@Override
+	protected ArrayList getPerspectiveItems() {
+		ArrayList items = super.getPerspectiveItems();
+		// copy the models of the offered perspectives while the menu is shown
+		IWorkbenchPage page = getWindow().getActivePage();
+		if (page instanceof WorkbenchPage) {
+			((WorkbenchPage) page).preparePerspectives(items);
+		}
+		return items;
+	}
+
     @Override
 	protected void run(IPerspectiveDescriptor desc) {
 		IPreferenceStore store = PrefUtil.getInternalPreferenceStore();
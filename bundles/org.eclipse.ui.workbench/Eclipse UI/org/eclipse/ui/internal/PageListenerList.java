@@ -12,6 +12,7 @@ package org.eclipse.ui.internal;
 
 import org.eclipse.core.commands.common.EventManager;
 import org.eclipse.core.runtime.SafeRunner;
+import org.eclipse.e4.ui.internal.services.ListenerStatistics;
 import org.eclipse.jface.util.SafeRunnable;
 import org.eclipse.ui.IPageListener;
 import org.eclipse.ui.IWorkbenchPage;
@@ -50,7 +51,9 @@ public class PageListenerList extends EventManager {
     		label = description + page.getLabel();
     		UIStats.start(UIStats.NOTIFY_PAGE_LISTENERS, label);
     	}
+    	long start = ListenerStatistics.start();
     	SafeRunner.run(runnable);
+    	ListenerStatistics.end(ListenerStatistics.PAGE, listener, start);
     	if (UIStats.isDebugging(UIStats.NOTIFY_PAGE_LISTENERS)) {
 			UIStats.end(UIStats.NOTIFY_PAGE_LISTENERS, listener, label);
 		}
@@ -12,6 +12,7 @@ package org.eclipse.ui.internal;
 
 import org.eclipse.core.commands.common.EventManager;
 import org.eclipse.core.runtime.SafeRunner;
+import org.eclipse.e4.ui.internal.services.ListenerStatistics;
 import org.eclipse.jface.util.SafeRunnable;
 import org.eclipse.ui.IPerspectiveDescriptor;
 import org.eclipse.ui.IPerspectiveListener;
@@ -55,7 +56,9 @@ public class PerspectiveListenerList extends EventManager {
     		label = description + perspective.getId();
     		UIStats.start(UIStats.NOTIFY_PERSPECTIVE_LISTENERS, label);
     	}
+    	long start = ListenerStatistics.start();
     	SafeRunner.run(runnable);
+    	ListenerStatistics.end(ListenerStatistics.PAGE, listener, start);
     	if (UIStats.isDebugging(UIStats.NOTIFY_PERSPECTIVE_LISTENERS)) {
 			UIStats.end(UIStats.NOTIFY_PERSPECTIVE_LISTENERS, listener, label);
 		}
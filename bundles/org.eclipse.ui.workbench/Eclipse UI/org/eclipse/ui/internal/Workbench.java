@@ -77,6 +77,8 @@ import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.di.InjectionException;
 import org.eclipse.e4.core.services.events.IEventBroker;
 import org.eclipse.e4.ui.internal.workbench.E4Workbench;
+import org.eclipse.e4.ui.internal.workbench.ModelJournal;
+import org.eclipse.e4.ui.internal.workbench.ResourceHandler;
 import org.eclipse.e4.ui.internal.workbench.renderers.swt.IUpdateService;
 import org.eclipse.e4.ui.internal.workbench.swt.E4Application;
 import org.eclipse.e4.ui.internal.workbench.swt.IEventLoopAdvisor;
@@ -1288,16 +1290,29 @@ public final class Workbench extends EventManager implements IWorkbench,
 	/**
 	 * Copy the model, clean it up and write it out to workbench.xmi. Called as
 	 * part of persist(false) during auto-save.
+	 * <p>
+	 * When the model changes are journaled and only consist of attribute and
+	 * persisted state changes, the changes are appended to the journal instead
+	 * and the model is not copied.
+	 * </p>
 	 */
 	private void persistWorkbenchModel() {
 		if (Job.getJobManager().find(WORKBENCH_AUTO_SAVE_JOB).length > 0) {
 			return;
 		}
+		final IModelResourceHandler handler = e4Context.get(IModelResourceHandler.class);
+		final ModelJournal journal = handler instanceof ResourceHandler
+				? ((ResourceHandler) handler).getModelJournal() : null;
+		if (journal != null && journal.canAppend()) {
+			appendToModelJournal(journal);
+			return;
+		}
+
 		final MApplication appCopy = (MApplication) EcoreUtil.copy((EObject) application);
 		if (detectWorkbenchCorruption(appCopy)) {
 			return;
 		}
-		final IModelResourceHandler handler = e4Context.get(IModelResourceHandler.class);
+		final ModelJournal.Snapshot snapshot = journal != null ? journal.startSnapshot(application, appCopy) : null;
 
 		Job cleanAndSaveJob = new Job(WORKBENCH_AUTO_SAVE_BACKGROUND_JOB) {
 			@Override
@@ -1306,7 +1321,13 @@ public final class Workbench extends EventManager implements IWorkbench,
 				cleanUpCopy(appCopy, e4Context);
 				try {
 					if (!detectWorkbenchCorruption((MApplication) res.getContents().get(0))) {
-						res.save(null);
+						if (snapshot != null) {
+							snapshot.assignIds(res);
+							((ResourceHandler) handler).saveAtomically(res);
+							journal.snapshotSaved(snapshot);
+						} else {
+							res.save(null);
+						}
 					}
 				} catch (IOException e) {
 					// Just auto-save, we don't really care
@@ -1328,6 +1349,36 @@ public final class Workbench extends EventManager implements IWorkbench,
 		cleanAndSaveJob.schedule();
 	}
 
+	/**
+	 * Append the model changes since the last auto-save to the journal in the
+	 * background.
+	 */
+	private void appendToModelJournal(final ModelJournal journal) {
+		final List<ModelJournal.Change> changes = journal.takeChanges();
+		if (changes.isEmpty()) {
+			return;
+		}
+		Job appendJob = new Job(WORKBENCH_AUTO_SAVE_BACKGROUND_JOB) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				try {
+					journal.append(changes);
+				} catch (IOException e) {
+					// the next auto-save saves the whole model
+				}
+				return Status.OK_STATUS;
+			}
+
+			@Override
+			public boolean belongsTo(Object family) {
+				return WORKBENCH_AUTO_SAVE_JOB.equals(family);
+			}
+		};
+		appendJob.setPriority(Job.SHORT);
+		appendJob.setSystem(true);
+		appendJob.schedule();
+	}
+
 	private static void cleanUpCopy(MApplication appCopy, IEclipseContext context) {
 		// clean up all trim bars that come from trim bar contributions
 		// the trim elements that need to be removed are stored in the trimBar.
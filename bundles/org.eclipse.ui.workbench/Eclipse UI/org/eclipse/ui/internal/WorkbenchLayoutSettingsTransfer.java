@@ -65,19 +65,21 @@ public class WorkbenchLayoutSettingsTransfer extends WorkbenchSettingsTransfer {
 				outputStream.close();
 			}
 
-			File workbenchModel = new File(currentLocation.toOSString(), "workbench.xmi"); //$NON-NLS-1$
-			if (workbenchModel.exists()) {
-				byte[] bytes = new byte[8192];
-				FileInputStream inputStream = new FileInputStream(workbenchModel);
-				FileOutputStream outputStream = new FileOutputStream(new File(workspaceFile,
-						"workbench.xmi")); //$NON-NLS-1$
-				int read = inputStream.read(bytes, 0, 8192);
-				while (read != -1) {
-					outputStream.write(bytes, 0, read);
-					read = inputStream.read(bytes, 0, 8192);
+			// the model is saved either as XMI or with the binary format
+			for (String modelFile : new String[] { "workbench.xmi", "workbench.e4bin" }) { //$NON-NLS-1$ //$NON-NLS-2$
+				File workbenchModel = new File(currentLocation.toOSString(), modelFile);
+				if (workbenchModel.exists()) {
+					byte[] bytes = new byte[8192];
+					FileInputStream inputStream = new FileInputStream(workbenchModel);
+					FileOutputStream outputStream = new FileOutputStream(new File(workspaceFile, modelFile));
+					int read = inputStream.read(bytes, 0, 8192);
+					while (read != -1) {
+						outputStream.write(bytes, 0, read);
+						read = inputStream.read(bytes, 0, 8192);
+					}
+					inputStream.close();
+					outputStream.close();
 				}
-				inputStream.close();
-				outputStream.close();
 			}
 		} catch (IOException e) {
 			return new Status(IStatus.ERROR, WorkbenchPlugin.PI_WORKBENCH,
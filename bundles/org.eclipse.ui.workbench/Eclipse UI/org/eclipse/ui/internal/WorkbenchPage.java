@@ -59,6 +59,7 @@ import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.di.annotations.Optional;
 import org.eclipse.e4.core.services.events.IEventBroker;
 import org.eclipse.e4.ui.di.UIEventTopic;
+import org.eclipse.e4.ui.internal.services.ListenerStatistics;
 import org.eclipse.e4.ui.internal.workbench.ModelServiceImpl;
 import org.eclipse.e4.ui.internal.workbench.PartServiceImpl;
 import org.eclipse.e4.ui.model.application.MApplication;
@@ -519,7 +520,7 @@ public class WorkbenchPage implements IWorkbenchPage {
 		public void pageChanged(final PageChangedEvent event) {
 			for (final IPartListener2 listener : partListener2List) {
 				if (listener instanceof IPageChangedListener) {
-					SafeRunner.run(new SafeRunnable() {
+					firePartListener(listener, new SafeRunnable() {
 						@Override
 						public void run() throws Exception {
 							((IPageChangedListener) listener).pageChanged(event);
@@ -2732,6 +2733,34 @@ public class WorkbenchPage implements IWorkbenchPage {
 		configureExistingWindows();
     }
 
+	/**
+	 * Copies the saved models of the given perspectives which are not open in
+	 * this page ahead of time, so that switching to one of them doesn't have to
+	 * copy its model.
+	 *
+	 * @param perspectives
+	 *            the perspectives the user is about to choose from, the most
+	 *            likely to be chosen first
+	 */
+	public void preparePerspectives(List<IPerspectiveDescriptor> perspectives) {
+		MPerspectiveStack perspectiveStack = getPerspectiveStack();
+		if (!(modelService instanceof ModelServiceImpl) || perspectiveStack == null) {
+			return;
+		}
+		Set<String> openIds = new HashSet<>();
+		for (MPerspective perspective : perspectiveStack.getChildren()) {
+			openIds.add(perspective.getElementId());
+		}
+		List<String> snippetIds = new ArrayList<>();
+		for (IPerspectiveDescriptor perspective : perspectives) {
+			if (!openIds.contains(perspective.getId())) {
+				snippetIds.add(perspective.getId());
+			}
+		}
+		// only the first ones are prepared, in the order of the menu
+		((ModelServiceImpl) modelService).prepareSnippets(application, snippetIds);
+	}
+
 	/*
 	 * Perform any configuration required for an existing MWindow. The
 	 * association of an MWindow to the WorkbenchWindow/WorkbenchPage can occur
@@ -4979,6 +5008,16 @@ public class WorkbenchPage implements IWorkbenchPage {
 		return false;
 	}
 
+	/**
+	 * Notifies a part listener, recording the time it took in the
+	 * {@link ListenerStatistics}.
+	 */
+	private static void firePartListener(Object listener, SafeRunnable runnable) {
+		long start = ListenerStatistics.start();
+		SafeRunner.run(runnable);
+		ListenerStatistics.end(ListenerStatistics.PART, listener, start);
+	}
+
 	private void firePartActivated(MPart part) {
 
 		Object client = part.getObject();
@@ -4991,7 +5030,7 @@ public class WorkbenchPage implements IWorkbenchPage {
 			}
 
 			for (final IPartListener listener : partListenerList) {
-				SafeRunner.run(new SafeRunnable() {
+				firePartListener(listener, new SafeRunnable() {
 					@Override
 					public void run() throws Exception {
 						listener.partActivated(workbenchPart);
@@ -5000,7 +5039,7 @@ public class WorkbenchPage implements IWorkbenchPage {
 			}
 
 			for (final IPartListener2 listener : partListener2List) {
-				SafeRunner.run(new SafeRunnable() {
+				firePartListener(listener, new SafeRunnable() {
 					@Override
 					public void run() throws Exception {
 						listener.partActivated(partReference);
@@ -5016,7 +5055,7 @@ public class WorkbenchPage implements IWorkbenchPage {
 
 				if (partReference != null) {
 					for (final IPartListener listener : partListenerList) {
-						SafeRunner.run(new SafeRunnable() {
+						firePartListener(listener, new SafeRunnable() {
 							@Override
 							public void run() throws Exception {
 								listener.partActivated(workbenchPart);
@@ -5025,7 +5064,7 @@ public class WorkbenchPage implements IWorkbenchPage {
 					}
 
 					for (final IPartListener2 listener : partListener2List) {
-						SafeRunner.run(new SafeRunnable() {
+						firePartListener(listener, new SafeRunnable() {
 							@Override
 							public void run() throws Exception {
 								listener.partActivated(partReference);
@@ -5044,7 +5083,7 @@ public class WorkbenchPage implements IWorkbenchPage {
 			final IWorkbenchPartReference partReference = getReference(workbenchPart);
 
 			for (final IPartListener listener : partListenerList) {
-				SafeRunner.run(new SafeRunnable() {
+				firePartListener(listener, new SafeRunnable() {
 					@Override
 					public void run() throws Exception {
 						listener.partDeactivated(workbenchPart);
@@ -5053,7 +5092,7 @@ public class WorkbenchPage implements IWorkbenchPage {
 			}
 
 			for (final IPartListener2 listener : partListener2List) {
-				SafeRunner.run(new SafeRunnable() {
+				firePartListener(listener, new SafeRunnable() {
 					@Override
 					public void run() throws Exception {
 						listener.partDeactivated(partReference);
@@ -5068,7 +5107,7 @@ public class WorkbenchPage implements IWorkbenchPage {
 
 				if (partReference != null) {
 					for (final IPartListener listener : partListenerList) {
-						SafeRunner.run(new SafeRunnable() {
+						firePartListener(listener, new SafeRunnable() {
 							@Override
 							public void run() throws Exception {
 								listener.partDeactivated(workbenchPart);
@@ -5077,7 +5116,7 @@ public class WorkbenchPage implements IWorkbenchPage {
 					}
 
 					for (final IPartListener2 listener : partListener2List) {
-						SafeRunner.run(new SafeRunnable() {
+						firePartListener(listener, new SafeRunnable() {
 							@Override
 							public void run() throws Exception {
 								listener.partDeactivated(partReference);
@@ -5098,7 +5137,7 @@ public class WorkbenchPage implements IWorkbenchPage {
 		saveablesList.postOpen(part);
 
 		for (final IPartListener listener : partListenerList) {
-			SafeRunner.run(new SafeRunnable() {
+			firePartListener(listener, new SafeRunnable() {
 				@Override
 				public void run() throws Exception {
 					listener.partOpened(part);
@@ -5107,7 +5146,7 @@ public class WorkbenchPage implements IWorkbenchPage {
 		}
 
 		for (final IPartListener2 listener : partListener2List) {
-			SafeRunner.run(new SafeRunnable() {
+			firePartListener(listener, new SafeRunnable() {
 				@Override
 				public void run() throws Exception {
 					listener.partOpened(partReference);
@@ -5140,7 +5179,7 @@ public class WorkbenchPage implements IWorkbenchPage {
 		}
 
 		for (final IPartListener listener : partListenerList) {
-			SafeRunner.run(new SafeRunnable() {
+			firePartListener(listener, new SafeRunnable() {
 				@Override
 				public void run() throws Exception {
 					listener.partClosed(part);
@@ -5149,7 +5188,7 @@ public class WorkbenchPage implements IWorkbenchPage {
 		}
 
 		for (final IPartListener2 listener : partListener2List) {
-			SafeRunner.run(new SafeRunnable() {
+			firePartListener(listener, new SafeRunnable() {
 				@Override
 				public void run() throws Exception {
 					listener.partClosed(partReference);
@@ -5203,7 +5242,7 @@ public class WorkbenchPage implements IWorkbenchPage {
 			final IWorkbenchPartReference partReference = getReference(workbenchPart);
 
 			for (final IPartListener listener : partListenerList) {
-				SafeRunner.run(new SafeRunnable() {
+				firePartListener(listener, new SafeRunnable() {
 					@Override
 					public void run() throws Exception {
 						listener.partBroughtToTop(workbenchPart);
@@ -5212,7 +5251,7 @@ public class WorkbenchPage implements IWorkbenchPage {
 			}
 
 			for (final IPartListener2 listener : partListener2List) {
-				SafeRunner.run(new SafeRunnable() {
+				firePartListener(listener, new SafeRunnable() {
 					@Override
 					public void run() throws Exception {
 						listener.partBroughtToTop(partReference);
@@ -5297,7 +5336,7 @@ public class WorkbenchPage implements IWorkbenchPage {
 			final IWorkbenchPartReference partReference = getReference(workbenchPart);
 
 			for (final IPartListener2 listener : partListener2List) {
-				SafeRunner.run(new SafeRunnable() {
+				firePartListener(listener, new SafeRunnable() {
 					@Override
 					public void run() throws Exception {
 						listener.partVisible(partReference);
@@ -5322,7 +5361,7 @@ public class WorkbenchPage implements IWorkbenchPage {
 			final IWorkbenchPartReference partReference = getReference(workbenchPart);
 
 			for (final IPartListener2 listener : partListener2List) {
-				SafeRunner.run(new SafeRunnable() {
+				firePartListener(listener, new SafeRunnable() {
 					@Override
 					public void run() throws Exception {
 						listener.partHidden(partReference);
@@ -5334,7 +5373,7 @@ public class WorkbenchPage implements IWorkbenchPage {
 
 	public void firePartInputChanged(final IWorkbenchPartReference partReference) {
 		for (final IPartListener2 listener : partListener2List) {
-			SafeRunner.run(new SafeRunnable() {
+			firePartListener(listener, new SafeRunnable() {
 				@Override
 				public void run() throws Exception {
 					listener.partInputChanged(partReference);
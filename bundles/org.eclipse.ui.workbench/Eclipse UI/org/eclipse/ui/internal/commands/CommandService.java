@@ -92,6 +92,12 @@ public final class CommandService implements ICommandService, IUpdateService {
 
 	private ICommandHelpService commandHelpService;
 
+	/**
+	 * The listeners added to this service, mapped to the listeners registered
+	 * with the command manager in their place.
+	 */
+	private final Map<IExecutionListener, TimedExecutionListener> executionListeners = new HashMap<>();
+
 	/**
 	 * Constructs a new instance of <code>CommandService</code> using a
 	 * command manager.
@@ -112,7 +118,14 @@ public final class CommandService implements ICommandService, IUpdateService {
 
 	@Override
 	public final void addExecutionListener(final IExecutionListener listener) {
-		commandManager.addExecutionListener(listener);
+		if (listener == null) {
+			throw new NullPointerException("Cannot add a null execution listener"); //$NON-NLS-1$
+		}
+		if (!executionListeners.containsKey(listener)) {
+			TimedExecutionListener timedListener = new TimedExecutionListener(listener);
+			executionListeners.put(listener, timedListener);
+			commandManager.addExecutionListener(timedListener);
+		}
 	}
 
 	@Override
@@ -225,7 +238,8 @@ public final class CommandService implements ICommandService, IUpdateService {
 
 	@Override
 	public final void removeExecutionListener(final IExecutionListener listener) {
-		commandManager.removeExecutionListener(listener);
+		TimedExecutionListener timedListener = executionListeners.remove(listener);
+		commandManager.removeExecutionListener(timedListener != null ? timedListener : listener);
 	}
 
 	@Override
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.internal.commands;
+
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.commands.IExecutionListener;
+import org.eclipse.core.commands.IExecutionListenerWithChecks;
+import org.eclipse.core.commands.NotEnabledException;
+import org.eclipse.core.commands.NotHandledException;
+import org.eclipse.core.commands.common.NotDefinedException;
+import org.eclipse.e4.ui.internal.services.ListenerStatistics;
+
+/**
+ * An execution listener registered with the command manager in place of a
+ * listener added to the command service, so that the time spent in the
+ * listener is recorded by the {@link ListenerStatistics}.
+ */
+final class TimedExecutionListener implements IExecutionListenerWithChecks {
+
+	private final IExecutionListener listener;
+
+	TimedExecutionListener(IExecutionListener listener) {
+		this.listener = listener;
+	}
+
+	@Override
+	public void notHandled(String commandId, NotHandledException exception) {
+		long start = ListenerStatistics.start();
+		try {
+			listener.notHandled(commandId, exception);
+		} finally {
+			ListenerStatistics.end(ListenerStatistics.EXECUTION, listener, start);
+		}
+	}
+
+	@Override
+	public void postExecuteFailure(String commandId, ExecutionException exception) {
+		long start = ListenerStatistics.start();
+		try {
+			listener.postExecuteFailure(commandId, exception);
+		} finally {
+			ListenerStatistics.end(ListenerStatistics.EXECUTION, listener, start);
+		}
+	}
+
+	@Override
+	public void postExecuteSuccess(String commandId, Object returnValue) {
+		long start = ListenerStatistics.start();
+		try {
+			listener.postExecuteSuccess(commandId, returnValue);
+		} finally {
+			ListenerStatistics.end(ListenerStatistics.EXECUTION, listener, start);
+		}
+	}
+
+	@Override
+	public void preExecute(String commandId, ExecutionEvent event) {
+		long start = ListenerStatistics.start();
+		try {
+			listener.preExecute(commandId, event);
+		} finally {
+			ListenerStatistics.end(ListenerStatistics.EXECUTION, listener, start);
+		}
+	}
+
+	@Override
+	public void notDefined(String commandId, NotDefinedException exception) {
+		if (!(listener instanceof IExecutionListenerWithChecks)) {
+			return;
+		}
+		long start = ListenerStatistics.start();
+		try {
+			((IExecutionListenerWithChecks) listener).notDefined(commandId, exception);
+		} finally {
+			ListenerStatistics.end(ListenerStatistics.EXECUTION, listener, start);
+		}
+	}
+
+	@Override
+	public void notEnabled(String commandId, NotEnabledException exception) {
+		if (!(listener instanceof IExecutionListenerWithChecks)) {
+			return;
+		}
+		long start = ListenerStatistics.start();
+		try {
+			((IExecutionListenerWithChecks) listener).notEnabled(commandId, exception);
+		} finally {
+			ListenerStatistics.end(ListenerStatistics.EXECUTION, listener, start);
+		}
+	}
+}
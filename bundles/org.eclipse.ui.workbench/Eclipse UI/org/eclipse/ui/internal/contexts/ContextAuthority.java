@@ -185,6 +185,7 @@ public final class ContextAuthority extends ExpressionAuthority {
 				activations.add(activation);
 			}
 		}
+		addToVariableIndex(activation);
 	}
 
 	/**
@@ -364,6 +365,7 @@ public final class ContextAuthority extends ExpressionAuthority {
 				}
 			}
 		}
+		removeFromVariableIndex(activation);
 	}
 
 	/**
@@ -623,6 +625,58 @@ public final class ContextAuthority extends ExpressionAuthority {
 			}
 		}
 
+		recomputeActivations(activationsToRecompute, startTime);
+	}
+
+	/**
+	 * Carries out the source change notification when the names of the
+	 * changed sources are known. Only the activations whose expression reads
+	 * one of these sources are recomputed, rather than all of the activations
+	 * sharing a source priority with the change.
+	 *
+	 * @param sourcePriority
+	 *            A bit mask of all the source priorities that have changed.
+	 * @param sourceNames
+	 *            The array of names that changed.
+	 */
+	@Override
+	protected final void sourceChanged(final int sourcePriority,
+			final String[] sourceNames) {
+		long startTime = 0L;
+		if (DEBUG_PERFORMANCE) {
+			startTime = System.currentTimeMillis();
+		}
+
+		/*
+		 * Keep the activations the priority based lookup would have
+		 * recomputed, so that an activation is never recomputed more often
+		 * than before.
+		 */
+		final Set activationsToRecompute = getCachesReading(sourceNames);
+		final Iterator activationItr = activationsToRecompute.iterator();
+		while (activationItr.hasNext()) {
+			final IContextActivation activation = (IContextActivation) activationItr
+					.next();
+			if ((activation.getSourcePriority() & sourcePriority) == 0) {
+				activationItr.remove();
+			}
+		}
+
+		recomputeActivations(activationsToRecompute, startTime);
+	}
+
+	/**
+	 * Recomputes the active state of the given activations, and updates the
+	 * contexts whose active state changed.
+	 *
+	 * @param activationsToRecompute
+	 *            The activations to recompute; must not be <code>null</code>.
+	 * @param startTime
+	 *            The time the source change notification started, if tracing
+	 *            performance.
+	 */
+	private final void recomputeActivations(final Set activationsToRecompute,
+			final long startTime) {
 		/*
 		 * For every activation, we recompute its active state, and check
 		 * whether it has changed. If it has changed, then we take note of the
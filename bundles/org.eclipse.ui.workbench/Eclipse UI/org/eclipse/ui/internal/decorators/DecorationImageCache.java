@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.decorators;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.eclipse.jface.resource.ImageDescriptor;
+import org.eclipse.jface.viewers.DecorationOverlayIcon;
+import org.eclipse.swt.graphics.Device;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.Point;
+
+/**
+ * The DecorationImageCache holds the images composed by overlaying the
+ * decorations of the lightweight decorators on the images of the elements.
+ * <p>
+ * The cache is shared by all of the label decorators of the workbench. An
+ * image is composed once for a base image, a set of overlays and a size, and
+ * reference counted; it is disposed when the last resource manager that
+ * allocated it releases it.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ */
+public class DecorationImageCache {
+
+	private final Map<Key, Entry> images = new HashMap<>();
+
+	private long hitCount;
+
+	private long missCount;
+
+	/**
+	 * Return the descriptor of the image composed from the base image and the
+	 * overlays. Creating the descriptor in a resource manager acquires the
+	 * image from the receiver, destroying it releases the image. This method
+	 * is public for use by the test suites.
+	 *
+	 * @param base
+	 *            the base image
+	 * @param overlays
+	 *            the overlays, indexed by quadrant
+	 * @param size
+	 *            the size of the base image
+	 * @return ImageDescriptor
+	 */
+	public ImageDescriptor getDescriptor(Image base, ImageDescriptor[] overlays, Point size) {
+		return new CachedImageDescriptor(new Key(base, overlays, size));
+	}
+
+	/**
+	 * Return the image for the key, composing it if it is not cached yet, and
+	 * add a reference to it.
+	 */
+	private synchronized Image acquire(Key key, Device device) {
+		Entry entry = images.get(key);
+		if (entry == null || entry.image.isDisposed()) {
+			missCount++;
+			DecorationOverlayIcon icon = new DecorationOverlayIcon(key.base, key.overlays, key.size);
+			entry = new Entry(icon.createImage(device));
+			images.put(key, entry);
+		} else {
+			hitCount++;
+		}
+		entry.referenceCount++;
+		return entry.image;
+	}
+
+	/**
+	 * Remove a reference to the image for the key and dispose it if it is not
+	 * referenced anymore.
+	 */
+	private synchronized void release(Key key, Image image) {
+		Entry entry = images.get(key);
+		if (entry == null || entry.image != image) {
+			// not cached anymore
+			image.dispose();
+			return;
+		}
+		if (--entry.referenceCount == 0) {
+			images.remove(key);
+			image.dispose();
+		}
+	}
+
+	/**
+	 * @return the number of cached images
+	 */
+	public synchronized int size() {
+		return images.size();
+	}
+
+	/**
+	 * @return the number of times an image already composed was reused
+	 *         instead of being composed again
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * @return the number of images composed
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * @return the ratio of the image allocations that reused a composed image,
+	 *         between <code>0</code> and <code>1</code>
+	 */
+	public synchronized double getHitRate() {
+		long requests = hitCount + missCount;
+		return requests == 0 ? 0 : (double) hitCount / requests;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "DecorationImageCache [size=" + images.size() + ", hits=" + hitCount + ", misses=" + missCount //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ "]"; //$NON-NLS-1$
+	}
+
+	/**
+	 * A cached image and the number of resource managers referencing it.
+	 */
+	private static final class Entry {
+
+		final Image image;
+
+		int referenceCount;
+
+		Entry(Image image) {
+			this.image = image;
+		}
+	}
+
+	/**
+	 * The key of an image: the base image, the overlays and the size. The size
+	 * changes with the zoom of the base image.
+	 */
+	private static final class Key {
+
+		final Image base;
+
+		final ImageDescriptor[] overlays;
+
+		final Point size;
+
+		private final int hash;
+
+		Key(Image base, ImageDescriptor[] overlays, Point size) {
+			this.base = base;
+			this.overlays = overlays;
+			this.size = size;
+			this.hash = 31 * (31 * System.identityHashCode(base) + Arrays.hashCode(overlays)) + size.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return base == other.base && size.equals(other.size) && Arrays.equals(overlays, other.overlays);
+		}
+	}
+
+	/**
+	 * The descriptor of a cached image, equal to the descriptors of the same
+	 * key so that resource managers share the image.
+	 */
+	private final class CachedImageDescriptor extends ImageDescriptor {
+
+		private final Key key;
+
+		CachedImageDescriptor(Key key) {
+			this.key = key;
+		}
+
+		@Override
+		public Object createResource(Device device) {
+			return acquire(key, device);
+		}
+
+		@Override
+		public void destroyResource(Object previouslyCreatedObject) {
+			release(key, (Image) previouslyCreatedObject);
+		}
+
+		@Override
+		public ImageData getImageData() {
+			return new DecorationOverlayIcon(key.base, key.overlays, key.size).getImageData();
+		}
+
+		@Override
+		public int hashCode() {
+			return key.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof CachedImageDescriptor && key.equals(((CachedImageDescriptor) obj).key);
+		}
+	}
+}
@@ -28,6 +28,10 @@ class DecorationReference {
 
     boolean forceUpdate = false;
 
+	// Whether a viewer which doesn't tell its visible elements waits for the
+	// decoration
+	boolean untrackedRequest = false;
+
 	IDecorationContext[] contexts;
 
     DecorationReference(Object object, Object adaptedObject, IDecorationContext context) {
@@ -100,6 +104,24 @@ class DecorationReference {
 		return contexts;
 	}
 
+	/**
+	 * Return true if a viewer which doesn't tell its visible elements
+	 * requested the decoration, so that it must not be dropped.
+	 *
+	 * @return boolean
+	 */
+	boolean isUntrackedRequest() {
+		return untrackedRequest;
+	}
+
+	/**
+	 * Record that a viewer which doesn't tell its visible elements requested
+	 * the decoration.
+	 */
+	void setUntrackedRequest() {
+		untrackedRequest = true;
+	}
+
 	void addContext(IDecorationContext context) {
 		IDecorationContext[] newContexts = new IDecorationContext[contexts.length + 1];
 		System.arraycopy(contexts, 0, newContexts, 0, contexts.length);
@@ -10,12 +10,13 @@
  *******************************************************************************/
 package org.eclipse.ui.internal.decorators;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Objects;
 
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.jface.resource.ResourceManager;
-import org.eclipse.jface.viewers.DecorationOverlayIcon;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.Image;
@@ -39,7 +40,18 @@ public class DecorationResult {
 
 	private Font font;
 
-	DecorationResult(List prefixList, List suffixList,
+	/**
+	 * Create a result. This constructor is public for use by the test suites
+	 * and is not intended to be referenced by other workbench internals.
+	 *
+	 * @param prefixList
+	 * @param suffixList
+	 * @param imageDescriptors
+	 * @param resultForegroundColor
+	 * @param resultBackgroundColor
+	 * @param resultFont
+	 */
+	public DecorationResult(List prefixList, List suffixList,
 			ImageDescriptor[] imageDescriptors, Color resultForegroundColor,
 			Color resultBackgroundColor, Font resultFont) {
 		prefixes = prefixList;
@@ -74,9 +86,11 @@ public class DecorationResult {
 	 *
 	 * @param image
 	 * @param manager
+	 * @param imageCache
+	 *            the cache sharing the decorated images
 	 * @return Image
 	 */
-	Image decorateWithOverlays(Image image, ResourceManager manager) {
+	Image decorateWithOverlays(Image image, ResourceManager manager, DecorationImageCache imageCache) {
 
 		// Do not try to do anything if there is no source or overlays
 		if (image == null || descriptors == null) {
@@ -85,8 +99,7 @@ public class DecorationResult {
 
 		Rectangle bounds = image.getBounds();
 		Point size = new Point(bounds.width, bounds.height);
-		DecorationOverlayIcon icon = new DecorationOverlayIcon(image, descriptors, size);
-		return manager.createImage(icon);
+		return manager.createImage(imageCache.getDescriptor(image, descriptors, size));
 	}
 
 	/**
@@ -175,4 +188,48 @@ public class DecorationResult {
 	Color getForegroundColor() {
 		return foregroundColor;
 	}
+
+	/**
+	 * Return an estimate of the memory used by the receiver. This method is
+	 * public for use by the test suites and is not intended to be referenced
+	 * by other workbench internals.
+	 *
+	 * @return the estimated weight in bytes
+	 */
+	public long getWeight() {
+		long weight = 64 + getWeight(prefixes) + getWeight(suffixes);
+		if (descriptors != null) {
+			weight += 16 + 4 * descriptors.length;
+		}
+		return weight;
+	}
+
+	private static long getWeight(List strings) {
+		long weight = 24;
+		for (Object string : strings) {
+			weight += 44 + 2 * ((String) string).length();
+		}
+		return weight;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(prefixes, suffixes, Integer.valueOf(Arrays.hashCode(descriptors)), foregroundColor,
+				backgroundColor, font);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof DecorationResult)) {
+			return false;
+		}
+		DecorationResult other = (DecorationResult) obj;
+		return prefixes.equals(other.prefixes) && suffixes.equals(other.suffixes)
+				&& Arrays.equals(descriptors, other.descriptors)
+				&& Objects.equals(foregroundColor, other.foregroundColor)
+				&& Objects.equals(backgroundColor, other.backgroundColor) && Objects.equals(font, other.font);
+	}
 }
@@ -0,0 +1,254 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.decorators;
+
+import java.lang.ref.WeakReference;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import org.eclipse.jface.viewers.IDecorationContext;
+
+/**
+ * The DecorationResultCache holds the decoration results computed for the
+ * elements of the viewers until their labels have been updated.
+ * <p>
+ * The cache is bounded both in number of entries and in estimated weight, and
+ * evicts the least recently used entries first. An evicted element is simply
+ * decorated again the next time it is asked for. The results of the pinned
+ * elements, whose labels have not been updated yet, are never evicted. Equal
+ * results are interned so that the many elements sharing the same decoration
+ * share one result.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ */
+public class DecorationResultCache {
+
+	/** Default maximum number of cached results. */
+	static final int DEFAULT_MAX_ENTRIES = 20000;
+
+	/** Default maximum estimated weight of the cached results, in bytes. */
+	static final long DEFAULT_MAX_WEIGHT = 4 * 1024 * 1024;
+
+	/** Estimated weight of an entry, excluding its result. */
+	private static final int ENTRY_WEIGHT = 64;
+
+	private final int maxEntries;
+
+	private final long maxWeight;
+
+	private final LinkedHashMap<Key, DecorationResult> results = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final Map<DecorationResult, WeakReference<DecorationResult>> internedResults = new WeakHashMap<>();
+
+	private final Set<Object> pinnedElements = new HashSet<>();
+
+	private long weight;
+
+	private long hitCount;
+
+	private long missCount;
+
+	private long evictionCount;
+
+	/**
+	 * Create a cache with the default bounds.
+	 */
+	DecorationResultCache() {
+		this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_WEIGHT);
+	}
+
+	/**
+	 * Create a cache with the given bounds. This constructor is public for use
+	 * by the test suites.
+	 *
+	 * @param maxEntries
+	 *            the maximum number of cached results
+	 * @param maxWeight
+	 *            the maximum estimated weight of the cached results, in bytes
+	 */
+	public DecorationResultCache(int maxEntries, long maxWeight) {
+		this.maxEntries = maxEntries;
+		this.maxWeight = maxWeight;
+	}
+
+	/**
+	 * Return the result cached for the element in the context.
+	 *
+	 * @param element
+	 * @param context
+	 * @return DecorationResult or <code>null</code>
+	 */
+	public synchronized DecorationResult get(Object element, IDecorationContext context) {
+		DecorationResult result = results.get(new Key(element, context));
+		if (result == null) {
+			missCount++;
+		} else {
+			hitCount++;
+		}
+		return result;
+	}
+
+	/**
+	 * Cache the result for the element in the context, evicting the least
+	 * recently used results of the elements which are not pinned if the cache
+	 * is full.
+	 *
+	 * @param element
+	 * @param context
+	 * @param result
+	 */
+	public synchronized void put(Object element, IDecorationContext context, DecorationResult result) {
+		Key key = new Key(element, context);
+		DecorationResult interned = intern(result);
+		DecorationResult previous = results.put(key, interned);
+		if (previous != null) {
+			weight -= weightOf(previous);
+		}
+		weight += weightOf(interned);
+
+		Iterator<Map.Entry<Key, DecorationResult>> iterator = results.entrySet().iterator();
+		while ((results.size() > maxEntries || weight > maxWeight) && iterator.hasNext()) {
+			Map.Entry<Key, DecorationResult> entry = iterator.next();
+			if (key.equals(entry.getKey())) {
+				// keep the result just cached, however heavy
+				break;
+			}
+			if (pinnedElements.contains(entry.getKey().element)) {
+				// the label of the element has not been updated yet
+				continue;
+			}
+			iterator.remove();
+			weight -= weightOf(entry.getValue());
+			evictionCount++;
+		}
+	}
+
+	/**
+	 * Keep the results of the element until it is unpinned, typically while
+	 * its label is waiting for an update.
+	 *
+	 * @param element
+	 */
+	public synchronized void pin(Object element) {
+		pinnedElements.add(element);
+	}
+
+	/**
+	 * Let the results of the element be evicted again.
+	 *
+	 * @param element
+	 */
+	public synchronized void unpin(Object element) {
+		pinnedElements.remove(element);
+	}
+
+	/**
+	 * Remove all of the cached results. The pinned elements stay pinned.
+	 */
+	public synchronized void clear() {
+		results.clear();
+		weight = 0;
+	}
+
+	private DecorationResult intern(DecorationResult result) {
+		WeakReference<DecorationResult> reference = internedResults.get(result);
+		DecorationResult interned = reference == null ? null : reference.get();
+		if (interned != null) {
+			return interned;
+		}
+		internedResults.put(result, new WeakReference<>(result));
+		return result;
+	}
+
+	private static long weightOf(DecorationResult result) {
+		return ENTRY_WEIGHT + result.getWeight();
+	}
+
+	/**
+	 * @return the number of cached results
+	 */
+	public synchronized int size() {
+		return results.size();
+	}
+
+	/**
+	 * @return the estimated weight of the cached results, in bytes. Interned
+	 *         results are counted for each element they are cached for.
+	 */
+	public synchronized long getWeight() {
+		return weight;
+	}
+
+	/**
+	 * @return the number of lookups that found a result
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * @return the number of lookups that did not find a result
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * @return the number of results evicted to keep the cache within its
+	 *         bounds
+	 */
+	public synchronized long getEvictionCount() {
+		return evictionCount;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "DecorationResultCache [size=" + results.size() + ", weight=" + weight + ", hits=" + hitCount //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ ", misses=" + missCount + ", evictions=" + evictionCount + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	/**
+	 * The key of a result: the decorated element in a decoration context.
+	 */
+	private static final class Key {
+
+		private final Object element;
+
+		private final IDecorationContext context;
+
+		private final int hash;
+
+		Key(Object element, IDecorationContext context) {
+			this.element = element;
+			this.context = context;
+			this.hash = 31 * element.hashCode() + context.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return element.equals(other.element) && context.equals(other.context);
+		}
+	}
+}
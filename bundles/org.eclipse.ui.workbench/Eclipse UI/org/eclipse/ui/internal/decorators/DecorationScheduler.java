@@ -29,6 +29,7 @@ import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.resource.ResourceManager;
 import org.eclipse.jface.viewers.DecorationContext;
 import org.eclipse.jface.viewers.IDecorationContext;
+import org.eclipse.jface.viewers.IPrioritizedLabelDecorator;
 import org.eclipse.jface.viewers.ILabelProviderListener;
 import org.eclipse.jface.viewers.LabelProviderChangedEvent;
 import org.eclipse.swt.graphics.Color;
@@ -49,7 +50,11 @@ public class DecorationScheduler {
 
 	// When decorations are computed they are added to this cache via
 	// decorated() method
-	Map resultCache = new HashMap();
+	final DecorationResultCache resultCache = new DecorationResultCache();
+
+	// The images decorated with overlays, shared by all of the label
+	// decorators
+	final DecorationImageCache imageCache = new DecorationImageCache();
 
 	// Objects that need an icon and text computed for display to the user
 	List awaitingDecoration = new ArrayList();
@@ -62,12 +67,29 @@ public class DecorationScheduler {
 
 	Map awaitingDecorationValues = new HashMap();
 
+	// Number of viewers showing each element, as told by prioritize() and
+	// cancel(). The pending decoration of an element is only dropped once no
+	// viewer shows it anymore.
+	private Map visibleCounts = new HashMap();
+
 	DecoratorManager decoratorManager;
 
 	boolean shutdown = false;
 
 	Job decorationJob;
 
+	// The jobs sharing the decoration work, decorationJob is the first one
+	private Job[] decorationJobs;
+
+	// Number of references taken from the queue and not decorated yet
+	private int decorationsInProgress;
+
+	// Number of references decorated since the last label update request
+	private int decoratedSinceUpdate;
+
+	// Time at which the first of these references was decorated
+	private long batchStartTime;
+
 	UIJob updateJob;
 
 	private Collection removedListeners = Collections.synchronizedSet(new HashSet());
@@ -80,6 +102,27 @@ public class DecorationScheduler {
 	/** Amount of time to delay the update notification when max reached. */
 	static final int UPDATE_DELAY = 100;
 
+	/**
+	 * Maximum number of jobs decorating elements at the same time. More than
+	 * one job is only used if all of the enabled decorators are thread safe.
+	 */
+	public static final int MAX_DECORATION_JOBS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+	/**
+	 * Maximum number of elements a job takes from the queue and decorates at
+	 * once.
+	 */
+	public static final int DECORATION_BATCH_SIZE = 16;
+
+	/** Number of queued elements for which one more job is used. */
+	public static final int ELEMENTS_PER_JOB = 50;
+
+	/**
+	 * Number of decorated elements after which the labels are updated even
+	 * though more elements are waiting to be decorated.
+	 */
+	public static final int UPDATE_BATCH_SIZE = 200;
+
 	/**
 	 * Return a new instance of the receiver configured for the supplied
 	 * DecoratorManager.
@@ -87,8 +130,30 @@ public class DecorationScheduler {
 	 * @param manager
 	 */
 	DecorationScheduler(DecoratorManager manager) {
+		this(manager, MAX_DECORATION_JOBS);
+	}
+
+	/**
+	 * Return a new instance of the receiver configured for the supplied
+	 * DecoratorManager, decorating elements with at most the given number of
+	 * jobs. Without any job the queue is only consumed through
+	 * {@link #nextElements(int)}. Public for testing purposes only.
+	 *
+	 * @param manager
+	 * @param maxDecorationJobs
+	 *            the maximum number of jobs decorating elements at the same
+	 *            time
+	 */
+	public DecorationScheduler(DecoratorManager manager, int maxDecorationJobs) {
 		decoratorManager = manager;
-		createDecorationJob();
+		decorationJobs = new Job[maxDecorationJobs];
+		for (int i = 0; i < decorationJobs.length; i++) {
+			decorationJobs[i] = createDecorationJob();
+		}
+		if (decorationJobs.length > 0) {
+			decorationJob = decorationJobs[0];
+			decorationJob.schedule();
+		}
 	}
 
 	/**
@@ -131,28 +196,138 @@ public class DecorationScheduler {
 	 *            The decoration context
 	 */
 
-	synchronized void queueForDecoration(Object element, Object adaptedElement, boolean forceUpdate,
+	public synchronized void queueForDecoration(Object element, Object adaptedElement, boolean forceUpdate,
 			String undecoratedText, IDecorationContext context) {
 
 		Assert.isNotNull(context);
+		IDecorationContext viewerContext = getViewerContext(context);
+		boolean tracked = viewerContext != context;
 		DecorationReference reference = (DecorationReference) awaitingDecorationValues.get(element);
 		if (reference != null) {
 			if (forceUpdate) {// Make sure we don't loose a force
 				reference.setForceUpdate(forceUpdate);
 			}
-			reference.addContext(context);
+			if (!tracked) {
+				reference.setUntrackedRequest();
+			}
+			reference.addContext(viewerContext);
 		} else {
-			reference = new DecorationReference(element, adaptedElement, context);
+			reference = new DecorationReference(element, adaptedElement, viewerContext);
 			reference.setForceUpdate(forceUpdate);
+			if (!tracked) {
+				reference.setUntrackedRequest();
+			}
 			reference.setUndecoratedText(undecoratedText);
 			awaitingDecorationValues.put(element, reference);
 			awaitingDecoration.add(element);
 			if (shutdown) {
 				return;
 			}
-			decorationJob.schedule();
+			scheduleDecorationJobs();
+		}
+
+	}
+
+	/**
+	 * The given elements are shown by one more viewer. Move the queued ones to
+	 * the front of the queue, in the given order. Each call must be balanced by
+	 * a call to {@link #cancel(Object[])} once the elements are not shown by
+	 * that viewer anymore.
+	 *
+	 * @param elements
+	 *            the elements to decorate first
+	 */
+	public synchronized void prioritize(Object[] elements) {
+		List prioritized = new ArrayList();
+		for (Object element : elements) {
+			Integer count = (Integer) visibleCounts.get(element);
+			visibleCounts.put(element, Integer.valueOf(count == null ? 1 : count.intValue() + 1));
+			if (awaitingDecorationValues.containsKey(element)) {
+				prioritized.add(element);
+			}
+		}
+		if (!prioritized.isEmpty()) {
+			awaitingDecoration.removeAll(new HashSet(prioritized));
+			awaitingDecoration.addAll(0, prioritized);
+		}
+	}
+
+	/**
+	 * Return the decoration context of the viewer which made a request with
+	 * the given context. The viewers which tell their visible elements add the
+	 * {@link IPrioritizedLabelDecorator#VIEWPORT_TRACKED} property to their
+	 * context; the results are cached for the context of the viewer.
+	 *
+	 * @param context
+	 *            the context of the request
+	 * @return the context of the viewer
+	 */
+	private static IDecorationContext getViewerContext(IDecorationContext context) {
+		Object viewerContext = context.getProperty(IPrioritizedLabelDecorator.VIEWPORT_TRACKED);
+		return viewerContext instanceof IDecorationContext ? (IDecorationContext) viewerContext : context;
+	}
+
+	/**
+	 * The given elements are not shown anymore by a viewer. Remove the ones
+	 * that no other viewer shows from the queue, unless a viewer which doesn't
+	 * tell its visible elements requested them. Their labels will not be
+	 * updated unless they are queued again.
+	 *
+	 * @param elements
+	 *            the elements
+	 * @return the elements that were removed from the queue
+	 */
+	public synchronized Object[] cancel(Object[] elements) {
+		Set cancelled = new HashSet();
+		for (Object element : elements) {
+			Integer count = (Integer) visibleCounts.get(element);
+			if (count != null && count.intValue() > 1) {
+				// still shown by another viewer
+				visibleCounts.put(element, Integer.valueOf(count.intValue() - 1));
+				continue;
+			}
+			visibleCounts.remove(element);
+			DecorationReference reference = (DecorationReference) awaitingDecorationValues.get(element);
+			if (reference != null && !reference.isUntrackedRequest()) {
+				awaitingDecorationValues.remove(element);
+				cancelled.add(element);
+			}
+		}
+		if (!cancelled.isEmpty()) {
+			awaitingDecoration.removeAll(cancelled);
+		}
+		return cancelled.toArray();
+	}
+
+	/**
+	 * Schedule as many decoration jobs as the number of elements awaiting
+	 * decoration justifies. Must be called while holding the receiver's lock.
+	 */
+	private void scheduleDecorationJobs() {
+		int jobCount = Math.min(decorationJobs.length, getDecorationJobCount(awaitingDecoration.size(),
+				decoratorManager.getLightweightManager().isConcurrent()));
+		for (int i = 0; i < jobCount; i++) {
+			decorationJobs[i].schedule();
 		}
+	}
 
+	/**
+	 * Return the number of jobs to decorate the queued elements with: one job
+	 * for every {@link #ELEMENTS_PER_JOB} elements, up to
+	 * {@link #MAX_DECORATION_JOBS}, if the decorators are thread safe, a single
+	 * job otherwise. Public for testing purposes only.
+	 *
+	 * @param queuedElements
+	 *            the number of elements awaiting decoration
+	 * @param concurrent
+	 *            whether all of the enabled decorators are thread safe
+	 * @return the number of jobs
+	 */
+	public static int getDecorationJobCount(int queuedElements, boolean concurrent) {
+		if (!concurrent) {
+			return 1;
+		}
+		return Math.min(MAX_DECORATION_JOBS, 1 + queuedElements / ELEMENTS_PER_JOB);
 	}
 
 	/**
@@ -176,7 +351,7 @@ public class DecorationScheduler {
 		if (decoration == null) {
 			return image;
 		}
-		return decoration.decorateWithOverlays(image, manager);
+		return decoration.decorateWithOverlays(image, manager, imageCache);
 	}
 
 	/**
@@ -211,21 +386,35 @@ public class DecorationScheduler {
 
 	private DecorationResult internalGetResult(Object element,
 			IDecorationContext context) {
-		Map results = (Map) resultCache.get(context);
-		if (results != null) {
-			return (DecorationResult) results.get(element);
-		}
-		return null;
+		return resultCache.get(element, getViewerContext(context));
 	}
 
 	protected void internalPutResult(Object element,
 			IDecorationContext context, DecorationResult result) {
-		Map results = (Map) resultCache.get(context);
-		if (results == null) {
-			results = new HashMap();
-			resultCache.put(context, results);
-		}
-		results.put(element, result);
+		resultCache.put(element, getViewerContext(context), result);
+	}
+
+	private void clearResultCache() {
+		resultCache.clear();
+	}
+
+	/**
+	 * Return the cache of the decoration results, for its statistics.
+	 *
+	 * @return the result cache
+	 */
+	public DecorationResultCache getResultCache() {
+		return resultCache;
+	}
+
+	/**
+	 * Return the cache of the images decorated with overlays, for its
+	 * statistics.
+	 *
+	 * @return the image cache
+	 */
+	public DecorationImageCache getImageCache() {
+		return imageCache;
 	}
 
 	/**
@@ -245,35 +434,81 @@ public class DecorationScheduler {
 
 		// Give it a bit of a lag for other updates to occur
 		updateJob.schedule(UPDATE_DELAY);
+		decoratedSinceUpdate = 0;
+	}
+
+	/**
+	 * A reference returned by {@link #nextElements(int)} has been decorated.
+	 * Request a label update once the queue is exhausted or, while it is not,
+	 * once enough elements have been decorated since the last update.
+	 */
+	public synchronized void referenceDecorated() {
+		decorationsInProgress--;
+		if (isIdle()) {
+			decorated();
+			return;
+		}
+		if (decoratedSinceUpdate++ == 0) {
+			batchStartTime = System.currentTimeMillis();
+		}
+		if (updateJob != null && updateJob.getState() != Job.NONE) {
+			// the pending update will pick up these results
+			return;
+		}
+		if (decoratedSinceUpdate >= UPDATE_BATCH_SIZE
+				|| System.currentTimeMillis() - batchStartTime >= UPDATE_DELAY) {
+			decorated();
+		}
+	}
+
+	/**
+	 * Return whether all the queued elements have been decorated.
+	 *
+	 * @return <code>true</code> if no element is waiting for or being
+	 *         decorated
+	 */
+	public synchronized boolean isIdle() {
+		return awaitingDecoration.isEmpty() && decorationsInProgress == 0;
 	}
 
 	/**
 	 * Shutdown the decoration.
 	 */
-	synchronized void shutdown() {
+	public synchronized void shutdown() {
 		shutdown = true;
 	}
 
 	/**
-	 * Get the next resource to be decorated.
+	 * Get the next resources to be decorated.
 	 *
-	 * @return IResource
+	 * @param max
+	 *            the maximum number of resources
+	 * @return the references, empty if there is nothing left to decorate
 	 */
-	synchronized DecorationReference nextElement() {
+	public synchronized List<DecorationReference> nextElements(int max) {
 
 		if (shutdown || awaitingDecoration.isEmpty()) {
-			return null;
+			return Collections.emptyList();
 		}
-		Object element = awaitingDecoration.remove(0);
-
-		return (DecorationReference) awaitingDecorationValues.remove(element);
+		int count = Math.min(max, awaitingDecoration.size());
+		List<DecorationReference> references = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Object element = awaitingDecoration.remove(0);
+			decorationsInProgress++;
+			references.add((DecorationReference) awaitingDecorationValues.remove(element));
+		}
+		return references;
 	}
 
 	/**
-	 * Create the Thread used for running decoration.
+	 * Create a job decorating the queued elements. Several of these jobs share
+	 * the queue only if the enabled decorators are thread safe; the decorators
+	 * are still guarded by their definition unless they declare it.
+	 *
+	 * @return the job
 	 */
-	private void createDecorationJob() {
-		decorationJob = new Job(WorkbenchMessages.DecorationScheduler_CalculationJobName) {
+	private Job createDecorationJob() {
+		Job job = new Job(WorkbenchMessages.DecorationScheduler_CalculationJobName) {
 			@Override
 			public IStatus run(IProgressMonitor monitor) {
 
@@ -283,7 +518,8 @@ public class DecorationScheduler {
 					}
 				}
 
-				while (updatesPending()) {
+				// Results computed now would be discarded by the clear job
+				while (clearJob != null && clearJob.getState() != Job.NONE) {
 
 					try {
 						Thread.sleep(100);
@@ -296,25 +532,18 @@ public class DecorationScheduler {
 
 				SubMonitor subMonitor = SubMonitor.convert(monitor,
 						WorkbenchMessages.DecorationScheduler_CalculatingTask, awaitingDecoration.size());
-				// will block if there are no resources to be decorated
-				DecorationReference reference;
+				List<DecorationReference> references;
 
-				while ((reference = nextElement()) != null) {
+				while (!(references = nextElements(DECORATION_BATCH_SIZE)).isEmpty()) {
 
-					subMonitor.split(1);
+					try {
+						subMonitor.split(references.size());
 
-					monitor.subTask(reference.getSubTask());
-					Object element = reference.getElement();
-					boolean force = reference.shouldForceUpdate();
-					IDecorationContext[] contexts = reference.getContexts();
-					for (IDecorationContext context : contexts) {
-						ensureResultCached(element, force, context);
-					}
-					// Only notify listeners when we have exhausted the
-					// queue of decoration requests.
-					synchronized (DecorationScheduler.this) {
-						if (awaitingDecoration.isEmpty()) {
-							decorated();
+						monitor.subTask(references.get(0).getSubTask());
+						ensureResultsCached(references);
+					} finally {
+						for (int i = 0; i < references.size(); i++) {
+							referenceDecorated();
 						}
 					}
 				}
@@ -322,53 +551,68 @@ public class DecorationScheduler {
 			}
 
 			/**
-			 * Ensure that a result is cached for the given element and context
+			 * Ensure that results are cached for the given references in all
+			 * of their contexts. The elements without a result are decorated
+			 * together so that decorators can process them in one batch.
 			 *
-			 * @param element
-			 *            the elements
-			 * @param force
-			 *            whether an update should be forced
-			 * @param context
-			 *            the decoration context
+			 * @param references
+			 *            the references to decorate
 			 */
-			private void ensureResultCached(Object element, boolean force,
-					IDecorationContext context) {
-				boolean elementIsCached = internalGetResult(element, context) != null;
-				if (elementIsCached) {
-					synchronized (pendingKey) {
-						pendingUpdate.add(element);
+			private void ensureResultsCached(List<DecorationReference> references) {
+				List<Object> elements = new ArrayList<>();
+				List<DecorationBuilder> builders = new ArrayList<>();
+				List<Boolean> forces = new ArrayList<>();
+				for (DecorationReference reference : references) {
+					Object element = reference.getElement();
+					boolean force = reference.shouldForceUpdate();
+					IDecorationContext[] contexts = reference.getContexts();
+					for (IDecorationContext context : contexts) {
+						if (internalGetResult(element, context) != null) {
+							synchronized (pendingKey) {
+								resultCache.pin(element);
+								pendingUpdate.add(element);
+							}
+						} else {
+							elements.add(element);
+							builders.add(new DecorationBuilder(context));
+							forces.add(Boolean.valueOf(force));
+						}
 					}
-
+				}
+				if (elements.isEmpty()) {
+					return;
 				}
 
-				if (!elementIsCached) {
-					DecorationBuilder cacheResult = new DecorationBuilder(context);
-					// Calculate the decoration
-					decoratorManager.getLightweightManager().getDecorations(element, cacheResult);
+				// Calculate the decorations
+				decoratorManager.getLightweightManager().getDecorations(elements.toArray(),
+						builders.toArray(new DecorationBuilder[builders.size()]));
 
+				for (int i = 0; i < elements.size(); i++) {
+					DecorationBuilder cacheResult = builders.get(i);
 					// If we should update regardless then put a result
 					// anyways
-					if (cacheResult.hasValue() || force) {
+					if (cacheResult.hasValue() || forces.get(i).booleanValue()) {
 
 						// Synchronize on the result lock as we want to
 						// be sure that we do not try and decorate during
 						// label update servicing.
 						// Note: resultCache and pendingUpdate modifications
 						// must be done atomically.
+						Object element = elements.get(i);
+						synchronized (pendingKey) {
+							// Keep the result until the label is updated
+							resultCache.pin(element);
 
-						// Add the decoration even if it's empty in
-						// order to indicate that the decoration is
-						// ready
-						internalPutResult(element, context, cacheResult.createResult());
+							// Add the decoration even if it's empty in
+							// order to indicate that the decoration is
+							// ready
+							internalPutResult(element, cacheResult.getDecorationContext(), cacheResult.createResult());
 
-						// Add an update for only the original element
-						// to
-						// prevent multiple updates and clear the cache.
-						synchronized (pendingKey) {
+							// Add an update for only the original element
+							// to
+							// prevent multiple updates and clear the cache.
 							pendingUpdate.add(element);
 						}
-
-
 					}
 				}
 			}
@@ -384,9 +628,9 @@ public class DecorationScheduler {
 			}
 		};
 
-		decorationJob.setSystem(true);
-		decorationJob.setPriority(Job.DECORATE);
-		decorationJob.schedule();
+		job.setSystem(true);
+		job.setPriority(Job.DECORATE);
+		return job;
 	}
 
 	/**
@@ -420,7 +664,7 @@ public class DecorationScheduler {
 
 			@Override
 			protected IStatus run(IProgressMonitor monitor) {
-				resultCache.clear();
+				clearResultCache();
 				return Status.OK_STATUS;
 			}
 
@@ -514,14 +758,42 @@ public class DecorationScheduler {
             private void resetState() {
                 currentIndex = NEEDS_INIT;// Reset
                 removedListeners.clear();
+                if (labelProviderChangedEvent != null) {
+                    unpinUpdated(labelProviderChangedEvent.getElements());
+                    labelProviderChangedEvent = null;
+                }
                 // Other decoration requests may have occurred due to
                 // updates or we may have timed out updating listeners.
-                // Only clear the results if there are none pending.
-                if (awaitingDecoration.isEmpty()) {
-                    resultCache.clear();
+                // Only clear the results if there are none pending. The
+                // labels hold the decorations now, and dropping the
+                // results lets the next label request see the current
+                // state of the elements; the bounds of the cache only
+                // matter while the decoration keeps the scheduler busy.
+                if (isIdle()) {
+                    clearResultCache();
                 }
             }
 
+			/**
+			 * Let the results of the updated elements be evicted, unless
+			 * they are waiting for another update.
+			 *
+			 * @param elements
+			 *            the elements whose labels have been updated
+			 */
+			private void unpinUpdated(Object[] elements) {
+				if (elements == null) {
+					return;
+				}
+				synchronized (pendingKey) {
+					for (Object element : elements) {
+						if (!pendingUpdate.contains(element)) {
+							resultCache.unpin(element);
+						}
+					}
+				}
+			}
+
 			private void setUpUpdates() {
 				// Get the elements awaiting update and then
 				// clear the list
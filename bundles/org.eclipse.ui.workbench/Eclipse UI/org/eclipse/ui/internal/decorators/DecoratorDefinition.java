@@ -308,6 +308,33 @@ public abstract class DecoratorDefinition implements IPluginContribution {
 
     }
 
+	/**
+	 * Return whether the enablement of the decorator only depends on the
+	 * class of the element to decorate, so that it can be evaluated once per
+	 * class.
+	 *
+	 * @return <code>true</code> if there is no enablement expression or if it
+	 *         only tests the class of the element
+	 */
+	boolean isEnablementClassBased() {
+		ActionExpression expression = getEnablement();
+		return expression == null || expression.isClassBased();
+	}
+
+	/**
+	 * Return whether the enablement expression of the decorator is true for
+	 * the element, regardless of whether the decorator is enabled.
+	 *
+	 * @param element
+	 *            the element to be decorated
+	 * @return <code>true</code> if there is no enablement expression or if it
+	 *         is true for the element
+	 */
+	boolean isEnablementTrueFor(Object element) {
+		ActionExpression expression = getEnablement();
+		return expression == null || expression.isEnabledFor(element);
+	}
+
 	@Override
 	public String getPluginId() {
 		IConfigurationElement element = getConfigurationElement();
@@ -42,6 +42,7 @@ import org.eclipse.jface.viewers.IFontDecorator;
 import org.eclipse.jface.viewers.ILabelDecorator;
 import org.eclipse.jface.viewers.ILabelProviderListener;
 import org.eclipse.jface.viewers.ILightweightLabelDecorator;
+import org.eclipse.jface.viewers.IPrioritizedLabelDecorator;
 import org.eclipse.jface.viewers.LabelDecorator;
 import org.eclipse.jface.viewers.LabelProviderChangedEvent;
 import org.eclipse.swt.graphics.Color;
@@ -112,7 +113,7 @@ public class DecoratorManager implements ILabelProviderListener,
 	 */
 	private static class ManagedWorkbenchLabelDecorator extends LabelDecorator
 			implements ILabelDecorator, IDelayedLabelDecorator,
-			IColorDecorator, IFontDecorator {
+			IPrioritizedLabelDecorator, IColorDecorator, IFontDecorator {
 
 		private final DecoratorManager decoratorManager;
 		private LocalResourceManager resourceManager;
@@ -164,6 +165,16 @@ public class DecoratorManager implements ILabelProviderListener,
 					DecorationContext.DEFAULT_CONTEXT);
 		}
 
+		@Override
+		public void prioritizeDecoration(Object[] elements) {
+			decoratorManager.prioritizeDecoration(elements);
+		}
+
+		@Override
+		public Object[] cancelDecoration(Object[] elements) {
+			return decoratorManager.cancelDecoration(elements);
+		}
+
 		@Override
 		public Font decorateFont(Object element) {
 			return decoratorManager.decorateFont(element);
@@ -1074,6 +1085,30 @@ public class DecoratorManager implements ILabelProviderListener,
 				DecorationContext.DEFAULT_CONTEXT);
 	}
 
+	/**
+	 * Decorate the given elements before the other elements awaiting
+	 * decoration, typically because they are visible.
+	 *
+	 * @param elements
+	 *            the elements to decorate first
+	 */
+	public void prioritizeDecoration(Object[] elements) {
+		scheduler.prioritize(elements);
+	}
+
+	/**
+	 * Drop the pending decorations of the given elements, typically because
+	 * they are not visible anymore. The elements still shown by another viewer
+	 * keep their pending decoration.
+	 *
+	 * @param elements
+	 *            the elements
+	 * @return the elements whose pending decoration was dropped
+	 */
+	public Object[] cancelDecoration(Object[] elements) {
+		return scheduler.cancel(elements);
+	}
+
 	public Font decorateFont(Object element) {
 		return scheduler.getFont(element, getResourceAdapter(element));
 	}
@@ -10,11 +10,15 @@
  *******************************************************************************/
 package org.eclipse.ui.internal.decorators;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.jface.viewers.IBaseLabelProvider;
+import org.eclipse.jface.viewers.IBatchLightweightLabelDecorator;
 import org.eclipse.jface.viewers.IDecoration;
 import org.eclipse.jface.viewers.ILightweightLabelDecorator;
 import org.eclipse.ui.internal.ActionExpression;
@@ -34,6 +38,8 @@ class LightweightDecoratorDefinition extends DecoratorDefinition implements
 
 	static final String ATT_ICON = "icon"; //$NON-NLS-1$
 
+	private static final String ATT_CONCURRENT = "concurrent"; //$NON-NLS-1$
+
 	// Constants for quadrants
 	/**
 	 * Position <code>TOP_LEFT</code>. Value <code>0</code>
@@ -90,6 +96,14 @@ class LightweightDecoratorDefinition extends DecoratorDefinition implements
 
 	private String[] objectClasses;
 
+	private final Object decorateLock = new Object();
+
+	/**
+	 * Marks the classes an element does not adapt to in the maps of adapted
+	 * elements.
+	 */
+	private static final Object NO_ADAPTER = new Object();
+
 	LightweightDecoratorDefinition(String identifier,
 			IConfigurationElement element) {
 		super(identifier, element);
@@ -102,7 +116,7 @@ class LightweightDecoratorDefinition extends DecoratorDefinition implements
 	 *
 	 * @return Returns a ILabelDecorator
 	 */
-	protected ILightweightLabelDecorator internalGetDecorator()
+	protected synchronized ILightweightLabelDecorator internalGetDecorator()
 			throws CoreException {
 		if (labelProviderCreationFailed) {
 			return null;
@@ -162,6 +176,17 @@ class LightweightDecoratorDefinition extends DecoratorDefinition implements
 		return definingElement.getAttribute(DecoratorDefinition.ATT_CLASS) == null;
 	}
 
+	/**
+	 * Return whether the decorator may be called by several decoration jobs
+	 * at the same time. Declarative decorators always can, contributed ones
+	 * only if they declare it.
+	 *
+	 * @return boolean <code>true</code> if the decorator is thread safe
+	 */
+	boolean isConcurrent() {
+		return isDeclarative() || Boolean.valueOf(definingElement.getAttribute(ATT_CONCURRENT)).booleanValue();
+	}
+
 	/**
 	 * Return the icon location.
 	 *
@@ -237,6 +262,36 @@ class LightweightDecoratorDefinition extends DecoratorDefinition implements
 	 * @param decoration
 	 */
 	public void decorate(Object element, IDecoration decoration) {
+		decorate(new Object[] { element }, new IDecoration[] { decoration }, null);
+	}
+
+	/**
+	 * Decorate the elements using the decorations at the same index to store
+	 * the results. Decorators implementing
+	 * {@link IBatchLightweightLabelDecorator} decorate all of the elements in
+	 * one call.
+	 *
+	 * @param elements
+	 * @param decorations
+	 * @param adaptedElements
+	 *            the maps of the elements the elements at the same index have
+	 *            been adapted to, by class name, shared by the decorators of
+	 *            the elements; or <code>null</code> to adapt the elements again
+	 */
+	void decorate(Object[] elements, IDecoration[] decorations, Map<String, Object>[] adaptedElements) {
+		if (isConcurrent()) {
+			internalDecorate(elements, decorations, adaptedElements);
+			return;
+		}
+		// Contributed decorators are not expected to be thread safe unless
+		// they say so, decorate one batch at a time
+		synchronized (decorateLock) {
+			internalDecorate(elements, decorations, adaptedElements);
+		}
+	}
+
+	private void internalDecorate(Object[] elements, IDecoration[] decorations,
+			Map<String, Object>[] adaptedElements) {
 		try {
 			// Internal decorator might be null so be prepared
 			ILightweightLabelDecorator currentDecorator = internalGetDecorator();
@@ -246,19 +301,23 @@ class LightweightDecoratorDefinition extends DecoratorDefinition implements
 
 			if (isAdaptable()) {
 				String[] classes = getObjectClasses();
-				for (int i = 0; i < classes.length; i++) {
-					String className = classes[i];
-					Object adapted = LegacyResourceSupport.getAdapter(element,
-							className);
-					if (adapted != null) {
-						currentDecorator.decorate(adapted, decoration);
+				List<Object> targets = new ArrayList<>(elements.length);
+				List<IDecoration> targetDecorations = new ArrayList<>(elements.length);
+				for (int i = 0; i < elements.length; i++) {
+					for (int j = 0; j < classes.length; j++) {
+						Object adapted = getAdapter(elements[i], classes[j],
+								adaptedElements == null ? null : adaptedElements[i]);
+						if (adapted != null) {
+							targets.add(adapted);
+							targetDecorations.add(decorations[i]);
+						}
 					}
 				}
+				decorate(currentDecorator, targets.toArray(),
+						targetDecorations.toArray(new IDecoration[targetDecorations.size()]));
 			}
 			else{
-				if (currentDecorator != null && element != null) {
-					currentDecorator.decorate(element, decoration);
-				}
+				decorate(currentDecorator, elements, decorations);
 			}
 		} catch (CoreException exception) {
 			handleCoreException(exception);
@@ -266,6 +325,35 @@ class LightweightDecoratorDefinition extends DecoratorDefinition implements
 
 	}
 
+	private static void decorate(ILightweightLabelDecorator decorator, Object[] elements,
+			IDecoration[] decorations) {
+		if (elements.length > 1 && decorator instanceof IBatchLightweightLabelDecorator) {
+			((IBatchLightweightLabelDecorator) decorator).decorate(elements, decorations);
+			return;
+		}
+		for (int i = 0; i < elements.length; i++) {
+			if (elements[i] != null) {
+				decorator.decorate(elements[i], decorations[i]);
+			}
+		}
+	}
+
+	/**
+	 * Adapt the element to the class, looking the result up in and recording
+	 * it in the adapted elements if any.
+	 */
+	private static Object getAdapter(Object element, String className, Map<String, Object> adaptedElements) {
+		if (adaptedElements == null) {
+			return LegacyResourceSupport.getAdapter(element, className);
+		}
+		Object adapted = adaptedElements.get(className);
+		if (adapted == null) {
+			adapted = LegacyResourceSupport.getAdapter(element, className);
+			adaptedElements.put(className, adapted == null ? NO_ADAPTER : adapted);
+		}
+		return adapted == NO_ADAPTER ? null : adapted;
+	}
+
 	/**
 	 * Returns the lightweight decorator, or <code>null</code> if not enabled.
 	 *
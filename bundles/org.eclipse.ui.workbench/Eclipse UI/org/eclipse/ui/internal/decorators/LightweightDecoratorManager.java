@@ -11,14 +11,20 @@
 package org.eclipse.ui.internal.decorators;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import org.eclipse.core.runtime.IExtension;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.dynamichelpers.IExtensionTracker;
+import org.eclipse.jface.viewers.IBatchLightweightLabelDecorator;
 import org.eclipse.osgi.util.NLS;
+import org.eclipse.ui.internal.LegacyResourceSupport;
 import org.eclipse.ui.internal.ObjectContributorManager;
 import org.eclipse.ui.internal.WorkbenchMessages;
 import org.eclipse.ui.internal.WorkbenchPlugin;
@@ -42,28 +48,32 @@ public class LightweightDecoratorManager extends ObjectContributorManager {
 
 		static class RunnableData {
 
-			final DecorationBuilder builder;
+			final DecorationBuilder[] builders;
 
 			final LightweightDecoratorDefinition decorator;
 
-			final Object element;
+			final Object[] elements;
 
-			public RunnableData(Object object, DecorationBuilder builder, LightweightDecoratorDefinition definition) {
-				this.element = object;
-				this.builder = builder;
+			final Map<String, Object>[] adaptedElements;
+
+			public RunnableData(Object[] objects, DecorationBuilder[] builders,
+					Map<String, Object>[] adaptedElements, LightweightDecoratorDefinition definition) {
+				this.elements = objects;
+				this.builders = builders;
+				this.adaptedElements = adaptedElements;
 				this.decorator = definition;
 			}
 
 			boolean isConsistent() {
-				return builder != null && decorator != null && element != null;
+				return builders != null && decorator != null && elements != null;
 			}
 		}
 
-		private volatile RunnableData data = new RunnableData(null, null, null);
+		private volatile RunnableData data = new RunnableData(null, null, null, null);
 
-		void setValues(Object object, DecorationBuilder builder,
+		void setValues(Object[] objects, DecorationBuilder[] builders, Map<String, Object>[] adaptedElements,
 				LightweightDecoratorDefinition definition) {
-			data = new RunnableData(object, builder, definition);
+			data = new RunnableData(objects, builders, adaptedElements, definition);
 		}
 
 		/*
@@ -101,7 +111,7 @@ public class LightweightDecoratorManager extends ObjectContributorManager {
 			// https://bugs.eclipse.org/bugs/show_bug.cgi?id=300358
 			RunnableData data = this.data;
 			if (data.isConsistent()) {
-				data.decorator.decorate(data.element, data.builder);
+				data.decorator.decorate(data.elements, data.builders, data.adaptedElements);
 			}
 			clearReferences();
 		}
@@ -112,17 +122,21 @@ public class LightweightDecoratorManager extends ObjectContributorManager {
 		 * @since 3.1
 		 */
 		void clearReferences() {
-			data = new RunnableData(null, null, null);
+			data = new RunnableData(null, null, null, null);
 		}
 	}
 
-	private LightweightRunnable runnable = new LightweightRunnable();
-
 	// The lightweight definitions read from the registry
 	private LightweightDecoratorDefinition[] lightweightDefinitions;
 
 	private static final LightweightDecoratorDefinition[] EMPTY_LIGHTWEIGHT_DEF = new LightweightDecoratorDefinition[0];
 
+	/**
+	 * The decorators that may apply to the elements of a class, computed once
+	 * per element type. Guarded by the receiver.
+	 */
+	private Map<DecoratorTypeKey, DecoratorCandidates> candidatesLookup = new HashMap<>();
+
 	LightweightDecoratorManager(LightweightDecoratorDefinition[] definitions) {
 		super();
 		lightweightDefinitions = definitions;
@@ -282,11 +296,42 @@ public class LightweightDecoratorManager extends ObjectContributorManager {
 		return false;
 	}
 
+	/**
+	 * Return whether all of the enabled definitions may be called by several
+	 * decoration jobs at the same time.
+	 *
+	 * @return boolean <code>true</code> if the enabled decorators are thread
+	 *         safe
+	 */
+	boolean isConcurrent() {
+		for (int i = 0; i < lightweightDefinitions.length; i++) {
+			if (lightweightDefinitions[i].isEnabled() && !lightweightDefinitions[i].isConcurrent()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Reset any cached values.
 	 */
 	void reset() {
-		runnable.clearReferences();
+		// The runnables are created for each decoration, only the candidates
+		// depend on the enablement of the decorators
+		flushCandidates();
+	}
+
+	@Override
+	public synchronized void flushLookup() {
+		super.flushLookup();
+		flushCandidates();
+	}
+
+	private synchronized void flushCandidates() {
+		// called by the super constructor before the field is initialized
+		if (candidatesLookup != null) {
+			candidatesLookup.clear();
+		}
 	}
 
 	/**
@@ -321,31 +366,47 @@ public class LightweightDecoratorManager extends ObjectContributorManager {
 	}
 
 	/**
-	 * Get the lightweight registered for elements of this type.
+	 * Get the lightweight registered for elements of this type. Synchronized
+	 * as the lookup caches are shared by the decoration jobs.
+	 * <p>
+	 * The contributors registered for the type of the element and the result
+	 * of the enablement expressions that only test the class of the element
+	 * are computed once per type; only the other expressions are evaluated for
+	 * each element.
+	 * </p>
 	 */
-	LightweightDecoratorDefinition[] getDecoratorsFor(Object element) {
+	synchronized LightweightDecoratorDefinition[] getDecoratorsFor(Object element) {
 
 		if (element == null) {
 			return EMPTY_LIGHTWEIGHT_DEF;
 		}
 
+		DecoratorTypeKey key = new DecoratorTypeKey(element);
+		DecoratorCandidates candidates = candidatesLookup.get(key);
+		if (candidates == null) {
+			candidates = computeCandidates(element);
+			candidatesLookup.put(key, candidates);
+		}
+		return candidates.getDecoratorsFor(element);
+	}
+
+	private DecoratorCandidates computeCandidates(Object element) {
 		List elements = new ArrayList(1);
 		elements.add(element);
-		LightweightDecoratorDefinition[] decoratorArray = EMPTY_LIGHTWEIGHT_DEF;
 		List contributors = getContributors(elements);
-		if (!contributors.isEmpty()) {
-			Collection decorators = DecoratorManager.getDecoratorsFor(element,
-					(DecoratorDefinition[]) contributors
-							.toArray(new DecoratorDefinition[contributors
-									.size()]));
-			if (decorators.size() > 0) {
-				decoratorArray = new LightweightDecoratorDefinition[decorators
-						.size()];
-				decorators.toArray(decoratorArray);
+		List<LightweightDecoratorDefinition> decorators = new ArrayList<>(contributors.size());
+		List<Boolean> evaluate = new ArrayList<>(contributors.size());
+		for (Iterator iterator = contributors.iterator(); iterator.hasNext();) {
+			LightweightDecoratorDefinition decorator = (LightweightDecoratorDefinition) iterator.next();
+			if (!decorator.isEnablementClassBased()) {
+				decorators.add(decorator);
+				evaluate.add(Boolean.TRUE);
+			} else if (decorator.isEnablementTrueFor(element)) {
+				decorators.add(decorator);
+				evaluate.add(Boolean.FALSE);
 			}
 		}
-
-		return decoratorArray;
+		return new DecoratorCandidates(decorators, evaluate);
 	}
 
 	/**
@@ -358,32 +419,80 @@ public class LightweightDecoratorManager extends ObjectContributorManager {
 	 *            true.
 	 */
 	public void getDecorations(Object element, DecorationBuilder decoration) {
+		getDecorations(new Object[] { element }, new DecorationBuilder[] { decoration });
+	}
 
-		LightweightDecoratorDefinition[] decorators = getDecoratorsFor(element);
+	/**
+	 * Fill the decorations with all of the results of the decorators of the
+	 * elements at the same index. The elements with the same decorators are
+	 * decorated together, one decorator at a time, so that decorators
+	 * implementing {@link IBatchLightweightLabelDecorator} are called once for
+	 * all of them. The adaptations of an element are shared by its
+	 * decorators.
+	 *
+	 * @param elements
+	 *            The source elements
+	 * @param decorations
+	 *            The DecorationResults we are working on.
+	 */
+	public void getDecorations(Object[] elements, DecorationBuilder[] decorations) {
+		// Keep the order of the elements and of their decorators
+		Map<List<LightweightDecoratorDefinition>, List<Integer>> groups = new LinkedHashMap<>();
+		for (int i = 0; i < elements.length; i++) {
+			LightweightDecoratorDefinition[] decorators = getDecoratorsFor(elements[i]);
+			if (decorators.length == 0) {
+				continue;
+			}
+			List<LightweightDecoratorDefinition> key = Arrays.asList(decorators);
+			List<Integer> indices = groups.get(key);
+			if (indices == null) {
+				indices = new ArrayList<>();
+				groups.put(key, indices);
+			}
+			indices.add(Integer.valueOf(i));
+		}
 
-		for (int i = 0; i < decorators.length; i++) {
-			// If we are doing the adaptable one make sure we are
-			// only applying the adaptable decorations
-			LightweightDecoratorDefinition dd = decorators[i];
-			decoration.setCurrentDefinition(dd);
-			decorate(element, decoration, dd);
+		for (Map.Entry<List<LightweightDecoratorDefinition>, List<Integer>> group : groups.entrySet()) {
+			List<Integer> indices = group.getValue();
+			Object[] groupElements = new Object[indices.size()];
+			DecorationBuilder[] groupDecorations = new DecorationBuilder[indices.size()];
+			@SuppressWarnings("unchecked")
+			Map<String, Object>[] adaptedElements = new Map[indices.size()];
+			for (int i = 0; i < groupElements.length; i++) {
+				int index = indices.get(i).intValue();
+				groupElements[i] = elements[index];
+				groupDecorations[i] = decorations[index];
+				adaptedElements[i] = new HashMap<>();
+			}
+			for (LightweightDecoratorDefinition dd : group.getKey()) {
+				// If we are doing the adaptable one make sure we are
+				// only applying the adaptable decorations
+				for (int i = 0; i < groupDecorations.length; i++) {
+					groupDecorations[i].setCurrentDefinition(dd);
+				}
+				decorate(groupElements, groupDecorations, adaptedElements, dd);
+			}
 		}
 	}
 
 	/**
-	 * Decorate the element receiver in a SafeRunnable.
+	 * Decorate the elements in a SafeRunnable.
 	 *
-	 * @param element
-	 *            The Object to be decorated
-	 * @param decoration
-	 *            The object building decorations.
+	 * @param elements
+	 *            The Objects to be decorated
+	 * @param decorations
+	 *            The objects building decorations.
+	 * @param adaptedElements
+	 *            The adaptations of the elements.
 	 * @param decorator
 	 *            The decorator being applied.
 	 */
-	private void decorate(Object element, DecorationBuilder decoration,
-			LightweightDecoratorDefinition decorator) {
+	private void decorate(Object[] elements, DecorationBuilder[] decorations,
+			Map<String, Object>[] adaptedElements, LightweightDecoratorDefinition decorator) {
 
-		runnable.setValues(element, decoration, decorator);
+		// One runnable per decoration as several jobs decorate at once
+		LightweightRunnable runnable = new LightweightRunnable();
+		runnable.setValues(elements, decorations, adaptedElements, decorator);
 		SafeRunner.run(runnable);
 	}
 
@@ -402,10 +511,102 @@ public class LightweightDecoratorManager extends ObjectContributorManager {
 
 	}
 
+	/**
+	 * Method for use by test cases
+	 *
+	 * @param objects
+	 *            the objects to be decorated together
+	 * @return the decoration results, one for each object
+	 */
+	public DecorationResult[] getDecorationResults(Object[] objects) {
+		DecorationBuilder[] builders = new DecorationBuilder[objects.length];
+		for (int i = 0; i < builders.length; i++) {
+			builders[i] = new DecorationBuilder();
+		}
+		getDecorations(objects, builders);
+		DecorationResult[] results = new DecorationResult[objects.length];
+		for (int i = 0; i < results.length; i++) {
+			results[i] = builders[i].createResult();
+		}
+		return results;
+	}
+
 	@Override
 	public void addExtension(IExtensionTracker tracker, IExtension extension) {
 		// Do nothing as this is handled by the DecoratorManager
 		// This is not called as canHandleExtensionTracking returns
 		// false.
 	}
+
+	/**
+	 * The type of an element for the lookup of its decorators: its class and
+	 * the class of the resource it adapts to, if any.
+	 */
+	private static final class DecoratorTypeKey {
+
+		private final Class<?> elementClass;
+
+		private final Class<?> resourceClass;
+
+		private final boolean adaptsToResourceMapping;
+
+		DecoratorTypeKey(Object element) {
+			elementClass = element.getClass();
+			Object resource = LegacyResourceSupport.getAdaptedContributorResource(element);
+			resourceClass = resource == null ? null : resource.getClass();
+			adaptsToResourceMapping = LegacyResourceSupport.getAdaptedContributorResourceMapping(element) != null;
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = elementClass.hashCode();
+			hash = 31 * hash + (resourceClass == null ? 0 : resourceClass.hashCode());
+			return 31 * hash + (adaptsToResourceMapping ? 1 : 0);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof DecoratorTypeKey)) {
+				return false;
+			}
+			DecoratorTypeKey other = (DecoratorTypeKey) obj;
+			return elementClass == other.elementClass && resourceClass == other.resourceClass
+					&& adaptsToResourceMapping == other.adaptsToResourceMapping;
+		}
+	}
+
+	/**
+	 * The decorators that may apply to the elements of a type, in order, and
+	 * whether their enablement has to be evaluated for each element.
+	 */
+	private static final class DecoratorCandidates {
+
+		private final LightweightDecoratorDefinition[] decorators;
+
+		private final boolean[] evaluate;
+
+		DecoratorCandidates(List<LightweightDecoratorDefinition> decorators, List<Boolean> evaluate) {
+			this.decorators = decorators.toArray(new LightweightDecoratorDefinition[decorators.size()]);
+			this.evaluate = new boolean[this.decorators.length];
+			for (int i = 0; i < this.evaluate.length; i++) {
+				this.evaluate[i] = evaluate.get(i).booleanValue();
+			}
+		}
+
+		LightweightDecoratorDefinition[] getDecoratorsFor(Object element) {
+			List<LightweightDecoratorDefinition> result = null;
+			for (int i = 0; i < decorators.length; i++) {
+				LightweightDecoratorDefinition decorator = decorators[i];
+				// the enabled state changes at any time
+				if (decorator.isEnabled() && (!evaluate[i] || decorator.isEnablementTrueFor(element))) {
+					if (result == null) {
+						result = new ArrayList<>(decorators.length - i);
+					}
+					result.add(decorator);
+				}
+			}
+			return result == null ? EMPTY_LIGHTWEIGHT_DEF
+					: result.toArray(new LightweightDecoratorDefinition[result.size()]);
+		}
+	}
 }
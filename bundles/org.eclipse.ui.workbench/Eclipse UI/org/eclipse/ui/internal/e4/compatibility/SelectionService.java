@@ -22,6 +22,7 @@ import javax.inject.Named;
 import org.eclipse.core.runtime.ListenerList;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.di.annotations.Optional;
+import org.eclipse.e4.ui.internal.services.ListenerStatistics;
 import org.eclipse.e4.ui.model.application.MApplication;
 import org.eclipse.e4.ui.model.application.ui.basic.MPart;
 import org.eclipse.e4.ui.services.IServiceConstants;
@@ -236,7 +237,12 @@ public class SelectionService implements ISelectionChangedListener, ISelectionSe
 			ListenerList<ISelectionListener> listenerList) {
 		for (ISelectionListener listener : listenerList) {
 			if (selection != null || listener instanceof INullSelectionListener) {
-				listener.selectionChanged(workbenchPart, selection);
+				long start = ListenerStatistics.start();
+				try {
+					listener.selectionChanged(workbenchPart, selection);
+				} finally {
+					ListenerStatistics.end(ListenerStatistics.SELECTION, listener, start);
+				}
 			}
 		}
 	}
@@ -248,7 +254,12 @@ public class SelectionService implements ISelectionChangedListener, ISelectionSe
 			if (listeners != null) {
 				for (ISelectionListener listener : listeners) {
 					if (selection != null || listener instanceof INullSelectionListener) {
-						listener.selectionChanged(workbenchPart, selection);
+						long start = ListenerStatistics.start();
+						try {
+							listener.selectionChanged(workbenchPart, selection);
+						} finally {
+							ListenerStatistics.end(ListenerStatistics.SELECTION, listener, start);
+						}
 					}
 				}
 			}
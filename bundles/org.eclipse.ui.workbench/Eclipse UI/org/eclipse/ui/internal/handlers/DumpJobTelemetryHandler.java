@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.internal.handlers;
+
+import org.eclipse.core.commands.AbstractHandler;
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.ui.internal.progress.JobTelemetry;
+import org.eclipse.ui.internal.progress.ProgressManager;
+
+/**
+ * Prints the job telemetry of the progress manager. The first execution
+ * starts the recording if it was not enabled with the
+ * <code>org.eclipse.ui/debug/jobTelemetry</code> debug option.
+ */
+public class DumpJobTelemetryHandler extends AbstractHandler {
+
+	@Override
+	public Object execute(ExecutionEvent event) throws ExecutionException {
+		JobTelemetry telemetry = ProgressManager.getInstance().getJobTelemetry();
+		if (!telemetry.isEnabled()) {
+			telemetry.setEnabled(true);
+			System.out.println("Job telemetry started"); //$NON-NLS-1$
+			return null;
+		}
+		System.out.print(telemetry.dump());
+		return null;
+	}
+
+}
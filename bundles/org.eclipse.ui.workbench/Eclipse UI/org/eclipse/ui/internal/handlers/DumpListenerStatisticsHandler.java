@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.internal.handlers;
+
+import org.eclipse.core.commands.AbstractHandler;
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.e4.ui.internal.services.ListenerStatistics;
+
+/**
+ * Prints the listeners and the bundles contributing them that took the most
+ * time on the UI thread. The first execution starts the recording if it was
+ * not enabled with the <code>org.eclipse.ui/debug/listenerStatistics</code>
+ * debug option.
+ */
+public class DumpListenerStatisticsHandler extends AbstractHandler {
+
+	private static final int TOP_OFFENDERS = 30;
+
+	@Override
+	public Object execute(ExecutionEvent event) throws ExecutionException {
+		if (!ListenerStatistics.isEnabled()) {
+			ListenerStatistics.setEnabled(true);
+			System.out.println("Listener statistics started"); //$NON-NLS-1$
+			return null;
+		}
+		System.out.print(ListenerStatistics.dump(TOP_OFFENDERS));
+		return null;
+	}
+
+}
@@ -33,9 +33,15 @@ import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.di.annotations.CanExecute;
 import org.eclipse.e4.core.di.annotations.Execute;
 import org.eclipse.e4.core.di.annotations.Optional;
+import org.eclipse.e4.core.services.events.IEventBroker;
+import org.eclipse.e4.ui.internal.services.ListenerStatistics;
 import org.eclipse.e4.ui.internal.workbench.Activator;
+import org.eclipse.e4.ui.internal.workbench.IEnablementVariables;
 import org.eclipse.e4.ui.internal.workbench.Policy;
 import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.ui.menu.MHandledItem;
+import org.eclipse.e4.ui.workbench.Selector;
+import org.eclipse.e4.ui.workbench.UIEvents;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.commands.IElementUpdater;
@@ -47,7 +53,7 @@ import org.eclipse.ui.menus.UIElement;
  * @since 3.5
  *
  */
-public class E4HandlerProxy implements IHandler2, IHandlerListener, IElementUpdater {
+public class E4HandlerProxy implements IHandler2, IHandlerListener, IElementUpdater, IEnablementVariables {
 	public HandlerActivation activation = null;
 	private Command command;
 	private IHandler handler;
@@ -87,8 +93,14 @@ public class E4HandlerProxy implements IHandler2, IHandlerListener, IElementUpda
 		ExecutionEvent event = new ExecutionEvent(command, parms == null ? Collections.EMPTY_MAP
 				: parms, trigger, appContext);
 		if (handler != null && handler.isHandled()) {
-				final Object returnValue = handler.execute(event);
-				return returnValue;
+			long start = ListenerStatistics.start();
+			try {
+				return handler.execute(event);
+			} finally {
+				// blame the contributed handler rather than the lazy proxy
+				ListenerStatistics.end(ListenerStatistics.HANDLER,
+						handler instanceof HandlerProxy ? ((HandlerProxy) handler).getHandler() : handler, start);
+			}
 		}
 		return null;
 	}
@@ -106,9 +118,31 @@ public class E4HandlerProxy implements IHandler2, IHandlerListener, IElementUpda
 			if (HandlerServiceImpl.lookUpHandler(appContext, command.getId()) == this) {
 				((HandlerServiceHandler) handler).fireHandlerChanged(handlerEvent);
 			}
+			if (handlerEvent.isEnabledChanged()) {
+				// the tool items are updated only when the variables the
+				// enablement depends on change, see getEnablementVariables()
+				IEventBroker eventBroker = appContext.get(IEventBroker.class);
+				if (eventBroker != null) {
+					eventBroker.post(UIEvents.REQUEST_ENABLEMENT_UPDATE_TOPIC, getCommandItemSelector());
+				}
+			}
 		}
 	}
 
+	private Selector getCommandItemSelector() {
+		final String commandId = command.getId();
+		return element -> element instanceof MHandledItem && ((MHandledItem) element).getCommand() != null
+				&& commandId.equals(((MHandledItem) element).getCommand().getElementId());
+	}
+
+	@Override
+	public String[] getEnablementVariables() {
+		if (handler instanceof HandlerProxy) {
+			return ((HandlerProxy) handler).getEnablementVariables();
+		}
+		return null;
+	}
+
 	@Override
 	public void updateElement(UIElement element, Map parameters) {
 		if (handler instanceof IElementUpdater) {
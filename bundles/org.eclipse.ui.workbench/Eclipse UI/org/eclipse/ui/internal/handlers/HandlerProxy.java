@@ -12,8 +12,12 @@
 
 package org.eclipse.ui.internal.handlers;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import org.eclipse.core.commands.AbstractHandler;
 import org.eclipse.core.commands.AbstractHandlerWithState;
 import org.eclipse.core.commands.ExecutionEvent;
 import org.eclipse.core.commands.ExecutionException;
@@ -25,11 +29,13 @@ import org.eclipse.core.commands.IStateListener;
 import org.eclipse.core.commands.State;
 import org.eclipse.core.expressions.EvaluationResult;
 import org.eclipse.core.expressions.Expression;
+import org.eclipse.core.expressions.ExpressionInfo;
 import org.eclipse.core.expressions.IEvaluationContext;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.e4.ui.services.IServiceConstants;
 import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.ui.PlatformUI;
@@ -40,6 +46,7 @@ import org.eclipse.ui.handlers.RegistryToggleState;
 import org.eclipse.ui.internal.WorkbenchMessages;
 import org.eclipse.ui.internal.WorkbenchPlugin;
 import org.eclipse.ui.internal.registry.IWorkbenchRegistryConstants;
+import org.eclipse.ui.internal.services.EvaluationService;
 import org.eclipse.ui.internal.util.BundleUtility;
 import org.eclipse.ui.internal.util.Util;
 import org.eclipse.ui.menus.UIElement;
@@ -110,6 +117,17 @@ public final class HandlerProxy extends AbstractHandlerWithState implements
 
 	private boolean proxyEnabled;
 
+	/**
+	 * The names of the variables and properties the enablement depends on, or
+	 * <code>null</code> if they are not known. Computed for
+	 * <code>enablementVariablesHandler</code>.
+	 */
+	private String[] enablementVariables;
+
+	private IHandler enablementVariablesHandler;
+
+	private boolean enablementVariablesComputed;
+
 	private String commandId;
 
 	//
@@ -493,4 +511,61 @@ public final class HandlerProxy extends AbstractHandlerWithState implements
 	public IHandler getHandler() {
 		return handler;
 	}
+
+	/**
+	 * Returns the names of the context variables and properties the enablement
+	 * of this handler depends on. They are known only if the enablement is
+	 * decided by the <code>enabledWhen</code> expression alone, that is until
+	 * the real handler is loaded, or if the real handler inherits the
+	 * enablement methods of {@link AbstractHandler}.
+	 *
+	 * @return the names, or <code>null</code> if they are not known
+	 */
+	public String[] getEnablementVariables() {
+		if (!enablementVariablesComputed || enablementVariablesHandler != handler) {
+			enablementVariablesHandler = handler;
+			enablementVariables = computeEnablementVariables();
+			enablementVariablesComputed = true;
+		}
+		return enablementVariables;
+	}
+
+	private String[] computeEnablementVariables() {
+		if (enabledWhenExpression == null || (handler != null && !hasDefaultEnablement(handler))) {
+			return null;
+		}
+		ExpressionInfo info = new ExpressionInfo();
+		enabledWhenExpression.collectExpressionInfo(info);
+		if (info.getMisbehavingExpressionTypes() != null) {
+			// some expressions don't report the variables they read
+			return null;
+		}
+		Set<String> names = new HashSet<>();
+		for (String name : info.getAccessedVariableNames()) {
+			names.add(EvaluationService.getE4VariableName(name));
+		}
+		names.addAll(Arrays.asList(info.getAccessedPropertyNames()));
+		if (info.hasDefaultVariableAccess()) {
+			// the evaluation service derives the default variable from the
+			// selection
+			names.add(IServiceConstants.ACTIVE_SELECTION);
+		}
+		return names.toArray(new String[names.size()]);
+	}
+
+	/**
+	 * @return whether the enablement of the handler changes only through
+	 *         {@link AbstractHandler#setBaseEnabled(boolean)}, which notifies
+	 *         the handler listeners
+	 */
+	private static boolean hasDefaultEnablement(IHandler handler) {
+		try {
+			Class<?> handlerClass = handler.getClass();
+			return handlerClass.getMethod("isEnabled").getDeclaringClass() == AbstractHandler.class //$NON-NLS-1$
+					&& handlerClass.getMethod("setEnabled", Object.class) //$NON-NLS-1$
+							.getDeclaringClass() == AbstractHandler.class;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
 }
@@ -11,6 +11,7 @@
 package org.eclipse.ui.internal.misc;
 
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.e4.ui.internal.services.ListenerStatistics;
 import org.eclipse.swt.graphics.Device;
 import org.eclipse.ui.ISourceProvider;
 import org.eclipse.ui.PlatformUI;
@@ -122,6 +123,17 @@ public class Policy {
      */
     public static boolean DEBUG_SHOW_ALL_JOBS = DEFAULT;
 
+    /**
+     * Whether or not to record the wait, run and blocked times of the jobs.
+     */
+    public static boolean DEBUG_JOB_TELEMETRY = DEFAULT;
+
+    /**
+     * Whether or not to record the time spent in the listeners of the
+     * workbench services.
+     */
+    public static boolean DEBUG_LISTENER_STATISTICS = DEFAULT;
+
     /**
      * Whether or not to resolve images as they are declared.
      *
@@ -180,6 +192,8 @@ public class Policy {
             DEBUG_OPERATIONS_VERBOSE = getDebugOption("/trace/operations.verbose"); //$NON-NLS-1$
             DEBUG_SHOW_ALL_JOBS = getDebugOption("/debug/showAllJobs"); //$NON-NLS-1$
             DEBUG_STALE_JOBS = getDebugOption("/debug/job.stale"); //$NON-NLS-1$
+            DEBUG_JOB_TELEMETRY = getDebugOption("/debug/jobTelemetry"); //$NON-NLS-1$
+            DEBUG_LISTENER_STATISTICS = getDebugOption("/debug/listenerStatistics"); //$NON-NLS-1$
             DEBUG_HANDLERS_VERBOSE_COMMAND_ID = Platform
                     .getDebugOption(PlatformUI.PLUGIN_ID
                             + "/trace/handlers.verbose.commandId"); //$NON-NLS-1$
@@ -194,6 +208,8 @@ public class Policy {
 
             if(DEBUG_SWT_DEBUG_GLOBAL)
             	Device.DEBUG = true;
+            if (DEBUG_LISTENER_STATISTICS)
+            	ListenerStatistics.setEnabled(true);
         }
     }
 
@@ -11,12 +11,16 @@
 package org.eclipse.ui.internal.progress;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.eclipse.jface.dialogs.IDialogConstants;
 import org.eclipse.jface.resource.JFaceResources;
 import org.eclipse.jface.viewers.ViewerComparator;
+import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.ScrolledComposite;
 import org.eclipse.swt.events.ControlEvent;
@@ -47,6 +51,16 @@ public class DetailedProgressViewer extends AbstractProgressViewer {
 
 	Composite control;
 
+	// All of the elements of the viewer in sort order; only the first
+	// MAX_DISPLAYED of them have an item
+	private final List<Object> elements = new ArrayList<>();
+
+	// The same elements, for fast lookups
+	private final Set<Object> elementSet = new HashSet<>();
+
+	// Shows the number of elements without an item
+	private Text moreLabel;
+
 	private ScrolledComposite scrolled;
 
 	private Composite noEntryArea;
@@ -129,50 +143,173 @@ public class DetailedProgressViewer extends AbstractProgressViewer {
 
 	@Override
 	public void add(Object[] elements) {
-		ViewerComparator sorter = getComparator();
-
-		// Use a Set in case we are getting something added that exists
-		Set newItems = new HashSet(elements.length);
-
-		Control[] existingChildren = control.getChildren();
-		for (int i = 0; i < existingChildren.length; i++) {
-			if (existingChildren[i].getData() != null)
-				newItems.add(existingChildren[i].getData());
-		}
-
+		List<Object> added = new ArrayList<>();
 		for (int i = 0; i < elements.length; i++) {
-			if (elements[i] != null)
-				newItems.add(elements[i]);
+			if (elements[i] != null && elementSet.add(elements[i])) {
+				added.add(elements[i]);
+			}
+		}
+		if (added.isEmpty()) {
+			return;
+		}
+		if (added.size() == 1) {
+			insertSorted(added.get(0));
+		} else {
+			// a single stable sort rather than an insertion per element
+			this.elements.addAll(added);
+			ViewerComparator sorter = getComparator();
+			if (sorter != null) {
+				this.elements.sort((e1, e2) -> sorter.compare(this, e1, e2));
+			}
 		}
+		updateItems(false);
+	}
 
-		JobTreeElement[] infos = new JobTreeElement[newItems.size()];
-		newItems.toArray(infos);
+	/**
+	 * Insert the element after the elements sorted before or with it.
+	 *
+	 * @param element
+	 */
+	private void insertSorted(Object element) {
+		ViewerComparator sorter = getComparator();
+		if (sorter == null) {
+			elements.add(element);
+			return;
+		}
+		int low = 0;
+		int high = elements.size();
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (sorter.compare(this, elements.get(middle), element) <= 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		elements.add(low, element);
+	}
 
+	/**
+	 * Return the index of the element. The element is found by a binary search
+	 * unless its state changed its position in sort order since it was sorted.
+	 *
+	 * @param element
+	 * @return the index of the element or <code>-1</code>
+	 */
+	private int indexOf(Object element) {
+		if (!elementSet.contains(element)) {
+			return -1;
+		}
+		ViewerComparator sorter = getComparator();
 		if (sorter != null) {
-			sorter.sort(this, infos);
+			int low = 0;
+			int high = elements.size();
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (sorter.compare(this, elements.get(middle), element) < 0) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			for (int i = low; i < elements.size() && sorter.compare(this, elements.get(i), element) == 0; i++) {
+				if (element.equals(elements.get(i))) {
+					return i;
+				}
+			}
 		}
+		return elements.indexOf(element);
+	}
 
-		// Update with the new elements to prevent flash
-		for (int i = 0; i < existingChildren.length; i++) {
-			((ProgressInfoItem) existingChildren[i]).dispose();
+	/**
+	 * Move the element to its position in sort order, which may have changed
+	 * with its state.
+	 *
+	 * @param element
+	 * @return <code>true</code> if the element has moved
+	 */
+	private boolean resort(Object element) {
+		int index = indexOf(element);
+		if (index < 0) {
+			return false;
 		}
+		elements.remove(index);
+		insertSorted(element);
+		return elements.get(index) != element;
+	}
 
-		int totalSize = Math.min(newItems.size(), MAX_DISPLAYED);
+	/**
+	 * Show the first elements in sort order. The items of the elements which
+	 * are still shown are kept and moved, only the items of the newly shown
+	 * elements are created.
+	 *
+	 * @param refresh
+	 *            whether to refresh the items which are kept
+	 */
+	private void updateItems(boolean refresh) {
+		Map<Object, ProgressInfoItem> existingItems = new HashMap<>();
+		ProgressInfoItem[] existingChildren = getProgressInfoItems();
+		for (int i = 0; i < existingChildren.length; i++) {
+			existingItems.put(existingChildren[i].getData(), existingChildren[i]);
+		}
 
+		int totalSize = Math.min(elements.size(), MAX_DISPLAYED);
+		ProgressInfoItem previous = null;
 		for (int i = 0; i < totalSize; i++) {
-			ProgressInfoItem item = createNewItem(infos[i]);
+			JobTreeElement info = (JobTreeElement) elements.get(i);
+			ProgressInfoItem item = existingItems.remove(info);
+			if (item == null) {
+				item = createNewItem(info);
+			} else if (refresh) {
+				item.refresh();
+			}
+			if (previous == null) {
+				item.moveAbove(null);
+			} else {
+				item.moveBelow(previous);
+			}
 			item.setColor(i);
+			previous = item;
+		}
+
+		// Dispose the items of the elements which are not shown anymore
+		for (ProgressInfoItem item : existingItems.values()) {
+			item.dispose();
 		}
 
+		updateMoreLabel(elements.size() - totalSize);
 		control.layout(true);
 		updateForShowingProgress();
 	}
 
+	/**
+	 * Show the number of elements without an item after the items.
+	 *
+	 * @param count
+	 */
+	private void updateMoreLabel(int count) {
+		if (count <= 0) {
+			if (moreLabel != null) {
+				moreLabel.dispose();
+				moreLabel = null;
+			}
+			return;
+		}
+		if (moreLabel == null) {
+			moreLabel = new Text(control, SWT.SINGLE);
+			moreLabel.setBackground(control.getBackground());
+			moreLabel.setLayoutData(new GridData(GridData.VERTICAL_ALIGN_BEGINNING));
+			moreLabel.setEditable(false);
+		}
+		moreLabel.setText(NLS.bind(ProgressMessages.ProgressView_MoreOperations, Integer.valueOf(count)));
+		moreLabel.moveBelow(null);
+	}
+
 	/**
 	 * Update for the progress being displayed.
 	 */
 	private void updateForShowingProgress() {
-		if (control.getChildren().length > 0) {
+		if (getProgressInfoItems().length > 0) {
 			updateSize();
 			scrolled.setContent(control);
 		} else {
@@ -207,9 +344,9 @@ public class DetailedProgressViewer extends AbstractProgressViewer {
 			@Override
 			public void select() {
 
-				Control[] children = control.getChildren();
+				ProgressInfoItem[] children = getProgressInfoItems();
 				for (int i = 0; i < children.length; i++) {
-					ProgressInfoItem child = (ProgressInfoItem) children[i];
+					ProgressInfoItem child = children[i];
 					if (!item.equals(child)) {
 						child.selectWidgets(false);
 					}
@@ -230,15 +367,15 @@ public class DetailedProgressViewer extends AbstractProgressViewer {
 	 * @param item
 	 */
 	protected void selectPrevious(ProgressInfoItem item) {
-		Control[] children = control.getChildren();
+		ProgressInfoItem[] children = getProgressInfoItems();
 		for (int i = 0; i < children.length; i++) {
-			ProgressInfoItem child = (ProgressInfoItem) children[i];
+			ProgressInfoItem child = children[i];
 			if (item.equals(child)) {
 				ProgressInfoItem previous;
 				if (i == 0) {
-					previous = (ProgressInfoItem) children[children.length - 1];
+					previous = children[children.length - 1];
 				} else {
-					previous = (ProgressInfoItem) children[i - 1];
+					previous = children[i - 1];
 				}
 
 				item.selectWidgets(false);
@@ -254,15 +391,15 @@ public class DetailedProgressViewer extends AbstractProgressViewer {
 	 * @param item
 	 */
 	protected void selectNext(ProgressInfoItem item) {
-		Control[] children = control.getChildren();
+		ProgressInfoItem[] children = getProgressInfoItems();
 		for (int i = 0; i < children.length; i++) {
-			ProgressInfoItem child = (ProgressInfoItem) children[i];
+			ProgressInfoItem child = children[i];
 			if (item.equals(child)) {
 				ProgressInfoItem next;
 				if (i == children.length - 1) {
-					next = (ProgressInfoItem) children[0];
+					next = children[0];
 				} else {
-					next = (ProgressInfoItem) children[i + 1];
+					next = children[i + 1];
 				}
 				item.selectWidgets(false);
 				next.selectWidgets(true);
@@ -280,7 +417,7 @@ public class DetailedProgressViewer extends AbstractProgressViewer {
 
 	@Override
 	protected Widget doFindItem(Object element) {
-		Control[] existingChildren = control.getChildren();
+		ProgressInfoItem[] existingChildren = getProgressInfoItems();
 		for (int i = 0; i < existingChildren.length; i++) {
 			if (existingChildren[i].isDisposed()
 					|| existingChildren[i].getData() == null) {
@@ -295,11 +432,10 @@ public class DetailedProgressViewer extends AbstractProgressViewer {
 
 	@Override
 	protected void doUpdateItem(Widget item, Object element, boolean fullMap) {
-		if (usingElementMap()) {
-			unmapElement(item);
+		((ProgressInfoItem) item).refresh();
+		if (resort(element)) {
+			updateItems(false);
 		}
-		item.dispose();
-		add(new Object[] { element });
 	}
 
 	@Override
@@ -330,17 +466,27 @@ public class DetailedProgressViewer extends AbstractProgressViewer {
 		}
 		Widget widget = findItem(element);
 		if (widget == null) {
-			add(new Object[] { element });
+			if (!elementSet.contains(element)) {
+				add(new Object[] { element });
+			} else if (resort(element)) {
+				// the element may now be sorted among the ones with an item
+				updateItems(false);
+			}
 			return;
 		}
 		((ProgressInfoItem) widget).refresh();
 
-		updateSize();
+		if (resort(element)) {
+			updateItems(false);
+		} else {
+			updateSize();
+		}
 	}
 
 	@Override
 	public void remove(Object[] elements) {
 
+		Set<Object> removed = new HashSet<>();
 		for (int i = 0; i < elements.length; i++) {
 			JobTreeElement treeElement = (JobTreeElement) elements[i];
 			// Make sure we are not keeping this one
@@ -351,27 +497,23 @@ public class DetailedProgressViewer extends AbstractProgressViewer {
 				}
 
 			} else {
-				Widget item = doFindItem(treeElement);
-				if (item == null) {
+				Object removedElement = treeElement;
+				if (!elementSet.contains(treeElement)) {
 					// Is the parent showing?
-					Object parent = treeElement.getParent();
-					if (parent != null)
-						item = doFindItem(parent);
+					removedElement = treeElement.getParent();
 				}
-				if (item != null) {
+				if (removedElement != null && elementSet.remove(removedElement)) {
 					unmapElement(elements[i]);
-					item.dispose();
+					removed.add(removedElement);
 				}
 			}
 		}
 
-		Control[] existingChildren = control.getChildren();
-		for (int i = 0; i < existingChildren.length; i++) {
-			ProgressInfoItem item = (ProgressInfoItem) existingChildren[i];
-			item.setColor(i);
+		if (!removed.isEmpty()) {
+			// a single pass rather than a search per element
+			this.elements.removeAll(removed);
+			updateItems(false);
 		}
-		control.layout(true);
-		updateForShowingProgress();
 	}
 
 	@Override
@@ -397,9 +539,9 @@ public class DetailedProgressViewer extends AbstractProgressViewer {
 	 *
 	 */
 	public void setFocus() {
-		Control[] children = control.getChildren();
+		ProgressInfoItem[] children = getProgressInfoItems();
 		if (children.length > 0) {
-			((ProgressInfoItem)children[0]).setButtonFocus();
+			children[0].setButtonFocus();
 		} else {
 			noEntryArea.setFocus();
 		}
@@ -411,22 +553,12 @@ public class DetailedProgressViewer extends AbstractProgressViewer {
 	private void refreshAll() {
 
 		Object[] infos = getSortedChildren(getRoot());
-		Control[] existingChildren = control.getChildren();
+		elements.clear();
+		elements.addAll(Arrays.asList(infos));
+		elementSet.clear();
+		elementSet.addAll(elements);
 
-		for (int i = 0; i < existingChildren.length; i++) {
-			existingChildren[i].dispose();
-
-		}
-
-		int maxLength = Math.min(infos.length,MAX_DISPLAYED);
-		// Create new ones if required
-		for (int i = 0; i < maxLength; i++) {
-			ProgressInfoItem item = createNewItem((JobTreeElement) infos[i]);
-			item.setColor(i);
-		}
-
-		control.layout(true);
-		updateForShowingProgress();
+		updateItems(true);
 	}
 
 	/**
@@ -434,11 +566,11 @@ public class DetailedProgressViewer extends AbstractProgressViewer {
 	 * area.
 	 */
 	private void updateVisibleItems() {
-		Control[] children = control.getChildren();
+		ProgressInfoItem[] children = getProgressInfoItems();
 		int top = scrolled.getOrigin().y;
 		int bottom = top + scrolled.getParent().getBounds().height;
 		for (int i = 0; i < children.length; i++) {
-			ProgressInfoItem item = (ProgressInfoItem) children[i];
+			ProgressInfoItem item = children[i];
 			item.setDisplayed(top, bottom);
 		}
 	}
@@ -456,9 +588,14 @@ public class DetailedProgressViewer extends AbstractProgressViewer {
 
 	public ProgressInfoItem[] getProgressInfoItems() {
 		Control[] children = control.getChildren();
-		ProgressInfoItem[] progressInfoItems = new ProgressInfoItem[children.length];
-		System.arraycopy(children, 0, progressInfoItems, 0, children.length);
-		return progressInfoItems;
+		List<ProgressInfoItem> progressInfoItems = new ArrayList<>(children.length);
+		for (int i = 0; i < children.length; i++) {
+			// skip the label of the elements without an item
+			if (children[i] instanceof ProgressInfoItem && !children[i].isDisposed()) {
+				progressInfoItems.add((ProgressInfoItem) children[i]);
+			}
+		}
+		return progressInfoItems.toArray(new ProgressInfoItem[progressInfoItems.size()]);
 	}
 
 }
@@ -0,0 +1,286 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.progress;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.core.runtime.jobs.Job;
+
+/**
+ * The JobTelemetry records how long the jobs wait to run, run and are blocked,
+ * per job class and per job family, in {@link LatencyHistogram}s. It is fed
+ * by the {@link ProgressManager} and records nothing until it is enabled,
+ * either with the <code>org.eclipse.ui/debug/jobTelemetry</code> debug option
+ * or with {@link #setEnabled(boolean)}.
+ * <p>
+ * The durations are recorded in microseconds. Only the families added with
+ * {@link #addFamily(Object)} are recorded, as the job manager has no list of
+ * the families.
+ * </p>
+ */
+public class JobTelemetry {
+
+	private static final String CLASS_PREFIX = "class "; //$NON-NLS-1$
+
+	private static final String FAMILY_PREFIX = "family "; //$NON-NLS-1$
+
+	private volatile boolean enabled;
+
+	private final Map<Job, JobTimes> jobTimes = new ConcurrentHashMap<>();
+
+	private final Map<String, JobStatistics> statistics = new ConcurrentHashMap<>();
+
+	private final Set<Object> families = new CopyOnWriteArraySet<>();
+
+	/**
+	 * @param enabled
+	 *            whether to record from the start
+	 */
+	JobTelemetry(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * @return whether the receiver records the jobs
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Start or stop recording. The statistics recorded so far are kept.
+	 *
+	 * @param enabled
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+		if (!enabled) {
+			jobTimes.clear();
+		}
+	}
+
+	/**
+	 * Record the jobs belonging to the family under the family as well.
+	 *
+	 * @param family
+	 */
+	public void addFamily(Object family) {
+		families.add(family);
+	}
+
+	/**
+	 * Remove all of the recorded statistics.
+	 */
+	public void reset() {
+		statistics.clear();
+	}
+
+	/**
+	 * @return the statistics of the job classes and families, in no
+	 *         particular order
+	 */
+	public Collection<JobStatistics> getStatistics() {
+		return new ArrayList<>(statistics.values());
+	}
+
+	/**
+	 * The job has been scheduled, or woken up, and waits to run.
+	 */
+	void queued(Job job) {
+		if (enabled) {
+			jobTimes.computeIfAbsent(job, j -> new JobTimes()).queued = System.nanoTime();
+		}
+	}
+
+	/**
+	 * The job is about to run.
+	 */
+	void aboutToRun(Job job) {
+		JobTimes times = jobTimes.get(job);
+		if (times != null) {
+			times.started = System.nanoTime();
+		}
+	}
+
+	/**
+	 * The running job is blocked by another job.
+	 */
+	void blocked(Job job) {
+		JobTimes times = jobTimes.get(job);
+		if (times != null && times.blockedSince == 0) {
+			times.blockedSince = System.nanoTime();
+		}
+	}
+
+	/**
+	 * The running job is not blocked anymore.
+	 */
+	void unblocked(Job job) {
+		JobTimes times = jobTimes.get(job);
+		if (times != null) {
+			unblocked(times);
+		}
+	}
+
+	/**
+	 * The job is done. Record its durations.
+	 */
+	void done(Job job) {
+		JobTimes times = jobTimes.remove(job);
+		if (times == null || times.started == 0 || !enabled) {
+			// scheduled before recording started, or canceled before it ran
+			return;
+		}
+		unblocked(times);
+		long now = System.nanoTime();
+		long wait = toMicros(times.started - times.queued);
+		long run = toMicros(now - times.started);
+		long blocked = toMicros(times.blocked);
+
+		getStatistics(CLASS_PREFIX + job.getClass().getName()).record(wait, run, blocked);
+		for (Object family : families) {
+			if (job.belongsTo(family)) {
+				getStatistics(FAMILY_PREFIX + family).record(wait, run, blocked);
+			}
+		}
+	}
+
+	private static void unblocked(JobTimes times) {
+		if (times.blockedSince != 0) {
+			times.blocked += System.nanoTime() - times.blockedSince;
+			times.blockedSince = 0;
+		}
+	}
+
+	private JobStatistics getStatistics(String key) {
+		return statistics.computeIfAbsent(key, JobStatistics::new);
+	}
+
+	private static long toMicros(long nanos) {
+		return TimeUnit.NANOSECONDS.toMicros(nanos);
+	}
+
+	/**
+	 * Return the statistics as text, the job classes and families with the
+	 * longest total run time first.
+	 *
+	 * @return String
+	 */
+	public String dump() {
+		List<JobStatistics> sorted = new ArrayList<>(statistics.values());
+		sorted.sort((s1, s2) -> Long.compare(s2.getRunTime().getTotal(), s1.getRunTime().getTotal()));
+
+		StringWriter writer = new StringWriter();
+		PrintWriter out = new PrintWriter(writer);
+		out.println("Job telemetry (" + (enabled ? "recording" : "not recording") //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ "), durations in ms: count, p50, p90, p99, max"); //$NON-NLS-1$
+		for (JobStatistics jobStatistics : sorted) {
+			out.println(jobStatistics.getName());
+			print(out, "  wait    ", jobStatistics.getWaitTime()); //$NON-NLS-1$
+			print(out, "  run     ", jobStatistics.getRunTime()); //$NON-NLS-1$
+			print(out, "  blocked ", jobStatistics.getBlockedTime()); //$NON-NLS-1$
+		}
+		out.flush();
+		return writer.toString();
+	}
+
+	private static void print(PrintWriter out, String label, LatencyHistogram histogram) {
+		out.printf("%s%8d %10.1f %10.1f %10.1f %10.1f%n", label, Long.valueOf(histogram.getCount()), //$NON-NLS-1$
+				toMillis(histogram.getValueAtPercentile(50)), toMillis(histogram.getValueAtPercentile(90)),
+				toMillis(histogram.getValueAtPercentile(99)), toMillis(histogram.getMax()));
+	}
+
+	private static Double toMillis(long micros) {
+		return Double.valueOf(micros / 1000d);
+	}
+
+	@Override
+	public String toString() {
+		return dump();
+	}
+
+	/**
+	 * The times of a job between its scheduling and its end, in nanoseconds.
+	 */
+	private static final class JobTimes {
+
+		volatile long queued;
+
+		volatile long started;
+
+		volatile long blockedSince;
+
+		volatile long blocked;
+	}
+
+	/**
+	 * The durations recorded for a job class or family, in microseconds.
+	 */
+	public static final class JobStatistics {
+
+		private final String name;
+
+		private final LatencyHistogram waitTime = new LatencyHistogram();
+
+		private final LatencyHistogram runTime = new LatencyHistogram();
+
+		private final LatencyHistogram blockedTime = new LatencyHistogram();
+
+		JobStatistics(String name) {
+			this.name = name;
+		}
+
+		void record(long wait, long run, long blocked) {
+			waitTime.record(wait);
+			runTime.record(run);
+			blockedTime.record(blocked);
+		}
+
+		/**
+		 * @return the job class or family, prefixed with <code>class</code>
+		 *         or <code>family</code>
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the time between the scheduling of the jobs, or the end of
+		 *         their sleep, and their start
+		 */
+		public LatencyHistogram getWaitTime() {
+			return waitTime;
+		}
+
+		/**
+		 * @return the run time of the jobs, including the time they were
+		 *         blocked
+		 */
+		public LatencyHistogram getRunTime() {
+			return runTime;
+		}
+
+		/**
+		 * @return the time the jobs were blocked by other jobs while running
+		 */
+		public LatencyHistogram getBlockedTime() {
+			return blockedTime;
+		}
+	}
+}
@@ -67,6 +67,7 @@ import org.eclipse.ui.internal.IPreferenceConstants;
 import org.eclipse.ui.internal.WorkbenchPlugin;
 import org.eclipse.ui.internal.dialogs.EventLoopProgressMonitor;
 import org.eclipse.ui.internal.dialogs.WorkbenchDialogBlockedHandler;
+import org.eclipse.ui.internal.misc.Policy;
 import org.eclipse.ui.progress.IProgressConstants;
 import org.eclipse.ui.progress.IProgressService;
 import org.eclipse.ui.progress.WorkbenchJob;
@@ -178,6 +179,8 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 
 	private final Throttler uiRefreshThrottler;
 
+	private final JobTelemetry telemetry = new JobTelemetry(Policy.DEBUG_JOB_TELEMETRY);
+
 	/**
 	 * Returns the progress manager currently in use.
 	 *
@@ -201,6 +204,16 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 		singleton.shutdown();
 	}
 
+	/**
+	 * Returns the telemetry recording the wait, run and blocked times of the
+	 * jobs.
+	 *
+	 * @return JobTelemetry
+	 */
+	public JobTelemetry getJobTelemetry() {
+		return telemetry;
+	}
+
 	/**
 	 * The JobMonitor is the inner class that handles the IProgressMonitor
 	 * integration with the ProgressMonitor.
@@ -326,6 +339,7 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 
 		@Override
 		public void clearBlocked() {
+			telemetry.unblocked(job);
 			JobInfo info = getJobInfo(job);
 			info.setBlockedStatus(null);
 			refreshJobInfo(info);
@@ -334,6 +348,7 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 
 		@Override
 		public void setBlocked(IStatus reason) {
+			telemetry.blocked(job);
 			JobInfo info = getJobInfo(job);
 			info.setBlockedStatus(reason);
 			refreshJobInfo(info);
@@ -432,6 +447,7 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 		return new JobChangeAdapter() {
 			@Override
 			public void aboutToRun(IJobChangeEvent event) {
+				telemetry.aboutToRun(event.getJob());
 				JobInfo info = getJobInfo(event.getJob());
 				refreshJobInfo(info);
 				Iterator<IJobBusyListener> startListeners = busyListenersForJob(event.getJob()).iterator();
@@ -443,6 +459,7 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 
 			@Override
 			public void done(IJobChangeEvent event) {
+				telemetry.done(event.getJob());
 				if (!PlatformUI.isWorkbenchRunning()) {
 					return;
 				}
@@ -485,6 +502,7 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 
 			@Override
 			public void scheduled(IJobChangeEvent event) {
+				telemetry.queued(event.getJob());
 				updateFor(event);
 				if (event.getJob().isUser()) {
 					boolean noDialog = shouldRunInBackground();
@@ -519,6 +537,7 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 
 			@Override
 			public void awake(IJobChangeEvent event) {
+				telemetry.queued(event.getJob());
 				updateFor(event);
 			}
 
@@ -15,11 +15,14 @@ package org.eclipse.ui.internal.services;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import org.eclipse.core.expressions.Expression;
 import org.eclipse.core.expressions.ExpressionInfo;
 import org.eclipse.core.expressions.IEvaluationContext;
@@ -31,6 +34,7 @@ import org.eclipse.e4.core.contexts.ContextFunction;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.contexts.RunAndTrack;
 import org.eclipse.e4.core.services.events.IEventBroker;
+import org.eclipse.e4.ui.internal.workbench.VariablesChangedSelector;
 import org.eclipse.e4.ui.services.IServiceConstants;
 import org.eclipse.e4.ui.workbench.UIEvents;
 import org.eclipse.jface.util.IPropertyChangeListener;
@@ -51,6 +55,24 @@ import org.eclipse.ui.services.IEvaluationService;
 public final class EvaluationService implements IEvaluationService {
 	public static final String DEFAULT_VAR = "org.eclipse.ui.internal.services.EvaluationService.default_var"; //$NON-NLS-1$
 	private static final String RE_EVAL = "org.eclipse.ui.internal.services.EvaluationService.evaluate"; //$NON-NLS-1$
+
+	/**
+	 * The e4 context variables the legacy source variables are derived from.
+	 * The names of changed variables and the names a handler's enablement
+	 * depends on are reported with the e4 name, which is also the one the tool
+	 * bar renderer tracks, so that they can be matched.
+	 */
+	private static final Map<String, String> E4_VARIABLE_NAMES = new HashMap<>();
+
+	static {
+		for (String name : new String[] { ISources.ACTIVE_PART_NAME, ISources.ACTIVE_PART_ID_NAME,
+				ISources.ACTIVE_SITE_NAME, ISources.ACTIVE_EDITOR_NAME, ISources.ACTIVE_EDITOR_ID_NAME,
+				ISources.ACTIVE_EDITOR_INPUT_NAME }) {
+			E4_VARIABLE_NAMES.put(name, IServiceConstants.ACTIVE_PART);
+		}
+		E4_VARIABLE_NAMES.put(ISources.ACTIVE_CURRENT_SELECTION_NAME, IServiceConstants.ACTIVE_SELECTION);
+	}
+
 	private boolean evaluate = false;
 	private ExpressionContext legacyContext;
 	private IEclipseContext context;
@@ -60,16 +82,31 @@ public final class EvaluationService implements IEvaluationService {
 	private ListenerList<IPropertyChangeListener> serviceListeners = new ListenerList<>(ListenerList.IDENTITY);
 	ArrayList<ISourceProvider> sourceProviders = new ArrayList<>();
 	LinkedList<EvaluationReference> refs = new LinkedList<>();
+	/**
+	 * The references sorted by the names of the variables and properties their
+	 * expression reads, so that a property change reaches only the references
+	 * reading it.
+	 */
+	private Map<String, Set<EvaluationReference>> refsByName = new HashMap<>();
 	private ISourceProviderListener contextUpdater;
 
 	private HashSet<String> ratVariables = new HashSet<>();
 	private RunAndTrack ratUpdater = new RunAndTrack() {
+		private Object lastReEval;
+		private Map<String, Object> lastValues = new HashMap<>();
+
 		@Override
 		public boolean changed(IEclipseContext context) {
-			context.get(RE_EVAL);
+			Object reEval = context.get(RE_EVAL);
+			boolean reEvaluate = reEval != lastReEval;
+			lastReEval = reEval;
+			Set<String> changedVariables = new HashSet<>();
 			String[] vars = ratVariables.toArray(new String[ratVariables.size()]);
 			for (String var : vars) {
 				Object value = context.getActive(var);
+				if (lastValues.put(var, value) != value) {
+					changedVariables.add(getE4VariableName(var));
+				}
 				if (value == null) {
 					ratContext.remove(var);
 				} else {
@@ -77,9 +114,11 @@ public final class EvaluationService implements IEvaluationService {
 				}
 			}
 			// This ties tool item enablement to variable changes that can
-			// effect the enablement.
-			getEventBroker()
-					.post(UIEvents.REQUEST_ENABLEMENT_UPDATE_TOPIC, UIEvents.ALL_ELEMENT_ID);
+			// effect the enablement. Only the items depending on the changed
+			// variables are updated, unless all of them must be re-evaluated.
+			getEventBroker().post(UIEvents.REQUEST_ENABLEMENT_UPDATE_TOPIC,
+					reEvaluate || changedVariables.isEmpty() ? UIEvents.ALL_ELEMENT_ID
+							: new VariablesChangedSelector(changedVariables));
 			return true;
 		}
 	};
@@ -195,6 +234,7 @@ public final class EvaluationService implements IEvaluationService {
 			invalidate(ref, false);
 		}
 		refs.clear();
+		refsByName.clear();
 		serviceListeners.clear();
 	}
 
@@ -217,10 +257,32 @@ public final class EvaluationService implements IEvaluationService {
 		return ref;
 	}
 
+	/**
+	 * Returns the name used to report a change of the given variable in a
+	 * {@link VariablesChangedSelector}.
+	 *
+	 * @param name
+	 *            the name of a legacy or e4 context variable
+	 * @return the name of the e4 context variable the variable is derived
+	 *         from, or the name itself
+	 */
+	public static String getE4VariableName(String name) {
+		String e4Name = E4_VARIABLE_NAMES.get(name);
+		return e4Name == null ? name : e4Name;
+	}
+
 	@Override
 	public void addEvaluationReference(IEvaluationReference ref) {
 		EvaluationReference eref = (EvaluationReference) ref;
 		refs.add(eref);
+		for (String name : getAccessedNames(eref.getExpression())) {
+			Set<EvaluationReference> namedRefs = refsByName.get(name);
+			if (namedRefs == null) {
+				namedRefs = new LinkedHashSet<>();
+				refsByName.put(name, namedRefs);
+			}
+			namedRefs.add(eref);
+		}
 		boolean changed = false;
 		if (eref.getExpression() != null) {
 			ExpressionInfo info = new ExpressionInfo();
@@ -246,6 +308,15 @@ public final class EvaluationService implements IEvaluationService {
 	private void invalidate(IEvaluationReference ref, boolean remove) {
 		if (remove) {
 			refs.remove(ref);
+			for (String name : getAccessedNames(ref.getExpression())) {
+				Set<EvaluationReference> namedRefs = refsByName.get(name);
+				if (namedRefs != null) {
+					namedRefs.remove(ref);
+					if (namedRefs.isEmpty()) {
+						refsByName.remove(name);
+					}
+				}
+			}
 		}
 		EvaluationReference eref = (EvaluationReference) ref;
 		eref.participating = false;
@@ -273,33 +344,16 @@ public final class EvaluationService implements IEvaluationService {
 
 		String[] sourceNames = new String[] { propertyName };
 		startSourceChange(sourceNames);
-		for (EvaluationReference ref : refs) {
-			Expression expr = ref.getExpression();
-			if (expr != null) {
-				boolean evaluated = false;
-				ExpressionInfo info = expr.computeExpressionInfo();
-				String[] names = info.getAccessedPropertyNames();
-				for (String name : names) {
-					if (propertyName.equals(name)) {
-						evaluated = true;
-						ref.evaluate();
-						break;
-					}
-				}
-				if (!evaluated) {
-					names = info.getAccessedVariableNames();
-					for (String name : names) {
-						if (propertyName.equals(name)) {
-							evaluated = true;
-							ref.evaluate();
-							break;
-						}
-					}
-				}
+		Set<EvaluationReference> namedRefs = refsByName.get(propertyName);
+		if (namedRefs != null) {
+			// the listeners may add or remove references
+			for (EvaluationReference ref : namedRefs.toArray(new EvaluationReference[namedRefs.size()])) {
+				ref.evaluate();
 			}
 		}
 		endSourceChange(sourceNames);
-		eventBroker.post(UIEvents.REQUEST_ENABLEMENT_UPDATE_TOPIC, UIEvents.ALL_ELEMENT_ID);
+		eventBroker.post(UIEvents.REQUEST_ENABLEMENT_UPDATE_TOPIC,
+				new VariablesChangedSelector(Collections.singleton(propertyName)));
 	}
 
 	/**
@@ -340,6 +394,21 @@ public final class EvaluationService implements IEvaluationService {
 		}
 	}
 
+	/**
+	 * @return the names of the properties and of the variables read by the
+	 *         expression
+	 */
+	private static Set<String> getAccessedNames(Expression expression) {
+		if (expression == null) {
+			return Collections.emptySet();
+		}
+		ExpressionInfo info = expression.computeExpressionInfo();
+		Set<String> names = new HashSet<>();
+		names.addAll(Arrays.asList(info.getAccessedPropertyNames()));
+		names.addAll(Arrays.asList(info.getAccessedVariableNames()));
+		return names;
+	}
+
 	IEventBroker getEventBroker() {
 		if (eventBroker == null) {
 			eventBroker = context.get(IEventBroker.class);
@@ -14,11 +14,15 @@ package org.eclipse.ui.internal.services;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.expressions.EvaluationContext;
 import org.eclipse.core.expressions.Expression;
+import org.eclipse.core.expressions.ExpressionInfo;
 import org.eclipse.core.expressions.IEvaluationContext;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.jface.viewers.ISelection;
@@ -67,6 +71,20 @@ public abstract class ExpressionAuthority implements ISourceProviderListener {
 	 */
 	private final Collection providers = new ArrayList();
 
+	/**
+	 * The evaluation result caches added to the variable index, sorted by the
+	 * name of the variables their expression reads (<code>String</code>).
+	 * This is used to find the caches to recompute when a source changes,
+	 * without visiting the caches that cannot be affected.
+	 */
+	private final Map<String, Set<IEvaluationResultCache>> cachesByVariableName = new HashMap<>();
+
+	/**
+	 * The evaluation result caches in the variable index whose expressions
+	 * don't report the variables they read. They are affected by any change.
+	 */
+	private final Set<IEvaluationResultCache> cachesReadingUnknownVariables = new HashSet<>();
+
 	/**
 	 * Constructs a new instance of <code>ExpressionAuthority</code>.
 	 */
@@ -111,6 +129,106 @@ public abstract class ExpressionAuthority implements ISourceProviderListener {
 		sourceChanged(0, currentState);
 	}
 
+	/**
+	 * Adds an evaluation result cache to the index of the caches by the
+	 * variables their expression reads.
+	 *
+	 * @param cache
+	 *            The cache to add; must not be <code>null</code>.
+	 * @see #getCachesReading(String[])
+	 * @since 3.109
+	 */
+	protected final void addToVariableIndex(final IEvaluationResultCache cache) {
+		final String[] variableNames = getVariableNames(cache.getExpression());
+		if (variableNames == null) {
+			cachesReadingUnknownVariables.add(cache);
+			return;
+		}
+		for (String variableName : variableNames) {
+			Set<IEvaluationResultCache> caches = cachesByVariableName.get(variableName);
+			if (caches == null) {
+				caches = new HashSet<>(4);
+				cachesByVariableName.put(variableName, caches);
+			}
+			caches.add(cache);
+		}
+	}
+
+	/**
+	 * Removes an evaluation result cache from the index of the caches by the
+	 * variables their expression reads.
+	 *
+	 * @param cache
+	 *            The cache to remove; must not be <code>null</code>.
+	 * @since 3.109
+	 */
+	protected final void removeFromVariableIndex(final IEvaluationResultCache cache) {
+		final String[] variableNames = getVariableNames(cache.getExpression());
+		if (variableNames == null) {
+			cachesReadingUnknownVariables.remove(cache);
+			return;
+		}
+		for (String variableName : variableNames) {
+			final Set<IEvaluationResultCache> caches = cachesByVariableName.get(variableName);
+			if (caches != null) {
+				caches.remove(cache);
+				if (caches.isEmpty()) {
+					cachesByVariableName.remove(variableName);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the evaluation result caches of the variable index which may be
+	 * affected by a change of the given sources.
+	 *
+	 * @param sourceNames
+	 *            The names of the changed sources; must not be
+	 *            <code>null</code>.
+	 * @return The caches whose expression reads one of the sources, or which
+	 *         don't report the variables they read; never <code>null</code>.
+	 * @since 3.109
+	 */
+	protected final Set<IEvaluationResultCache> getCachesReading(final String[] sourceNames) {
+		final Set<IEvaluationResultCache> result = new HashSet<>(cachesReadingUnknownVariables);
+		for (String sourceName : sourceNames) {
+			final Set<IEvaluationResultCache> caches = cachesByVariableName.get(sourceName);
+			if (caches != null) {
+				result.addAll(caches);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the names of the variables read by an expression, including
+	 * {@link ISources#ACTIVE_CURRENT_SELECTION_NAME} if it reads the default
+	 * variable.
+	 *
+	 * @param expression
+	 *            The expression; may be <code>null</code>.
+	 * @return The names of the variables, or <code>null</code> if the
+	 *         expression contains elements which don't report them.
+	 */
+	private static String[] getVariableNames(final Expression expression) {
+		if (expression == null) {
+			return new String[0];
+		}
+		final ExpressionInfo info = expression.computeExpressionInfo();
+		if (info.getMisbehavingExpressionTypes() != null) {
+			return null;
+		}
+		final String[] variableNames = info.getAccessedVariableNames();
+		if (!info.hasDefaultVariableAccess()) {
+			return variableNames;
+		}
+		final String[] result = new String[variableNames.length + 1];
+		System.arraycopy(variableNames, 0, result, 0, variableNames.length);
+		result[variableNames.length] = ISources.ACTIVE_CURRENT_SELECTION_NAME;
+		return result;
+	}
+
 	/**
 	 * Removes all of the source provider listeners. Subclasses may extend, but
 	 * must not override.
@@ -305,10 +423,20 @@ public abstract class ExpressionAuthority implements ISourceProviderListener {
 	}
 
 	/**
+	 * Notifies the subclass about a change of the sources, both with the
+	 * priority and with the names of the changed sources.
+	 * <p>
+	 * Subclasses may override this method to use the names, see
+	 * {@link #getCachesReading(String[])}.
+	 * </p>
+	 *
 	 * @param sourcePriority
-	 * @param strings
+	 *            A bit mask of all the source priorities that have changed.
+	 * @param sourceNames
+	 *            The array of names that changed.
+	 * @since 3.109
 	 */
-	private void sourceChanged(int sourcePriority, String[] sourceNames) {
+	protected void sourceChanged(final int sourcePriority, final String[] sourceNames) {
 		sourceChanged(sourcePriority);
 		sourceChanged(sourceNames);
 	}
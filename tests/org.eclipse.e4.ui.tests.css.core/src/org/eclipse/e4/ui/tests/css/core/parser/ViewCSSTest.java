@@ -16,9 +16,11 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.eclipse.e4.ui.css.core.impl.dom.DocumentCSSImpl;
 import org.eclipse.e4.ui.css.core.impl.dom.ViewCSSImpl;
+import org.eclipse.e4.ui.css.core.impl.engine.CSSEngineStatistics;
 import org.eclipse.e4.ui.css.swt.engine.CSSSWTEngineImpl;
 import org.eclipse.e4.ui.tests.css.core.util.ParserTestUtil;
 import org.eclipse.e4.ui.tests.css.core.util.TestElement;
@@ -108,6 +110,25 @@ public class ViewCSSTest {
 		assertEquals("color: blue;", buttonStyle.getCssText());
 	}
 
+	@Test
+	public void testGetComputedStyleRecordsSelectorStatistics() throws Exception {
+		String css = "Label { color: black; }\n" + "Button { color: blue; }\n";
+		ViewCSSImpl viewCSS = (ViewCSSImpl) createViewCss(css);
+		CSSEngineStatistics statistics = new CSSEngineStatistics();
+		viewCSS.setStatistics(statistics);
+
+		viewCSS.getComputedStyle(new TestElement("Button", engine), null);
+		viewCSS.getComputedStyle(new TestElement("Button", engine), null);
+		viewCSS.getComputedStyle(new TestElement("Label", engine), null);
+
+		List<CSSEngineStatistics.Entry> entries = statistics.getSelectorEntries();
+		assertEquals(2, entries.size());
+		for (CSSEngineStatistics.Entry entry : entries) {
+			assertEquals(3, entry.getAttempts());
+			assertEquals(entry.getName().equals("Button") ? 2 : 1, entry.getHits());
+		}
+	}
+
 	private static ViewCSS createViewCss(String css) throws IOException {
 		CSSStyleSheet styleSheet = ParserTestUtil.parseCss(css);
 		DocumentCSSImpl docCss = new DocumentCSSImpl();
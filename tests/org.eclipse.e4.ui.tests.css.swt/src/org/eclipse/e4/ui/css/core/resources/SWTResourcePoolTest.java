@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others. All rights reserved. This
+ * program and the accompanying materials are made available under the terms of
+ * the Eclipse Public License v1.0 which accompanies this distribution, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.css.core.resources;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.e4.ui.css.swt.resources.ResourceByDefinitionKey;
+import org.eclipse.e4.ui.css.swt.resources.SWTResourcePool;
+import org.eclipse.e4.ui.css.swt.resources.SWTResourcesRegistry;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.widgets.Display;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SWTResourcePoolTest {
+	private Display display;
+
+	@Before
+	public void setUp() {
+		display = Display.getDefault();
+	}
+
+	@After
+	public void tearDown() {
+		display.dispose();
+	}
+
+	@Test
+	public void testRegistriesShareColors() {
+		SWTResourcesRegistry registry1 = new SWTResourcesRegistry(display);
+		SWTResourcesRegistry registry2 = new SWTResourcesRegistry(display);
+		Color color = new Color(display, 10, 20, 30);
+
+		registry1.registerResource(Color.class, "#0a141e", color);
+		registry2.registerResource(Color.class, "rgb(10,20,30)", color);
+		assertEquals(2, registry1.getPool().getReferenceCount(color));
+
+		registry1.dispose();
+		assertFalse(color.isDisposed());
+
+		registry2.dispose();
+		assertTrue(color.isDisposed());
+		assertEquals(0, registry1.getPool().size());
+	}
+
+	@Test
+	public void testEquivalentColorIsKept() {
+		SWTResourcePool pool = SWTResourcePool.getPool(display);
+		SWTResourcesRegistry registry1 = new SWTResourcesRegistry(display);
+		SWTResourcesRegistry registry2 = new SWTResourcesRegistry(display);
+		Color color1 = new Color(display, 10, 20, 30);
+		Color color2 = new Color(display, 10, 20, 30);
+
+		registry1.registerResource(Color.class, "#0a141e", color1);
+		assertSame(color1, pool.findEquivalent(color2));
+
+		// the registry caches what it is given and never disposes it early
+		registry2.registerResource(Color.class, "rgb(10,20,30)", color2);
+		assertSame(color2, registry2.getResource(Color.class, "rgb(10,20,30)"));
+		assertFalse(color2.isDisposed());
+		assertEquals(1, pool.getReferenceCount(color1));
+		assertEquals(1, pool.getReferenceCount(color2));
+
+		registry1.dispose();
+		registry2.dispose();
+		assertTrue(color1.isDisposed());
+		assertTrue(color2.isDisposed());
+	}
+
+	@Test
+	public void testDisposedResourceIsReleased() {
+		SWTResourcePool pool = SWTResourcePool.getPool(display);
+		SWTResourcesRegistry registry = new SWTResourcesRegistry(display);
+		Color color = new Color(display, 1, 2, 3);
+		registry.registerResource(Color.class, "#010203", color);
+
+		// disposed behind the registry's back
+		color.dispose();
+		assertNull(registry.getResource(Color.class, "#010203"));
+		assertEquals(0, pool.size());
+		assertNull(pool.findEquivalent(new Color(display, 1, 2, 3)));
+	}
+
+	@Test
+	public void testRemovedResourceIsKeptForReuse() {
+		SWTResourcePool pool = SWTResourcePool.getPool(display);
+		SWTResourcesRegistry registry1 = new SWTResourcesRegistry(display);
+		SWTResourcesRegistry registry2 = new SWTResourcesRegistry(display);
+		Color color = new Color(display, 4, 5, 6);
+		ResourceByDefinitionKey key = new ResourceByDefinitionKey("#def");
+
+		registry1.registerResource(Color.class, key, color);
+		registry2.registerResource(Color.class, key, color);
+
+		assertTrue(registry1.removeResourcesByKeyTypeAndType(ResourceByDefinitionKey.class, Color.class).isEmpty());
+		assertTrue(registry2.removeResourcesByKeyTypeAndType(ResourceByDefinitionKey.class, Color.class).isEmpty());
+		// widgets which are not restyled may still paint with it
+		assertFalse(color.isDisposed());
+		assertEquals(0, pool.getReferenceCount(color));
+
+		// a later theme with the same value reuses it
+		Color other = new Color(display, 4, 5, 6);
+		assertSame(color, pool.findEquivalent(other));
+		other.dispose();
+		registry1.registerResource(Color.class, key, color);
+		assertEquals(1, pool.getReferenceCount(color));
+
+		registry1.dispose();
+		assertTrue(color.isDisposed());
+	}
+
+	@Test
+	public void testEvictUnreferenced() {
+		SWTResourcePool pool = SWTResourcePool.getPool(display);
+		SWTResourcesRegistry registry = new SWTResourcesRegistry(display);
+		Color removed = new Color(display, 7, 8, 9);
+		Color used = new Color(display, 9, 8, 7);
+		registry.registerResource(Color.class, new ResourceByDefinitionKey("#removed"), removed);
+		registry.registerResource(Color.class, "#090807", used);
+		registry.removeResourcesByKeyTypeAndType(ResourceByDefinitionKey.class, Color.class);
+
+		assertEquals(1, pool.evictUnreferenced());
+		assertTrue(removed.isDisposed());
+		assertFalse(used.isDisposed());
+		assertEquals(1, pool.size());
+
+		registry.dispose();
+	}
+}
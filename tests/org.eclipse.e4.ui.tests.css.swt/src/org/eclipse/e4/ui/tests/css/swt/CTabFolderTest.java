@@ -13,17 +13,21 @@ package org.eclipse.e4.ui.tests.css.swt;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 import org.eclipse.e4.ui.css.swt.dom.CTabFolderElement;
 import org.eclipse.e4.ui.css.swt.properties.custom.CSSPropertyMruVisibleSWTHandler;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.CTabFolder;
 import org.eclipse.swt.custom.CTabItem;
+import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.FontData;
 import org.eclipse.swt.graphics.RGB;
 import org.eclipse.swt.layout.FillLayout;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.swt.widgets.ToolBar;
 import org.junit.Ignore;
@@ -99,6 +103,47 @@ public class CTabFolderTest extends CSSSWTTestCase {
 		return shell;
 	}
 
+	@Test
+	public void testSelectionRestylesOnlyTheSelectionChange() {
+		engine = createEngine("Label { background-color: #FF0000 } CTabItem { font: Verdana 16px }", display);
+
+		Shell shell = new Shell(display, SWT.SHELL_TRIM);
+		shell.setLayout(new FillLayout());
+		CTabFolder folder = new CTabFolder(shell, SWT.NONE);
+		CTabItem tab1 = new CTabItem(folder, SWT.NONE);
+		tab1.setControl(new Label(folder, SWT.NONE));
+		CTabItem tab2 = new CTabItem(folder, SWT.NONE);
+		Label content = new Label(folder, SWT.NONE);
+		tab2.setControl(content);
+		CTabItem tab3 = new CTabItem(folder, SWT.NONE);
+		Label topRight = new Label(folder, SWT.NONE);
+		folder.setTopRight(topRight);
+		folder.setSelection(tab1);
+		engine.applyStyles(shell, true);
+		assertEquals(RED, topRight.getBackground().getRGB());
+
+		Font systemFont = display.getSystemFont();
+		tab1.setFont(systemFont);
+		tab3.setFont(systemFont);
+		topRight.setBackground(display.getSystemColor(SWT.COLOR_BLUE));
+		folder.setSelection(tab2);
+		folder.notifyListeners(SWT.Selection, new Event());
+		assertEquals(RED, content.getBackground().getRGB());
+		// the previously selected item is restyled
+		assertEquals("Verdana", tab1.getFont().getFontData()[0].getName());
+		// the other item and the top-right control are left alone
+		assertSame(systemFont, tab3.getFont());
+		assertEquals(BLUE, topRight.getBackground().getRGB());
+
+		// the selected content is restyled even if it was styled before
+		content.setBackground(display.getSystemColor(SWT.COLOR_BLUE));
+		folder.setSelection(tab1);
+		folder.notifyListeners(SWT.Selection, new Event());
+		folder.setSelection(tab2);
+		folder.notifyListeners(SWT.Selection, new Event());
+		assertEquals(RED, content.getBackground().getRGB());
+	}
+
 	@Test
 	public void testBackgroundColor() {
 		CTabFolder folderToTest = createTestCTabFolder("CTabFolder { background-color: #0000FF }");
@@ -13,6 +13,7 @@
 package org.eclipse.e4.ui.tests.css.swt;
 
 import org.eclipse.e4.ui.css.core.resources.CSSResourcesHelpersTest;
+import org.eclipse.e4.ui.css.core.resources.SWTResourcePoolTest;
 import org.eclipse.e4.ui.css.core.resources.SWTResourceRegistryKeyFactoryTest;
 import org.eclipse.e4.ui.css.core.resources.SWTResourcesRegistryTest;
 import org.eclipse.e4.ui.css.swt.helpers.CSSSWTColorHelperTest;
@@ -31,6 +32,7 @@ import org.junit.runners.Suite;
 	CSSResourcesHelpersTest.class,
 	SWTResourceRegistryKeyFactoryTest.class,
 	SWTResourcesRegistryTest.class,
+	SWTResourcePoolTest.class,
 	FontDefinitionTest.class,
 	ColorDefinitionTest.class,
 	ThemesExtensionTest.class,
@@ -41,6 +43,7 @@ import org.junit.runners.Suite;
 	LinkTest.class,
 	CTabFolderTest.class,
 	CTabItemTest.class,
+	HiddenCompositeTest.class,
 	IdClassLabelColorTest.class,
 	ShellTest.class,
 	ButtonTest.class,
@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others. All rights reserved. This
+ * program and the accompanying materials are made available under the terms of
+ * the Eclipse Public License v1.0 which accompanies this distribution, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.tests.css.swt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.Test;
+
+public class HiddenCompositeTest extends CSSSWTTestCase {
+
+	@Test
+	public void testChildrenOfHiddenCompositeStyledWhenShown() {
+		engine = createEngine("Label { background-color: #FF0000; }", display);
+
+		Shell shell = new Shell(display, SWT.SHELL_TRIM);
+		shell.setLayout(new FillLayout());
+		Composite panel = new Composite(shell, SWT.NONE);
+		panel.setLayout(new FillLayout());
+		Label label = new Label(panel, SWT.NONE);
+		panel.setVisible(false);
+
+		engine.applyStyles(shell, true);
+		assertNotEquals(RED, label.getBackground().getRGB());
+
+		panel.setVisible(true);
+		assertEquals(RED, label.getBackground().getRGB());
+	}
+
+	@Test
+	public void testChildAddedToHiddenCompositeStyledWhenShown() {
+		engine = createEngine("Label { background-color: #FF0000; }", display);
+
+		Shell shell = new Shell(display, SWT.SHELL_TRIM);
+		shell.setLayout(new FillLayout());
+		Composite panel = new Composite(shell, SWT.NONE);
+		panel.setLayout(new FillLayout());
+		engine.applyStyles(shell, true);
+
+		panel.setVisible(false);
+		Label label = new Label(panel, SWT.NONE);
+		engine.applyStyles(label, true);
+		assertNotEquals(RED, label.getBackground().getRGB());
+
+		panel.setVisible(true);
+		assertEquals(RED, label.getBackground().getRGB());
+	}
+}
@@ -16,16 +16,19 @@ import org.eclipse.e4.ui.tests.application.Bug299755Test;
 import org.eclipse.e4.ui.tests.application.Bug308220Test;
 import org.eclipse.e4.ui.tests.application.Bug320857Test;
 import org.eclipse.e4.ui.tests.application.ModelElementTest;
+import org.eclipse.e4.ui.tests.application.ModelJournalTest;
 import org.eclipse.e4.ui.tests.application.ModelRobustnessTest;
 import org.eclipse.e4.ui.tests.application.ResourceHandlerTest;
 import org.eclipse.e4.ui.tests.application.StartupTestSuite;
 import org.eclipse.e4.ui.tests.application.UIEventTypesTest;
 import org.eclipse.e4.ui.tests.workbench.Bug308317Test;
 import org.eclipse.e4.ui.tests.workbench.ContextTest;
+import org.eclipse.e4.ui.tests.workbench.EventTopicSubscriptionsTest;
 import org.eclipse.e4.ui.tests.workbench.ExtensionsSortTests;
 import org.eclipse.e4.ui.tests.workbench.HandlerActivationTest;
 import org.eclipse.e4.ui.tests.workbench.HandlerTest;
 import org.eclipse.e4.ui.tests.workbench.InjectionEventTest;
+import org.eclipse.e4.ui.tests.workbench.ListenerStatisticsTest;
 import org.eclipse.e4.ui.tests.workbench.MApplicationCommandAccessTest;
 import org.eclipse.e4.ui.tests.workbench.MMenuItemTest;
 import org.eclipse.e4.ui.tests.workbench.MPartSashContainerTest;
@@ -39,6 +42,7 @@ import org.eclipse.e4.ui.tests.workbench.ModelAssemblerTests;
 import org.eclipse.e4.ui.tests.workbench.PartOnTopManagerTest;
 import org.eclipse.e4.ui.tests.workbench.PartRenderingEngineTests;
 import org.eclipse.e4.ui.tests.workbench.SashRendererTest;
+import org.eclipse.e4.ui.tests.workbench.ToolItemUpdaterTest;
 import org.eclipse.e4.ui.tests.workbench.TopoSortTests;
 import org.eclipse.e4.ui.workbench.renderers.swt.StackRendererTest;
 import org.eclipse.e4.ui.workbench.renderers.swt.TabStateHandlerTest;
@@ -56,6 +60,7 @@ import org.junit.runners.Suite;
 		InjectionEventTest.class,
 		StartupTestSuite.class,
 		UIEventTypesTest.class,
+		EventTopicSubscriptionsTest.class,
 		Bug299755Test.class,
 		Bug308220Test.class,
 		Bug320857Test.class,
@@ -68,6 +73,8 @@ import org.junit.runners.Suite;
 		MPartSashContainerTest.class,
 		MSaveablePartTest.class,
 		MToolItemTest.class,
+		ToolItemUpdaterTest.class,
+		ListenerStatisticsTest.class,
 		MWindowTest.class,
 		MSashTest.class,
 		HandlerTest.class,
@@ -75,6 +82,7 @@ import org.junit.runners.Suite;
 		Bug308317Test.class,
 		ModelRobustnessTest.class,
 		ResourceHandlerTest.class,
+		ModelJournalTest.class,
 		// Commented out due the bug 505678
 		// PartFocusTest.class,
 		ModelElementTest.class,
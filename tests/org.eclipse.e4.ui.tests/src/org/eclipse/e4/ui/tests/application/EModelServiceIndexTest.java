@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.e4.ui.tests.application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.ui.internal.workbench.ModelServiceImpl;
+import org.eclipse.e4.ui.internal.workbench.swt.E4Application;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.ui.MUIElement;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPerspective;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPerspectiveStack;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPlaceholder;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartSashContainer;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MWindow;
+import org.eclipse.e4.ui.workbench.modeling.EModelService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the results of the model service searches backed by the model index,
+ * comparing them with the results of a model service without index.
+ */
+public class EModelServiceIndexTest {
+
+	private IEclipseContext applicationContext;
+
+	private EModelService modelService;
+
+	/** model service searching the whole tree */
+	private EModelService unindexedService;
+
+	private MApplication app;
+
+	private MWindow window;
+
+	@Before
+	public void setUp() throws Exception {
+		applicationContext = E4Application.createDefaultContext();
+		modelService = applicationContext.get(EModelService.class);
+
+		app = modelService.createModelElement(MApplication.class);
+		app.setContext(applicationContext);
+		applicationContext.set(MApplication.class, app);
+		window = modelService.createModelElement(MWindow.class);
+		app.getChildren().add(window);
+
+		IEclipseContext unindexedContext = applicationContext.createChild();
+		unindexedContext.set(MApplication.class, null);
+		unindexedService = new ModelServiceImpl(unindexedContext);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		applicationContext.dispose();
+	}
+
+	@Test
+	public void testFindAfterIdChange() {
+		MPart part = modelService.createModelElement(MPart.class);
+		window.getChildren().add(part);
+		assertNull(modelService.find("part", window));
+
+		part.setElementId("part");
+		assertSame(part, modelService.find("part", window));
+
+		part.setElementId("other");
+		assertNull(modelService.find("part", window));
+		assertSame(part, modelService.find("other", app));
+	}
+
+	@Test
+	public void testFindAfterMove() {
+		MPartStack stack1 = modelService.createModelElement(MPartStack.class);
+		MPartStack stack2 = modelService.createModelElement(MPartStack.class);
+		window.getChildren().add(stack1);
+		window.getChildren().add(stack2);
+		MPart part = modelService.createModelElement(MPart.class);
+		part.setElementId("part");
+		stack1.getChildren().add(part);
+		assertSame(part, modelService.find("part", stack1));
+
+		stack2.getChildren().add(part);
+		assertNull(modelService.find("part", stack1));
+		assertSame(part, modelService.find("part", stack2));
+
+		stack2.getChildren().remove(part);
+		assertNull(modelService.find("part", window));
+	}
+
+	@Test
+	public void testFindByTag() {
+		MPart part = modelService.createModelElement(MPart.class);
+		window.getChildren().add(part);
+		List<String> tags = Collections.singletonList("tag");
+		assertTrue(modelService.findElements(window, null, MPart.class, tags).isEmpty());
+
+		part.getTags().add("tag");
+		assertEquals(Collections.singletonList(part), modelService.findElements(window, null, MPart.class, tags));
+
+		part.getTags().clear();
+		assertTrue(modelService.findElements(window, null, MPart.class, tags).isEmpty());
+	}
+
+	@Test
+	public void testFindThroughPlaceholder() {
+		MPart shared = modelService.createModelElement(MPart.class);
+		shared.setElementId("shared");
+		window.getSharedElements().add(shared);
+
+		MPerspective perspective = createPerspective();
+		MPlaceholder placeholder = modelService.createModelElement(MPlaceholder.class);
+		perspective.getChildren().add(placeholder);
+		assertNull(modelService.find("shared", perspective));
+
+		placeholder.setRef(shared);
+		assertSame(shared, modelService.find("shared", perspective));
+
+		placeholder.setRef(null);
+		assertNull(modelService.find("shared", perspective));
+	}
+
+	@Test
+	public void testFindThroughPlaceholderToUncontainedElement() {
+		MPart part = modelService.createModelElement(MPart.class);
+		part.setElementId("detached");
+
+		MPerspective perspective = createPerspective();
+		MPlaceholder placeholder = modelService.createModelElement(MPlaceholder.class);
+		placeholder.setRef(part);
+		perspective.getChildren().add(placeholder);
+
+		assertSame(part, modelService.find("detached", perspective));
+	}
+
+	/**
+	 * Build a larger model with repeated ids and check that the lookups agree
+	 * with a linear scan, also after the model changed.
+	 */
+	@Test
+	public void testFindElements_LargeModel() {
+		MPerspectiveStack perspectiveStack = modelService.createModelElement(MPerspectiveStack.class);
+		window.getChildren().add(perspectiveStack);
+		for (int p = 0; p < 10; p++) {
+			MPerspective perspective = modelService.createModelElement(MPerspective.class);
+			perspective.setElementId("perspective." + p);
+			perspectiveStack.getChildren().add(perspective);
+			MPartSashContainer sash = modelService.createModelElement(MPartSashContainer.class);
+			perspective.getChildren().add(sash);
+			for (int s = 0; s < 10; s++) {
+				MPartStack stack = modelService.createModelElement(MPartStack.class);
+				stack.setElementId("stack." + p + "." + s);
+				sash.getChildren().add(stack);
+				for (int i = 0; i < 10; i++) {
+					MPart part = modelService.createModelElement(MPart.class);
+					part.setElementId("part." + s + "." + i);
+					stack.getChildren().add(part);
+				}
+			}
+		}
+
+		String[] ids = { "perspective.9", "stack.5.5", "part.5.5", "part.0.0", "missing.view" };
+		assertSameResults(ids);
+		assertEquals(10, modelService.findElements(window, "part.5.5", MPart.class, null).size());
+
+		// the index follows the removal of a subtree and the change of an id
+		MPerspective perspective = perspectiveStack.getChildren().get(5);
+		perspectiveStack.getChildren().remove(perspective);
+		modelService.find("part.0.0", window).setElementId("renamed.part");
+		assertSameResults(ids);
+		assertEquals(9, modelService.findElements(window, "part.5.5", MPart.class, null).size());
+		assertEquals(1, modelService.findElements(window, "renamed.part", MPart.class, null).size());
+	}
+
+	private void assertSameResults(String[] ids) {
+		for (String id : ids) {
+			assertEquals(id, unindexedService.findElements(window, id, MUIElement.class, null),
+					modelService.findElements(window, id, MUIElement.class, null));
+			int flags = EModelService.IN_ACTIVE_PERSPECTIVE;
+			assertEquals(id, unindexedService.findElements(window, id, MPart.class, null, flags),
+					modelService.findElements(window, id, MPart.class, null, flags));
+		}
+	}
+
+	private MPerspective createPerspective() {
+		MPerspectiveStack perspectiveStack = modelService.createModelElement(MPerspectiveStack.class);
+		window.getChildren().add(perspectiveStack);
+		MPerspective perspective = modelService.createModelElement(MPerspective.class);
+		perspectiveStack.getChildren().add(perspective);
+		return perspective;
+	}
+}
@@ -12,9 +12,13 @@ package org.eclipse.e4.ui.tests.application;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.e4.ui.internal.workbench.ModelServiceImpl;
 import org.eclipse.e4.ui.model.application.descriptor.basic.MPartDescriptor;
 import org.eclipse.e4.ui.model.application.ui.advanced.MPerspective;
 import org.eclipse.e4.ui.model.application.ui.advanced.MPerspectiveStack;
@@ -25,6 +29,7 @@ import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
 import org.eclipse.e4.ui.model.application.ui.basic.MTrimBar;
 import org.eclipse.e4.ui.model.application.ui.basic.MWindow;
 import org.eclipse.e4.ui.workbench.modeling.EModelService;
+import org.eclipse.emf.ecore.EObject;
 import org.junit.Test;
 
 public class EModelServiceTest extends UITest {
@@ -294,4 +299,92 @@ public class EModelServiceTest extends UITest {
 		assertEquals(newPart.getTrimBars().get(0).getElementId(), mPartDescriptor.getTrimBars().get(0).getElementId());
 
 	}
+
+	@Test
+	public void testCloneSnippet_Prepared() {
+		MPerspective snippet = ems.createModelElement(MPerspective.class);
+		snippet.setElementId("test.perspective");
+		snippet.getChildren().add(ems.createModelElement(MPartStack.class));
+		application.getSnippets().add(snippet);
+
+		int adapters = ((EObject) snippet).eAdapters().size();
+		((ModelServiceImpl) ems).prepareSnippet(application, "test.perspective");
+		assertEquals(adapters + 1, ((EObject) snippet).eAdapters().size());
+		MPerspective clone = (MPerspective) ems.cloneSnippet(application, "test.perspective", null);
+
+		assertNotSame(snippet, clone);
+		assertEquals("test.perspective", clone.getElementId());
+		assertEquals(1, clone.getChildren().size());
+		assertEquals(adapters, ((EObject) snippet).eAdapters().size());
+	}
+
+	@Test
+	public void testCloneSnippet_PreparedThenModified() {
+		MPerspective snippet = ems.createModelElement(MPerspective.class);
+		snippet.setElementId("test.perspective");
+		application.getSnippets().add(snippet);
+
+		((ModelServiceImpl) ems).prepareSnippet(application, "test.perspective");
+		snippet.setLabel("modified");
+		MPerspective clone = (MPerspective) ems.cloneSnippet(application, "test.perspective", null);
+
+		assertEquals("modified", clone.getLabel());
+	}
+
+	@Test
+	public void testPrepareSnippet_ModifiedIsDiscarded() {
+		MPerspective snippet = ems.createModelElement(MPerspective.class);
+		snippet.setElementId("test.perspective");
+		application.getSnippets().add(snippet);
+
+		int adapters = ((EObject) snippet).eAdapters().size();
+		((ModelServiceImpl) ems).prepareSnippet(application, "test.perspective");
+		snippet.setLabel("modified");
+
+		assertEquals(adapters, ((EObject) snippet).eAdapters().size());
+	}
+
+	@Test
+	public void testPrepareSnippet_Bounded() {
+		MPerspective[] snippets = new MPerspective[5];
+		for (int i = 0; i < snippets.length; i++) {
+			snippets[i] = ems.createModelElement(MPerspective.class);
+			snippets[i].setElementId("test.perspective" + i);
+			application.getSnippets().add(snippets[i]);
+		}
+		int adapters = ((EObject) snippets[0]).eAdapters().size();
+		for (int i = 0; i < snippets.length; i++) {
+			((ModelServiceImpl) ems).prepareSnippet(application, "test.perspective" + i);
+		}
+
+		// only the last prepared snippets are kept
+		assertEquals(adapters, ((EObject) snippets[0]).eAdapters().size());
+		for (int i = 1; i < snippets.length; i++) {
+			assertEquals(adapters + 1, ((EObject) snippets[i]).eAdapters().size());
+		}
+	}
+
+	@Test
+	public void testPrepareSnippets_FirstOnly() {
+		MPerspective[] snippets = new MPerspective[5];
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < snippets.length; i++) {
+			snippets[i] = ems.createModelElement(MPerspective.class);
+			snippets[i].setElementId("test.perspective" + i);
+			application.getSnippets().add(snippets[i]);
+			ids.add("test.perspective" + i);
+		}
+		// an unknown snippet doesn't count
+		ids.add(0, "test.unknown");
+		int adapters = ((EObject) snippets[0]).eAdapters().size();
+
+		// preparing the list again doesn't evict what it prepared
+		((ModelServiceImpl) ems).prepareSnippets(application, ids);
+		((ModelServiceImpl) ems).prepareSnippets(application, ids);
+
+		for (int i = 0; i < snippets.length - 1; i++) {
+			assertEquals(adapters + 1, ((EObject) snippets[i]).eAdapters().size());
+		}
+		assertEquals(adapters, ((EObject) snippets[snippets.length - 1]).eAdapters().size());
+	}
 }
@@ -11,14 +11,26 @@
 
 package org.eclipse.e4.ui.tests.application;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import org.eclipse.e4.ui.model.application.MApplicationElement;
 import org.eclipse.e4.ui.model.application.impl.ApplicationPackageImpl;
+import org.eclipse.e4.ui.model.application.ui.basic.MBasicFactory;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.model.internal.LazyEMapView;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EPackage;
 import org.junit.Test;
 
@@ -96,4 +108,52 @@ public class ModelElementTest {
 			checkPackageForOptimalBaseClass(failedClasses, subPackage);
 		}
 	}
+
+	@Test
+	public void testMapsNotAllocatedOnRead() {
+		List<MPart> parts = new ArrayList<MPart>();
+		for (int i = 0; i < 20000; i++) {
+			MPart part = MBasicFactory.INSTANCE.createPart();
+			assertNull(part.getPersistedState().get("key"));
+			assertFalse(part.getTransientData().containsKey("key"));
+			assertTrue(part.getPersistedState().isEmpty());
+			parts.add(part);
+		}
+		for (MPart part : parts) {
+			assertTrue(part.getPersistedState() instanceof LazyEMapView);
+			assertTrue(part.getTransientData() instanceof LazyEMapView);
+			assertFalse(((EObject) part).eIsSet(ApplicationPackageImpl.Literals.APPLICATION_ELEMENT__PERSISTED_STATE));
+		}
+	}
+
+	@Test
+	public void testMapAllocatedOnWrite() {
+		MPart part = MBasicFactory.INSTANCE.createPart();
+		final List<Notification> notifications = new ArrayList<Notification>();
+		((EObject) part).eAdapters().add(new AdapterImpl() {
+			@Override
+			public void notifyChanged(Notification msg) {
+				notifications.add(msg);
+			}
+		});
+
+		Map<String, String> state = part.getPersistedState();
+		state.put("key", "value");
+
+		assertEquals("value", part.getPersistedState().get("key"));
+		assertEquals(1, state.size());
+		assertFalse(part.getPersistedState() instanceof LazyEMapView);
+		assertTrue(((EObject) part).eIsSet(ApplicationPackageImpl.Literals.APPLICATION_ELEMENT__PERSISTED_STATE));
+		assertEquals(1, notifications.size());
+	}
+
+	@Test
+	public void testMapKeysInterned() {
+		MPart part = MBasicFactory.INSTANCE.createPart();
+		part.getPersistedState().put(new String("key"), "value");
+		part.getTransientData().put(new String("key"), "value");
+
+		assertSame("key", part.getPersistedState().keySet().iterator().next());
+		assertSame("key", part.getTransientData().keySet().iterator().next());
+	}
 }
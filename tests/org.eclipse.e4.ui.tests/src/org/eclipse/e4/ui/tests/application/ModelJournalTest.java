@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.e4.ui.tests.application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import org.eclipse.e4.ui.internal.workbench.E4XMIResource;
+import org.eclipse.e4.ui.internal.workbench.E4XMIResourceFactory;
+import org.eclipse.e4.ui.internal.workbench.ModelJournal;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.MApplicationFactory;
+import org.eclipse.e4.ui.model.application.ui.basic.MBasicFactory;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MWindow;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ModelJournalTest {
+
+	private E4XMIResourceFactory factory;
+
+	private E4XMIResource liveResource;
+
+	private MApplication app;
+
+	private MPartStack stack;
+
+	private MPart part;
+
+	private File journalFile;
+
+	private ModelJournal journal;
+
+	@Before
+	public void setUp() throws Exception {
+		factory = new E4XMIResourceFactory();
+		liveResource = (E4XMIResource) factory.createResource(URI.createURI("live.xmi"));
+		app = MApplicationFactory.INSTANCE.createApplication();
+		MWindow window = MBasicFactory.INSTANCE.createWindow();
+		app.getChildren().add(window);
+		stack = MBasicFactory.INSTANCE.createPartStack();
+		window.getChildren().add(stack);
+		part = MBasicFactory.INSTANCE.createPart();
+		part.setLabel("before");
+		stack.getChildren().add(part);
+		liveResource.getContents().add((EObject) app);
+
+		journalFile = File.createTempFile("workbench", ".journal");
+		journal = new ModelJournal(journalFile, liveResource);
+	}
+
+	@After
+	public void tearDown() {
+		journal.dispose();
+		journalFile.delete();
+	}
+
+	@Test
+	public void testReplayOnSnapshot() throws Exception {
+		E4XMIResource snapshotResource = saveSnapshot();
+		assertTrue(journal.canAppend());
+
+		part.setLabel("after");
+		part.getPersistedState().put("key", "value");
+		stack.setSelectedElement(part);
+		journal.append(journal.takeChanges());
+
+		assertEquals(3, ModelJournal.replay(journalFile, snapshotResource));
+		MPartStack restoredStack = (MPartStack) snapshotResource.getEObject(liveResource.getID((EObject) stack));
+		MPart restoredPart = (MPart) restoredStack.getChildren().get(0);
+		assertEquals("after", restoredPart.getLabel());
+		assertEquals("value", restoredPart.getPersistedState().get("key"));
+		assertEquals(restoredPart, restoredStack.getSelectedElement());
+	}
+
+	@Test
+	public void testChangesAreCoalesced() throws Exception {
+		saveSnapshot();
+		part.setLabel("first");
+		part.setLabel("second");
+		part.getPersistedState().put("key", "value");
+		part.getPersistedState().remove("key");
+		assertEquals(2, journal.takeChanges().size());
+		assertTrue(journal.takeChanges().isEmpty());
+	}
+
+	@Test
+	public void testStructuralChangeRequiresSnapshot() throws Exception {
+		saveSnapshot();
+		stack.getChildren().add(MBasicFactory.INSTANCE.createPart());
+		assertFalse(journal.canAppend());
+
+		saveSnapshot();
+		assertTrue(journal.canAppend());
+	}
+
+	@Test
+	public void testChangeDoesNotAssignIds() throws Exception {
+		saveSnapshot();
+		MPart newPart = MBasicFactory.INSTANCE.createPart();
+		stack.getChildren().add(newPart);
+		newPart.setLabel("label");
+		stack.setSelectedElement(newPart);
+
+		assertNull(liveResource.getEObjectToIDMap().get(newPart));
+		assertFalse(journal.canAppend());
+		assertTrue(journal.takeChanges().isEmpty());
+	}
+
+	@Test
+	public void testTruncatedEntryIsIgnored() throws Exception {
+		E4XMIResource snapshotResource = saveSnapshot();
+		part.setLabel("after");
+		journal.append(journal.takeChanges());
+		part.setTooltip("tooltip");
+		journal.append(journal.takeChanges());
+		try (RandomAccessFile file = new RandomAccessFile(journalFile, "rw")) {
+			file.setLength(file.length() - 3);
+		}
+
+		assertEquals(1, ModelJournal.replay(journalFile, snapshotResource));
+		MPart restoredPart = (MPart) snapshotResource.getEObject(liveResource.getID((EObject) part));
+		assertEquals("after", restoredPart.getLabel());
+		assertNull(restoredPart.getTooltip());
+	}
+
+	@Test
+	public void testJournalOfOtherSnapshotIsIgnored() throws Exception {
+		E4XMIResource oldSnapshot = saveSnapshot();
+		saveSnapshot();
+		part.setLabel("after");
+		journal.append(journal.takeChanges());
+
+		assertEquals(0, ModelJournal.replay(journalFile, oldSnapshot));
+	}
+
+	private E4XMIResource saveSnapshot() throws Exception {
+		MApplication copy = (MApplication) EcoreUtil.copy((EObject) app);
+		ModelJournal.Snapshot snapshot = journal.startSnapshot(app, copy);
+		E4XMIResource snapshotResource = (E4XMIResource) factory.createResource(URI.createURI("snapshot.xmi"));
+		snapshotResource.getContents().add((EObject) copy);
+		snapshot.assignIds(snapshotResource);
+		journal.snapshotSaved(snapshot);
+		return snapshotResource;
+	}
+}
@@ -17,11 +17,15 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Iterator;
 import java.util.List;
 import org.eclipse.e4.core.contexts.ContextInjectionFactory;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.ui.internal.workbench.E4Workbench;
 import org.eclipse.e4.ui.internal.workbench.E4XMIResource;
+import org.eclipse.e4.ui.internal.workbench.E4XMIResourceFactory;
 import org.eclipse.e4.ui.internal.workbench.ResourceHandler;
 import org.eclipse.e4.ui.model.application.MApplication;
 import org.eclipse.e4.ui.model.application.ui.menu.MMenu;
@@ -29,6 +33,7 @@ import org.eclipse.e4.ui.model.application.ui.menu.MMenuElement;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.osgi.service.datalocation.Location;
 import org.junit.Test;
 import org.osgi.framework.BundleContext;
@@ -159,6 +164,38 @@ public class ResourceHandlerTest extends HeadlessStartupTest {
 		assertNotNull(findByElementId(menu2.getChildren(), "fragment.contributedMenuItem.xpath"));
 	}
 
+	@Test
+	public void testBinaryFormatRoundTrip() throws Exception {
+		URI uri = URI.createPlatformPluginURI("org.eclipse.e4.ui.tests/xmi/modelprocessor/base.e4xmi", true);
+		E4XMIResource xmiResource = (E4XMIResource) new E4XMIResourceFactory().createResource(uri);
+		xmiResource.load(null);
+
+		E4XMIResourceFactory binaryFactory = new E4XMIResourceFactory(true);
+		E4XMIResource binaryResource = (E4XMIResource) binaryFactory
+				.createResource(URI.createURI("workbench.e4bin"));
+		binaryResource.getContents().addAll(EcoreUtil.copyAll(xmiResource.getContents()));
+		Iterator<EObject> source = xmiResource.getAllContents();
+		for (Iterator<EObject> it = binaryResource.getAllContents(); it.hasNext();) {
+			EObject eObject = it.next();
+			String id = xmiResource.getID(source.next());
+			if (id != null) {
+				binaryResource.setID(eObject, id);
+			}
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		binaryResource.save(out, null);
+
+		E4XMIResource loaded = (E4XMIResource) binaryFactory.createResource(URI.createURI("workbench.e4bin"));
+		loaded.load(new ByteArrayInputStream(out.toByteArray()), null);
+
+		assertTrue(loaded.getContents().get(0) instanceof MApplication);
+		assertTrue(EcoreUtil.equals(xmiResource.getContents(), loaded.getContents()));
+		source = xmiResource.getAllContents();
+		for (Iterator<EObject> it = loaded.getAllContents(); it.hasNext();) {
+			assertEquals(xmiResource.getID(source.next()), loaded.getID(it.next()));
+		}
+	}
+
 	/**
 	 * @param children
 	 * @param id
@@ -15,9 +15,12 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.services.events.IEventBroker;
+import org.eclipse.e4.ui.internal.workbench.UIEventPublisher;
 import org.eclipse.e4.ui.model.application.MApplication;
 import org.eclipse.e4.ui.model.application.MApplicationElement;
 import org.eclipse.e4.ui.model.application.MApplicationFactory;
@@ -34,6 +37,7 @@ import org.osgi.service.event.Event;
 public class UIEventTypesTest extends HeadlessApplicationElementTest {
 	private Event event;
 	private int eventCount;
+	private List<Object> eventTypes = new ArrayList<>();
 
 	@Override
 	protected MApplicationElement createApplicationElement(IEclipseContext appContext) throws Exception {
@@ -50,10 +54,12 @@ public class UIEventTypesTest extends HeadlessApplicationElementTest {
 		eventCount = 0;
 		appEB.subscribe(UIEvents.ApplicationElement.TOPIC_TAGS, event -> {
 			eventCount++;
+			eventTypes.add(event.getProperty(UIEvents.EventTags.TYPE));
 			UIEventTypesTest.this.event = event;
 		});
 		appEB.subscribe(UIEvents.ApplicationElement.TOPIC_ELEMENTID, event -> {
 			eventCount++;
+			eventTypes.add(event.getProperty(UIEvents.EventTags.TYPE));
 			UIEventTypesTest.this.event = event;
 		});
 
@@ -198,4 +204,89 @@ public class UIEventTypesTest extends HeadlessApplicationElementTest {
 		assertEquals(null, event.getProperty(UIEvents.EventTags.NEW_VALUE));
 	}
 
+	@Test
+	public void testBatchCoalescesSet() {
+		UIEventPublisher publisher = applicationContext.get(UIEventPublisher.class);
+		publisher.beginBatch();
+		applicationElement.setElementId("aaa");
+		applicationElement.setElementId("bbb");
+		applicationElement.getTags().add("0");
+		assertEquals(0, eventCount);
+		publisher.endBatch();
+
+		// the SET events are merged and delivered in first position
+		assertEquals(2, eventCount);
+		assertEquals(UIEvents.EventTypes.ADD, event.getProperty(UIEvents.EventTags.TYPE));
+	}
+
+	@Test
+	public void testBatchDropsRevertedSet() {
+		UIEventPublisher publisher = applicationContext.get(UIEventPublisher.class);
+		publisher.beginBatch();
+		publisher.beginBatch();
+		applicationElement.setElementId("aaa");
+		publisher.endBatch();
+		applicationElement.setElementId(null);
+		assertEquals(0, eventCount);
+		publisher.endBatch();
+
+		assertEquals(0, eventCount);
+
+		applicationElement.setElementId("aaa");
+		assertEquals(1, eventCount);
+	}
+
+	@Test
+	public void testBatchSetValues() {
+		UIEventPublisher publisher = applicationContext.get(UIEventPublisher.class);
+		applicationElement.setElementId("aaa");
+		eventCount = 0;
+
+		publisher.beginBatch();
+		applicationElement.setElementId("bbb");
+		applicationElement.setElementId("ccc");
+		publisher.endBatch();
+
+		assertEquals(1, eventCount);
+		assertEquals("aaa", event.getProperty(UIEvents.EventTags.OLD_VALUE));
+		assertEquals("ccc", event.getProperty(UIEvents.EventTags.NEW_VALUE));
+	}
+
+	@Test
+	public void testBatchKeepsOrder() {
+		UIEventPublisher publisher = applicationContext.get(UIEventPublisher.class);
+		publisher.beginBatch();
+		applicationElement.setElementId("aaa");
+		applicationElement.getTags().add("0");
+		applicationElement.setElementId("bbb");
+		publisher.endBatch();
+
+		// the SET events are not merged across the ADD event
+		assertEquals(Arrays.asList(UIEvents.EventTypes.SET, UIEvents.EventTypes.ADD, UIEvents.EventTypes.SET),
+				eventTypes);
+		assertEquals("aaa", event.getProperty(UIEvents.EventTags.OLD_VALUE));
+		assertEquals("bbb", event.getProperty(UIEvents.EventTags.NEW_VALUE));
+	}
+
+	@Test
+	public void testBatchOtherThread() throws Exception {
+		UIEventPublisher publisher = applicationContext.get(UIEventPublisher.class);
+		publisher.beginBatch();
+		Thread thread = new Thread(() -> {
+			publisher.beginBatch();
+			applicationElement.setElementId("aaa");
+			publisher.endBatch();
+		});
+		thread.start();
+		thread.join();
+
+		// the events of the other thread are delivered directly
+		assertEquals(1, eventCount);
+		assertTrue(publisher.isBatching());
+		applicationElement.getTags().add("0");
+		assertEquals(1, eventCount);
+		publisher.endBatch();
+
+		assertEquals(2, eventCount);
+	}
 }
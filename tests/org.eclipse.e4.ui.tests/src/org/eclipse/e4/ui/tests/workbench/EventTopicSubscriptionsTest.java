@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.e4.ui.tests.workbench;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Dictionary;
+import java.util.Hashtable;
+import org.eclipse.e4.ui.internal.workbench.EventTopicSubscriptions;
+import org.eclipse.e4.ui.tests.Activator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.service.event.EventConstants;
+import org.osgi.service.event.EventHandler;
+
+public class EventTopicSubscriptionsTest {
+
+	private BundleContext bundleContext;
+	private EventTopicSubscriptions subscriptions;
+
+	@Before
+	public void setUp() {
+		bundleContext = Activator.getDefault().getBundle().getBundleContext();
+		subscriptions = new EventTopicSubscriptions(bundleContext);
+		subscriptions.open();
+	}
+
+	@After
+	public void tearDown() {
+		subscriptions.close();
+	}
+
+	@Test
+	public void testExactTopic() {
+		String topic = "e4/test/subscriptions/exact";
+		assertFalse(subscriptions.hasSubscribers(topic));
+
+		ServiceRegistration<EventHandler> registration = register(topic);
+		assertTrue(subscriptions.hasSubscribers(topic));
+		assertFalse(subscriptions.hasSubscribers(topic + "/other"));
+
+		registration.unregister();
+		assertFalse(subscriptions.hasSubscribers(topic));
+	}
+
+	@Test
+	public void testWildcardTopic() {
+		String topic = "e4/test/subscriptions/wildcard/SET";
+		assertFalse(subscriptions.hasSubscribers(topic));
+
+		ServiceRegistration<EventHandler> registration = register("e4/test/subscriptions/*");
+		assertTrue(subscriptions.hasSubscribers(topic));
+		assertFalse(subscriptions.hasSubscribers("e4/test/other/SET"));
+
+		registration.unregister();
+		assertFalse(subscriptions.hasSubscribers(topic));
+	}
+
+	@Test
+	public void testModifiedTopics() {
+		ServiceRegistration<EventHandler> registration = register("e4/test/subscriptions/before");
+		assertTrue(subscriptions.hasSubscribers("e4/test/subscriptions/before"));
+
+		Dictionary<String, Object> properties = new Hashtable<>();
+		properties.put(EventConstants.EVENT_TOPIC, new String[] { "e4/test/subscriptions/after" });
+		registration.setProperties(properties);
+		assertFalse(subscriptions.hasSubscribers("e4/test/subscriptions/before"));
+		assertTrue(subscriptions.hasSubscribers("e4/test/subscriptions/after"));
+
+		registration.unregister();
+		assertFalse(subscriptions.hasSubscribers("e4/test/subscriptions/after"));
+	}
+
+	private ServiceRegistration<EventHandler> register(String topic) {
+		Dictionary<String, Object> properties = new Hashtable<>();
+		properties.put(EventConstants.EVENT_TOPIC, topic);
+		EventHandler handler = event -> {
+		};
+		return bundleContext.registerService(EventHandler.class, handler, properties);
+	}
+}
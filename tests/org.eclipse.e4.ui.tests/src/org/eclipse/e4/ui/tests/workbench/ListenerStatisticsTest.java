@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.e4.ui.tests.workbench;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.List;
+import org.eclipse.e4.ui.di.UISynchronize;
+import org.eclipse.e4.ui.internal.services.ListenerStatistics;
+import org.eclipse.e4.ui.internal.services.ListenerStatistics.Entry;
+import org.eclipse.e4.ui.services.internal.events.UIEventHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.service.event.Event;
+import org.osgi.service.event.EventHandler;
+
+public class ListenerStatisticsTest {
+
+	private static final String BUNDLE = "org.eclipse.e4.ui.tests";
+
+	static class FirstListener {
+	}
+
+	static class SecondListener {
+	}
+
+	static class FailingHandler implements EventHandler {
+		@Override
+		public void handleEvent(Event event) {
+			throw new IllegalStateException();
+		}
+	}
+
+	/** runs the runnables on the calling thread */
+	static class InlineSynchronize extends UISynchronize {
+		@Override
+		public void syncExec(Runnable runnable) {
+			runnable.run();
+		}
+
+		@Override
+		public void asyncExec(Runnable runnable) {
+			runnable.run();
+		}
+	}
+
+	private boolean wasEnabled;
+
+	@Before
+	public void setUp() {
+		wasEnabled = ListenerStatistics.isEnabled();
+		ListenerStatistics.reset();
+		ListenerStatistics.setEnabled(true);
+	}
+
+	@After
+	public void tearDown() {
+		ListenerStatistics.setEnabled(wasEnabled);
+		ListenerStatistics.reset();
+	}
+
+	private static void notify(String kind, Object listener) {
+		long start = ListenerStatistics.start();
+		ListenerStatistics.end(kind, listener, start);
+	}
+
+	private static Entry getEntry(String kind, Class<?> listenerClass) {
+		for (Entry entry : ListenerStatistics.getEntries()) {
+			if (entry.getKind().equals(kind) && entry.getListenerClass() == listenerClass) {
+				return entry;
+			}
+		}
+		fail("no entry for " + kind + " " + listenerClass.getName());
+		return null;
+	}
+
+	@Test
+	public void testAttribution() {
+		notify(ListenerStatistics.PART, new FirstListener());
+		notify(ListenerStatistics.PART, new FirstListener());
+		notify(ListenerStatistics.SELECTION, new FirstListener());
+		notify(ListenerStatistics.PART, new SecondListener());
+
+		List<Entry> entries = ListenerStatistics.getEntries();
+		assertEquals(3, entries.size());
+
+		Entry first = getEntry(ListenerStatistics.PART, FirstListener.class);
+		assertEquals(2, first.getCount());
+		assertEquals(BUNDLE, first.getBundle());
+		assertTrue(first.getMaxTime() <= first.getTotalTime());
+		assertEquals(1, getEntry(ListenerStatistics.SELECTION, FirstListener.class).getCount());
+		assertEquals(1, getEntry(ListenerStatistics.PART, SecondListener.class).getCount());
+
+		// the longest total time first
+		for (int i = 1; i < entries.size(); i++) {
+			assertTrue(entries.get(i - 1).getTotalTime() >= entries.get(i).getTotalTime());
+		}
+	}
+
+	@Test
+	public void testDisabled() {
+		ListenerStatistics.setEnabled(false);
+		assertEquals(0, ListenerStatistics.start());
+		notify(ListenerStatistics.PART, new FirstListener());
+		assertEquals(Collections.emptyList(), ListenerStatistics.getEntries());
+
+		// a notification started while recording is still recorded
+		ListenerStatistics.setEnabled(true);
+		long start = ListenerStatistics.start();
+		ListenerStatistics.setEnabled(false);
+		ListenerStatistics.end(ListenerStatistics.PART, new FirstListener(), start);
+		assertEquals(1, getEntry(ListenerStatistics.PART, FirstListener.class).getCount());
+	}
+
+	@Test
+	public void testDumpAggregatesBundles() {
+		notify(ListenerStatistics.PART, new FirstListener());
+		notify(ListenerStatistics.EVENT, new SecondListener());
+
+		String dump = ListenerStatistics.dump(10);
+		String byBundle = dump.substring(dump.indexOf("By bundle:"), dump.indexOf("By listener:"));
+		// both classes are counted under their bundle
+		assertEquals(byBundle.indexOf(BUNDLE), byBundle.lastIndexOf(BUNDLE));
+		assertTrue(byBundle.matches("(?s).*" + BUNDLE.replace(".", "\\.") + "\\s+2\\s.*"));
+		assertTrue(dump.contains(FirstListener.class.getName()));
+		assertTrue(dump.contains(SecondListener.class.getName()));
+
+		// the header, then one bundle and one listener
+		assertEquals(5, ListenerStatistics.dump(1).split("\\R").length);
+	}
+
+	@Test
+	public void testUIEventHandlerRecordsFailingHandler() {
+		FailingHandler handler = new FailingHandler();
+		UIEventHandler uiHandler = new UIEventHandler(handler, new InlineSynchronize());
+		try {
+			uiHandler.handleEvent(new Event("test/topic", Collections.<String, Object> emptyMap()));
+			fail("the exception of the handler is expected");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+
+		Entry entry = getEntry(ListenerStatistics.EVENT, FailingHandler.class);
+		assertEquals(1, entry.getCount());
+		assertSame(FailingHandler.class, entry.getListenerClass());
+	}
+}
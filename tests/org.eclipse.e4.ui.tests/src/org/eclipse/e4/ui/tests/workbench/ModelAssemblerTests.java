@@ -350,6 +350,41 @@ public class ModelAssemblerTests {
 		verifyZeroInteractions(logger);
 	}
 
+	/**
+	 * Tests that the fragments of several contributions, which are loaded
+	 * concurrently, are all merged into the application model.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testFragments_multipleFragments() throws Exception {
+		MTrimmedWindow trimmedWindow = MBasicFactory.INSTANCE.createTrimmedWindow();
+		trimmedWindow.setElementId("testMultipleFragments-trimmedWindow");
+		application.getChildren().add(trimmedWindow);
+		MArea area = MAdvancedFactory.INSTANCE.createArea();
+		area.setElementId("testMultipleFragments-area");
+		trimmedWindow.getChildren().add(area);
+
+		IContributor contributor = ContributorFactorySimple.createContributor(BUNDLE_SYMBOLIC_NAME);
+		IExtensionRegistry registry = createTestExtensionRegistry();
+		assertEquals(0, registry.getConfigurationElementsFor(EXTENSION_POINT_ID).length);
+		String dataFilePath = "org.eclipse.e4.ui.tests/data/ModelAssembler/multipleFragments.xml";
+		registry.addContribution(getContentsAsInputStream(dataFilePath), contributor, false, null, null, null);
+
+		assembler.processModel(true);
+
+		assertEquals(3, area.getChildren().size());
+		for (int i = 0; i < 3; i++) {
+			assertEquals("testMultipleFragments-part" + (i + 1), area.getChildren().get(i).getElementId());
+		}
+		for (int i = 1; i <= 3; i++) {
+			URI uri = URI.createPlatformPluginURI(
+					BUNDLE_SYMBOLIC_NAME + "/data/ModelAssembler/multipleFragments-" + i + ".e4xmi", false);
+			assertTrue(resourceSet.getResource(uri, false) != null);
+		}
+		verifyZeroInteractions(logger);
+	}
+
 	/**
 	 * Tests that pre-processors running from a non-persisted state that are
 	 * marked as "always" are executed.
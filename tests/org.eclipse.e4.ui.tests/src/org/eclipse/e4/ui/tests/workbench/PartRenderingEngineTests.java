@@ -26,6 +26,7 @@ import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.ui.di.UISynchronize;
 import org.eclipse.e4.ui.internal.workbench.E4Workbench;
 import org.eclipse.e4.ui.internal.workbench.swt.E4Application;
+import org.eclipse.e4.ui.internal.workbench.swt.LazyRendering;
 import org.eclipse.e4.ui.internal.workbench.swt.PartRenderingEngine;
 import org.eclipse.e4.ui.model.application.MApplication;
 import org.eclipse.e4.ui.model.application.descriptor.basic.MPartDescriptor;
@@ -226,6 +227,42 @@ public class PartRenderingEngineTests {
 				1, tabFolder.getSelectionIndex());
 	}
 
+	@Test
+	public void testPartStack_LazyRenderingStatistics() throws Exception {
+		MApplication application = ems.createModelElement(MApplication.class);
+		application.setContext(appContext);
+		appContext.set(MApplication.class, application);
+
+		MWindow window = ems.createModelElement(MWindow.class);
+		application.getChildren().add(window);
+
+		MPartStack stack = ems.createModelElement(MPartStack.class);
+		window.getChildren().add(stack);
+
+		MPart partA = ems.createModelElement(MPart.class);
+		partA.setContributionURI("bundleclass://org.eclipse.e4.ui.tests/org.eclipse.e4.ui.tests.workbench.SampleView");
+		MPart partB = ems.createModelElement(MPart.class);
+		partB.setContributionURI("bundleclass://org.eclipse.e4.ui.tests/org.eclipse.e4.ui.tests.workbench.SampleView");
+		stack.getChildren().add(partA);
+		stack.getChildren().add(partB);
+
+		wb = new E4Workbench(application, appContext);
+		wb.createAndRunUI(window);
+
+		LazyRendering lazyRendering = appContext.get(LazyRendering.class);
+		assertNotNull(lazyRendering);
+		assertNotNull(partA.getWidget());
+		assertNull(partB.getWidget());
+		assertTrue(lazyRendering.isDeferred(partB));
+		int avoided = lazyRendering.getAvoidedCount();
+		assertTrue(avoided > 0);
+
+		stack.setSelectedElement(partB);
+		assertNotNull(partB.getWidget());
+		assertFalse(lazyRendering.isDeferred(partB));
+		assertEquals(avoided - 1, lazyRendering.getAvoidedCount());
+	}
+
 	@Test
 	public void testPartStack_SetActiveChild2Bug299379() throws Exception {
 		MApplication application = ems.createModelElement(MApplication.class);
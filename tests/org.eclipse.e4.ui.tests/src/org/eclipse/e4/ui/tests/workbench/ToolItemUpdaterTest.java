@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.tests.workbench;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import org.eclipse.e4.core.commands.CommandServiceAddon;
+import org.eclipse.e4.core.commands.EHandlerService;
+import org.eclipse.e4.core.contexts.ContextInjectionFactory;
+import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.core.di.annotations.CanExecute;
+import org.eclipse.e4.core.di.annotations.Execute;
+import org.eclipse.e4.ui.bindings.BindingServiceAddon;
+import org.eclipse.e4.ui.internal.workbench.E4Workbench;
+import org.eclipse.e4.ui.internal.workbench.IEnablementVariables;
+import org.eclipse.e4.ui.internal.workbench.VariablesChangedSelector;
+import org.eclipse.e4.ui.internal.workbench.addons.CommandProcessingAddon;
+import org.eclipse.e4.ui.internal.workbench.addons.HandlerProcessingAddon;
+import org.eclipse.e4.ui.internal.workbench.swt.E4Application;
+import org.eclipse.e4.ui.internal.workbench.swt.PartRenderingEngine;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.commands.MCommand;
+import org.eclipse.e4.ui.model.application.commands.MHandler;
+import org.eclipse.e4.ui.model.application.ui.basic.MTrimBar;
+import org.eclipse.e4.ui.model.application.ui.basic.MTrimmedWindow;
+import org.eclipse.e4.ui.model.application.ui.menu.MHandledToolItem;
+import org.eclipse.e4.ui.model.application.ui.menu.MToolBar;
+import org.eclipse.e4.ui.services.ContextServiceAddon;
+import org.eclipse.e4.ui.workbench.modeling.EModelService;
+import org.eclipse.e4.ui.workbench.renderers.swt.HandledContributionItem;
+import org.eclipse.e4.ui.workbench.renderers.swt.ToolBarManagerRenderer;
+import org.eclipse.e4.ui.workbench.renderers.swt.ToolItemUpdater;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.swt.widgets.ToolItem;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ToolItemUpdaterTest {
+	private static final String VARIABLE = "testVariable";
+	private static final String OTHER_VARIABLE = "testOtherVariable";
+
+	protected IEclipseContext appContext;
+	protected E4Workbench wb;
+	private EModelService ems;
+	private MApplication application;
+	private MTrimmedWindow window;
+	private MToolBar toolBar;
+
+	public static class TestHandler implements IEnablementVariables {
+		String[] variables;
+		int checks;
+
+		public TestHandler(String... variables) {
+			this.variables = variables;
+		}
+
+		@CanExecute
+		public boolean canExecute() {
+			checks++;
+			return true;
+		}
+
+		@Execute
+		public void execute() {
+		}
+
+		@Override
+		public String[] getEnablementVariables() {
+			return variables;
+		}
+	}
+
+	@Before
+	public void setUp() {
+		appContext = E4Application.createDefaultContext();
+		ContextInjectionFactory.make(CommandServiceAddon.class, appContext);
+		ContextInjectionFactory.make(ContextServiceAddon.class, appContext);
+		ContextInjectionFactory.make(BindingServiceAddon.class, appContext);
+		appContext.set(E4Workbench.PRESENTATION_URI_ARG, PartRenderingEngine.engineURI);
+		ems = appContext.get(EModelService.class);
+
+		window = ems.createModelElement(MTrimmedWindow.class);
+		MTrimBar trimBar = ems.createModelElement(MTrimBar.class);
+		toolBar = ems.createModelElement(MToolBar.class);
+		window.getTrimBars().add(trimBar);
+		trimBar.getChildren().add(toolBar);
+
+		application = ems.createModelElement(MApplication.class);
+		application.getChildren().add(window);
+		application.setContext(appContext);
+		appContext.set(MApplication.class, application);
+	}
+
+	@After
+	public void tearDown() {
+		if (wb != null) {
+			wb.close();
+		}
+		appContext.dispose();
+	}
+
+	private MHandledToolItem createToolItem(String commandId, Object handlerObject) {
+		MCommand command = ems.createModelElement(MCommand.class);
+		command.setElementId(commandId);
+		command.setCommandName(commandId);
+		application.getCommands().add(command);
+
+		MHandler handler = ems.createModelElement(MHandler.class);
+		handler.setCommand(command);
+		handler.setObject(handlerObject);
+		window.getHandlers().add(handler);
+
+		MHandledToolItem toolItem = ems.createModelElement(MHandledToolItem.class);
+		toolItem.setLabel(commandId);
+		toolItem.setCommand(command);
+		toolBar.getChildren().add(toolItem);
+		return toolItem;
+	}
+
+	private void render() {
+		// The handler processing addon cannot run until the context
+		// contains the MApplication
+		ContextInjectionFactory.make(CommandProcessingAddon.class, appContext);
+		ContextInjectionFactory.make(HandlerProcessingAddon.class, appContext);
+
+		wb = new E4Workbench(window, appContext);
+		wb.createAndRunUI(window);
+	}
+
+	private static HandledContributionItem getContributionItem(MHandledToolItem toolItem) {
+		return (HandledContributionItem) ((ToolItem) toolItem.getWidget()).getData();
+	}
+
+	@Test
+	public void testUpdateContributionItems_ChangedVariables() {
+		TestHandler dependentHandler = new TestHandler(VARIABLE);
+		TestHandler unknownHandler = new TestHandler((String[]) null);
+		createToolItem("testUpdateContributionItems.dependent", dependentHandler);
+		createToolItem("testUpdateContributionItems.unknown", unknownHandler);
+		render();
+
+		ToolItemUpdater updater = ((ToolBarManagerRenderer) toolBar.getRenderer()).getUpdater();
+		// the first update finds the handlers of the items
+		updater.updateContributionItems(Collections.singleton(OTHER_VARIABLE));
+		dependentHandler.checks = 0;
+		unknownHandler.checks = 0;
+
+		updater.updateContributionItems(Collections.singleton(OTHER_VARIABLE));
+		assertEquals(0, dependentHandler.checks);
+		assertEquals(1, unknownHandler.checks);
+
+		updater.updateContributionItems(Collections.singleton(VARIABLE));
+		assertEquals(1, dependentHandler.checks);
+		assertEquals(2, unknownHandler.checks);
+	}
+
+	@Test
+	public void testIsEnablementAffectedBy() {
+		TestHandler handler = new TestHandler(VARIABLE);
+		MHandledToolItem toolItem = createToolItem("testIsEnablementAffectedBy", handler);
+		render();
+
+		HandledContributionItem item = getContributionItem(toolItem);
+		VariablesChangedSelector variable = new VariablesChangedSelector(Collections.singleton(VARIABLE));
+		VariablesChangedSelector otherVariable = new VariablesChangedSelector(
+				Collections.singleton(OTHER_VARIABLE));
+
+		// checking the dependencies doesn't change the model
+		final int[] notifications = new int[1];
+		((EObject) toolItem).eAdapters().add(new AdapterImpl() {
+			@Override
+			public void notifyChanged(Notification msg) {
+				notifications[0]++;
+			}
+		});
+
+		// the handler hasn't been checked yet
+		assertTrue(item.isEnablementAffectedBy(otherVariable));
+		assertFalse(item.isEnablementAffectedBy(otherVariable));
+		assertTrue(item.isEnablementAffectedBy(variable));
+
+		handler.variables = null;
+		assertTrue(item.isEnablementAffectedBy(otherVariable));
+		assertEquals(0, notifications[0]);
+	}
+
+	@Test
+	public void testIsEnablementAffectedBy_HandlerChanged() {
+		MHandledToolItem toolItem = createToolItem("testIsEnablementAffectedBy_HandlerChanged",
+				new TestHandler(VARIABLE));
+		render();
+
+		HandledContributionItem item = getContributionItem(toolItem);
+		VariablesChangedSelector otherVariable = new VariablesChangedSelector(
+				Collections.singleton(OTHER_VARIABLE));
+		item.isEnablementAffectedBy(otherVariable);
+		assertFalse(item.isEnablementAffectedBy(otherVariable));
+
+		EHandlerService handlerService = window.getContext().get(EHandlerService.class);
+		handlerService.activateHandler("testIsEnablementAffectedBy_HandlerChanged", new TestHandler(VARIABLE));
+
+		assertTrue(item.isEnablementAffectedBy(otherVariable));
+		assertFalse(item.isEnablementAffectedBy(otherVariable));
+	}
+}
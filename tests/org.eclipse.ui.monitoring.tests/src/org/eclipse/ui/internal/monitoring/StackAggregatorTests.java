@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Google Inc and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *	   Google Inc - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link StackAggregator} class.
+ */
+public class StackAggregatorTests {
+	private static StackTraceElement[] stack(String... methods) {
+		// The innermost frame comes first, as in Thread.getStackTrace().
+		StackTraceElement[] stackTrace = new StackTraceElement[methods.length];
+		for (int i = 0; i < methods.length; i++) {
+			int lastDot = methods[i].lastIndexOf('.');
+			stackTrace[methods.length - 1 - i] = new StackTraceElement(
+					methods[i].substring(0, lastDot), methods[i].substring(lastDot + 1), null, i);
+		}
+		return stackTrace;
+	}
+
+	private static Set<String> lines(String collapsedStacks) {
+		return new HashSet<String>(Arrays.asList(collapsedStacks.split("\n")));
+	}
+
+	@Test
+	public void testCollapsedStacks() throws Exception {
+		StackAggregator aggregator = new StackAggregator();
+		aggregator.addSample(stack("a.Main.run", "a.Foo.paint", "a.Bar.layout"), 100);
+		aggregator.addSample(stack("a.Main.run", "a.Foo.paint", "a.Bar.layout"), 100);
+		aggregator.addSample(stack("a.Main.run", "a.Foo.paint"), 50);
+		aggregator.addSample(stack("a.Main.run", "a.Baz.save"), 200);
+
+		assertEquals(4, aggregator.getSampleCount());
+		assertEquals(450, aggregator.getTotalWeight());
+		assertEquals(
+				new HashSet<String>(Arrays.asList(
+						"a.Main.run;a.Foo.paint;a.Bar.layout 200",
+						"a.Main.run;a.Foo.paint 50",
+						"a.Main.run;a.Baz.save 200")),
+				lines(aggregator.toCollapsedStacks()));
+	}
+
+	@Test
+	public void testLineNumbersAreIgnored() throws Exception {
+		StackAggregator aggregator = new StackAggregator();
+		aggregator.addSample(new StackTraceElement[] {
+				new StackTraceElement("a.Foo", "paint", "Foo.java", 10) }, 10);
+		aggregator.addSample(new StackTraceElement[] {
+				new StackTraceElement("a.Foo", "paint", "Foo.java", 20) }, 10);
+		assertEquals("a.Foo.paint 20\n", aggregator.toCollapsedStacks());
+	}
+
+	@Test
+	public void testClear() throws Exception {
+		StackAggregator aggregator = new StackAggregator();
+		aggregator.addSample(stack("a.Main.run"), 10);
+		aggregator.clear();
+		assertEquals(0, aggregator.getSampleCount());
+		assertEquals(0, aggregator.getTotalWeight());
+		assertEquals("", aggregator.toCollapsedStacks());
+	}
+}
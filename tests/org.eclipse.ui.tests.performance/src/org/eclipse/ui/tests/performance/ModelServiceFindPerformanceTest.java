@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.performance;
+
+import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.ui.internal.workbench.ModelServiceImpl;
+import org.eclipse.e4.ui.internal.workbench.swt.E4Application;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.ui.MUIElement;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPerspective;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPerspectiveStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartSashContainer;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MWindow;
+import org.eclipse.e4.ui.workbench.modeling.EModelService;
+import org.eclipse.test.performance.Dimension;
+
+/**
+ * Measures the searches of the model service on a model of about 20000
+ * elements, with the index of the application model and with a linear scan
+ * of the model.
+ */
+public class ModelServiceFindPerformanceTest extends BasicPerformanceTest {
+
+	private static final String[] IDS = { "perspective.39", "stack.20.10", "part.10.12", "part.0.0",
+			"missing.view" };
+
+	private IEclipseContext applicationContext;
+
+	/** model service using the index of the application model */
+	private EModelService modelService;
+
+	/** model service searching the whole tree */
+	private EModelService unindexedService;
+
+	private MWindow window;
+
+	public ModelServiceFindPerformanceTest(String testName) {
+		super(testName);
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		applicationContext = E4Application.createDefaultContext();
+		modelService = applicationContext.get(EModelService.class);
+
+		MApplication application = modelService.createModelElement(MApplication.class);
+		application.setContext(applicationContext);
+		applicationContext.set(MApplication.class, application);
+		window = modelService.createModelElement(MWindow.class);
+		application.getChildren().add(window);
+
+		IEclipseContext unindexedContext = applicationContext.createChild();
+		unindexedContext.set(MApplication.class, null);
+		unindexedService = new ModelServiceImpl(unindexedContext);
+
+		createModel();
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		applicationContext.dispose();
+		super.doTearDown();
+	}
+
+	/**
+	 * 40 perspectives of 20 stacks of 24 parts: 20080 elements, the ids of the
+	 * parts are repeated in each perspective.
+	 */
+	private void createModel() {
+		MPerspectiveStack perspectiveStack = modelService.createModelElement(MPerspectiveStack.class);
+		window.getChildren().add(perspectiveStack);
+		for (int p = 0; p < 40; p++) {
+			MPerspective perspective = modelService.createModelElement(MPerspective.class);
+			perspective.setElementId("perspective." + p);
+			perspectiveStack.getChildren().add(perspective);
+			MPartSashContainer sash = modelService.createModelElement(MPartSashContainer.class);
+			perspective.getChildren().add(sash);
+			for (int s = 0; s < 20; s++) {
+				MPartStack stack = modelService.createModelElement(MPartStack.class);
+				stack.setElementId("stack." + p + "." + s);
+				sash.getChildren().add(stack);
+				for (int i = 0; i < 24; i++) {
+					MPart part = modelService.createModelElement(MPart.class);
+					part.setElementId("part." + s + "." + i);
+					stack.getChildren().add(part);
+				}
+			}
+		}
+	}
+
+	public void testFindElementsIndexed() throws Exception {
+		measureFindElements(modelService);
+	}
+
+	public void testFindElementsUnindexed() throws Exception {
+		measureFindElements(unindexedService);
+	}
+
+	private void measureFindElements(final EModelService service) throws Exception {
+		// both services find the same elements, and the index is built
+		for (String id : IDS) {
+			assertEquals(id, unindexedService.findElements(window, id, MUIElement.class, null),
+					modelService.findElements(window, id, MUIElement.class, null));
+		}
+
+		tagIfNecessary(getName(), Dimension.ELAPSED_PROCESS);
+		exercise(new TestRunnable() {
+			@Override
+			public void run() throws Exception {
+				startMeasuring();
+				for (int i = 0; i < 20; i++) {
+					for (String id : IDS) {
+						service.findElements(window, id, MUIElement.class, null);
+					}
+				}
+				stopMeasuring();
+			}
+		});
+		commitMeasurements();
+		assertPerformance();
+	}
+}
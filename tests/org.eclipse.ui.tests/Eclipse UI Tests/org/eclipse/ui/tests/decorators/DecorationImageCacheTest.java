@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.decorators;
+
+import org.eclipse.jface.resource.ImageDescriptor;
+import org.eclipse.jface.resource.JFaceResources;
+import org.eclipse.jface.resource.LocalResourceManager;
+import org.eclipse.jface.viewers.IDecoration;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.internal.decorators.DecorationImageCache;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the reference counting of the images composed by the
+ * {@link DecorationImageCache}.
+ */
+public class DecorationImageCacheTest extends TestCase {
+
+	private Display display;
+
+	private Image base;
+
+	private ImageDescriptor[] overlays;
+
+	private DecorationImageCache cache;
+
+	private LocalResourceManager manager1;
+
+	private LocalResourceManager manager2;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		display = Display.getDefault();
+		base = new Image(display, 16, 16);
+		overlays = new ImageDescriptor[6];
+		overlays[IDecoration.BOTTOM_RIGHT] = ImageDescriptor
+				.createFromImageData(new ImageData(7, 8, 24, new PaletteData(0xff, 0xff00, 0xff0000)));
+		cache = new DecorationImageCache();
+		manager1 = new LocalResourceManager(JFaceResources.getResources(display));
+		manager2 = new LocalResourceManager(JFaceResources.getResources(display));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		manager1.dispose();
+		manager2.dispose();
+		base.dispose();
+		super.tearDown();
+	}
+
+	private ImageDescriptor getDescriptor() {
+		return cache.getDescriptor(base, overlays.clone(), new Point(16, 16));
+	}
+
+	public void testImageSharedByResourceManagers() {
+		Image image1 = manager1.createImage(getDescriptor());
+		Image image2 = manager2.createImage(getDescriptor());
+
+		assertSame(image1, image2);
+		assertEquals(1, cache.size());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(1, cache.getHitCount());
+	}
+
+	public void testImageDisposedOnLastRelease() {
+		ImageDescriptor descriptor = getDescriptor();
+		Image image = manager1.createImage(descriptor);
+		manager2.createImage(getDescriptor());
+
+		manager1.destroyImage(descriptor);
+		assertFalse(image.isDisposed());
+		assertEquals(1, cache.size());
+
+		manager2.destroyImage(getDescriptor());
+		assertTrue(image.isDisposed());
+		assertEquals(0, cache.size());
+	}
+
+	public void testImageComposedAgainAfterRelease() {
+		ImageDescriptor descriptor = getDescriptor();
+		Image image1 = manager1.createImage(descriptor);
+		manager1.destroyImage(descriptor);
+
+		Image image2 = manager1.createImage(descriptor);
+		assertNotSame(image1, image2);
+		assertFalse(image2.isDisposed());
+		assertEquals(2, cache.getMissCount());
+		assertEquals(0, cache.getHitCount());
+	}
+
+	public void testLookupsAreNotCountedAsHits() {
+		ImageDescriptor descriptor = getDescriptor();
+		manager1.createImage(descriptor);
+
+		// the resource manager reuses its own image without composing it
+		manager1.createImage(getDescriptor());
+		getDescriptor();
+
+		assertEquals(1, cache.getMissCount());
+		assertEquals(0, cache.getHitCount());
+	}
+}
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.decorators;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.eclipse.jface.resource.ImageDescriptor;
+import org.eclipse.jface.viewers.DecorationContext;
+import org.eclipse.jface.viewers.IDecorationContext;
+import org.eclipse.ui.internal.decorators.DecorationResult;
+import org.eclipse.ui.internal.decorators.DecorationResultCache;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the eviction, the weight accounting and the interning of the
+ * {@link DecorationResultCache}.
+ */
+public class DecorationResultCacheTest extends TestCase {
+
+	private static final IDecorationContext CONTEXT = DecorationContext.DEFAULT_CONTEXT;
+
+	private static DecorationResult createResult(String suffix) {
+		return new DecorationResult(new ArrayList(), new ArrayList(Arrays.asList(suffix)), new ImageDescriptor[6],
+				null, null, null);
+	}
+
+	public void testEvictsLeastRecentlyUsed() {
+		DecorationResultCache cache = new DecorationResultCache(2, Long.MAX_VALUE);
+		cache.put("a", CONTEXT, createResult(" [a]"));
+		cache.put("b", CONTEXT, createResult(" [b]"));
+		// make b the least recently used
+		assertNotNull(cache.get("a", CONTEXT));
+
+		cache.put("c", CONTEXT, createResult(" [c]"));
+
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getEvictionCount());
+		assertNull(cache.get("b", CONTEXT));
+		assertNotNull(cache.get("a", CONTEXT));
+		assertNotNull(cache.get("c", CONTEXT));
+	}
+
+	public void testPinnedResultIsNotEvicted() {
+		DecorationResultCache cache = new DecorationResultCache(2, Long.MAX_VALUE);
+		cache.put("a", CONTEXT, createResult(" [a]"));
+		cache.pin("a");
+		cache.put("b", CONTEXT, createResult(" [b]"));
+		cache.put("c", CONTEXT, createResult(" [c]"));
+
+		assertNotNull(cache.get("a", CONTEXT));
+		assertNull(cache.get("b", CONTEXT));
+
+		cache.unpin("a");
+		cache.put("d", CONTEXT, createResult(" [d]"));
+		assertNull(cache.get("a", CONTEXT));
+	}
+
+	public void testEvictsOnWeight() {
+		DecorationResult result = createResult(" [a]");
+		DecorationResultCache unbounded = new DecorationResultCache(100, Long.MAX_VALUE);
+		unbounded.put("a", CONTEXT, result);
+		long entryWeight = unbounded.getWeight();
+
+		DecorationResultCache cache = new DecorationResultCache(100, 2 * entryWeight);
+		cache.put("a", CONTEXT, createResult(" [a]"));
+		cache.put("b", CONTEXT, createResult(" [a]"));
+		assertEquals(2, cache.size());
+		cache.put("c", CONTEXT, createResult(" [a]"));
+		assertEquals(2, cache.size());
+		assertEquals(2 * entryWeight, cache.getWeight());
+	}
+
+	public void testWeightAccounting() {
+		DecorationResult small = createResult("s");
+		DecorationResult large = createResult("a much longer suffix");
+		DecorationResultCache cache = new DecorationResultCache(100, Long.MAX_VALUE);
+
+		cache.put("a", CONTEXT, small);
+		long entryWeight = cache.getWeight();
+		assertTrue(entryWeight > small.getWeight());
+
+		// interned results are counted for each element
+		cache.put("b", CONTEXT, small);
+		assertEquals(2 * entryWeight, cache.getWeight());
+
+		// replacing a result only counts the new one
+		cache.put("b", CONTEXT, large);
+		assertEquals(2 * entryWeight + large.getWeight() - small.getWeight(), cache.getWeight());
+
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getWeight());
+	}
+
+	public void testEqualResultsAreInterned() {
+		DecorationResultCache cache = new DecorationResultCache(100, Long.MAX_VALUE);
+		DecorationResult result1 = createResult(" [shared]");
+		DecorationResult result2 = createResult(" [shared]");
+		assertNotSame(result1, result2);
+
+		cache.put("a", CONTEXT, result1);
+		cache.put("b", CONTEXT, result2);
+
+		assertSame(cache.get("a", CONTEXT), cache.get("b", CONTEXT));
+		assertEquals(" [shared]", cache.get("b", CONTEXT).decorateWithText(""));
+	}
+}
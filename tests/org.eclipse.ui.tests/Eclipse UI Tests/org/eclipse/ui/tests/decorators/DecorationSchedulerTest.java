@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.decorators;
+
+import org.eclipse.jface.viewers.DecorationContext;
+import org.eclipse.jface.viewers.IPrioritizedLabelDecorator;
+import org.eclipse.ui.internal.WorkbenchPlugin;
+import org.eclipse.ui.internal.decorators.DecorationScheduler;
+import org.eclipse.ui.tests.harness.util.UITestCase;
+
+/**
+ * Tests the queue of the {@link DecorationScheduler}. The scheduler has no
+ * decoration job, the tests take the queued elements themselves.
+ */
+public class DecorationSchedulerTest extends UITestCase {
+
+	private static class TestScheduler extends DecorationScheduler {
+
+		TestScheduler() {
+			super(WorkbenchPlugin.getDefault().getDecoratorManager(), 0);
+		}
+
+		boolean isUpdateRequested() {
+			return updatesPending();
+		}
+	}
+
+	private TestScheduler scheduler;
+
+	public DecorationSchedulerTest(String testName) {
+		super(testName);
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		scheduler = new TestScheduler();
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		// cancels the pending label updates
+		scheduler.shutdown();
+		super.doTearDown();
+	}
+
+	/** the context of the requests of a viewer which tells its visible elements */
+	private static final DecorationContext TRACKED_CONTEXT = new DecorationContext();
+
+	static {
+		TRACKED_CONTEXT.putProperty(IPrioritizedLabelDecorator.VIEWPORT_TRACKED, DecorationContext.DEFAULT_CONTEXT);
+	}
+
+	private void queue(Object element) {
+		scheduler.queueForDecoration(element, null, false, null, TRACKED_CONTEXT);
+	}
+
+	public void testUntrackedRequestIsKept() {
+		Object element = "element";
+		queue(element);
+		// a viewer which doesn't tell its visible elements waits for it too
+		scheduler.queueForDecoration(element, null, false, null, DecorationContext.DEFAULT_CONTEXT);
+		scheduler.prioritize(new Object[] { element });
+
+		assertEquals(0, scheduler.cancel(new Object[] { element }).length);
+		assertEquals(1, scheduler.nextElements(1).size());
+	}
+
+	public void testCancelDropsQueuedElement() {
+		Object element = "element";
+		queue(element);
+
+		assertEquals(1, scheduler.cancel(new Object[] { element }).length);
+		assertEquals(0, scheduler.cancel(new Object[] { element }).length);
+	}
+
+	public void testElementShownByTwoViewers() {
+		Object element = "element";
+		queue(element);
+
+		// both viewers show the element
+		scheduler.prioritize(new Object[] { element });
+		scheduler.prioritize(new Object[] { element });
+
+		// the first viewer scrolls it out of view or is disposed
+		assertEquals(0, scheduler.cancel(new Object[] { element }).length);
+
+		// the second viewer still waits for the decoration
+		Object[] cancelled = scheduler.cancel(new Object[] { element });
+		assertEquals(1, cancelled.length);
+		assertSame(element, cancelled[0]);
+	}
+
+	public void testElementShownAgainAfterCancel() {
+		Object element = "element";
+		queue(element);
+		scheduler.prioritize(new Object[] { element });
+		assertEquals(1, scheduler.cancel(new Object[] { element }).length);
+
+		// the viewer requests the decoration again when the element is shown
+		queue(element);
+		scheduler.prioritize(new Object[] { element });
+		scheduler.prioritize(new Object[] { element });
+		assertEquals(0, scheduler.cancel(new Object[] { element }).length);
+		assertEquals(1, scheduler.cancel(new Object[] { element }).length);
+	}
+
+	public void testDecorationJobCount() {
+		assertEquals(1, DecorationScheduler.getDecorationJobCount(0, true));
+		assertEquals(1, DecorationScheduler.getDecorationJobCount(DecorationScheduler.ELEMENTS_PER_JOB - 1, true));
+		assertEquals(Math.min(2, DecorationScheduler.MAX_DECORATION_JOBS),
+				DecorationScheduler.getDecorationJobCount(DecorationScheduler.ELEMENTS_PER_JOB, true));
+		assertEquals(DecorationScheduler.MAX_DECORATION_JOBS,
+				DecorationScheduler.getDecorationJobCount(100 * DecorationScheduler.ELEMENTS_PER_JOB, true));
+
+		// decorators which are not thread safe get a single job
+		assertEquals(1,
+				DecorationScheduler.getDecorationJobCount(100 * DecorationScheduler.ELEMENTS_PER_JOB, false));
+	}
+
+	public void testNextElements() {
+		for (int i = 0; i < 3; i++) {
+			queue("element" + i);
+		}
+
+		assertEquals(2, scheduler.nextElements(2).size());
+		assertEquals(1, scheduler.nextElements(2).size());
+		assertTrue(scheduler.nextElements(2).isEmpty());
+	}
+
+	public void testIsIdle() {
+		assertTrue(scheduler.isIdle());
+		queue("element1");
+		queue("element2");
+		assertFalse(scheduler.isIdle());
+
+		assertEquals(2, scheduler.nextElements(2).size());
+		// the elements are being decorated
+		assertFalse(scheduler.isIdle());
+
+		scheduler.referenceDecorated();
+		assertFalse(scheduler.isIdle());
+		scheduler.referenceDecorated();
+		assertTrue(scheduler.isIdle());
+	}
+
+	public void testLabelsUpdatedOnceIdle() {
+		queue("element1");
+		queue("element2");
+		scheduler.nextElements(2);
+
+		scheduler.referenceDecorated();
+		assertFalse(scheduler.isUpdateRequested());
+		scheduler.referenceDecorated();
+		assertTrue(scheduler.isUpdateRequested());
+	}
+
+	public void testLabelsUpdatedInBatches() {
+		int count = DecorationScheduler.UPDATE_BATCH_SIZE + 10;
+		for (int i = 0; i < count; i++) {
+			queue("element" + i);
+		}
+
+		for (int i = 1; i < DecorationScheduler.UPDATE_BATCH_SIZE; i++) {
+			assertEquals(1, scheduler.nextElements(1).size());
+			scheduler.referenceDecorated();
+		}
+		assertFalse(scheduler.isUpdateRequested());
+
+		// the queue is not exhausted, but enough elements have been decorated
+		assertEquals(1, scheduler.nextElements(1).size());
+		scheduler.referenceDecorated();
+		assertTrue(scheduler.isUpdateRequested());
+		assertFalse(scheduler.isIdle());
+	}
+}
@@ -32,6 +32,7 @@ public class DecoratorAdaptableTests extends UITestCase {
 		ts.addTest(new DecoratorAdaptableTests("testAdaptables"));
 		ts.addTest(new DecoratorAdaptableTests("testNonAdaptableContributions"));
 		ts.addTest(new DecoratorAdaptableTests("testContributorResourceAdapter"));
+		ts.addTest(new DecoratorAdaptableTests("testDecorateTogether"));
 		return ts;
 	}
 
@@ -180,4 +181,21 @@ public class DecoratorAdaptableTests extends UITestCase {
                 true
             );
     }
+
+	/**
+	 * Test that elements decorated together get the same decorations as when
+	 * they are decorated one at a time.
+	 */
+	public final void testDecorateTogether() {
+		Object[] elements = new Object[] { new ObjectContributionClasses.A(), new ObjectContributionClasses.D(),
+				new ObjectContributionClasses.Common(), new Object(), new ObjectContributionClasses.A(),
+				new ObjectContributionClasses.C() };
+		LightweightDecoratorManager ldm = getDecoratorManager().getLightweightManager();
+		DecorationResult[] results = ldm.getDecorationResults(elements);
+		assertEquals(elements.length, results.length);
+		for (int i = 0; i < elements.length; i++) {
+			assertEquals("Decoration of element " + i, getDecorationTextFor(elements[i]),
+					results[i].decorateWithText("Default label"));
+		}
+	}
 }
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.tests.progress;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerComparator;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Text;
+import org.eclipse.ui.internal.progress.DetailedProgressViewer;
+import org.eclipse.ui.internal.progress.JobInfo;
+import org.eclipse.ui.internal.progress.ProgressInfoItem;
+import org.eclipse.ui.internal.progress.ProgressMessages;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the order of the items of the {@link DetailedProgressViewer} and the
+ * cap on their number.
+ */
+public class DetailedProgressViewerTest {
+
+	private static final int MAX_DISPLAYED = 20;
+
+	private Shell shell;
+	private DetailedProgressViewer viewer;
+	private List<JobInfo> infos = new ArrayList<>();
+
+	@Before
+	public void setUp() {
+		shell = new Shell(Display.getDefault());
+		viewer = new DetailedProgressViewer(shell, SWT.NONE);
+		// sort by priority, then by name
+		viewer.setComparator(new ViewerComparator() {
+			@Override
+			public int compare(Viewer testViewer, Object e1, Object e2) {
+				Job job1 = ((JobInfo) e1).getJob();
+				Job job2 = ((JobInfo) e2).getJob();
+				if (job1.getPriority() != job2.getPriority()) {
+					return job1.getPriority() - job2.getPriority();
+				}
+				return job1.getName().compareTo(job2.getName());
+			}
+		});
+	}
+
+	@After
+	public void tearDown() {
+		shell.dispose();
+	}
+
+	private void addJobInfos(int count) {
+		for (int i = 0; i < count; i++) {
+			TestJob job = new TestJob(String.format("Job%02d", Integer.valueOf(i)));
+			job.setPriority(Job.LONG);
+			infos.add(new ExtendedJobInfo(job));
+		}
+		// add them in reverse order, one at a time
+		for (int i = count - 1; i >= 0; i--) {
+			viewer.add(new Object[] { infos.get(i) });
+		}
+	}
+
+	private void assertItems(JobInfo... expected) {
+		ProgressInfoItem[] items = viewer.getProgressInfoItems();
+		assertEquals(expected.length, items.length);
+		for (int i = 0; i < expected.length; i++) {
+			assertSame("item " + i, expected[i], items[i].getData());
+		}
+	}
+
+	private Text getMoreLabel() {
+		ProgressInfoItem[] items = viewer.getProgressInfoItems();
+		for (Control child : items[0].getParent().getChildren()) {
+			if (child instanceof Text) {
+				return (Text) child;
+			}
+		}
+		return null;
+	}
+
+	@Test
+	public void testAddInOrder() {
+		addJobInfos(3);
+		assertItems(infos.get(0), infos.get(1), infos.get(2));
+	}
+
+	@Test
+	public void testAddSeveralInOrder() {
+		addJobInfos(2);
+		List<JobInfo> added = new ArrayList<>();
+		for (String name : new String[] { "Job01b", "Job00b", "Job02" }) {
+			TestJob job = new TestJob(name);
+			job.setPriority(Job.LONG);
+			added.add(new ExtendedJobInfo(job));
+		}
+		viewer.add(added.toArray());
+		// an element added twice is only shown once
+		viewer.add(new Object[] { infos.get(0) });
+
+		assertItems(infos.get(0), added.get(1), infos.get(1), added.get(0), added.get(2));
+	}
+
+	@Test
+	public void testUpdateResorts() {
+		addJobInfos(3);
+
+		infos.get(2).getJob().setPriority(Job.INTERACTIVE);
+		viewer.update(infos.get(2), null);
+		assertItems(infos.get(2), infos.get(0), infos.get(1));
+
+		infos.get(2).getJob().setPriority(Job.DECORATE);
+		viewer.refresh(infos.get(2));
+		assertItems(infos.get(0), infos.get(1), infos.get(2));
+	}
+
+	@Test
+	public void testMoreLabel() {
+		addJobInfos(MAX_DISPLAYED + 5);
+		assertItems(infos.subList(0, MAX_DISPLAYED).toArray(new JobInfo[MAX_DISPLAYED]));
+		assertEquals(NLS.bind(ProgressMessages.ProgressView_MoreOperations, Integer.valueOf(5)),
+				getMoreLabel().getText());
+
+		// an element without an item gets one when it is sorted first
+		JobInfo last = infos.get(MAX_DISPLAYED + 4);
+		last.getJob().setPriority(Job.INTERACTIVE);
+		viewer.refresh(last);
+		assertSame(last, viewer.getProgressInfoItems()[0].getData());
+		assertEquals(MAX_DISPLAYED, viewer.getProgressInfoItems().length);
+
+		viewer.remove(infos.subList(0, 10).toArray());
+		assertEquals(MAX_DISPLAYED - 5, viewer.getProgressInfoItems().length);
+		assertNull(getMoreLabel());
+	}
+}
@@ -28,8 +28,10 @@ import org.junit.runners.Suite;
 	ProgressViewTests.class,
 	JobInfoTest.class,
 	JobInfoTestOrdering.class,
+	DetailedProgressViewerTest.class,
 	ProgressAnimationItemTest.class,
-	AccumulatingProgressMonitorTest.class
+	AccumulatingProgressMonitorTest.class,
+	LatencyHistogramTest.class
 })
 public class ProgressTestSuite {
 
@@ -29,6 +29,7 @@ import org.eclipse.core.internal.expressions.WithExpression;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IExtensionRegistry;
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.e4.ui.services.IServiceConstants;
 import org.eclipse.jface.text.TextSelection;
 import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.jface.util.PropertyChangeEvent;
@@ -50,6 +51,7 @@ import org.eclipse.ui.handlers.IHandlerActivation;
 import org.eclipse.ui.handlers.IHandlerService;
 import org.eclipse.ui.internal.WorkbenchWindow;
 import org.eclipse.ui.internal.handlers.HandlerPersistence;
+import org.eclipse.ui.internal.services.EvaluationService;
 import org.eclipse.ui.services.IEvaluationReference;
 import org.eclipse.ui.services.IEvaluationService;
 import org.eclipse.ui.services.ISourceProviderService;
@@ -533,6 +535,67 @@ public class EvaluationServiceTest extends UITestCase {
 		assertEquals(2, listener.count);
 	}
 
+	public void testPropertyChangeReachesOnlyReaders() throws Exception {
+		IWorkbenchWindow window = openTestWindow();
+		IEvaluationService service = window
+				.getService(IEvaluationService.class);
+		assertNotNull(service);
+		MyEval listener = new MyEval();
+		IConfigurationElement element = null;
+		IConfigurationElement[] elements = Platform.getExtensionRegistry()
+				.getConfigurationElementsFor("org.eclipse.core.expressions.definitions");
+		for (int i = 0; i < elements.length && element == null; i++) {
+			if (elements[i].getAttribute("id").equals(
+					"org.eclipse.ui.tests.defWithPropertyTester")) {
+				element = elements[i];
+			}
+		}
+
+		assertNotNull(element);
+		Expression expr = ExpressionConverter.getDefault().perform(element.getChildren()[0]);
+		StaticVarPropertyTester.result = false;
+		try {
+			IEvaluationReference ref = service.addEvaluationListener(expr,
+					listener, IEvaluationService.RESULT);
+			assertFalse(listener.currentValue);
+			assertEquals(1, listener.count);
+
+			// the expression doesn't read this property
+			StaticVarPropertyTester.result = true;
+			service.requestEvaluation("org.eclipse.ui.tests.class.otherMethod");
+			assertFalse(listener.currentValue);
+			assertEquals(1, listener.count);
+
+			service.requestEvaluation("org.eclipse.ui.tests.class.method");
+			assertTrue(listener.currentValue);
+			assertEquals(2, listener.count);
+
+			// removed references are not evaluated anymore
+			service.removeEvaluationListener(ref);
+			int count = listener.count;
+			StaticVarPropertyTester.result = false;
+			service.requestEvaluation("org.eclipse.ui.tests.class.method");
+			assertEquals(count, listener.count);
+		} finally {
+			StaticVarPropertyTester.result = false;
+		}
+	}
+
+	public void testE4VariableNames() throws Exception {
+		// the legacy variables are reported with the name of the e4 variable
+		// they are derived from, which the tool bar renderer tracks
+		assertEquals(IServiceConstants.ACTIVE_PART, EvaluationService.getE4VariableName(ISources.ACTIVE_PART_NAME));
+		assertEquals(IServiceConstants.ACTIVE_PART,
+				EvaluationService.getE4VariableName(ISources.ACTIVE_EDITOR_NAME));
+		assertEquals(IServiceConstants.ACTIVE_SELECTION,
+				EvaluationService.getE4VariableName(ISources.ACTIVE_CURRENT_SELECTION_NAME));
+		assertEquals(IServiceConstants.ACTIVE_CONTEXTS,
+				EvaluationService.getE4VariableName(ISources.ACTIVE_CONTEXT_NAME));
+		assertEquals(IServiceConstants.ACTIVE_PART, EvaluationService.getE4VariableName(IServiceConstants.ACTIVE_PART));
+		assertEquals(ISources.ACTIVE_WORKBENCH_WINDOW_NAME,
+				EvaluationService.getE4VariableName(ISources.ACTIVE_WORKBENCH_WINDOW_NAME));
+	}
+
 	public void testPlatformProperty() throws Exception {
 		IEvaluationService evaluationService = PlatformUI
 				.getWorkbench().getService(IEvaluationService.class);